@@ -0,0 +1,21 @@
+package com.coda.core.batch;
+
+/**
+ * BatchCheckpoint is told about each batch once it has been handled.
+ * <p>It receives the position the source reached with the batch, so a
+ * job stopped after it can resume after the last handled batch instead
+ * of from the start.
+ * </p>
+ */
+@FunctionalInterface
+public interface BatchCheckpoint {
+
+    /**
+     * Records a handled batch.
+     * @param lastKey the key of the last row of the batch, null when
+     *                the source is not read in key order.
+     * @param rows the number of rows of the batch.
+     * @throws Exception if the checkpoint cannot be saved.
+     */
+    void commit(Object lastKey, int rows) throws Exception;
+}
@@ -0,0 +1,23 @@
+package com.coda.core.batch;
+
+import com.coda.core.entities.DataModel;
+
+import java.util.List;
+
+/**
+ * DataModelBatchHandler receives the batches of a streamed extraction.
+ * <p>Each batch is handed over as soon as it has been read and processed,
+ * so the caller never has to hold the whole data set in memory.
+ * </p>
+ * @param <T> the type of the data model values.
+ */
+@FunctionalInterface
+public interface DataModelBatchHandler<T> {
+
+    /**
+     * Handles one batch of data models.
+     * @param batch the batch of data models.
+     * @throws Exception if the batch cannot be handled.
+     */
+    void handle(List<DataModel<T>> batch) throws Exception;
+}
@@ -0,0 +1,120 @@
+package com.coda.core.batch;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>EtlProgress counts the rows an ETL run has read, transformed and
+ * loaded so far, and carries the request to cancel it.
+ * </p>
+ * <p>The counters are updated by the threads running the stages and
+ * can be read at any time from another thread. Cancellation is checked
+ * between batches: the batches already read are still transformed and
+ * loaded, no further page is read, and the run returns normally.
+ * </p>
+ */
+public final class EtlProgress {
+
+    /**
+     * The number of rows read from the source.
+     */
+    private final AtomicLong rowsRead = new AtomicLong();
+
+    /**
+     * The number of rows transformed.
+     */
+    private final AtomicLong rowsTransformed = new AtomicLong();
+
+    /**
+     * The number of rows loaded to the target.
+     */
+    private final AtomicLong rowsLoaded = new AtomicLong();
+
+    /**
+     * The estimated number of rows to load, negative when unknown.
+     */
+    private volatile long totalRows = -1;
+
+    /**
+     * Whether the run has been asked to stop.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Counts rows read from the source.
+     * @param rows the number of rows.
+     */
+    public void addRead(final long rows) {
+        rowsRead.addAndGet(rows);
+    }
+
+    /**
+     * Counts transformed rows.
+     * @param rows the number of rows.
+     */
+    public void addTransformed(final long rows) {
+        rowsTransformed.addAndGet(rows);
+    }
+
+    /**
+     * Counts rows loaded to the target.
+     * @param rows the number of rows.
+     */
+    public void addLoaded(final long rows) {
+        rowsLoaded.addAndGet(rows);
+    }
+
+    /**
+     * Returns the number of rows read from the source.
+     * @return the number of rows.
+     */
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    /**
+     * Returns the number of rows transformed.
+     * @return the number of rows.
+     */
+    public long getRowsTransformed() {
+        return rowsTransformed.get();
+    }
+
+    /**
+     * Returns the number of rows loaded to the target.
+     * @return the number of rows.
+     */
+    public long getRowsLoaded() {
+        return rowsLoaded.get();
+    }
+
+    /**
+     * Returns the estimated number of rows to load.
+     * @return the number of rows, negative when unknown.
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * Sets the estimated number of rows to load.
+     * @param rows the number of rows, negative when unknown.
+     */
+    public void setTotalRows(final long rows) {
+        this.totalRows = rows;
+    }
+
+    /**
+     * Asks the run to stop after the batches already read.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Checks whether the run has been asked to stop.
+     * @return true once {@link #cancel()} has been called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
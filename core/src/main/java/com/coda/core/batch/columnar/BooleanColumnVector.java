@@ -0,0 +1,88 @@
+package com.coda.core.batch.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A column vector of boolean values stored in a bitmap.
+ */
+public final class BooleanColumnVector extends ColumnVector {
+
+    /**
+     * The values of the column, one bit per row.
+     */
+    private long[] values;
+
+    /**
+     * Constructor for BooleanColumnVector.
+     * @param capacity the initial capacity.
+     */
+    public BooleanColumnVector(final int capacity) {
+        super(capacity);
+        this.values = new long[(Math.max(capacity, 1) + Long.SIZE - 1) >>> 6];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.BOOLEAN;
+    }
+
+    /**
+     * Returns the value of a row, false for null rows.
+     * @param row the row index.
+     * @return the value.
+     */
+    public boolean getBoolean(final int row) {
+        return (values[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Sets the value of a row.
+     * @param row the row index.
+     * @param value the value.
+     */
+    public void setBoolean(final int row, final boolean value) {
+        checkRow(row);
+        write(row, value);
+        markNotNull(row);
+    }
+
+    /**
+     * Appends a value.
+     * @param value the value.
+     */
+    public void appendBoolean(final boolean value) {
+        write(nextRow(), value);
+    }
+
+    @Override
+    public Object getObject(final int row) {
+        return isNull(row) ? null : getBoolean(row);
+    }
+
+    @Override
+    public void setObject(final int row, final Object value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            setBoolean(row, (Boolean) value);
+        }
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length * Long.SIZE;
+    }
+
+    @Override
+    protected void grow(final int newCapacity) {
+        values = Arrays.copyOf(values, (newCapacity + Long.SIZE - 1) >>> 6);
+    }
+
+    private void write(final int row, final boolean value) {
+        if (value) {
+            values[row >>> 6] |= 1L << row;
+        } else {
+            values[row >>> 6] &= ~(1L << row);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.coda.core.batch.columnar;
+
+import com.coda.core.entities.DataAttributes;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * ColumnSchema holds the metadata of one column of a {@link ColumnarBatch}.
+ * <p>The row format repeats the type, format, default value and
+ * validation rules in every cell. Here they are kept once per column.
+ * </p>
+ */
+@Getter
+public final class ColumnSchema {
+
+    /**
+     * The name of the column.
+     */
+    private final String name;
+
+    /**
+     * The physical type of the column.
+     */
+    private final ColumnType columnType;
+
+    /**
+     * The declared attribute type, i.e. "java.lang.Integer".
+     */
+    private final String typeName;
+
+    /**
+     * The format of the column, or null.
+     */
+    private final String format;
+
+    /**
+     * Whether the column is required.
+     */
+    private final boolean required;
+
+    /**
+     * The default value of the column, or null.
+     */
+    private final Object defaultValue;
+
+    /**
+     * The parsed validation rules, i.e. "non-negative".
+     */
+    private final Set<String> rules;
+
+    /**
+     * Constructor for ColumnSchema.
+     * @param columnName the name of the column.
+     * @param type the physical type of the column.
+     * @param declaredType the declared attribute type.
+     * @param columnFormat the format of the column.
+     * @param isRequired whether the column is required.
+     * @param defaultVal the default value of the column.
+     * @param validationRules the validation rules separated by '|', or null.
+     */
+    public ColumnSchema(final String columnName, final ColumnType type,
+                        final String declaredType, final String columnFormat,
+                        final boolean isRequired, final Object defaultVal,
+                        final String validationRules) {
+        this.name = columnName;
+        this.columnType = type;
+        this.typeName = declaredType != null ? declaredType : type.javaTypeName();
+        this.format = columnFormat;
+        this.required = isRequired;
+        this.defaultValue = defaultVal;
+        this.rules = parseRules(validationRules);
+    }
+
+    /**
+     * Creates the schema of a column from one of its attributes.
+     * @param attribute an attribute of the column.
+     * @param type the physical type of the column.
+     * @return the column schema.
+     */
+    public static ColumnSchema of(final DataAttributes<?> attribute,
+                                  final ColumnType type) {
+        return new ColumnSchema(attribute.getAttributeName(), type,
+                attribute.getType(), attribute.getFormat(),
+                attribute.isRequired(), attribute.getDefaultValue(),
+                attribute.getValidationRules());
+    }
+
+    /**
+     * Returns a copy of this schema with another physical type.
+     * @param type the new physical type.
+     * @return the column schema.
+     */
+    public ColumnSchema withColumnType(final ColumnType type) {
+        return new ColumnSchema(name, type, typeName, format, required,
+                defaultValue, rules.isEmpty() ? null : String.join("|", rules));
+    }
+
+    private static Set<String> parseRules(final String validationRules) {
+        if (validationRules == null || validationRules.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        Arrays.stream(validationRules.split("\\|"))
+                .map(String::trim).forEach(parsed::add);
+        return Collections.unmodifiableSet(parsed);
+    }
+}
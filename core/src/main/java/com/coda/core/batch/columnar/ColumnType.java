@@ -0,0 +1,129 @@
+package com.coda.core.batch.columnar;
+
+import java.sql.Types;
+
+/**
+ * The physical type of a column in a {@link ColumnarBatch}.
+ * <p>The type decides which {@link ColumnVector}
+ * implementation stores the values of the column.
+ * </p>
+ */
+public enum ColumnType {
+
+    /**
+     * Integer values stored in an int[].
+     */
+    INT,
+
+    /**
+     * Long values stored in a long[].
+     */
+    LONG,
+
+    /**
+     * Floating point values stored in a double[].
+     */
+    DOUBLE,
+
+    /**
+     * Boolean values stored in a bitmap.
+     */
+    BOOLEAN,
+
+    /**
+     * String values stored as dictionary codes.
+     */
+    STRING,
+
+    /**
+     * Any other value, i.e. BigDecimal or timestamps, kept as objects.
+     */
+    OBJECT;
+
+    /**
+     * Checks whether the column holds primitive numbers.
+     * @return true for INT, LONG and DOUBLE columns.
+     */
+    public boolean isNumeric() {
+        return this == INT || this == LONG || this == DOUBLE;
+    }
+
+    /**
+     * Resolves the column type of a declared attribute type.
+     * @param typeName the attribute type, i.e. "java.lang.Integer".
+     * @return the column type, or null if the declared type is
+     * generic ("Object", "Document") and must be inferred from the values.
+     */
+    public static ColumnType fromTypeName(final String typeName) {
+        if (typeName == null) {
+            return null;
+        }
+        return switch (typeName) {
+            case "java.lang.Integer", "Integer", "java.lang.Short",
+                 "java.lang.Byte", "INT" -> INT;
+            case "java.lang.Long", "Long", "BIGINT" -> LONG;
+            case "java.lang.Double", "Double", "java.lang.Float",
+                 "Float", "DOUBLE" -> DOUBLE;
+            case "java.lang.Boolean", "Boolean", "BOOLEAN" -> BOOLEAN;
+            case "java.lang.String", "String", "VARCHAR", "TEXT" -> STRING;
+            case "java.lang.Object", "Object", "Document" -> null;
+            default -> OBJECT;
+        };
+    }
+
+    /**
+     * Resolves the column type of a single value.
+     * @param value the value, not null.
+     * @return the column type able to hold the value.
+     */
+    public static ColumnType fromValue(final Object value) {
+        if (value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return INT;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Double || value instanceof Float) {
+            return DOUBLE;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof String) {
+            return STRING;
+        }
+        return OBJECT;
+    }
+
+    /**
+     * Resolves the column type of a JDBC column.
+     * @param sqlType the {@link Types} constant of the column.
+     * @param signed whether the column is signed.
+     * @return the column type able to hold the values.
+     */
+    public static ColumnType fromSqlType(final int sqlType,
+                                         final boolean signed) {
+        return switch (sqlType) {
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT ->
+                    signed ? INT : LONG;
+            case Types.BIGINT -> signed ? LONG : OBJECT;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> DOUBLE;
+            case Types.BIT, Types.BOOLEAN -> BOOLEAN;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+                 Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> STRING;
+            default -> OBJECT;
+        };
+    }
+
+    /**
+     * Returns the attribute type name used for values of this column type.
+     * @return the fully qualified class name.
+     */
+    public String javaTypeName() {
+        return switch (this) {
+            case INT -> Integer.class.getName();
+            case LONG -> Long.class.getName();
+            case DOUBLE -> Double.class.getName();
+            case BOOLEAN -> Boolean.class.getName();
+            case STRING -> String.class.getName();
+            case OBJECT -> Object.class.getName();
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package com.coda.core.batch.columnar;
+
+import java.util.Arrays;
+
+/**
+ * ColumnVector holds the values of one column of a batch.
+ * <p>Values are stored in a primitive array chosen by the
+ * subclass, and nulls in a separate bitmap, so a cell costs
+ * a few bytes instead of a full DataAttributes object.
+ * </p>
+ * <p>Vectors grow while rows are appended and are not thread safe.
+ * </p>
+ */
+public abstract class ColumnVector {
+
+    /**
+     * The initial capacity of a vector built row by row.
+     */
+    static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The null bitmap, one bit per row.
+     */
+    private long[] nulls;
+
+    /**
+     * The number of rows in the vector.
+     */
+    private int size;
+
+    /**
+     * Constructor for ColumnVector.
+     * @param capacity the initial capacity.
+     */
+    protected ColumnVector(final int capacity) {
+        this.nulls = new long[bitmapLength(Math.max(capacity, 1))];
+    }
+
+    /**
+     * Creates an empty vector for a column type.
+     * @param type the type of the column.
+     * @param capacity the initial capacity.
+     * @return the vector.
+     */
+    public static ColumnVector create(final ColumnType type,
+                                      final int capacity) {
+        return switch (type) {
+            case INT -> new IntColumnVector(capacity);
+            case LONG -> new LongColumnVector(capacity);
+            case DOUBLE -> new DoubleColumnVector(capacity);
+            case BOOLEAN -> new BooleanColumnVector(capacity);
+            case STRING -> new StringColumnVector(capacity);
+            case OBJECT -> new ObjectColumnVector(capacity);
+        };
+    }
+
+    /**
+     * Returns the type of the vector.
+     * @return the column type.
+     */
+    public abstract ColumnType type();
+
+    /**
+     * Returns the number of rows in the vector.
+     * @return the number of rows.
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether a row is null.
+     * @param row the row index.
+     * @return true if the row is null.
+     */
+    public final boolean isNull(final int row) {
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Marks a row as null.
+     * @param row the row index.
+     */
+    public final void setNull(final int row) {
+        checkRow(row);
+        nulls[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Counts the null rows of the vector.
+     * @return the number of null rows.
+     */
+    public final int nullCount() {
+        int count = 0;
+        for (long word : nulls) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Appends a null row.
+     */
+    public final void appendNull() {
+        int row = nextRow();
+        nulls[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Appends a value, boxing is only needed for generic callers.
+     * @param value the value, or null.
+     */
+    public final void appendObject(final Object value) {
+        if (value == null) {
+            appendNull();
+        } else {
+            setObject(nextRow(), value);
+        }
+    }
+
+    /**
+     * Returns the value of a row as an object.
+     * @param row the row index.
+     * @return the value, or null.
+     */
+    public abstract Object getObject(int row);
+
+    /**
+     * Sets the value of a row from an object.
+     * @param row the row index.
+     * @param value the value, or null.
+     */
+    public abstract void setObject(int row, Object value);
+
+    /**
+     * Clears the null bit of a row after a value has been written.
+     * @param row the row index.
+     */
+    protected final void markNotNull(final int row) {
+        nulls[row >>> 6] &= ~(1L << row);
+    }
+
+    /**
+     * Reserves the next row and returns its index.
+     * @return the index of the new row.
+     */
+    protected final int nextRow() {
+        if (size == capacity()) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            grow(newCapacity);
+            nulls = Arrays.copyOf(nulls, bitmapLength(newCapacity));
+        }
+        return size++;
+    }
+
+    /**
+     * Checks that a row index is inside the vector.
+     * @param row the row index.
+     */
+    protected final void checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row
+                    + " outside of vector of size " + size);
+        }
+    }
+
+    /**
+     * Returns the capacity of the value array.
+     * @return the capacity.
+     */
+    protected abstract int capacity();
+
+    /**
+     * Grows the value array.
+     * @param newCapacity the new capacity.
+     */
+    protected abstract void grow(int newCapacity);
+
+    private static int bitmapLength(final int capacity) {
+        return (capacity + Long.SIZE - 1) >>> 6;
+    }
+}
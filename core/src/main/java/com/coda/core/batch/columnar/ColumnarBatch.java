@@ -0,0 +1,289 @@
+package com.coda.core.batch.columnar;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ColumnarBatch is a batch of rows stored column by column.
+ * <p>Each column has one {@link ColumnSchema} and one
+ * {@link ColumnVector}. Numbers live in primitive arrays, strings
+ * are dictionary encoded and nulls are tracked in bitmaps, so a
+ * batch of a thousand rows holds a handful of arrays instead of
+ * thousands of maps and DataAttributes objects.
+ * </p>
+ * <p>A batch can be built from and turned back into data models,
+ * which lets the columnar and the row based code paths meet.
+ * </p>
+ */
+@Getter
+public final class ColumnarBatch {
+
+    /**
+     * The schema of each column, in column order.
+     */
+    private final List<ColumnSchema> schema;
+
+    /**
+     * The vector of each column, in column order.
+     */
+    private final List<ColumnVector> vectors;
+
+    /**
+     * The id of each row.
+     */
+    private final ObjectId[] rowIds;
+
+    /**
+     * The position of each column, by name.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Integer> columnIndex;
+
+    /**
+     * Constructor for ColumnarBatch.
+     * @param columnSchema the schema of each column.
+     * @param columnVectors the vector of each column.
+     * @param ids the id of each row.
+     */
+    public ColumnarBatch(final List<ColumnSchema> columnSchema,
+                         final List<ColumnVector> columnVectors,
+                         final ObjectId[] ids) {
+        if (columnSchema.size() != columnVectors.size()) {
+            throw new IllegalArgumentException("Expected "
+                    + columnSchema.size() + " vectors but got "
+                    + columnVectors.size());
+        }
+        for (int i = 0; i < columnVectors.size(); i++) {
+            ColumnVector vector = columnVectors.get(i);
+            if (vector.size() != ids.length) {
+                throw new IllegalArgumentException("Column "
+                        + columnSchema.get(i).getName() + " has "
+                        + vector.size() + " rows, expected " + ids.length);
+            }
+            if (vector.type() != columnSchema.get(i).getColumnType()) {
+                throw new IllegalArgumentException("Column "
+                        + columnSchema.get(i).getName()
+                        + " is stored as " + vector.type()
+                        + " but declared as "
+                        + columnSchema.get(i).getColumnType());
+            }
+        }
+        this.schema = Collections.unmodifiableList(new ArrayList<>(columnSchema));
+        this.vectors = Collections.unmodifiableList(new ArrayList<>(columnVectors));
+        this.rowIds = ids;
+        this.columnIndex = new HashMap<>();
+        for (int i = 0; i < columnSchema.size(); i++) {
+            columnIndex.put(columnSchema.get(i).getName(), i);
+        }
+    }
+
+    /**
+     * Builds a batch from data models.
+     * <p>The type of each column is taken from its values: a column
+     * of Integers becomes an int vector, a column mixing Integers
+     * and Doubles a double vector, and anything else an object vector.
+     * A model without a column gets a null in that column.
+     * </p>
+     * @param dataModels the data models.
+     * @return the batch.
+     */
+    public static ColumnarBatch fromDataModels(
+            final List<? extends DataModel<?>> dataModels) {
+        Map<String, DataAttributes<?>> templates = new LinkedHashMap<>();
+        Map<String, ColumnType> types = new HashMap<>();
+
+        for (DataModel<?> dataModel : dataModels) {
+            for (Map.Entry<String, ? extends DataAttributes<?>> entry
+                    : dataModel.getAttributesMap().entrySet()) {
+                DataAttributes<?> attribute = entry.getValue();
+                if (attribute == null) {
+                    continue;
+                }
+                templates.putIfAbsent(entry.getKey(), attribute);
+                Object value = attribute.getValue();
+                if (value != null) {
+                    types.merge(entry.getKey(), ColumnType.fromValue(value),
+                            ColumnarBatch::widen);
+                }
+            }
+        }
+
+        int rowCount = dataModels.size();
+        List<ColumnSchema> columnSchema = new ArrayList<>(templates.size());
+        List<ColumnVector> columnVectors = new ArrayList<>(templates.size());
+        for (Map.Entry<String, DataAttributes<?>> entry : templates.entrySet()) {
+            ColumnType type = types.get(entry.getKey());
+            if (type == null) {
+                ColumnType declared = ColumnType.fromTypeName(
+                        entry.getValue().getType());
+                type = declared != null ? declared : ColumnType.OBJECT;
+            }
+            columnSchema.add(new ColumnSchema(entry.getKey(), type,
+                    entry.getValue().getType(), entry.getValue().getFormat(),
+                    entry.getValue().isRequired(),
+                    entry.getValue().getDefaultValue(),
+                    entry.getValue().getValidationRules()));
+            columnVectors.add(ColumnVector.create(type, rowCount));
+        }
+
+        ObjectId[] ids = new ObjectId[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            DataModel<?> dataModel = dataModels.get(row);
+            ids[row] = dataModel.getId();
+            for (int column = 0; column < columnSchema.size(); column++) {
+                DataAttributes<?> attribute = dataModel.getAttributesMap()
+                        .get(columnSchema.get(column).getName());
+                Object value = attribute != null ? attribute.getValue() : null;
+                appendValue(columnVectors.get(column), value);
+            }
+        }
+        return new ColumnarBatch(columnSchema, columnVectors, ids);
+    }
+
+    /**
+     * Turns the batch back into data models.
+     * <p>Null cells of a row are kept as attributes with a null
+     * value, as the row based readers do.
+     * </p>
+     * @return the data models.
+     */
+    public List<DataModel<Object>> toDataModels() {
+        List<DataModel<Object>> dataModels = new ArrayList<>(getRowCount());
+        for (int row = 0; row < getRowCount(); row++) {
+            Map<String, DataAttributes<Object>> attributes
+                    = new HashMap<>(schema.size() * 2);
+            for (int column = 0; column < schema.size(); column++) {
+                attributes.put(schema.get(column).getName(),
+                        toAttribute(schema.get(column),
+                                vectors.get(column).getObject(row)));
+            }
+            dataModels.add(new DataModel<>(rowIds[row], attributes));
+        }
+        return dataModels;
+    }
+
+    /**
+     * Returns one attribute per column holding the first non null
+     * value of the column, used to derive SQL column types.
+     * @return the attributes by column name.
+     */
+    public Map<String, DataAttributes<Object>> sampleAttributes() {
+        Map<String, DataAttributes<Object>> attributes = new LinkedHashMap<>();
+        for (int column = 0; column < schema.size(); column++) {
+            ColumnVector vector = vectors.get(column);
+            Object sample = null;
+            for (int row = 0; row < vector.size() && sample == null; row++) {
+                sample = vector.getObject(row);
+            }
+            attributes.put(schema.get(column).getName(),
+                    toAttribute(schema.get(column), sample));
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowIds.length;
+    }
+
+    /**
+     * Returns the number of columns.
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return schema.size();
+    }
+
+    /**
+     * Returns the position of a column.
+     * @param columnName the name of the column.
+     * @return the position, or -1 if there is no such column.
+     */
+    public int indexOf(final String columnName) {
+        return columnIndex.getOrDefault(columnName, -1);
+    }
+
+    /**
+     * Returns the vector of a column.
+     * @param columnName the name of the column.
+     * @return the vector.
+     */
+    public ColumnVector column(final String columnName) {
+        int index = indexOf(columnName);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + columnName
+                    + ", columns are " + columnIndex.keySet());
+        }
+        return vectors.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarBatch{rows=" + getRowCount()
+                + ", columns=" + Arrays.toString(schema.stream()
+                .map(column -> column.getName() + ":" + column.getColumnType())
+                .toArray()) + '}';
+    }
+
+    private static void appendValue(final ColumnVector vector,
+                                    final Object value) {
+        if (value == null) {
+            vector.appendNull();
+            return;
+        }
+        switch (vector.type()) {
+            case INT -> ((IntColumnVector) vector)
+                    .appendInt(((Number) value).intValue());
+            case LONG -> ((LongColumnVector) vector)
+                    .appendLong(((Number) value).longValue());
+            case DOUBLE -> ((DoubleColumnVector) vector)
+                    .appendDouble(((Number) value).doubleValue());
+            case BOOLEAN -> ((BooleanColumnVector) vector)
+                    .appendBoolean((Boolean) value);
+            case STRING -> ((StringColumnVector) vector)
+                    .appendString(value.toString());
+            default -> vector.appendObject(value);
+        }
+    }
+
+    private static ColumnType widen(final ColumnType current,
+                                    final ColumnType next) {
+        if (current == next) {
+            return current;
+        }
+        if (current.isNumeric() && next.isNumeric()) {
+            return current == ColumnType.DOUBLE || next == ColumnType.DOUBLE
+                    ? ColumnType.DOUBLE : ColumnType.LONG;
+        }
+        return ColumnType.OBJECT;
+    }
+
+    private static DataAttributes<Object> toAttribute(final ColumnSchema column,
+                                                      final Object value) {
+        String type = value != null ? value.getClass().getName()
+                : column.getTypeName();
+        DataAttributes<Object> attribute = new DataAttributes<>(
+                column.getName(), value, type, Object.class);
+        attribute.setFormat(column.getFormat());
+        attribute.setDefaultValue(column.getDefaultValue());
+        if (column.isRequired() || !column.getRules().isEmpty()) {
+            attribute.setRequired(column.isRequired());
+            attribute.setValidationRules(String.join("|", column.getRules()));
+        }
+        return attribute;
+    }
+}
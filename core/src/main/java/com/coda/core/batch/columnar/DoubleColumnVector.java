@@ -0,0 +1,92 @@
+package com.coda.core.batch.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A column vector of double values.
+ */
+public final class DoubleColumnVector extends ColumnVector
+        implements NumericColumnVector {
+
+    /**
+     * The values of the column.
+     */
+    private double[] values;
+
+    /**
+     * Constructor for DoubleColumnVector.
+     * @param capacity the initial capacity.
+     */
+    public DoubleColumnVector(final int capacity) {
+        super(capacity);
+        this.values = new double[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.DOUBLE;
+    }
+
+    /**
+     * Returns the value of a row, 0 for null rows.
+     * @param row the row index.
+     * @return the value.
+     */
+    public double getDouble(final int row) {
+        return values[row];
+    }
+
+    /**
+     * Sets the value of a row.
+     * @param row the row index.
+     * @param value the value.
+     */
+    public void setDouble(final int row, final double value) {
+        checkRow(row);
+        values[row] = value;
+        markNotNull(row);
+    }
+
+    /**
+     * Appends a value.
+     * @param value the value.
+     */
+    public void appendDouble(final double value) {
+        int row = nextRow();
+        values[row] = value;
+    }
+
+    @Override
+    public double getAsDouble(final int row) {
+        return values[row];
+    }
+
+    @Override
+    public void setFromDouble(final int row, final double value) {
+        setDouble(row, value);
+    }
+
+    @Override
+    public Object getObject(final int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public void setObject(final int row, final Object value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            setDouble(row, ((Number) value).doubleValue());
+        }
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(final int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
@@ -0,0 +1,92 @@
+package com.coda.core.batch.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A column vector of int values.
+ */
+public final class IntColumnVector extends ColumnVector
+        implements NumericColumnVector {
+
+    /**
+     * The values of the column.
+     */
+    private int[] values;
+
+    /**
+     * Constructor for IntColumnVector.
+     * @param capacity the initial capacity.
+     */
+    public IntColumnVector(final int capacity) {
+        super(capacity);
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.INT;
+    }
+
+    /**
+     * Returns the value of a row, 0 for null rows.
+     * @param row the row index.
+     * @return the value.
+     */
+    public int getInt(final int row) {
+        return values[row];
+    }
+
+    /**
+     * Sets the value of a row.
+     * @param row the row index.
+     * @param value the value.
+     */
+    public void setInt(final int row, final int value) {
+        checkRow(row);
+        values[row] = value;
+        markNotNull(row);
+    }
+
+    /**
+     * Appends a value.
+     * @param value the value.
+     */
+    public void appendInt(final int value) {
+        int row = nextRow();
+        values[row] = value;
+    }
+
+    @Override
+    public double getAsDouble(final int row) {
+        return values[row];
+    }
+
+    @Override
+    public void setFromDouble(final int row, final double value) {
+        setInt(row, (int) value);
+    }
+
+    @Override
+    public Object getObject(final int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public void setObject(final int row, final Object value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            setInt(row, ((Number) value).intValue());
+        }
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(final int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
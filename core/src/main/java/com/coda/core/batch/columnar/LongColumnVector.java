@@ -0,0 +1,92 @@
+package com.coda.core.batch.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A column vector of long values.
+ */
+public final class LongColumnVector extends ColumnVector
+        implements NumericColumnVector {
+
+    /**
+     * The values of the column.
+     */
+    private long[] values;
+
+    /**
+     * Constructor for LongColumnVector.
+     * @param capacity the initial capacity.
+     */
+    public LongColumnVector(final int capacity) {
+        super(capacity);
+        this.values = new long[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.LONG;
+    }
+
+    /**
+     * Returns the value of a row, 0 for null rows.
+     * @param row the row index.
+     * @return the value.
+     */
+    public long getLong(final int row) {
+        return values[row];
+    }
+
+    /**
+     * Sets the value of a row.
+     * @param row the row index.
+     * @param value the value.
+     */
+    public void setLong(final int row, final long value) {
+        checkRow(row);
+        values[row] = value;
+        markNotNull(row);
+    }
+
+    /**
+     * Appends a value.
+     * @param value the value.
+     */
+    public void appendLong(final long value) {
+        int row = nextRow();
+        values[row] = value;
+    }
+
+    @Override
+    public double getAsDouble(final int row) {
+        return values[row];
+    }
+
+    @Override
+    public void setFromDouble(final int row, final double value) {
+        setLong(row, (long) value);
+    }
+
+    @Override
+    public Object getObject(final int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public void setObject(final int row, final Object value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            setLong(row, ((Number) value).longValue());
+        }
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(final int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
@@ -0,0 +1,39 @@
+package com.coda.core.batch.columnar;
+
+/**
+ * NumericColumnVector is implemented by the
+ * vectors holding primitive numbers.
+ * <p>It lets column statistics and normalization run over
+ * int, long and double columns with the same loop.
+ * </p>
+ */
+public interface NumericColumnVector {
+
+    /**
+     * Returns the number of rows in the vector.
+     * @return the number of rows.
+     */
+    int size();
+
+    /**
+     * Checks whether a row is null.
+     * @param row the row index.
+     * @return true if the row is null.
+     */
+    boolean isNull(int row);
+
+    /**
+     * Returns the value of a row widened to a double.
+     * @param row the row index.
+     * @return the value.
+     */
+    double getAsDouble(int row);
+
+    /**
+     * Sets the value of a row from a double,
+     * narrowing it to the type of the vector.
+     * @param row the row index.
+     * @param value the value.
+     */
+    void setFromDouble(int row, double value);
+}
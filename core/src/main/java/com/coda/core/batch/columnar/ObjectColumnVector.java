@@ -0,0 +1,56 @@
+package com.coda.core.batch.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A column vector of objects, used for values without
+ * a primitive representation such as BigDecimal or timestamps.
+ */
+public final class ObjectColumnVector extends ColumnVector {
+
+    /**
+     * The values of the column.
+     */
+    private Object[] values;
+
+    /**
+     * Constructor for ObjectColumnVector.
+     * @param capacity the initial capacity.
+     */
+    public ObjectColumnVector(final int capacity) {
+        super(capacity);
+        this.values = new Object[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.OBJECT;
+    }
+
+    @Override
+    public Object getObject(final int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public void setObject(final int row, final Object value) {
+        if (value == null) {
+            setNull(row);
+            values[row] = null;
+        } else {
+            checkRow(row);
+            values[row] = value;
+            markNotNull(row);
+        }
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(final int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
@@ -0,0 +1,155 @@
+package com.coda.core.batch.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary encoded column vector of strings.
+ * <p>Every distinct string is stored once in the dictionary
+ * and each row only keeps the int code of its value.
+ * Categorical columns, which repeat a few values, shrink to
+ * about four bytes per row, and counting values becomes
+ * counting codes.
+ * </p>
+ */
+public final class StringColumnVector extends ColumnVector {
+
+    /**
+     * The dictionary code of each row.
+     */
+    private int[] codes;
+
+    /**
+     * The distinct values, indexed by code.
+     */
+    private final List<String> dictionary = new ArrayList<>();
+
+    /**
+     * The code of each distinct value.
+     */
+    private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+    /**
+     * Constructor for StringColumnVector.
+     * @param capacity the initial capacity.
+     */
+    public StringColumnVector(final int capacity) {
+        super(capacity);
+        this.codes = new int[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.STRING;
+    }
+
+    /**
+     * Returns the value of a row.
+     * @param row the row index.
+     * @return the value, or null.
+     */
+    public String getString(final int row) {
+        return isNull(row) ? null : dictionary.get(codes[row]);
+    }
+
+    /**
+     * Sets the value of a row.
+     * @param row the row index.
+     * @param value the value, or null.
+     */
+    public void setString(final int row, final String value) {
+        if (value == null) {
+            setNull(row);
+            return;
+        }
+        checkRow(row);
+        codes[row] = encode(value);
+        markNotNull(row);
+    }
+
+    /**
+     * Sets the dictionary code of a row.
+     * @param row the row index.
+     * @param code a code of the dictionary.
+     */
+    public void setCode(final int row, final int code) {
+        checkRow(row);
+        if (code < 0 || code >= dictionary.size()) {
+            throw new IllegalArgumentException("Unknown dictionary code " + code);
+        }
+        codes[row] = code;
+        markNotNull(row);
+    }
+
+    /**
+     * Appends a value.
+     * @param value the value, or null.
+     */
+    public void appendString(final String value) {
+        if (value == null) {
+            appendNull();
+        } else {
+            int row = nextRow();
+            codes[row] = encode(value);
+        }
+    }
+
+    /**
+     * Returns the dictionary code of a row.
+     * @param row the row index.
+     * @return the code, meaningless for null rows.
+     */
+    public int getCode(final int row) {
+        return codes[row];
+    }
+
+    /**
+     * Returns the number of distinct values.
+     * @return the size of the dictionary.
+     */
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    /**
+     * Returns the value of a dictionary code.
+     * @param code the code.
+     * @return the value.
+     */
+    public String dictionaryValue(final int code) {
+        return dictionary.get(code);
+    }
+
+    @Override
+    public Object getObject(final int row) {
+        return getString(row);
+    }
+
+    @Override
+    public void setObject(final int row, final Object value) {
+        setString(row, value == null ? null : value.toString());
+    }
+
+    @Override
+    protected int capacity() {
+        return codes.length;
+    }
+
+    @Override
+    protected void grow(final int newCapacity) {
+        codes = Arrays.copyOf(codes, newCapacity);
+    }
+
+    private int encode(final String value) {
+        Integer code = dictionaryIndex.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryIndex.put(value, code);
+        }
+        return code;
+    }
+}
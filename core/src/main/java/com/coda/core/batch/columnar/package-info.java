@@ -0,0 +1,10 @@
+/**
+ * This package contain the columnar batch format.
+ * <p>
+ *     A batch holds the column metadata once per column and the
+ *     values in primitive, null-aware vectors instead of
+ *     one DataAttributes object per cell.
+ *     </p>
+ */
+
+package com.coda.core.batch.columnar;
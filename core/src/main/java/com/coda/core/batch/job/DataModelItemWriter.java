@@ -0,0 +1,99 @@
+package com.coda.core.batch.job;
+
+import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.entities.DataModel;
+import com.coda.core.repository.DataModelRepository;
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.transform.ColumnProfile;
+import lombok.Getter;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>DataModelItemWriter writes a chunk of transformed rows to the
+ * target table as one batch.
+ * </p>
+ * <p>The chunk is first normalized column by column with the profile
+ * of the whole table, shared by every partition of the job, then
+ * upserted to the target on its key and saved to the repository with
+ * one {@code saveAll} per chunk.
+ * </p>
+ * <p>The target is written on its own connection, outside the chunk
+ * transaction, so a chunk written again after a failure or restart
+ * replaces its rows instead of adding them a second time.
+ * </p>
+ * @see TableProfileTasklet
+ */
+@Getter
+public class DataModelItemWriter implements ItemWriter<DataModel<Object>> {
+
+    /**
+     * The extractor of the target database.
+     */
+    private final DatabaseExtractor databaseExtractor;
+
+    /**
+     * The name of the target table.
+     */
+    private final String tableName;
+
+    /**
+     * The key column the rows are upserted on.
+     */
+    private final String keyColumn;
+
+    /**
+     * The processor normalizing the chunks.
+     */
+    private final DataModelProcessor dataModelProcessor;
+
+    /**
+     * The repository the written rows are saved to.
+     */
+    private final DataModelRepository dataModelRepository;
+
+    /**
+     * The frozen profile of the source table.
+     */
+    private final ColumnProfile profile;
+
+    /**
+     * Constructor for DataModelItemWriter.
+     * @param extractor the extractor of the target database.
+     * @param table the name of the target table.
+     * @param key the key column the rows are upserted on.
+     * @param processor the processor normalizing the chunks.
+     * @param repository the repository the rows are saved to.
+     * @param tableProfile the frozen profile of the source table.
+     */
+    public DataModelItemWriter(final DatabaseExtractor extractor,
+                               final String table,
+                               final String key,
+                               final DataModelProcessor processor,
+                               final DataModelRepository repository,
+                               final ColumnProfile tableProfile) {
+        if (!tableProfile.isFrozen()) {
+            throw new IllegalArgumentException("The table profile must be frozen");
+        }
+        this.databaseExtractor = extractor;
+        this.tableName = table;
+        this.keyColumn = key;
+        this.dataModelProcessor = processor;
+        this.dataModelRepository = repository;
+        this.profile = tableProfile;
+    }
+
+    @Override
+    public void write(final Chunk<? extends DataModel<Object>> chunk) throws Exception {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<DataModel<Object>> dataModels = new ArrayList<>(chunk.getItems());
+        dataModelProcessor.normalizeDataModels(dataModels, profile);
+        databaseExtractor.loadData(dataModels, tableName, keyColumn);
+        dataModelRepository.saveAll(dataModels);
+    }
+}
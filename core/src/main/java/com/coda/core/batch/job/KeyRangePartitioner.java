@@ -0,0 +1,139 @@
+package com.coda.core.batch.job;
+
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.db.KeyRange;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>KeyRangePartitioner splits a table into contiguous ranges of
+ * its integer primary key, one per partition, so the partitions can
+ * be read side by side.
+ * </p>
+ * <p>Each partition gets the key it starts after and the largest key
+ * it reads. The first partition has no lower bound and the last one no
+ * upper bound, so rows added outside the range seen at partitioning
+ * time are still read. A table with an empty or non integer key range
+ * is read as a single partition.
+ * </p>
+ * @see TableItemReader
+ */
+@Slf4j
+@Getter
+public class KeyRangePartitioner implements Partitioner {
+
+    /**
+     * The execution context key of the key a partition starts after.
+     */
+    public static final String LOWER_KEY = "lowerKey";
+
+    /**
+     * The execution context key of the largest key of a partition.
+     */
+    public static final String UPPER_KEY = "upperKey";
+
+    /**
+     * The prefix of the partition names.
+     */
+    static final String PARTITION = "partition";
+
+    /**
+     * The extractor used to read the key range.
+     */
+    private final DatabaseExtractor databaseExtractor;
+
+    /**
+     * The name of the table to split.
+     */
+    private final String tableName;
+
+    /**
+     * The integer key column.
+     */
+    private final String keyColumn;
+
+    /**
+     * Constructor for KeyRangePartitioner.
+     * @param extractor the extractor used to read the key range.
+     * @param table the name of the table.
+     * @param key the integer key column.
+     */
+    public KeyRangePartitioner(final DatabaseExtractor extractor,
+                               final String table, final String key) {
+        this.databaseExtractor = extractor;
+        this.tableName = table;
+        this.keyColumn = key;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(final int gridSize) {
+        KeyRange range = databaseExtractor.findKeyRange(tableName, keyColumn);
+        Long min = range.isEmpty() ? null : toLong(range.getMin());
+        Long max = range.isEmpty() ? null : toLong(range.getMax());
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        if (min == null || max == null || gridSize <= 1) {
+            partitions.put(PARTITION + 0, new ExecutionContext());
+            log.info("Reading table {} {} as one partition", tableName, range);
+            return partitions;
+        }
+
+        // BigInteger, so a span over most of the long range does not overflow.
+        BigInteger span = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min))
+                .add(BigInteger.ONE);
+        int count = span.min(BigInteger.valueOf(gridSize)).intValue();
+        BigInteger step = span.add(BigInteger.valueOf(count - 1))
+                .divide(BigInteger.valueOf(count));
+        for (int i = 0; i < count; i++) {
+            ExecutionContext context = new ExecutionContext();
+            if (i > 0) {
+                context.put(LOWER_KEY, bound(min, step, i));
+            }
+            if (i < count - 1) {
+                context.put(UPPER_KEY, bound(min, step, i + 1));
+            }
+            partitions.put(PARTITION + i, context);
+        }
+        log.info("Split table {} {} into {} partitions of {} keys",
+                tableName, range, count, step);
+        return partitions;
+    }
+
+    /**
+     * Returns the last key of the partitions before a given one.
+     * @param min the smallest key.
+     * @param step the number of keys per partition.
+     * @param partition the index of the partition.
+     * @return the key the partition starts after.
+     */
+    private static long bound(final long min, final BigInteger step, final int partition) {
+        return BigInteger.valueOf(min)
+                .add(step.multiply(BigInteger.valueOf(partition)))
+                .subtract(BigInteger.ONE)
+                .longValueExact();
+    }
+
+    private static Long toLong(final Object key) {
+        if (key instanceof Integer || key instanceof Long
+                || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        try {
+            if (key instanceof BigInteger bigInteger) {
+                return bigInteger.longValueExact();
+            }
+            if (key instanceof BigDecimal bigDecimal) {
+                return bigDecimal.longValueExact();
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        return null;
+    }
+}
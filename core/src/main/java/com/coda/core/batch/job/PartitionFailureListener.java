@@ -0,0 +1,46 @@
+package com.coda.core.batch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+/**
+ * <p>PartitionFailureListener stops the sibling partitions of a
+ * worker step that failed.
+ * </p>
+ * <p>The running partitions of the same step are asked to terminate,
+ * which they do at their next chunk boundary, ending as stopped with
+ * their last committed chunk in their execution context. The job fails
+ * as soon as the ranges already running notice, instead of after every
+ * range has been copied, and a restart resumes each stopped range.
+ * </p>
+ */
+@Slf4j
+public class PartitionFailureListener implements StepExecutionListener {
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+        if (stepExecution.getStatus() != BatchStatus.FAILED) {
+            return null;
+        }
+        String workerStep = workerStepName(stepExecution.getStepName());
+        for (StepExecution sibling : stepExecution.getJobExecution().getStepExecutions()) {
+            if (sibling != stepExecution
+                    && workerStep.equals(workerStepName(sibling.getStepName()))
+                    && sibling.getStatus().isRunning()) {
+                log.warn("{} failed, stopping {}", stepExecution.getStepName(),
+                        sibling.getStepName());
+                sibling.setTerminateOnly();
+            }
+        }
+        return null;
+    }
+
+    private static String workerStepName(final String stepName) {
+        // Partitions are named <worker step>:<partition>.
+        int separator = stepName.indexOf(':');
+        return separator < 0 ? stepName : stepName.substring(0, separator);
+    }
+}
@@ -0,0 +1,159 @@
+package com.coda.core.batch.job;
+
+import com.coda.core.entities.DataModel;
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.db.KeysetQuery;
+import com.coda.core.util.db.TablePageReader;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>TableItemReader reads the rows of one key range of a table,
+ * page by page with keyset pagination, and hands them over one at
+ * a time.
+ * </p>
+ * <p>The key of the last row handed over is saved in the step
+ * execution context at every chunk commit, so a restarted step
+ * seeks past the rows already written instead of reading the range
+ * again. The key is captured when the row is read, before the
+ * processor may rewrite the attribute values.
+ * </p>
+ * <p>The reader is not thread safe; each partition gets its own,
+ * step scoped instance, which is why the class is not final.
+ * </p>
+ * @see KeyRangePartitioner
+ */
+@Slf4j
+@Getter
+public class TableItemReader implements ItemStreamReader<DataModel<Object>> {
+
+    /**
+     * The execution context key of the last key written.
+     */
+    public static final String LAST_KEY = "tableItemReader.lastKey";
+
+    /**
+     * The extractor used to read the pages.
+     */
+    private final DatabaseExtractor databaseExtractor;
+
+    /**
+     * The name of the table to read from.
+     */
+    private final String tableName;
+
+    /**
+     * The unique, monotonic key column.
+     */
+    private final String keyColumn;
+
+    /**
+     * The key the range starts after, null to start at the first row.
+     */
+    private final Object lowerKey;
+
+    /**
+     * The largest key of the range, null to read to the end.
+     */
+    private final Object upperKey;
+
+    /**
+     * The number of rows per page.
+     */
+    private final int pageSize;
+
+    /**
+     * The rows of the current page not handed over yet.
+     */
+    private Iterator<DataModel<Object>> page = Collections.emptyIterator();
+
+    /**
+     * The key of the last row of the last page read.
+     */
+    private Object pageKey;
+
+    /**
+     * The key of the last row handed over.
+     */
+    private Object lastKey;
+
+    /**
+     * Whether the last page of the range has been read.
+     */
+    private boolean exhausted;
+
+    /**
+     * Constructor for TableItemReader.
+     * @param extractor the extractor used to read the pages.
+     * @param table the name of the table.
+     * @param key the unique, monotonic key column.
+     * @param afterKey the key the range starts after, null for no bound.
+     * @param upToKey the largest key of the range, null for no bound.
+     * @param size the number of rows per page.
+     */
+    public TableItemReader(final DatabaseExtractor extractor,
+                           final String table, final String key,
+                           final Object afterKey, final Object upToKey,
+                           final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.databaseExtractor = extractor;
+        this.tableName = table;
+        this.keyColumn = key;
+        this.lowerKey = afterKey;
+        this.upperKey = upToKey;
+        this.pageSize = size;
+    }
+
+    @Override
+    public void open(final ExecutionContext executionContext) {
+        lastKey = executionContext.containsKey(LAST_KEY)
+                ? executionContext.get(LAST_KEY) : lowerKey;
+        pageKey = lastKey;
+        page = Collections.emptyIterator();
+        exhausted = false;
+        if (executionContext.containsKey(LAST_KEY)) {
+            log.info("Resuming table {} after {} {}", tableName, keyColumn, lastKey);
+        }
+    }
+
+    @Override
+    public DataModel<Object> read() throws Exception {
+        if (!page.hasNext()) {
+            if (exhausted) {
+                return null;
+            }
+            List<DataModel<Object>> rows = databaseExtractor.readData(
+                    new KeysetQuery(tableName, keyColumn, pageKey, upperKey, pageSize));
+            exhausted = rows.size() < pageSize;
+            if (rows.isEmpty()) {
+                return null;
+            }
+            pageKey = TablePageReader.keyValueOf(rows.get(rows.size() - 1), keyColumn);
+            page = rows.iterator();
+        }
+        DataModel<Object> row = page.next();
+        lastKey = TablePageReader.keyValueOf(row, keyColumn);
+        return row;
+    }
+
+    @Override
+    public void update(final ExecutionContext executionContext) {
+        if (lastKey != null) {
+            executionContext.put(LAST_KEY, lastKey);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        page = Collections.emptyIterator();
+    }
+}
@@ -0,0 +1,117 @@
+package com.coda.core.batch.job;
+
+import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.config.EtlJobConfig;
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.db.DatabaseExtractorFactory;
+import com.coda.core.util.db.TablePageReader;
+import com.coda.core.util.transform.ColumnProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>TableProfileTasklet profiles the source table once per job
+ * execution, before the key ranges are copied.
+ * </p>
+ * <p>The profile is read from the start of the table, frozen and kept
+ * until the execution ends, so the writers of every partition scale
+ * their chunks with the same statistics. It is not saved with the job;
+ * the step runs again when a job is restarted.
+ * </p>
+ * @see DataModelItemWriter
+ */
+@Slf4j
+public class TableProfileTasklet implements Tasklet, JobExecutionListener {
+
+    /**
+     * The factory of the source extractors.
+     */
+    private final DatabaseExtractorFactory databaseExtractorFactory;
+
+    /**
+     * The processor profiling the rows.
+     */
+    private final DataModelProcessor dataModelProcessor;
+
+    /**
+     * The number of rows per page.
+     */
+    private final int pageSize;
+
+    /**
+     * The profiles of the running executions, by job execution id.
+     */
+    private final Map<Long, ColumnProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for TableProfileTasklet.
+     * @param factory the factory of the source extractors.
+     * @param processor the processor profiling the rows.
+     * @param size the number of rows per page.
+     */
+    public TableProfileTasklet(final DatabaseExtractorFactory factory,
+                               final DataModelProcessor processor,
+                               final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.databaseExtractorFactory = factory;
+        this.dataModelProcessor = processor;
+        this.pageSize = size;
+    }
+
+    @Override
+    public RepeatStatus execute(final StepContribution contribution,
+                                final ChunkContext chunkContext) throws Exception {
+        JobExecution jobExecution = chunkContext.getStepContext()
+                .getStepExecution().getJobExecution();
+        JobParameters parameters = jobExecution.getJobParameters();
+        String tableName = parameters.getString(EtlJobConfig.SOURCE_TABLE);
+        String keyColumn = parameters.getString(EtlJobConfig.KEY_COLUMN);
+        DatabaseExtractor extractor = databaseExtractorFactory.getExtractor(
+                parameters.getString(EtlJobConfig.SOURCE_DB_TYPE),
+                parameters.getString(EtlJobConfig.SOURCE_URL),
+                parameters.getString(EtlJobConfig.SOURCE_USER));
+
+        // A rewritten key would no longer match its source row.
+        ColumnProfile profile = new ColumnProfile(Set.of(keyColumn));
+        TablePageReader reader = new TablePageReader(extractor, tableName,
+                keyColumn, pageSize);
+        dataModelProcessor.profileSource(reader::nextPage, profile);
+        profiles.put(jobExecution.getId(), profile);
+        log.info("Profiled {} rows of table {}", reader.getRowsRead(), tableName);
+        return RepeatStatus.FINISHED;
+    }
+
+    @Override
+    public void afterJob(final JobExecution jobExecution) {
+        profiles.remove(jobExecution.getId());
+    }
+
+    /**
+     * Returns the profile of a job execution.
+     * @param jobExecutionId the id of the job execution.
+     * @return the frozen profile.
+     * @throws IllegalStateException if the execution has not been profiled.
+     */
+    public ColumnProfile getProfile(final Long jobExecutionId) {
+        ColumnProfile profile = profiles.get(Objects.requireNonNull(jobExecutionId,
+                "Job execution id cannot be null"));
+        if (profile == null) {
+            throw new IllegalStateException("Job execution " + jobExecutionId
+                    + " has not been profiled");
+        }
+        return profile;
+    }
+}
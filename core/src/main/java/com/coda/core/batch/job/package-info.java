@@ -0,0 +1,5 @@
+/**
+ * This package contain the Spring Batch table ETL job classes.
+ */
+
+package com.coda.core.batch.job;
@@ -0,0 +1,187 @@
+package com.coda.core.batch.pipeline;
+
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.entities.DataModel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>EtlPipeline runs the extract, transform and load stages of a
+ * job at the same time, each on its own thread, joined by bounded
+ * queues.
+ * </p>
+ * <p>The extract stage reads the next page while the current one is
+ * transformed, and the load stage writes batch N while batch N+1 is
+ * transformed, so neither the source nor the target sits idle while
+ * the other one works. Batches keep their order through every stage.
+ * </p>
+ * <p>A stage that runs ahead blocks once the queue to the next stage
+ * is full, so at most {@code 2 * queueCapacity + 3} batches are held
+ * in memory. When a stage fails the other stages are interrupted and
+ * the failure is rethrown.
+ * </p>
+ * <p>The stages run on virtual threads when the pipeline is run from
+ * one, so a job on a virtual thread holds no platform thread while its
+ * stages wait on the databases.
+ * </p>
+ * @see PipelineStatistics
+ */
+@Slf4j
+@Getter
+public final class EtlPipeline {
+
+    /**
+     * The name of the extract stage.
+     */
+    public static final String EXTRACT = "extract";
+
+    /**
+     * The name of the transform stage.
+     */
+    public static final String TRANSFORM = "transform";
+
+    /**
+     * The name of the load stage.
+     */
+    public static final String LOAD = "load";
+
+    /**
+     * The number of batches each queue holds between two stages.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Constructor for EtlPipeline.
+     * @param capacity the number of batches held between two stages.
+     */
+    public EtlPipeline(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.queueCapacity = capacity;
+    }
+
+    /**
+     * Runs the stages until the source is exhausted.
+     * @param source reads the pages.
+     * @param transformer transforms each batch in place.
+     * @param loader writes each transformed batch.
+     * @param <T> the type of the data model values.
+     * @return the timing of each stage.
+     * @throws Exception the first failure of a stage.
+     */
+    public <T> PipelineStatistics run(final PageSource<T> source,
+                                      final DataModelBatchHandler<T> transformer,
+                                      final DataModelBatchHandler<T> loader)
+            throws Exception {
+        BlockingQueue<List<DataModel<T>>> extracted = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<List<DataModel<T>>> transformed = new ArrayBlockingQueue<>(queueCapacity);
+        long start = System.nanoTime();
+        ExecutorService executor = Thread.currentThread().isVirtual()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(3);
+        try {
+            CompletionService<PipelineStatistics.Stage> completion
+                    = new ExecutorCompletionService<>(executor);
+            List<Future<PipelineStatistics.Stage>> futures = List.of(
+                    completion.submit(() -> extract(source, extracted)),
+                    completion.submit(() -> process(TRANSFORM, extracted,
+                            transformer, transformed)),
+                    completion.submit(() -> process(LOAD, transformed,
+                            loader, null)));
+
+            // Wait in completion order so the first failure stops the others.
+            for (int i = 0; i < futures.size(); i++) {
+                completion.take().get();
+            }
+            List<PipelineStatistics.Stage> stages = new ArrayList<>(futures.size());
+            for (Future<PipelineStatistics.Stage> future : futures) {
+                stages.add(future.get());
+            }
+            PipelineStatistics statistics = new PipelineStatistics(stages,
+                    System.nanoTime() - start);
+            log.info("Pipeline completed: {}", statistics);
+            return statistics;
+        } catch (ExecutionException e) {
+            log.error("Pipeline stage failed: {}", e.getCause().getMessage());
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> PipelineStatistics.Stage extract(
+            final PageSource<T> source,
+            final BlockingQueue<List<DataModel<T>>> output) throws Exception {
+        long batches = 0;
+        long rows = 0;
+        long busy = 0;
+        long waiting = 0;
+        while (true) {
+            long started = System.nanoTime();
+            List<DataModel<T>> page = source.nextPage();
+            long read = System.nanoTime();
+            busy += read - started;
+            if (page == null) {
+                page = List.of();
+            }
+            output.put(page);
+            waiting += System.nanoTime() - read;
+            if (page.isEmpty()) {
+                return new PipelineStatistics.Stage(EXTRACT, batches, rows, busy, waiting);
+            }
+            batches++;
+            rows += page.size();
+        }
+    }
+
+    private static <T> PipelineStatistics.Stage process(
+            final String name,
+            final BlockingQueue<List<DataModel<T>>> input,
+            final DataModelBatchHandler<T> handler,
+            final BlockingQueue<List<DataModel<T>>> output) throws Exception {
+        long batches = 0;
+        long rows = 0;
+        long busy = 0;
+        long waiting = 0;
+        while (true) {
+            long started = System.nanoTime();
+            List<DataModel<T>> batch = input.take();
+            long taken = System.nanoTime();
+            waiting += taken - started;
+            if (batch.isEmpty()) {
+                // Pass the end of the source on.
+                if (output != null) {
+                    output.put(batch);
+                }
+                return new PipelineStatistics.Stage(name, batches, rows, busy, waiting);
+            }
+            handler.handle(batch);
+            long handled = System.nanoTime();
+            busy += handled - taken;
+            if (output != null) {
+                output.put(batch);
+                waiting += System.nanoTime() - handled;
+            }
+            batches++;
+            rows += batch.size();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.coda.core.batch.pipeline;
+
+import com.coda.core.entities.DataModel;
+
+import java.util.List;
+
+/**
+ * PageSource supplies the batches of a pipelined extraction.
+ * <p>Each call reads the next page of the source; an empty page
+ * marks the end of the source.
+ * </p>
+ * @param <T> the type of the data model values.
+ */
+@FunctionalInterface
+public interface PageSource<T> {
+
+    /**
+     * Reads the next page.
+     * @return the page, empty when the source is exhausted.
+     * @throws Exception if the page cannot be read.
+     */
+    List<DataModel<T>> nextPage() throws Exception;
+}
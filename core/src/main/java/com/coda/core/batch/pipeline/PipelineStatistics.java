@@ -0,0 +1,162 @@
+package com.coda.core.batch.pipeline;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * <p>PipelineStatistics describes one pipelined run: for every stage,
+ * how long it spent working on batches and how long it spent waiting
+ * on its neighbours.
+ * </p>
+ * <p>The stage with the most busy time is the bottleneck; the stages
+ * before it wait to hand over their batches, the stages after it wait
+ * for new batches.
+ * </p>
+ * @see EtlPipeline
+ */
+@Getter
+public final class PipelineStatistics {
+
+    /**
+     * The statistics of each stage, in pipeline order.
+     */
+    private final List<Stage> stages;
+
+    /**
+     * The time spent running the pipeline, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructor for PipelineStatistics.
+     * @param stageStatistics the statistics of each stage.
+     * @param nanos the time spent running, in nanoseconds.
+     */
+    public PipelineStatistics(final List<Stage> stageStatistics,
+                              final long nanos) {
+        this.stages = List.copyOf(stageStatistics);
+        this.elapsedNanos = nanos;
+    }
+
+    /**
+     * Returns the statistics of a stage.
+     * @param name the name of the stage.
+     * @return the statistics, or null if there is no such stage.
+     */
+    public Stage getStage(final String name) {
+        return stages.stream()
+                .filter(stage -> stage.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Returns the stage that spent the most time working.
+     * @return the slowest stage, or null without stages.
+     */
+    public Stage getBottleneck() {
+        return stages.stream()
+                .max(Comparator.comparingLong(Stage::getBusyNanos))
+                .orElse(null);
+    }
+
+    /**
+     * Returns the number of rows that went through the last stage.
+     * @return the number of rows.
+     */
+    public long getRows() {
+        return stages.isEmpty() ? 0 : stages.get(stages.size() - 1).getRows();
+    }
+
+    /**
+     * Returns the time spent running the pipeline.
+     * @return the time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        Stage bottleneck = getBottleneck();
+        return String.format("%d rows in %d ms, bottleneck %s [%s]", getRows(),
+                getElapsedMillis(), bottleneck != null ? bottleneck.getName() : "none",
+                stages.stream().map(Stage::toString).collect(Collectors.joining("; ")));
+    }
+
+    /**
+     * The timing of one stage.
+     */
+    @Getter
+    public static final class Stage {
+
+        /**
+         * The name of the stage.
+         */
+        private final String name;
+
+        /**
+         * The number of batches that went through the stage.
+         */
+        private final long batches;
+
+        /**
+         * The number of rows that went through the stage.
+         */
+        private final long rows;
+
+        /**
+         * The time spent working on batches, in nanoseconds.
+         */
+        private final long busyNanos;
+
+        /**
+         * The time spent waiting for a batch or for room in the next
+         * queue, in nanoseconds.
+         */
+        private final long waitNanos;
+
+        /**
+         * Constructor for Stage.
+         * @param stageName the name of the stage.
+         * @param batchCount the number of batches.
+         * @param rowCount the number of rows.
+         * @param busy the time spent working, in nanoseconds.
+         * @param waiting the time spent waiting, in nanoseconds.
+         */
+        public Stage(final String stageName, final long batchCount,
+                     final long rowCount, final long busy, final long waiting) {
+            this.name = stageName;
+            this.batches = batchCount;
+            this.rows = rowCount;
+            this.busyNanos = busy;
+            this.waitNanos = waiting;
+        }
+
+        /**
+         * Returns the time spent working on batches.
+         * @return the time in milliseconds.
+         */
+        public long getBusyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(busyNanos);
+        }
+
+        /**
+         * Returns the time spent waiting on the other stages.
+         * @return the time in milliseconds.
+         */
+        public long getWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d batches, %d rows, busy %d ms, waiting %d ms",
+                    name, batches, rows, getBusyMillis(), getWaitMillis());
+        }
+    }
+}
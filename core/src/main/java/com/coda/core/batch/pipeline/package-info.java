@@ -0,0 +1,5 @@
+/**
+ * This package contain the pipelined extract, transform and load classes.
+ */
+
+package com.coda.core.batch.pipeline;
@@ -0,0 +1,279 @@
+package com.coda.core.batch.processor;
+
+import com.coda.core.batch.columnar.ColumnVector;
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.columnar.NumericColumnVector;
+import com.coda.core.batch.columnar.StringColumnVector;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.util.transform.ColumnProfile;
+import com.coda.core.util.transform.ColumnStatistics;
+import com.coda.core.util.transform.DataTransformation;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ColumnProcessor runs the column wise steps of the processing.
+ * <p>The first pass builds a {@link ColumnProfile}: count, mean and
+ * variance, quantiles and mode of every column. The second pass uses
+ * it to replace missing values (mean for numbers, mode otherwise),
+ * clamp numbers to the interquartile fences and z-score them.
+ * </p>
+ * <p>When data is streamed, the profile is built from the first rows
+ * of the source, or all of them, and frozen before the first batch is
+ * transformed; a frozen profile is applied without being updated, so
+ * every batch of a column is scaled with the same statistics.
+ * </p>
+ */
+public final class ColumnProcessor {
+
+    /**
+     * How many interquartile ranges a value may lie outside the
+     * quartiles before it is treated as an outlier.
+     */
+    static final double OUTLIER_FENCE_FACTOR = 1.5;
+
+    /**
+     * The number of values a column needs before outliers are clamped.
+     */
+    static final int MIN_VALUES_FOR_OUTLIERS = 4;
+
+    /**
+     * The columns left untouched, i.e. keys.
+     */
+    private final Set<String> excludedColumns;
+
+    /**
+     * Constructor for ColumnProcessor, leaving the id columns untouched.
+     */
+    public ColumnProcessor() {
+        this(Set.of("id", "_id"));
+    }
+
+    /**
+     * Constructor for ColumnProcessor.
+     * @param excluded the columns to leave untouched.
+     */
+    public ColumnProcessor(final Set<String> excluded) {
+        this.excludedColumns = Set.copyOf(excluded);
+    }
+
+    /**
+     * Profiles and transforms a batch of data models on its own.
+     * @param dataModels the data models.
+     * @param <T> the type of the data model values.
+     * @return the profile of the batch.
+     */
+    public <T> ColumnProfile process(final List<DataModel<T>> dataModels) {
+        return process(dataModels, new ColumnProfile());
+    }
+
+    /**
+     * Adds a batch of data models to a profile and transforms it.
+     * @param dataModels the data models.
+     * @param profile the profile of the batches seen so far, applied
+     *                as it is when frozen.
+     * @param <T> the type of the data model values.
+     * @return the updated profile.
+     */
+    public <T> ColumnProfile process(final List<DataModel<T>> dataModels,
+                                     final ColumnProfile profile) {
+        if (!profile.isFrozen()) {
+            profile.update(dataModels);
+        }
+        apply(dataModels, profile);
+        return profile;
+    }
+
+    /**
+     * Profiles and transforms a columnar batch on its own.
+     * @param batch the batch.
+     * @return the profile of the batch.
+     */
+    public ColumnProfile process(final ColumnarBatch batch) {
+        return process(batch, new ColumnProfile());
+    }
+
+    /**
+     * Adds a columnar batch to a profile and transforms it.
+     * @param batch the batch.
+     * @param profile the profile of the batches seen so far, applied
+     *                as it is when frozen.
+     * @return the updated profile.
+     */
+    public ColumnProfile process(final ColumnarBatch batch,
+                                 final ColumnProfile profile) {
+        if (!profile.isFrozen()) {
+            profile.update(batch);
+        }
+        apply(batch, profile);
+        return profile;
+    }
+
+    /**
+     * Transforms data models with the statistics of a profile.
+     * @param dataModels the data models.
+     * @param profile the profile.
+     * @param <T> the type of the data model values.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void apply(final List<DataModel<T>> dataModels,
+                          final ColumnProfile profile) {
+        Map<String, ColumnPlan> plans = plan(profile);
+
+        for (DataModel<T> dataModel : dataModels) {
+            if (dataModel.getAttributesMap() == null) {
+                continue;
+            }
+            for (Map.Entry<String, DataAttributes<T>> entry
+                    : dataModel.getAttributesMap().entrySet()) {
+                ColumnPlan plan = plans.get(entry.getKey());
+                DataAttributes<T> attribute = entry.getValue();
+                if (plan == null || attribute == null) {
+                    continue;
+                }
+                Object value = attribute.getValue();
+                if (value == null || (value instanceof String string && string.isEmpty())) {
+                    Object replacement = plan.replacement(attribute.getType());
+                    if (replacement != null) {
+                        attribute.setValue((T) replacement);
+                    }
+                } else if (value instanceof Number number && plan.numeric) {
+                    attribute.setValue((T) DataTransformation.castLike(number,
+                            plan.transform(number.doubleValue())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Transforms a columnar batch with the statistics of a profile.
+     * @param batch the batch.
+     * @param profile the profile.
+     */
+    public void apply(final ColumnarBatch batch, final ColumnProfile profile) {
+        Map<String, ColumnPlan> plans = plan(profile);
+
+        for (int column = 0; column < batch.getColumnCount(); column++) {
+            ColumnPlan plan = plans.get(batch.getSchema().get(column).getName());
+            if (plan == null) {
+                continue;
+            }
+            ColumnVector vector = batch.getVectors().get(column);
+            if (vector instanceof NumericColumnVector numeric) {
+                if (!plan.numeric) {
+                    continue;
+                }
+                for (int row = 0; row < numeric.size(); row++) {
+                    double value = numeric.isNull(row)
+                            ? plan.mean : numeric.getAsDouble(row);
+                    numeric.setFromDouble(row, plan.transform(value));
+                }
+            } else if (plan.mode != null) {
+                for (int row = 0; row < vector.size(); row++) {
+                    if (vector.isNull(row) || isEmptyString(vector, row)) {
+                        vector.setObject(row, plan.mode);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, ColumnPlan> plan(final ColumnProfile profile) {
+        Map<String, ColumnPlan> plans = new HashMap<>();
+        profile.getColumns().forEach((name, statistics) -> {
+            if (!excludedColumns.contains(name) && !profile.isKeyColumn(name)) {
+                plans.put(name, new ColumnPlan(statistics));
+            }
+        });
+        return plans;
+    }
+
+    private static boolean isEmptyString(final ColumnVector vector, final int row) {
+        return vector instanceof StringColumnVector strings
+                && strings.dictionaryValue(strings.getCode(row)).isEmpty();
+    }
+
+    /**
+     * The statistics of one column, resolved once before the second pass.
+     */
+    private static final class ColumnPlan {
+
+        /**
+         * Whether the column holds numbers.
+         */
+        private final boolean numeric;
+
+        /**
+         * The mean of the column.
+         */
+        private final double mean;
+
+        /**
+         * The standard deviation of the column.
+         */
+        private final double stdDev;
+
+        /**
+         * The lowest value kept before clamping.
+         */
+        private final double lowerFence;
+
+        /**
+         * The highest value kept before clamping.
+         */
+        private final double upperFence;
+
+        /**
+         * The most frequent non numeric value.
+         */
+        private final Object mode;
+
+        ColumnPlan(final ColumnStatistics statistics) {
+            this.numeric = statistics.getCount() > 0;
+            this.mean = statistics.getMean();
+            this.stdDev = statistics.getStdDev();
+            this.mode = statistics.getMode();
+            if (statistics.getCount() >= MIN_VALUES_FOR_OUTLIERS) {
+                double q1 = statistics.quantile(0.25);
+                double q3 = statistics.quantile(0.75);
+                double iqr = q3 - q1;
+                this.lowerFence = q1 - OUTLIER_FENCE_FACTOR * iqr;
+                this.upperFence = q3 + OUTLIER_FENCE_FACTOR * iqr;
+            } else {
+                this.lowerFence = Double.NEGATIVE_INFINITY;
+                this.upperFence = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        double transform(final double value) {
+            double clamped = Math.max(lowerFence, Math.min(upperFence, value));
+            return stdDev == 0 ? 0.0 : (clamped - mean) / stdDev;
+        }
+
+        Object replacement(final String type) {
+            if (numeric) {
+                // The mean lies at a z-score of zero.
+                return DataTransformation.castLike(numberOfType(type), 0.0);
+            }
+            return mode;
+        }
+
+        private static Number numberOfType(final String type) {
+            if (type == null) {
+                return 0.0;
+            }
+            return switch (type) {
+                case "java.lang.Integer" -> 0;
+                case "java.lang.Long" -> 0L;
+                case "java.lang.Float" -> 0f;
+                case "java.math.BigDecimal" -> BigDecimal.ZERO;
+                default -> 0.0;
+            };
+        }
+    }
+}
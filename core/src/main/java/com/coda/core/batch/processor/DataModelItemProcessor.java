@@ -1,8 +1,6 @@
 package com.coda.core.batch.processor;
 
 import com.coda.core.entities.DataModel;
-import com.coda.core.repository.DataModelRepository;
-import com.coda.core.util.Constants;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
@@ -11,6 +9,10 @@ import java.util.List;
 
 /**
  * The DataModelItemProcessor class.
+ * <p>Applies the row-local transforms to each item. Nothing is saved
+ * here; the column-wise normalization and the saving are done once
+ * per chunk by the writer.
+ * </p>
  */
 
 @Component
@@ -22,22 +24,13 @@ public class DataModelItemProcessor
      */
     private final DataModelProcessor dataModelProcessor;
 
-    /**
-     * The DataModelRepository object.
-     */
-
-    private final DataModelRepository dataModelRepository;
-
     /**
      * Constructor for DataModelItemProcessor.
      * @param processor the DataModelProcessor object.
-     * @param dataModelRepository the DataModelRepository object.
      */
 
-    public DataModelItemProcessor(final DataModelProcessor processor,
-            final DataModelRepository dataModelRepository) {
+    public DataModelItemProcessor(final DataModelProcessor processor) {
         this.dataModelProcessor = processor;
-        this.dataModelRepository = dataModelRepository;
     }
 
     /**
@@ -50,8 +43,7 @@ public class DataModelItemProcessor
     @Override
     public DataModel<Object> process(@NonNull final DataModel<Object> item)
             throws Exception {
-        dataModelProcessor.processAndSaveDataModels(List.of(item),
-                Constants.BATCH_SIZE, dataModelRepository);
+        dataModelProcessor.transformRows(List.of(item));
         return item;
     }
 }
@@ -1,18 +1,33 @@
 package com.coda.core.batch.processor;
 
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.columnar.ColumnSchema;
+import com.coda.core.batch.columnar.ColumnVector;
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.columnar.NumericColumnVector;
+import com.coda.core.batch.columnar.StringColumnVector;
+import com.coda.core.batch.pipeline.PageSource;
+import com.coda.core.config.ProcessingProperties;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
 import com.coda.core.exceptions.DataExtractionException;
 import com.coda.core.repository.DataModelRepository;
+import com.coda.core.util.transform.ColumnProfile;
 import com.coda.core.util.transform.DataTransformation;
+import com.coda.core.util.transform.TransformPlan;
 import com.coda.core.util.types.ErrorType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 @Component
 @Slf4j
@@ -20,26 +35,48 @@ public class DataModelProcessor {
 
     private final DataTransformation dataTransformation;
 
+    private final ColumnProcessor columnProcessor = new ColumnProcessor();
+
+    private final ProcessingProperties processingProperties;
+
+    private final ExecutorService executor;
+
     public DataModelProcessor(DataTransformation transformation) {
+        this(transformation, new ProcessingProperties(), null);
+    }
+
+    @Autowired
+    public DataModelProcessor(DataTransformation transformation,
+                              ProcessingProperties properties,
+                              @Qualifier("etlProcessingExecutor") ExecutorService processingExecutor) {
         this.dataTransformation = transformation;
+        this.processingProperties = properties;
+        this.executor = processingExecutor;
     }
 
     public void processAndSaveDataModels(final List<DataModel<Object>> dataModels,
                                          final int batchSize,
                                          final DataModelRepository dataModelRepository)
             throws DataExtractionException, ClassNotFoundException {
+        processAndSaveDataModels(dataModels, batchSize, dataModelRepository, new ColumnProfile());
+    }
+
+    public void processAndSaveDataModels(final List<DataModel<Object>> dataModels,
+                                         final int batchSize,
+                                         final DataModelRepository dataModelRepository,
+                                         final ColumnProfile profile)
+            throws DataExtractionException, ClassNotFoundException {
         validateDataModels(dataModels);
 
-        for (DataModel<Object> dataModel : dataModels) {
-            if (dataModel.getAttributesMap() != null) {
-                for (DataAttributes<?> dataAttributes : dataModel.getAttributesMap().values()) {
-                    processDataAttributes(dataAttributes);
-                }
-            }
+        if (isParallel(dataModels)) {
+            processInParallel(dataModels, batchSize, dataModelRepository, profile);
+            return;
         }
 
-        // Normalize the data set
-        normalizeDataSet(dataModels);
+        processRows(dataModels);
+
+        // Impute, clamp outliers and normalize column by column
+        normalizeDataSet(dataModels, profile);
 
         List<List<DataModel<Object>>> partitions = partitionList(dataModels, batchSize);
         for (List<DataModel<Object>> batch : partitions) {
@@ -47,6 +84,79 @@ public class DataModelProcessor {
         }
     }
 
+    // Row-local transforms only, so rows can be transformed one at a time
+    // and normalized later, column by column, with normalizeDataModels.
+    public void transformRows(final List<DataModel<Object>> dataModels)
+            throws DataExtractionException, ClassNotFoundException {
+        validateDataModels(dataModels);
+        processRows(dataModels);
+    }
+
+    public void normalizeDataModels(final List<DataModel<Object>> dataModels,
+                                    final ColumnProfile profile) {
+        normalizeDataSet(dataModels, profile);
+    }
+
+    // Normalizes rows already transformed with transformRows and saves them.
+    public void normalizeAndSaveDataModels(final List<DataModel<Object>> dataModels,
+                                           final int batchSize,
+                                           final DataModelRepository dataModelRepository,
+                                           final ColumnProfile profile)
+            throws DataExtractionException {
+        normalizeDataSet(dataModels, profile);
+        for (List<DataModel<Object>> batch : partitionList(dataModels, batchSize)) {
+            saveProcessedDataModels(dataModelRepository, batch);
+        }
+    }
+
+    // First pass over a streamed source: the first etl.processing.profile-rows
+    // rows, or all rows when 0, are transformed and profiled, then the profile
+    // is frozen so that every batch of the stream is scaled with the same
+    // statistics. The pages are not saved, the stream reads them again.
+    public ColumnProfile profileSource(final PageSource<Object> source,
+                                       final ColumnProfile profile) throws Exception {
+        long profileRows = processingProperties.getProfileRows();
+        long profiled = 0;
+        while (profileRows <= 0 || profiled < profileRows) {
+            List<DataModel<Object>> page = source.nextPage();
+            if (page.isEmpty()) {
+                break;
+            }
+            processRows(page);
+            profile.update(page);
+            profiled += page.size();
+        }
+        log.debug("Profiled the first {} rows of the source", profiled);
+        return profile.freeze();
+    }
+
+    // For sources that push their batches and cannot be read twice.
+    public WarmUpBatchHandler warmUpHandler(final int batchSize,
+                                            final DataModelRepository dataModelRepository,
+                                            final ColumnProfile profile,
+                                            final DataModelBatchHandler<Object> next) {
+        return new WarmUpBatchHandler(this, dataModelRepository, batchSize,
+                processingProperties.getProfileRows(), profile, next);
+    }
+
+    public void processColumnarBatch(final ColumnarBatch batch)
+            throws DataExtractionException {
+        Objects.requireNonNull(batch, "Batch cannot be null");
+        if (batch.getRowCount() == 0) {
+            throw new DataExtractionException("Batch cannot be empty.",
+                    ErrorType.DATA_EXTRACTION_FAILED);
+        }
+
+        for (int column = 0; column < batch.getColumnCount(); column++) {
+            ColumnSchema schema = batch.getSchema().get(column);
+            ColumnVector vector = batch.getVectors().get(column);
+            applyDefaultValue(schema, vector);
+            validateColumn(schema, vector);
+        }
+
+        columnProcessor.process(batch);
+    }
+
     public void saveProcessedDataModels(final DataModelRepository dataModelRepository,
                                         final List<DataModel<Object>> dataModels)
             throws DataExtractionException {
@@ -59,89 +169,216 @@ public class DataModelProcessor {
         }
     }
 
-    private <T> void normalizeDataSet(List<DataModel<T>> dataModels) {
+    private <T> void normalizeDataSet(List<DataModel<T>> dataModels, ColumnProfile profile) {
         Objects.requireNonNull(dataModels, "Data models cannot be null");
-        try {
-            dataTransformation.normalize(dataModels);
+        columnProcessor.process(dataModels, profile);
+        encodeCategoricalAttributes(dataModels);
+    }
 
-            Set<String> categoricalAttributes = new HashSet<>();
-            dataModels.forEach(dataModel -> dataModel.getAttributesMap().values()
-                    .forEach(dataAttributes -> {
-                if (dataAttributes.getType().equals("java.lang.String")) {
-                    categoricalAttributes.add(dataAttributes.getAttributeName());
-                }
-            }));
+    private <T> void encodeCategoricalAttributes(List<DataModel<T>> dataModels) {
+        Set<String> categoricalAttributes = new HashSet<>();
+        dataModels.forEach(dataModel -> dataModel.getAttributesMap().values()
+                .forEach(dataAttributes -> {
+            if (dataAttributes.getType().equals("java.lang.String")) {
+                categoricalAttributes.add(dataAttributes.getAttributeName());
+            }
+        }));
+
+        dataTransformation.encodeCatVariables(dataModels, categoricalAttributes);
+    }
+
+    private void processRows(final List<DataModel<Object>> dataModels)
+            throws DataExtractionException, ClassNotFoundException {
+        Map<String, List<DataAttributes<?>>> columns = new LinkedHashMap<>();
+        for (DataModel<Object> dataModel : dataModels) {
+            if (dataModel.getAttributesMap() != null) {
+                dataModel.getAttributesMap().forEach((name, dataAttributes) -> columns
+                        .computeIfAbsent(name, key -> new ArrayList<>(dataModels.size()))
+                        .add(dataAttributes));
+            }
+        }
+
+        Instant processedAt = Instant.now();
+        for (List<DataAttributes<?>> column : columns.values()) {
+            processColumn(column, processedAt);
+        }
+    }
+
+    private void processColumn(final List<DataAttributes<?>> column, final Instant processedAt)
+            throws DataExtractionException, ClassNotFoundException {
+        // A column almost always has one type and format, so its plan is compiled
+        // once and only recompiled for the odd row that differs.
+        TransformPlan plan = null;
+        for (DataAttributes<?> dataAttributes : column) {
+            String type = Objects.requireNonNullElse(dataAttributes.getType(), "");
+            String format = Objects.requireNonNullElse(dataAttributes.getFormat(), "");
+            if (plan == null || !plan.matches(type, format)) {
+                plan = dataTransformation.compilePlan(type, format);
+            }
+            processDataAttributes(dataAttributes, plan, processedAt);
+        }
+    }
+
+    //== parallel processing ==
+
+    private boolean isParallel(final List<DataModel<Object>> dataModels) {
+        return executor != null && processingProperties.isParallel()
+                && dataModels.size() > processingProperties.getMinPartitionSize();
+    }
+
+    private void processInParallel(final List<DataModel<Object>> dataModels,
+                                   final int batchSize,
+                                   final DataModelRepository dataModelRepository,
+                                   final ColumnProfile profile)
+            throws DataExtractionException, ClassNotFoundException {
+        int parallelism = processingProperties.effectiveParallelism();
+        int partitionSize = Math.max(processingProperties.getMinPartitionSize(),
+                (dataModels.size() + parallelism - 1) / parallelism);
+        List<List<DataModel<Object>>> partitions = partitionList(dataModels, partitionSize);
+        log.debug("Processing {} data models in {} partitions", dataModels.size(), partitions.size());
+
+        // Row-local transforms and the first statistics pass run per partition,
+        // the partial profiles are then reduced into the profile, unless
+        // it is frozen and applied as it is.
+        List<ColumnProfile> partialProfiles = runOnPartitions(partitions, partition -> {
+            processRows(partition);
+            return profile.isFrozen() ? null : new ColumnProfile().update(partition);
+        });
+        if (!profile.isFrozen()) {
+            partialProfiles.forEach(profile::merge);
+        }
+
+        runOnPartitions(partitions, partition -> {
+            columnProcessor.apply(partition, profile);
+            return null;
+        });
+        encodeCategoricalAttributes(dataModels);
 
-            dataTransformation.encodeCatVariables(dataModels, categoricalAttributes);
-        } catch (ClassNotFoundException e) {
-            log.error("Error normalizing data models: {}", e.getMessage());
+        saveConcurrently(dataModelRepository, partitionList(dataModels, batchSize));
+    }
+
+    private <R> List<R> runOnPartitions(final List<List<DataModel<Object>>> partitions,
+                                        final PartitionTask<R> task)
+            throws DataExtractionException, ClassNotFoundException {
+        List<Future<R>> futures = new ArrayList<>(partitions.size());
+        for (List<DataModel<Object>> partition : partitions) {
+            futures.add(executor.submit(() -> task.run(partition)));
         }
+        return awaitAll(futures);
     }
 
-    private <T> void processDataAttributes(DataAttributes<T> dataAttributes)
+    private void saveConcurrently(final DataModelRepository dataModelRepository,
+                                  final List<List<DataModel<Object>>> batches)
             throws DataExtractionException, ClassNotFoundException {
-        String type = Objects.requireNonNullElse(dataAttributes.getType(), "");
-        T value = dataAttributes.getValue();
+        Semaphore permits = new Semaphore(Math.max(1, processingProperties.getSaveConcurrency()));
+        List<Future<Object>> futures = new ArrayList<>(batches.size());
+        try {
+            for (List<DataModel<Object>> batch : batches) {
+                permits.acquire();
+                if (futures.stream().anyMatch(this::hasFailed)) {
+                    permits.release();
+                    break;
+                }
+                futures.add(executor.submit(() -> {
+                    try {
+                        saveProcessedDataModels(dataModelRepository, batch);
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new DataExtractionException("Interrupted while saving data models",
+                    ErrorType.DATA_SAVE_ERROR);
+        }
+        awaitAll(futures);
+    }
+
+    private boolean hasFailed(final Future<?> future) {
+        return future.state() == Future.State.FAILED;
+    }
 
-        if (isValueNullOrEmpty(value)) {
+    private <R> List<R> awaitAll(final List<Future<R>> futures)
+            throws DataExtractionException, ClassNotFoundException {
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new DataExtractionException("Interrupted while processing data models",
+                    ErrorType.DATA_EXTRACTION_FAILED);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            // ForkJoinPool wraps the exceptions of a Callable in plain RuntimeExceptions
+            Throwable cause = e.getCause();
+            for (Throwable t = cause; t != null; t = t.getCause()) {
+                if (t instanceof DataExtractionException dataExtractionException) {
+                    throw dataExtractionException;
+                } else if (t instanceof ClassNotFoundException classNotFoundException) {
+                    throw classNotFoundException;
+                } else if (t instanceof RuntimeException runtimeException
+                        && t.getClass() != RuntimeException.class) {
+                    throw runtimeException;
+                }
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new DataExtractionException("Error processing data models: "
+                    + cause, ErrorType.DATA_EXTRACTION_FAILED);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask<R> {
+        R run(List<DataModel<Object>> partition) throws Exception;
+    }
+
+    private <T> void processDataAttributes(final DataAttributes<T> dataAttributes,
+                                           final TransformPlan plan,
+                                           final Instant processedAt)
+            throws DataExtractionException, ClassNotFoundException {
+        if (isValueNullOrEmpty(dataAttributes.getValue())) {
             dataAttributes.applyDefaultValue();
-            value = dataAttributes.getValue();
         }
 
-        String format = Objects.requireNonNullElse(dataAttributes.getFormat(), "");
         String attributeName = Objects.requireNonNullElse(dataAttributes.getAttributeName(), "");
-
-        value = transformAndCleanValue(type, value, format, attributeName);
+        T value = plan.apply(dataAttributes.getValue(), attributeName);
+        value = dataTransformation.cleanCategoricalValues(plan.getType(), value);
         dataAttributes.setValue(value);
 
-        processAttributeByType(type, dataAttributes);
+        checkAttributeType(plan.getType(), value);
 
         dataAttributes.applyDefaultValue();
         validateAttribute(dataAttributes);
-        dataAttributes.setLastUpdatedDate(Instant.now());
+        dataAttributes.setLastUpdatedDate(processedAt);
     }
 
     private <T> boolean isValueNullOrEmpty(T value) {
         return value == null || (value instanceof String && ((String) value).isEmpty());
     }
 
-    private <T> void processAttributeByType(String type, DataAttributes<T> dataAttributes)
-            throws DataExtractionException, ClassNotFoundException {
-        if (isNumericType(type)) {
-            processNumericAttribute(List.of(dataAttributes));
-        } else if (isStringType(type)) {
-            processStringAttribute(dataAttributes);
-        } else if (isDateType(type)) {
-            processDateAttribute(dataAttributes);
-        } else if (isBooleanType(type)) {
-            processBooleanAttribute(dataAttributes);
-        } else if ("java.lang.Object".equals(type)) {
-            processObjectAttribute(dataAttributes);
-        } else {
+    private void checkAttributeType(final String type, final Object value)
+            throws DataExtractionException {
+        // Numbers and strings are imputed, clamped and scaled column wise
+        // by the ColumnProcessor once all rows are transformed; dates and
+        // booleans are final once the plan has converted them.
+        if ("java.lang.Object".equals(type)) {
+            checkObjectValue(value);
+        } else if (!isDateType(type) && !isBooleanType(type)
+                && !isNumericType(type) && !isStringType(type)) {
             throw new DataExtractionException("Unknown attribute type: "
                     + type, ErrorType.UNKNOWN_ATTRIBUTE_TYPE);
         }
     }
 
-    private <T> void processBooleanAttribute(DataAttributes<T> attributes) {
-        List<DataAttributes<Boolean>> booleanAttributes = convertToBooleanAttributes(List.of(attributes));
-        if (!booleanAttributes.isEmpty()) {
-            DataAttributes<Boolean> booleanDataAttributes = booleanAttributes.get(0);
-            dataTransformation.transformValue(booleanDataAttributes.getType(),
-                    booleanDataAttributes.getValue(), booleanDataAttributes.getFormat(),
-                    booleanDataAttributes.getAttributeName());
-        }
-    }
-
-    private <T> List<DataAttributes<Boolean>> convertToBooleanAttributes(final List<DataAttributes<T>> attributes) {
-        return attributes.stream()
-                .filter(attr -> attr.getValue() instanceof Boolean)
-                .map(attr -> new DataAttributes<>(attr.getAttributeName(),
-                        attr.getValue(), attr.getType(),
-                        Boolean.class))
-                .collect(Collectors.toList());
-    }
-
     private boolean isBooleanType(String type) {
         return "java.lang.Boolean".equals(type) || "BOOLEAN".equals(type);
     }
@@ -155,48 +392,6 @@ public class DataModelProcessor {
                 || "java.sql.Timestamp".equals(type);
     }
 
-    private <T> void processDateAttribute(DataAttributes<T> dataAttributes) {
-        List<DataAttributes<LocalDateTime>> dateAttributes = convertToDateAttributes(List.of(dataAttributes));
-        if (!dateAttributes.isEmpty()) {
-            DataAttributes<LocalDateTime> dateAttribute = dateAttributes.get(0);
-            dataTransformation.transformValue(dateAttribute.getType(),
-                    dateAttribute.getValue(),
-                    dateAttribute.getFormat(),
-                    dateAttribute.getAttributeName());
-        }
-    }
-
-    private <T> List<DataAttributes<LocalDateTime>> convertToDateAttributes(final List<DataAttributes<T>> attributes) {
-        return attributes.stream()
-                .filter(attr -> attr.getValue() instanceof LocalDateTime)
-                .map(attr -> new DataAttributes<>(attr.getAttributeName(),
-                        attr.getValue(), attr.getType(),
-                        LocalDateTime.class))
-                .collect(Collectors.toList());
-    }
-
-    private <T> T transformAndCleanValue(String type, T value, String format, String attributeName)
-            throws ClassNotFoundException {
-        value = dataTransformation.transformValue(type, value, format, attributeName);
-        value = dataTransformation.cleanCategoricalValues(type, value);
-        return value;
-    }
-
-    private <T> void processNumericAttribute(List<DataAttributes<T>> dataAttributes)
-            throws ClassNotFoundException {
-        List<DataAttributes<Number>> numberAttributes = convertToNumberAttributes(dataAttributes);
-        if (!numberAttributes.isEmpty()) {
-            DataAttributes<Number> numberAttribute = numberAttributes.get(0);
-            dataTransformation.removeOutliers(numberAttributes);
-            dataTransformation.replaceMissingNumericalValues(numberAttributes, numberAttribute);
-        }
-    }
-
-    private <T> void processStringAttribute(DataAttributes<T> dataAttributes) {
-        List<DataAttributes<T>> attributes = List.of(dataAttributes);
-        dataTransformation.replaceMissingCategoricalValues(attributes, dataAttributes.getType());
-    }
-
     private boolean isNumericType(String type) {
         return "java.lang.Integer".equals(type)
                 || "java.lang.Double".equals(type)
@@ -211,21 +406,6 @@ public class DataModelProcessor {
                 || "VARCHAR".equals(type);
     }
 
-    private <T> List<DataAttributes<Number>> convertToNumberAttributes(List<DataAttributes<T>> attributes) throws ClassNotFoundException {
-        List<DataAttributes<Number>> numberAttributes = new ArrayList<>();
-        for (DataAttributes<T> attribute : attributes) {
-            String typeClazzName = attribute.getTypeClazzName();
-            Class<?> clazz = Class.forName(typeClazzName);
-
-            if (Number.class.isAssignableFrom(clazz) && !clazz.equals(Number.class)) {
-                numberAttributes.add((DataAttributes<Number>) attribute);
-            } else {
-                log.warn("Unsupported numerical type: {}", typeClazzName);
-            }
-        }
-        return numberAttributes;
-    }
-
     private void validateDataModels(final List<DataModel<Object>> dataModels)
             throws DataExtractionException {
         if (dataModels == null || dataModels.isEmpty()) {
@@ -243,6 +423,47 @@ public class DataModelProcessor {
         }
     }
 
+    private void applyDefaultValue(final ColumnSchema schema, final ColumnVector vector) {
+        Object defaultValue = schema.getDefaultValue();
+        if (defaultValue == null) {
+            return;
+        }
+        for (int row = 0; row < vector.size(); row++) {
+            if (isValueNullOrEmpty(vector.getObject(row))) {
+                vector.setObject(row, defaultValue);
+            }
+        }
+    }
+
+    private void validateColumn(final ColumnSchema schema, final ColumnVector vector)
+            throws DataExtractionException {
+        boolean nonNegative = schema.getRules().contains("non-negative")
+                && vector instanceof NumericColumnVector;
+        boolean nonEmpty = schema.getRules().contains("non-empty")
+                && vector instanceof StringColumnVector;
+        if (!schema.isRequired() && !nonNegative && !nonEmpty) {
+            return;
+        }
+
+        for (int row = 0; row < vector.size(); row++) {
+            boolean valid;
+            if (vector.isNull(row)) {
+                valid = !schema.isRequired();
+            } else if (nonNegative) {
+                valid = ((NumericColumnVector) vector).getAsDouble(row) >= 0;
+            } else if (nonEmpty || schema.isRequired()) {
+                valid = !isValueNullOrEmpty(vector.getObject(row));
+            } else {
+                valid = true;
+            }
+            if (!valid) {
+                log.error("Validation failed for column '{}' at row {}", schema.getName(), row);
+                throw new DataExtractionException("Validation failed for attribute: "
+                        + schema.getName(), ErrorType.VALIDATION_FAILED);
+            }
+        }
+    }
+
     private <T> List<List<T>> partitionList(final List<T> list, final int size) {
         List<List<T>> partitions = new ArrayList<>();
         for (int i = 0; i < list.size(); i += size) {
@@ -251,18 +472,9 @@ public class DataModelProcessor {
         return partitions;
     }
 
-    private <T> void processObjectAttribute(DataAttributes<T> dataAttributes)
-            throws ClassNotFoundException, DataExtractionException {
-        Object value = dataAttributes.getValue();
-        if (value instanceof Boolean) {
-            processBooleanAttribute((DataAttributes<Boolean>) dataAttributes);
-        } else if (value instanceof Number) {
-            processNumericAttribute(List.of(dataAttributes));
-        } else if (value instanceof String) {
-            processStringAttribute((DataAttributes<String>) dataAttributes);
-        } else if (value instanceof LocalDateTime) {
-            processDateAttribute((DataAttributes<LocalDateTime>) dataAttributes);
-        } else {
+    private void checkObjectValue(final Object value) throws DataExtractionException {
+        if (!(value instanceof Number || value instanceof String
+                || value instanceof Boolean || value instanceof LocalDateTime)) {
             throw new DataExtractionException("Unsupported object type: "
                     + value.getClass(),
                     ErrorType.UNKNOWN_ATTRIBUTE_TYPE);
@@ -0,0 +1,123 @@
+package com.coda.core.batch.processor;
+
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.entities.DataModel;
+import com.coda.core.repository.DataModelRepository;
+import com.coda.core.util.transform.ColumnProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WarmUpBatchHandler normalizes a pushed stream with a frozen profile.
+ * <p>Streams that cannot be read twice, like change streams or files,
+ * have no separate statistics pass. The first batches are transformed,
+ * profiled and held back until the warm-up rows have been seen, or the
+ * stream ends and {@link #finish()} is called; the profile is then
+ * frozen and the held batches are normalized and passed on in order.
+ * Later batches are normalized with the frozen profile as they arrive.
+ * </p>
+ */
+public final class WarmUpBatchHandler implements DataModelBatchHandler<Object> {
+
+    /**
+     * The processor transforming and saving the batches.
+     */
+    private final DataModelProcessor processor;
+
+    /**
+     * The repository the batches are saved to.
+     */
+    private final DataModelRepository repository;
+
+    /**
+     * The number of data models saved at a time.
+     */
+    private final int batchSize;
+
+    /**
+     * The rows profiled before the profile is frozen, 0 for all of them.
+     */
+    private final long warmUpRows;
+
+    /**
+     * The profile of the stream.
+     */
+    private final ColumnProfile profile;
+
+    /**
+     * The handler receiving the normalized batches.
+     */
+    private final DataModelBatchHandler<Object> next;
+
+    /**
+     * The batches profiled but not yet normalized.
+     */
+    private final List<List<DataModel<Object>>> held = new ArrayList<>();
+
+    /**
+     * The number of rows profiled so far.
+     */
+    private long profiledRows;
+
+    /**
+     * Constructor for WarmUpBatchHandler.
+     * @param dataModelProcessor the processor.
+     * @param dataModelRepository the repository.
+     * @param size the number of data models saved at a time.
+     * @param rows the rows profiled before freezing, 0 for all of them.
+     * @param columnProfile the profile of the stream.
+     * @param nextHandler the handler receiving the normalized batches.
+     */
+    public WarmUpBatchHandler(final DataModelProcessor dataModelProcessor,
+                              final DataModelRepository dataModelRepository,
+                              final int size,
+                              final long rows,
+                              final ColumnProfile columnProfile,
+                              final DataModelBatchHandler<Object> nextHandler) {
+        this.processor = dataModelProcessor;
+        this.repository = dataModelRepository;
+        this.batchSize = size;
+        this.warmUpRows = rows;
+        this.profile = columnProfile;
+        this.next = nextHandler;
+    }
+
+    @Override
+    public void handle(final List<DataModel<Object>> batch) throws Exception {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (profile.isFrozen()) {
+            processor.processAndSaveDataModels(batch, batchSize, repository, profile);
+            next.handle(batch);
+            return;
+        }
+        processor.transformRows(batch);
+        profile.update(batch);
+        held.add(batch);
+        profiledRows += batch.size();
+        if (warmUpRows > 0 && profiledRows >= warmUpRows) {
+            release();
+        }
+    }
+
+    /**
+     * Ends the warm-up of a stream shorter than the warm-up rows.
+     * @throws Exception if a held batch cannot be handled.
+     */
+    public void finish() throws Exception {
+        if (!profile.isFrozen()) {
+            release();
+        }
+    }
+
+    private void release() throws Exception {
+        profile.freeze();
+        for (List<DataModel<Object>> batch : held) {
+            processor.normalizeAndSaveDataModels(batch, batchSize, repository, profile);
+            next.handle(batch);
+        }
+        held.clear();
+    }
+}
@@ -1,7 +1,69 @@
 package com.coda.core.config;
 
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 @Configuration
 public class AppConfig {
+
+    /**
+     * The seconds running jobs are given to finish on shutdown.
+     */
+    private static final int SHUTDOWN_SECONDS = 60;
+
+    /**
+     * The executor running the parallel transformation and
+     * saving of data model batches.
+     * @param properties the processing properties.
+     * @return the executor.
+     */
+    @Bean(name = "etlProcessingExecutor", destroyMethod = "shutdown")
+    public ExecutorService etlProcessingExecutor(
+            final ProcessingProperties properties) {
+        return new ForkJoinPool(properties.effectiveParallelism());
+    }
+
+    /**
+     * The executor running the asynchronous ETL jobs.
+     * <p>Jobs wait for admission in the {@code EtlAdmissionController},
+     * which hands no more jobs over than {@code etl.async.max-concurrent-jobs}.
+     * The platform pool has as many threads; its queue only covers a job
+     * handed over while a thread is being released. On shutdown the
+     * running jobs, already asked to stop, are given time to load the
+     * batches they have read.</p>
+     * <p>With {@code spring.threads.virtual.enabled} each job runs on a
+     * new virtual thread instead, so the number of jobs is bounded by the
+     * admission limits and the connection pools alone.</p>
+     * @param properties the asynchronous job properties.
+     * @param environment the environment enabling virtual threads.
+     * @return the executor.
+     */
+    @Bean(name = "etlAsyncJobExecutor")
+    public TaskExecutor etlAsyncJobExecutor(
+            final AsyncEtlProperties properties, final Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("etl-job-");
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(SHUTDOWN_SECONDS * 1000L);
+            return executor;
+        }
+        int threads = Math.max(1, properties.getMaxConcurrentJobs());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("etl-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(SHUTDOWN_SECONDS);
+        executor.initialize();
+        return executor;
+    }
 }
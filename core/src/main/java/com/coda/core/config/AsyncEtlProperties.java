@@ -0,0 +1,42 @@
+package com.coda.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "etl.async")
+@Getter @Setter
+public class AsyncEtlProperties {
+
+    /**
+     * The number of ETL jobs run at the same time, in total.
+     * <p>With platform threads the job executor gets as many threads;
+     * with virtual threads this is the only bound on the jobs run.</p>
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * The number of ETL jobs run at the same time against
+     * one source database.
+     */
+    private int maxJobsPerSource = 1;
+
+    /**
+     * The number of submitted ETL jobs waiting to run;
+     * further jobs are rejected.
+     */
+    private int queueCapacity = 10;
+
+    /**
+     * The seconds a rejected client is asked to wait before
+     * retrying, until the duration of a finished job is known.
+     */
+    private long retryAfterSeconds = 30;
+
+    /**
+     * The number of finished ETL jobs whose status is kept.
+     */
+    private int retainedJobs = 100;
+}
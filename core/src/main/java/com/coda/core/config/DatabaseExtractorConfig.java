@@ -1,9 +1,12 @@
 package com.coda.core.config;
 
+import com.coda.core.util.db.BulkLoader;
+import com.coda.core.util.db.MongoClientRegistry;
 import com.coda.core.util.db.MongoDBConnectionFactory;
 import com.coda.core.util.db.MongoDBExtractor;
 import com.coda.core.util.db.MySQLExtractor;
 import com.coda.core.util.timestamps.FileTimestampStorage;
+import com.coda.core.util.timestamps.WatermarkStore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -15,12 +18,16 @@ public class DatabaseExtractorConfig {
      * mySQLExtractor().
      * mySQLExtractor is a bean that is
      * used to extract data from a MySQL database.
+     * @param loadProperties The bulk load settings
      * @return MySQLExtractor
      */
     @Bean
-    public MySQLExtractor mySQLExtractor() {
+    public MySQLExtractor mySQLExtractor(final LoadProperties loadProperties) {
 
-        return new MySQLExtractor();
+        MySQLExtractor extractor = new MySQLExtractor();
+        extractor.setBulkLoader(new BulkLoader(loadProperties.getStrategy(),
+                loadProperties.getMaxPacketBytes()));
+        return extractor;
     }
 
     /**
@@ -29,8 +36,10 @@ public class DatabaseExtractorConfig {
      * used to extract data from a MongoDB database.
      * @param mongoDBConnectionFactory The connection factory
      *  used to connect to the database
-     * @param config The configuration for the database
+     * @param registry The registry of the shared clients
      * @param fts The timestamp storage
+     * @param properties The read settings of the database
+     * @param watermarkStore The watermark of each collection
      * @return MongoDBExtractor
      */
 
@@ -38,9 +47,12 @@ public class DatabaseExtractorConfig {
     @Lazy
     public MongoDBExtractor mongoDBExtractor(
             final MongoDBConnectionFactory mongoDBConnectionFactory,
-            final MongoDBConfig config, final FileTimestampStorage fts) {
+            final MongoClientRegistry registry, final FileTimestampStorage fts,
+            final MongoDBProperties properties,
+            final WatermarkStore watermarkStore) {
 
-        return new MongoDBExtractor(mongoDBConnectionFactory, config, fts);
+        return new MongoDBExtractor(mongoDBConnectionFactory, registry, fts,
+                properties, watermarkStore);
     }
 
     // more db config
@@ -0,0 +1,313 @@
+package com.coda.core.config;
+
+import com.coda.core.batch.job.DataModelItemWriter;
+import com.coda.core.batch.job.KeyRangePartitioner;
+import com.coda.core.batch.job.PartitionFailureListener;
+import com.coda.core.batch.job.TableItemReader;
+import com.coda.core.batch.job.TableProfileTasklet;
+import com.coda.core.batch.processor.DataModelItemProcessor;
+import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.entities.DataModel;
+import com.coda.core.repository.DataModelRepository;
+import com.coda.core.util.db.DatabaseExtractorFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Spring Batch job copying a table to a target table.
+ * <p>A first step profiles the source table once, so every range is
+ * normalized with the same statistics. The manager step then splits
+ * the table into primary key ranges and runs one worker step per range
+ * on the job task executor. A worker step reads its range with keyset
+ * pagination, transforms each row and upserts one chunk at a time on
+ * the key. The position of each range is committed with its chunk, so
+ * a failed job restarted with the same parameters skips the completed
+ * ranges and resumes the others after their last committed chunk; a
+ * chunk written again is replaced rather than duplicated.
+ * </p>
+ * <p>The target table is always written to the source database, with
+ * the extractor of the source database type; there is no target
+ * database of its own. Every step runs with the
+ * {@code mysqlTransactionManager} of the batch metadata database,
+ * whatever the source database type. It covers the step and range
+ * positions only; each chunk is committed by the extractor on its own
+ * connection, which is why a chunk may be written twice and is upserted.
+ * </p>
+ */
+@Configuration
+public class EtlJobConfig {
+
+    /**
+     * The name of the table ETL job.
+     */
+    public static final String TABLE_ETL_JOB = "tableEtlJob";
+
+    /**
+     * Job parameter: the type of the source database.
+     */
+    public static final String SOURCE_DB_TYPE = "sourceDbType";
+
+    /**
+     * Job parameter: the url of the source database.
+     */
+    public static final String SOURCE_URL = "sourceUrl";
+
+    /**
+     * Job parameter: the username of the source database. The password
+     * is not kept with the job, the steps use the pool opened for it.
+     */
+    public static final String SOURCE_USER = "sourceUser";
+
+    /**
+     * Job parameter: the name of the source table.
+     */
+    public static final String SOURCE_TABLE = "sourceTable";
+
+    /**
+     * Job parameter: the primary key column of the source table.
+     */
+    public static final String KEY_COLUMN = "keyColumn";
+
+    /**
+     * Job parameter: the name of the target table.
+     */
+    public static final String TARGET_TABLE = "targetTable";
+
+    /**
+     * Creates the executor running the partitions.
+     * <p>With {@code spring.threads.virtual.enabled} each partition runs
+     * on its own virtual thread, at most grid size of them at once.</p>
+     * @param properties the job properties.
+     * @param environment the environment enabling virtual threads.
+     * @return the task executor.
+     */
+    @Bean(name = "etlJobTaskExecutor")
+    public TaskExecutor etlJobTaskExecutor(final EtlJobProperties properties,
+                                           final Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("etl-partition-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(Math.max(1, properties.getGridSize()));
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, properties.getGridSize()));
+        executor.setMaxPoolSize(Math.max(1, properties.getGridSize()));
+        executor.setThreadNamePrefix("etl-partition-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the partitioner splitting the source table by key range.
+     * @param factory the extractor factory.
+     * @param sourceDbType the type of the source database.
+     * @param sourceUrl the url of the source database.
+     * @param sourceUser the username of the source database.
+     * @param sourceTable the name of the source table.
+     * @param keyColumn the primary key column.
+     * @return the partitioner.
+     */
+    @Bean
+    @StepScope
+    public KeyRangePartitioner keyRangePartitioner(
+            final DatabaseExtractorFactory factory,
+            @Value("#{jobParameters['" + SOURCE_DB_TYPE + "']}") final String sourceDbType,
+            @Value("#{jobParameters['" + SOURCE_URL + "']}") final String sourceUrl,
+            @Value("#{jobParameters['" + SOURCE_USER + "']}") final String sourceUser,
+            @Value("#{jobParameters['" + SOURCE_TABLE + "']}") final String sourceTable,
+            @Value("#{jobParameters['" + KEY_COLUMN + "']}") final String keyColumn) {
+        return new KeyRangePartitioner(factory.getExtractor(sourceDbType, sourceUrl, sourceUser),
+                sourceTable, keyColumn);
+    }
+
+    /**
+     * Creates the reader of one key range.
+     * @param factory the extractor factory.
+     * @param properties the job properties.
+     * @param sourceDbType the type of the source database.
+     * @param sourceUrl the url of the source database.
+     * @param sourceUser the username of the source database.
+     * @param sourceTable the name of the source table.
+     * @param keyColumn the primary key column.
+     * @param lowerKey the key the range starts after, null for none.
+     * @param upperKey the largest key of the range, null for none.
+     * @return the reader.
+     */
+    @Bean
+    @StepScope
+    public TableItemReader tableItemReader(
+            final DatabaseExtractorFactory factory,
+            final EtlJobProperties properties,
+            @Value("#{jobParameters['" + SOURCE_DB_TYPE + "']}") final String sourceDbType,
+            @Value("#{jobParameters['" + SOURCE_URL + "']}") final String sourceUrl,
+            @Value("#{jobParameters['" + SOURCE_USER + "']}") final String sourceUser,
+            @Value("#{jobParameters['" + SOURCE_TABLE + "']}") final String sourceTable,
+            @Value("#{jobParameters['" + KEY_COLUMN + "']}") final String keyColumn,
+            @Value("#{stepExecutionContext['" + KeyRangePartitioner.LOWER_KEY + "']}")
+            final Object lowerKey,
+            @Value("#{stepExecutionContext['" + KeyRangePartitioner.UPPER_KEY + "']}")
+            final Object upperKey) {
+        return new TableItemReader(factory.getExtractor(sourceDbType, sourceUrl, sourceUser),
+                sourceTable, keyColumn, lowerKey, upperKey, properties.getChunkSize());
+    }
+
+    /**
+     * Creates the tasklet profiling the source table.
+     * @param factory the extractor factory.
+     * @param processor the processor profiling the rows.
+     * @param properties the job properties.
+     * @return the tasklet.
+     */
+    @Bean
+    public TableProfileTasklet tableProfileTasklet(final DatabaseExtractorFactory factory,
+                                                   final DataModelProcessor processor,
+                                                   final EtlJobProperties properties) {
+        return new TableProfileTasklet(factory, processor, properties.getChunkSize());
+    }
+
+    /**
+     * Creates the writer of one key range.
+     * @param factory the extractor factory.
+     * @param processor the processor normalizing the chunks.
+     * @param repository the repository the rows are saved to.
+     * @param profiles the tasklet holding the profile of the job.
+     * @param sourceDbType the type of the database.
+     * @param sourceUrl the url of the database, the target table is
+     *                  written next to the source table.
+     * @param sourceUser the username of the database.
+     * @param keyColumn the key column the rows are upserted on.
+     * @param targetTable the name of the target table.
+     * @param jobExecutionId the id of the job execution.
+     * @return the writer.
+     */
+    @Bean
+    @StepScope
+    public DataModelItemWriter dataModelItemWriter(
+            final DatabaseExtractorFactory factory,
+            final DataModelProcessor processor,
+            @Qualifier("dataModelRepository") final DataModelRepository repository,
+            final TableProfileTasklet profiles,
+            @Value("#{jobParameters['" + SOURCE_DB_TYPE + "']}") final String sourceDbType,
+            @Value("#{jobParameters['" + SOURCE_URL + "']}") final String sourceUrl,
+            @Value("#{jobParameters['" + SOURCE_USER + "']}") final String sourceUser,
+            @Value("#{jobParameters['" + KEY_COLUMN + "']}") final String keyColumn,
+            @Value("#{jobParameters['" + TARGET_TABLE + "']}") final String targetTable,
+            @Value("#{stepExecution.jobExecutionId}") final Long jobExecutionId) {
+        return new DataModelItemWriter(factory.getExtractor(sourceDbType, sourceUrl, sourceUser),
+                targetTable, keyColumn, processor, repository,
+                profiles.getProfile(jobExecutionId));
+    }
+
+    /**
+     * Creates the step profiling the source table.
+     * <p>The profile is only held in memory, so the step runs again
+     * when the job is restarted.</p>
+     * @param jobRepository the job repository.
+     * @param transactionManager the transaction manager of the step.
+     * @param tasklet the profiling tasklet.
+     * @return the profiling step.
+     */
+    @Bean
+    public Step tableEtlProfileStep(
+            final JobRepository jobRepository,
+            @Qualifier("mysqlTransactionManager")
+            final PlatformTransactionManager transactionManager,
+            final TableProfileTasklet tasklet) {
+        return new StepBuilder("tableEtlProfileStep", jobRepository)
+                .tasklet(tasklet, transactionManager)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    /**
+     * Creates the step copying one key range.
+     * <p>When a range fails the ranges still running stop after their
+     * current chunk rather than run to the end of a job that has failed
+     * anyway; a restart resumes them from their last committed chunk.
+     * </p>
+     * @param jobRepository the job repository.
+     * @param transactionManager the transaction manager of the chunks.
+     * @param properties the job properties.
+     * @param reader the reader of the range.
+     * @param processor the row processor.
+     * @param writer the writer of the range.
+     * @return the worker step.
+     */
+    @Bean
+    public Step tableEtlWorkerStep(
+            final JobRepository jobRepository,
+            @Qualifier("mysqlTransactionManager")
+            final PlatformTransactionManager transactionManager,
+            final EtlJobProperties properties,
+            final TableItemReader reader,
+            final DataModelItemProcessor processor,
+            final DataModelItemWriter writer) {
+        return new StepBuilder("tableEtlWorkerStep", jobRepository)
+                .<DataModel<Object>, DataModel<Object>>chunk(properties.getChunkSize(),
+                        transactionManager)
+                .reader(reader)
+                .processor(processor)
+                .writer(writer)
+                .listener(new PartitionFailureListener())
+                .build();
+    }
+
+    /**
+     * Creates the step running the key ranges in parallel.
+     * @param jobRepository the job repository.
+     * @param properties the job properties.
+     * @param partitioner the key range partitioner.
+     * @param workerStep the step copying one range.
+     * @param taskExecutor the executor running the ranges.
+     * @return the manager step.
+     */
+    @Bean
+    public Step tableEtlStep(
+            final JobRepository jobRepository,
+            final EtlJobProperties properties,
+            final KeyRangePartitioner partitioner,
+            @Qualifier("tableEtlWorkerStep") final Step workerStep,
+            @Qualifier("etlJobTaskExecutor") final TaskExecutor taskExecutor) {
+        return new StepBuilder("tableEtlStep", jobRepository)
+                .partitioner(workerStep.getName(), partitioner)
+                .step(workerStep)
+                .gridSize(properties.getGridSize())
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    /**
+     * Creates the table ETL job.
+     * @param jobRepository the job repository.
+     * @param profileStep the step profiling the source table.
+     * @param step the manager step.
+     * @param tasklet the tasklet releasing the profile after the job.
+     * @return the job.
+     */
+    @Bean(name = TABLE_ETL_JOB)
+    public Job tableEtlJob(final JobRepository jobRepository,
+                           @Qualifier("tableEtlProfileStep") final Step profileStep,
+                           @Qualifier("tableEtlStep") final Step step,
+                           final TableProfileTasklet tasklet) {
+        return new JobBuilder(TABLE_ETL_JOB, jobRepository)
+                .start(profileStep)
+                .next(step)
+                .listener(tasklet)
+                .build();
+    }
+}
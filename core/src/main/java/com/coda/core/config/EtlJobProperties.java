@@ -0,0 +1,23 @@
+package com.coda.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "etl.job")
+@Getter @Setter
+public class EtlJobProperties {
+
+    /**
+     * The number of rows read, transformed and written per transaction;
+     * also the page size of the reader.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * The number of primary key ranges read in parallel.
+     */
+    private int gridSize = 4;
+}
@@ -0,0 +1,97 @@
+package com.coda.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "etl.file")
+@Getter @Setter
+public class FileProperties {
+
+    /**
+     * How CSV files on the file system are read.
+     */
+    private Reader reader = Reader.PARALLEL;
+
+    /**
+     * The number of chunks of a CSV file parsed at the same time,
+     * 0 to use one thread per available core.
+     */
+    private int parallelism;
+
+    /**
+     * The approximate size in bytes of the chunks a CSV file is split into.
+     */
+    private long chunkSize = 8L * 1024 * 1024;
+
+    /**
+     * The number of rows per batch handed over.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Whether the batches are handed over in file order.
+     */
+    private boolean ordered = true;
+
+    /**
+     * The charset of the CSV files.
+     */
+    private String charset = "UTF-8";
+
+    /**
+     * The number of first rows the column types are inferred from,
+     * 0 to keep every value as text typed Object.
+     */
+    private int sampleSize = 1000;
+
+    /**
+     * The columns the mapped reader materializes, empty for all of them;
+     * the other columns are skipped without being decoded.
+     */
+    private List<String> columns = new ArrayList<>();
+
+    /**
+     * Whether written CSV files are gzip compressed; files whose
+     * name ends in .gz always are.
+     */
+    private boolean compressOutput;
+
+    /**
+     * Resolves the number of chunks parsed at the same time.
+     * @return the configured parallelism, or the number of cores.
+     */
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The ways of reading CSV files.
+     */
+    public enum Reader {
+
+        /**
+         * Parse the file from start to end on one thread.
+         */
+        STREAM,
+
+        /**
+         * Split the file into chunks at record boundaries
+         * and parse them in parallel.
+         */
+        PARALLEL,
+
+        /**
+         * Split the file like {@link #PARALLEL} and tokenize the chunks
+         * straight from memory-mapped regions of the file, with
+         * {@link com.coda.core.util.file.MappedFileExtractor}.
+         */
+        MAPPED
+    }
+}
@@ -0,0 +1,24 @@
+package com.coda.core.config;
+
+import com.coda.core.util.db.BulkLoadStrategy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "etl.load")
+@Getter @Setter
+public class LoadProperties {
+
+    /**
+     * The way rows are written to SQL tables.
+     */
+    private BulkLoadStrategy strategy = BulkLoadStrategy.BATCHED;
+
+    /**
+     * The largest multi row statement in bytes,
+     * 0 to use the max_allowed_packet of the server.
+     */
+    private int maxPacketBytes;
+}
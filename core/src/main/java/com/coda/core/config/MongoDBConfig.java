@@ -1,6 +1,6 @@
 package com.coda.core.config;
 
-import com.coda.core.util.db.MongoDBUtil;
+import com.coda.core.util.db.MongoClientRegistry;
 import com.mongodb.client.MongoClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -18,31 +18,35 @@ public class MongoDBConfig {
      */
     private final MongoDBProperties mongoDBProperties;
 
+    /**
+     * The registry owning the shared clients.
+     */
+    private final MongoClientRegistry mongoClientRegistry;
+
     /**
      * MongoDBConfig constructor.
      * @param properties MongoDB's properties bean.
+     * @param registry the registry owning the shared clients.
      */
     @Autowired
-    public MongoDBConfig(final MongoDBProperties properties) {
+    public MongoDBConfig(final MongoDBProperties properties,
+                         final MongoClientRegistry registry) {
         this.mongoDBProperties = properties;
+        this.mongoClientRegistry = registry;
     }
 
     /**
      * MongoDB client bean.
-     * this bean is used to create a MongoClient instance.
+     * this bean is the shared client of the configured url,
+     * closed by the registry rather than by the context.
      * @return MongoClient object.
      */
 
-    @Bean
+    @Bean(destroyMethod = "")
     @Primary
     public MongoClient mongoClient() {
 
-        return MongoDBUtil
-                .createMongoClient(
-                        mongoDBProperties.getUrl(),
-                        mongoDBProperties.getUsername(),
-                        mongoDBProperties.getPassword()
-                );
+        return mongoClientRegistry.getDefault();
     }
 
     /**
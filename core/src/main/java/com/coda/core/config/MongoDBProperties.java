@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "mongodb")
 @Getter @Setter
@@ -28,6 +30,80 @@ public class MongoDBProperties {
      */
     private String database;
 
+    // Connection pool settings of each client
+
+    /**
+     * The minimum number of connections kept open per server.
+     */
+    private int minPoolSize;
+
+    /**
+     * The maximum number of connections per server.
+     */
+    private int maxPoolSize = 100;
+
+    /**
+     * The maximum number of connections being opened at the same time.
+     */
+    private int maxConnecting = 2;
+
+    /**
+     * The time in milliseconds an idle connection stays open,
+     * 0 to keep it open.
+     */
+    private long maxConnectionIdleTime;
+
+    /**
+     * The connect timeout in milliseconds.
+     */
+    private int connectTimeout = 10000;
+
+    /**
+     * The socket read timeout in milliseconds, 0 for none.
+     */
+    private int readTimeout;
+
+    /**
+     * The number of documents per cursor batch.
+     */
+    private int readBatchSize = 1000;
+
+    /**
+     * The number of _id ranges of a collection scanned
+     * at the same time, 0 to use one per available core.
+     */
+    private int scanParallelism;
+
+    /**
+     * The number of documents per bulk write when loading.
+     */
+    private int loadBatchSize = 1000;
+
+    /**
+     * The number of bulk writes sent at the same time when loading.
+     */
+    private int loadInFlight = 2;
+
+    /**
+     * The fields identifying a document when loading,
+     * documents with the same key are replaced.
+     */
+    private List<String> loadKey = List.of("_id");
+
+    /**
+     * How long a change stream waits for new events, in milliseconds.
+     */
+    private long changeStreamMaxAwaitTime = 1000;
+
+    /**
+     * Resolves the number of ranges scanned at the same time.
+     * @return the configured parallelism, or the number of cores.
+     */
+    public int effectiveScanParallelism() {
+        return scanParallelism > 0 ? scanParallelism
+                : Runtime.getRuntime().availableProcessors();
+    }
+
 
 
     // getters and setters
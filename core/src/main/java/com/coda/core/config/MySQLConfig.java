@@ -1,6 +1,5 @@
 package com.coda.core.config;
 
-import com.coda.core.util.db.SqlDbConnectionFactory;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -15,33 +14,16 @@ import javax.sql.DataSource;
 public class MySQLConfig {
 
     /**
-     * The SqlDbConnectionFactory object.
-     */
-    private final SqlDbConnectionFactory sqlDbConnectionFactory;
-
-    /**
-     * Constructor to inject dependencies.
-     *
-     * @param connectionFactory the connection factory
-     */
-
-    public MySQLConfig(final SqlDbConnectionFactory connectionFactory) {
-        this.sqlDbConnectionFactory = connectionFactory;
-    }
-
-    /**
-     * Creates a DataSource object.
+     * Creates the DataSource of the application, holding the batch
+     * metadata. The databases of the ETL jobs are reached through
+     * the pools of the DataSourceRegistry.
      *
      * @return DataSource object
      */
 
     @Bean(name = "dataSource")
     public DataSource mysqlDataSource() {
-        DataSource dataSource = sqlDbConnectionFactory.dataSource();
-        if (dataSource == null) {
-            return defaultDataSource();
-        }
-        return dataSource;
+        return defaultDataSource();
     }
 
     /**
@@ -37,20 +37,60 @@ public class MySQLProperties {
      * The maximum number of connections that can be
      * allocated in the connection pool.
      */
-    private int maximumPoolSize;
+    private int maximumPoolSize = 10;
+
+    /**
+     * The minimum number of idle connections kept in the pool,
+     * -1 to keep the pool at its maximum size.
+     */
+    private int minimumIdle = -1;
 
     /**
      * The idle timeout in milliseconds for connections in the pool.
      */
-    private long idleTimeout;
+    private long idleTimeout = 600000;
 
     /**
      * The maximum lifetime in milliseconds of a connection in the pool.
      */
-    private long maxLifetime;
+    private long maxLifetime = 600000;
 
     /**
      * The connection timeout in milliseconds for the connection.
      */
-    private long connectionTimeout;
+    private long connectionTimeout = 30000;
+
+    // Connector/J settings, only applied to jdbc:mysql urls
+
+    /**
+     * The number of prepared statements cached per connection.
+     */
+    private int prepStmtCacheSize = 250;
+
+    /**
+     * The longest SQL statement cached, in characters.
+     */
+    private int prepStmtCacheSqlLimit = 2048;
+
+    /**
+     * Whether statements are prepared on the server.
+     */
+    private boolean useServerPrepStmts = true;
+
+    /**
+     * Whether batched inserts are sent as multi row statements.
+     */
+    private boolean rewriteBatchedStatements = true;
+
+    // DataSourceRegistry settings
+
+    /**
+     * The time in milliseconds an unused pool stays open.
+     */
+    private long poolIdleTimeout = 900000;
+
+    /**
+     * The interval in milliseconds between checks for unused pools.
+     */
+    private long poolEvictionInterval = 60000;
 }
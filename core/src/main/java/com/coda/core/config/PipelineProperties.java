@@ -0,0 +1,23 @@
+package com.coda.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "etl.pipeline")
+@Getter @Setter
+public class PipelineProperties {
+
+    /**
+     * Whether extraction, transformation and loading run at the
+     * same time on their own threads.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of batches buffered between two stages.
+     */
+    private int queueCapacity = 2;
+}
@@ -0,0 +1,56 @@
+package com.coda.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "etl.processing")
+@Getter @Setter
+public class ProcessingProperties {
+
+    /**
+     * Whether batches are transformed and saved in parallel.
+     */
+    private boolean parallel;
+
+    /**
+     * The number of threads of the processing executor,
+     * 0 to use one thread per available core.
+     */
+    private int parallelism;
+
+    /**
+     * The number of partitions saved at the same time.
+     */
+    private int saveConcurrency = 4;
+
+    /**
+     * The smallest number of rows given to one processing task.
+     * Batches of at most this size are processed on the calling thread.
+     */
+    private int minPartitionSize = 500;
+
+    /**
+     * The number of rows read from a table per page. Pages larger than
+     * the minimum partition size are split across the processing threads.
+     */
+    private int pageSize = 1000;
+
+    /**
+     * The rows of a streamed source profiled before its first batch is
+     * normalized, 0 to profile the whole source. The profile is frozen
+     * afterwards so every batch is scaled with the same statistics.
+     */
+    private long profileRows = 10000;
+
+    /**
+     * Resolves the number of threads of the processing executor.
+     * @return the configured parallelism, or the number of cores.
+     */
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism
+                : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,53 @@
+package com.coda.core.config;
+
+import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.util.db.DataSourceRegistry;
+import com.coda.core.util.db.MongoClientRegistry;
+import com.coda.core.util.timestamps.FileWatermarkStore;
+import com.coda.core.util.timestamps.JdbcWatermarkStore;
+import com.coda.core.util.timestamps.MongoWatermarkStore;
+import com.coda.core.util.timestamps.WatermarkStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class WatermarkConfig {
+
+    /**
+     * Creates the store of the watermarks of incremental extractions,
+     * with the configured backend.
+     * @param properties the watermark properties.
+     * @param dataSourceRegistry the pools of the jdbc backend.
+     * @param mongoClientRegistry the clients of the mongo backend.
+     * @param mongoDBProperties the MongoDB properties.
+     * @return the watermark store.
+     */
+    @Bean
+    public WatermarkStore watermarkStore(
+            final WatermarkProperties properties,
+            final DataSourceRegistry dataSourceRegistry,
+            final MongoClientRegistry mongoClientRegistry,
+            final MongoDBProperties mongoDBProperties) {
+        return switch (properties.getBackend()) {
+            case JDBC -> {
+                ConnectionDetails connectionDetails = new ConnectionDetails(
+                        properties.getJdbcUrl(), properties.getUsername(),
+                        properties.getPassword());
+                yield new JdbcWatermarkStore(
+                        () -> dataSourceRegistry.getOrCreate(connectionDetails),
+                        properties.getTable());
+            }
+            case MONGO -> {
+                String database = properties.getMongoDatabase() != null
+                        && !properties.getMongoDatabase().isBlank()
+                        ? properties.getMongoDatabase() : mongoDBProperties.getDatabase();
+                yield new MongoWatermarkStore(mongoClientRegistry.getDefault()
+                        .getDatabase(database)
+                        .getCollection(properties.getMongoCollection()));
+            }
+            default -> new FileWatermarkStore(Paths.get(properties.getDirectory()));
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.coda.core.config;
+
+import com.coda.core.util.timestamps.WatermarkBackend;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "etl.watermark")
+@Getter @Setter
+public class WatermarkProperties {
+
+    /**
+     * Where the watermarks of incremental extractions are kept.
+     */
+    private WatermarkBackend backend = WatermarkBackend.FILE;
+
+    /**
+     * The directory of the file backend.
+     */
+    private String directory = "watermarks";
+
+    /**
+     * The url of the database of the jdbc backend.
+     */
+    private String jdbcUrl = "jdbc:h2:file:./watermarks/etl-watermarks";
+
+    /**
+     * The username of the database of the jdbc backend.
+     */
+    private String username = "sa";
+
+    /**
+     * The password of the database of the jdbc backend.
+     */
+    private String password = "";
+
+    /**
+     * The table of the jdbc backend.
+     */
+    private String table = "etl_watermark";
+
+    /**
+     * The database of the mongo backend,
+     * the configured MongoDB database if empty.
+     */
+    private String mongoDatabase;
+
+    /**
+     * The collection of the mongo backend.
+     */
+    private String mongoCollection = "etl_watermarks";
+}
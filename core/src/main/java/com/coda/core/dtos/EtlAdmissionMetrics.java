@@ -0,0 +1,27 @@
+package com.coda.core.dtos;
+
+import java.util.Map;
+
+/**
+ * The load and limits of the ETL job admission control.
+ * @param runningJobs the number of running jobs.
+ * @param queuedJobs the number of jobs waiting to run.
+ * @param maxConcurrentJobs the number of jobs run at once.
+ * @param maxJobsPerSource the number of jobs run at once against one source.
+ * @param maxQueuedJobs the number of jobs that can wait before further
+ *                      jobs are rejected.
+ * @param runningBySource the number of running jobs, by source.
+ * @param queuedBySource the number of waiting jobs, by source.
+ * @param admittedJobs the number of jobs admitted since the start.
+ * @param rejectedJobs the number of jobs rejected since the start.
+ * @param meanJobMillis the mean run time of the finished jobs,
+ *                      null until a job finishes.
+ */
+public record EtlAdmissionMetrics(int runningJobs, int queuedJobs,
+                                  int maxConcurrentJobs, int maxJobsPerSource,
+                                  int maxQueuedJobs,
+                                  Map<String, Integer> runningBySource,
+                                  Map<String, Integer> queuedBySource,
+                                  long admittedJobs, long rejectedJobs,
+                                  Long meanJobMillis) {
+}
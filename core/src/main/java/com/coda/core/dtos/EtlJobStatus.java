@@ -0,0 +1,77 @@
+package com.coda.core.dtos;
+
+import java.time.Instant;
+
+/**
+ * The status of an asynchronous ETL job.
+ * @param jobId the id of the job.
+ * @param state the state of the job.
+ * @param sourceTable the source table name.
+ * @param targetTable the target table name.
+ * @param submittedAt when the job was submitted.
+ * @param startedAt when the job started running, null while queued.
+ * @param finishedAt when the job finished, null until then.
+ * @param rowsRead the number of rows read from the source.
+ * @param rowsTransformed the number of rows transformed.
+ * @param rowsLoaded the number of rows loaded to the target.
+ * @param totalRows the estimated number of rows to load, null when unknown.
+ * @param rowsPerSecond the number of rows loaded per second since the start.
+ * @param etaSeconds the estimated seconds left, null when unknown.
+ * @param error the failure message, null unless the job failed.
+ * @param batchExecutionId the Spring Batch execution of a table job,
+ *                         used to restart it, null for other jobs or
+ *                         until it has ended.
+ */
+public record EtlJobStatus(String jobId, State state,
+                           String sourceTable, String targetTable,
+                           Instant submittedAt, Instant startedAt,
+                           Instant finishedAt, long rowsRead,
+                           long rowsTransformed, long rowsLoaded,
+                           Long totalRows, double rowsPerSecond,
+                           Long etaSeconds, String error,
+                           Long batchExecutionId) {
+
+    /**
+     * The states of an ETL job.
+     */
+    public enum State {
+
+        /**
+         * Waiting for a thread.
+         */
+        QUEUED,
+
+        /**
+         * Running.
+         */
+        RUNNING,
+
+        /**
+         * Asked to stop, loading the batches already read.
+         */
+        CANCELLING,
+
+        /**
+         * Every row has been loaded.
+         */
+        COMPLETED,
+
+        /**
+         * Stopped on a failure.
+         */
+        FAILED,
+
+        /**
+         * Stopped on request.
+         */
+        CANCELLED;
+
+        /**
+         * Checks whether the job has finished.
+         * @return true once the job no longer runs.
+         */
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.coda.core.exceptions;
+
+import com.coda.core.util.types.ErrorType;
+import lombok.Getter;
+
+@Getter
+public class EtlJobException extends RuntimeException {
+    /**
+     * The errorType thrown.
+     */
+    private final ErrorType errorType;
+
+    /**
+     * The seconds after which a rejected job may be submitted
+     * again, null if retrying does not help.
+     */
+    private final Long retryAfterSeconds;
+
+    /**
+     * Constructor.
+     * @param msg the error message.
+     * @param type  the error type.
+     */
+
+    public EtlJobException(final String msg, final ErrorType type) {
+        this(msg, type, null);
+    }
+
+    /**
+     * Constructor.
+     * @param msg the error message.
+     * @param type  the error type.
+     * @param retryAfter the seconds after which to retry.
+     */
+
+    public EtlJobException(final String msg, final ErrorType type,
+                           final Long retryAfter) {
+        super(msg);
+        this.errorType = type;
+        this.retryAfterSeconds = retryAfter;
+    }
+}
@@ -0,0 +1,407 @@
+package com.coda.core.service;
+
+import com.coda.core.batch.EtlProgress;
+import com.coda.core.config.AsyncEtlProperties;
+import com.coda.core.config.EtlJobConfig;
+import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.dtos.EtlAdmissionMetrics;
+import com.coda.core.dtos.EtlJobStatus;
+import com.coda.core.exceptions.EtlJobException;
+import com.coda.core.util.types.ErrorType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service running ETL processes in the background.
+ * <p>A submitted job gets an id straight away and is run once the
+ * {@link EtlAdmissionController} admits it, which bounds the jobs run
+ * in total and against each source database; once its queue is full
+ * further jobs are rejected. The rows read, transformed and loaded by
+ * a job can be queried while it runs, along with its throughput and
+ * an estimate of the time left.
+ * </p>
+ * <p>A cancelled job stops reading and loads the batches already read,
+ * so the target is left at a batch boundary and the next run of the
+ * same tables resumes from its checkpoint. The status of the most
+ * recent finished jobs is kept for queries.
+ * </p>
+ * <p>Table jobs run the partitioned Spring Batch job of
+ * {@link EtlJobService} under the same admission control. Their status
+ * carries the batch execution, by which a failed run is restarted.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AsyncEtlService {
+
+    /**
+     * The service running the ETL processes.
+     */
+    private final ETLService etlService;
+
+    /**
+     * The service launching the Spring Batch table jobs.
+     */
+    private final EtlJobService etlJobService;
+
+    /**
+     * The admission control starting the jobs.
+     */
+    private final EtlAdmissionController admissionController;
+
+    /**
+     * The number of finished jobs whose status is kept.
+     */
+    private final int retainedJobs;
+
+    /**
+     * The jobs, by id.
+     */
+    private final Map<String, EtlJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for AsyncEtlService.
+     * @param service the service running the ETL processes.
+     * @param jobService the service launching the table jobs.
+     * @param admission the admission control starting the jobs.
+     * @param properties the asynchronous job properties.
+     */
+    public AsyncEtlService(final ETLService service,
+                           final EtlJobService jobService,
+                           final EtlAdmissionController admission,
+                           final AsyncEtlProperties properties) {
+        this.etlService = service;
+        this.etlJobService = jobService;
+        this.admissionController = admission;
+        this.retainedJobs = Math.max(0, properties.getRetainedJobs());
+    }
+
+    /**
+     * Submits an ETL process.
+     * @param connectionDetails the connection details.
+     * @param sourceDbType the source db type.
+     * @param sourceTableName the source table name.
+     * @param targetTableName the target table name.
+     * @param targetDbType the target db type.
+     * @param watermarkColumn the column an incremental run reads changes
+     *                        by, null to load the whole table.
+     * @return the status of the submitted job.
+     * @throws EtlJobException if the job queue is full.
+     */
+    public EtlJobStatus submit(final ConnectionDetails connectionDetails,
+                               final String sourceDbType, final String sourceTableName,
+                               final String targetTableName, final String targetDbType,
+                               final String watermarkColumn) {
+        Objects.requireNonNull(connectionDetails, "Connection details cannot be null");
+        EtlJob job = new EtlJob(UUID.randomUUID().toString(),
+                sourceTableName, targetTableName, true);
+        Runnable process = () -> {
+            if (watermarkColumn != null && !watermarkColumn.isBlank()) {
+                etlService.performETLProcess(connectionDetails, sourceDbType,
+                        sourceTableName, targetTableName, targetDbType,
+                        watermarkColumn, job.progress);
+            } else {
+                etlService.performETLProcess(connectionDetails, sourceDbType,
+                        sourceTableName, targetTableName, targetDbType,
+                        job.progress);
+            }
+        };
+        return admit(connectionDetails, job, process);
+    }
+
+    /**
+     * Submits a run of the partitioned table job.
+     * <p>A running table job is not interrupted by a cancellation,
+     * it ends with the state of its batch execution. The target table
+     * is written to the source database.</p>
+     * @param connectionDetails the connection details.
+     * @param sourceDbType the source db type.
+     * @param sourceTableName the source table name.
+     * @param targetTableName the target table name.
+     * @return the status of the submitted job.
+     * @throws EtlJobException if the job queue is full.
+     */
+    public EtlJobStatus submitTableJob(final ConnectionDetails connectionDetails,
+                                       final String sourceDbType,
+                                       final String sourceTableName,
+                                       final String targetTableName) {
+        Objects.requireNonNull(connectionDetails, "Connection details cannot be null");
+        EtlJob job = new EtlJob(UUID.randomUUID().toString(),
+                sourceTableName, targetTableName, false);
+        return admit(connectionDetails, job, () -> runBatch(job,
+                () -> etlJobService.runTableJob(connectionDetails, sourceDbType,
+                        sourceTableName, targetTableName)));
+    }
+
+    /**
+     * Submits the restart of a failed or stopped table job, which
+     * resumes the key ranges after their last committed chunk.
+     * @param batchExecutionId the batch execution to restart.
+     * @param connectionDetails the connection details of its source.
+     * @return the status of the submitted job.
+     * @throws IllegalArgumentException if there is no such execution.
+     * @throws EtlJobException if the job queue is full.
+     */
+    public EtlJobStatus restartTableJob(final long batchExecutionId,
+                                        final ConnectionDetails connectionDetails) {
+        Objects.requireNonNull(connectionDetails, "Connection details cannot be null");
+        JobParameters parameters = etlJobService.getJobParameters(batchExecutionId);
+        EtlJob job = new EtlJob(UUID.randomUUID().toString(),
+                parameters.getString(EtlJobConfig.SOURCE_TABLE),
+                parameters.getString(EtlJobConfig.TARGET_TABLE), false);
+        return admit(connectionDetails, job, () -> runBatch(job,
+                () -> etlJobService.restart(batchExecutionId, connectionDetails)));
+    }
+
+    /**
+     * Returns the status of a job.
+     * @param jobId the id of the job.
+     * @return the status.
+     * @throws EtlJobException if there is no such job.
+     */
+    public EtlJobStatus getStatus(final String jobId) {
+        return find(jobId).status();
+    }
+
+    /**
+     * Returns the status of every job kept, oldest first.
+     * @return the statuses.
+     */
+    public List<EtlJobStatus> listJobs() {
+        return jobs.values().stream()
+                .map(EtlJob::status)
+                .sorted(Comparator.comparing(EtlJobStatus::submittedAt))
+                .toList();
+    }
+
+    /**
+     * Cancels a job.
+     * <p>A queued job never starts. A running job stops once the
+     * batches it has read are loaded, a running table job is left to
+     * finish. Cancelling a finished job has no effect.</p>
+     * @param jobId the id of the job.
+     * @return the status after the cancellation.
+     * @throws EtlJobException if there is no such job.
+     */
+    public EtlJobStatus cancel(final String jobId) {
+        EtlJob job = find(jobId);
+        EtlAdmissionController.Admission admission = job.admission;
+        if (job.cancel() && admission != null) {
+            // Free its place in the queue rather than wait for a thread.
+            admissionController.withdraw(admission);
+        }
+        log.info("ETL job {} cancellation requested, now {}", jobId, job.state);
+        return job.status();
+    }
+
+    /**
+     * Returns the load and limits of the admission control.
+     * @return the metrics.
+     */
+    public EtlAdmissionMetrics getAdmissionMetrics() {
+        return admissionController.metrics();
+    }
+
+    /**
+     * Asks the running jobs to stop before the executor shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(EtlJob::cancel);
+    }
+
+    private EtlJobStatus admit(final ConnectionDetails connectionDetails,
+                               final EtlJob job, final Runnable process) {
+        jobs.put(job.id, job);
+        try {
+            // Jobs are limited per source database, told apart by their url.
+            job.admission = admissionController.admit(
+                    String.valueOf(connectionDetails.getUrl()), () -> run(job, process));
+        } catch (EtlJobException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        log.info("ETL job {} submitted from {} to {}", job.id,
+                job.sourceTable, job.targetTable);
+        evictFinishedJobs();
+        return job.status();
+    }
+
+    private void runBatch(final EtlJob job, final BatchLaunch launch) {
+        JobExecution execution;
+        try {
+            execution = launch.run();
+        } catch (JobExecutionException e) {
+            throw new EtlJobException("Table job could not be launched: "
+                    + e.getMessage(), ErrorType.ETL_PROCESS_FAILED);
+        }
+        job.batchExecutionId = execution.getId();
+        for (StepExecution step : execution.getStepExecutions()) {
+            // The manager step sums its partitions, named <worker step>:<partition>.
+            if (step.getStepName().indexOf(':') < 0) {
+                continue;
+            }
+            job.progress.addRead(step.getReadCount());
+            job.progress.addTransformed(step.getWriteCount());
+            job.progress.addLoaded(step.getWriteCount());
+        }
+        if (execution.getStatus() != BatchStatus.COMPLETED) {
+            throw new EtlJobException("Batch execution " + execution.getId()
+                    + " ended " + execution.getStatus() + ": "
+                    + execution.getExitStatus().getExitDescription(),
+                    ErrorType.ETL_PROCESS_FAILED);
+        }
+    }
+
+    private void run(final EtlJob job, final Runnable process) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            process.run();
+            job.finish(job.progress.isCancelled()
+                    ? EtlJobStatus.State.CANCELLED : EtlJobStatus.State.COMPLETED, null);
+        } catch (RuntimeException e) {
+            job.finish(EtlJobStatus.State.FAILED, e.getMessage());
+        }
+        log.info("ETL job {} {} after {} rows", job.id, job.state,
+                job.progress.getRowsLoaded());
+    }
+
+    private EtlJob find(final String jobId) {
+        EtlJob job = jobId != null ? jobs.get(jobId) : null;
+        if (job == null) {
+            throw new EtlJobException("No ETL job with id " + jobId,
+                    ErrorType.ETL_JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    private void evictFinishedJobs() {
+        List<EtlJob> finished = jobs.values().stream()
+                .filter(job -> job.state.isFinished())
+                .sorted(Comparator.comparing(job -> job.finishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - retainedJobs; i++) {
+            jobs.remove(finished.get(i).id);
+        }
+    }
+
+    /**
+     * Launches or restarts a batch execution.
+     */
+    @FunctionalInterface
+    private interface BatchLaunch {
+
+        JobExecution run() throws JobExecutionException;
+    }
+
+    /**
+     * One submitted job and its progress.
+     */
+    private static final class EtlJob {
+
+        private final String id;
+
+        private final String sourceTable;
+
+        private final String targetTable;
+
+        private final boolean stoppable;
+
+        private final EtlProgress progress = new EtlProgress();
+
+        private final Instant submittedAt = Instant.now();
+
+        private volatile Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private volatile EtlJobStatus.State state = EtlJobStatus.State.QUEUED;
+
+        private volatile String error;
+
+        private volatile EtlAdmissionController.Admission admission;
+
+        private volatile Long batchExecutionId;
+
+        EtlJob(final String jobId, final String source, final String target,
+               final boolean canStop) {
+            this.id = jobId;
+            this.sourceTable = source;
+            this.targetTable = target;
+            this.stoppable = canStop;
+        }
+
+        synchronized boolean start() {
+            if (state != EtlJobStatus.State.QUEUED) {
+                return false;
+            }
+            state = EtlJobStatus.State.RUNNING;
+            startedAt = Instant.now();
+            return true;
+        }
+
+        synchronized void finish(final EtlJobStatus.State finalState,
+                                 final String message) {
+            finishedAt = Instant.now();
+            error = message;
+            state = finalState;
+        }
+
+        /**
+         * Asks the job to stop.
+         * @return true if the job was still queued and has been
+         * cancelled outright.
+         */
+        synchronized boolean cancel() {
+            if (state == EtlJobStatus.State.QUEUED) {
+                progress.cancel();
+                finish(EtlJobStatus.State.CANCELLED, null);
+                return true;
+            }
+            if (state == EtlJobStatus.State.RUNNING && stoppable) {
+                progress.cancel();
+                state = EtlJobStatus.State.CANCELLING;
+            }
+            return false;
+        }
+
+        EtlJobStatus status() {
+            Instant started = startedAt;
+            Instant finished = finishedAt;
+            long loaded = progress.getRowsLoaded();
+            long total = progress.getTotalRows();
+            double rowsPerSecond = 0;
+            if (started != null) {
+                long millis = Duration.between(started,
+                        finished != null ? finished : Instant.now()).toMillis();
+                rowsPerSecond = millis > 0 ? loaded * 1000.0 / millis : 0;
+            }
+            Long eta = null;
+            if (finished == null && total >= 0 && rowsPerSecond > 0) {
+                eta = (long) Math.ceil(Math.max(total - loaded, 0) / rowsPerSecond);
+            }
+            return new EtlJobStatus(id, state, sourceTable, targetTable,
+                    submittedAt, started, finished, progress.getRowsRead(),
+                    progress.getRowsTransformed(), loaded,
+                    total >= 0 ? total : null, rowsPerSecond, eta, error,
+                    batchExecutionId);
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package com.coda.core.service;
 
+import com.coda.core.batch.BatchCheckpoint;
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.EtlProgress;
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.pipeline.EtlPipeline;
+import com.coda.core.batch.pipeline.PipelineStatistics;
 import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.batch.processor.WarmUpBatchHandler;
+import com.coda.core.config.ProcessingProperties;
 import com.coda.core.dtos.ConnectionDetails;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
@@ -10,7 +18,12 @@ import com.coda.core.exceptions.ReadFromDbExceptions;
 import com.coda.core.repository.DataModelRepository;
 import com.coda.core.util.db.DatabaseExtractor;
 import com.coda.core.util.db.DatabaseExtractorFactory;
+import com.coda.core.util.db.TablePageReader;
 import com.coda.core.util.file.FileExtractor;
+import com.coda.core.util.timestamps.Watermark;
+import com.coda.core.util.timestamps.WatermarkKey;
+import com.coda.core.util.timestamps.WatermarkStore;
+import com.coda.core.util.transform.ColumnProfile;
 import com.coda.core.util.transform.DataTransformation;
 import com.coda.core.util.types.ErrorType;
 import lombok.extern.slf4j.Slf4j;
@@ -30,12 +43,18 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static com.coda.core.util.Constants.BATCH_SIZE;
+import static com.coda.core.util.timestamps.Watermark.LAST_KEY;
 
 
 /**
@@ -50,6 +69,21 @@ import static com.coda.core.util.Constants.BATCH_SIZE;
 @Slf4j
 public class DataModelService {
 
+    /**
+     * The watermark value naming the watermark column of a table.
+     */
+    private static final String WATERMARK_COLUMN = "watermarkColumn";
+
+    /**
+     * The watermark value holding the tie breaker of the last row read.
+     */
+    private static final String LAST_TIE_BREAKER = "lastTieBreaker";
+
+    /**
+     * The watermark value naming the tie breaker column of a table.
+     */
+    private static final String TIE_BREAKER_COLUMN = "tieBreakerColumn";
+
     /**
      * The DataModelRepository interface.
      */
@@ -93,6 +127,19 @@ public class DataModelService {
      */
     private  final DataModelProcessor dataModelProcessor;
 
+    /**
+     * The WatermarkStore object.
+     * This is used to save how far incremental
+     * extractions have read each table.
+     */
+    private final WatermarkStore watermarkStore;
+
+    /**
+     * The ProcessingProperties object.
+     * This holds the number of rows read per page.
+     */
+    private final ProcessingProperties processingProperties;
+
     /**
      * Constructor for DataModelService.
      * @param dataModels the DataModelRepository object.
@@ -102,6 +149,8 @@ public class DataModelService {
      * @param template the MongoTemplate object.
      * @param transformation the DataTransformation object.
      * @param processor the DataModelProcessor object.
+     * @param watermarks the WatermarkStore object.
+     * @param properties the ProcessingProperties object.
      */
     public DataModelService(@Qualifier("dataModelRepository")
                             final DataModelRepository dataModels,
@@ -110,7 +159,9 @@ public class DataModelService {
                            final ResourceLoader resLoader,
                             final MongoTemplate template,
                             final DataTransformation transformation,
-                            final DataModelProcessor processor) {
+                            final DataModelProcessor processor,
+                            final WatermarkStore watermarks,
+                            final ProcessingProperties properties) {
         this.dataModelRepository = dataModels;
         this.databaseExtractorFactory = dbExtractorFactory;
         this.fileExtractor = fExtractor;
@@ -118,6 +169,8 @@ public class DataModelService {
         this.mongoTemplate = template;
         this.dataTransformation = transformation;
         this.dataModelProcessor = processor;
+        this.watermarkStore = watermarks;
+        this.processingProperties = properties;
     }
 
     //== public methods ==
@@ -127,6 +180,8 @@ public class DataModelService {
 
     /**
      * Reads data from a relational database.
+     * <p>The table is paged with keyset pagination on its primary key
+     * when it has one, otherwise with LIMIT/OFFSET.</p>
      *
      * @param tableName The name of the table to read from
      * @param type      The type of the database
@@ -140,37 +195,256 @@ public class DataModelService {
             final ConnectionDetails connectionDetails,
             final String type, final String tableName)
             throws ReadFromDbExceptions {
+        return extractDataFromTable(connectionDetails, type, tableName, null);
+    }
 
-        validateArguments(type, tableName);
+    /**
+     * Reads data from a relational database with keyset pagination.
+     * <p>Each page is read with {@code WHERE key > ? ORDER BY key LIMIT ?},
+     * so the cost of a page does not grow with the depth of the extraction.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table to read from
+     * @param keyColumn A unique, monotonic column to seek on, or null
+     *                  to use the primary key of the table
+     * @return A list of DataModel objects
+     * @throws ReadFromDbExceptions if the table name is invalid
+     */
+
+    @Transactional(rollbackFor = ReadFromDbExceptions.class)
+    public List<DataModel<Object>> extractDataFromTable(
+            final ConnectionDetails connectionDetails,
+            final String type, final String tableName,
+            final String keyColumn)
+            throws ReadFromDbExceptions {
+
+        List<DataModel<Object>> allDataModels = new ArrayList<>();
+        streamDataFromTable(connectionDetails, type, tableName,
+                keyColumn, allDataModels::addAll);
+        return allDataModels;
+    }
+
+    /**
+     * Streams data from a relational database batch by batch.
+     * <p>Every page is read, processed and handed to the handler
+     * before the next page is read. No page is retained once the
+     * handler returns, so the memory used depends on the batch size
+     * and not on the number of rows in the table. Column statistics
+     * are profiled from the start of the table before the first page
+     * is processed, so every page is scaled with the same statistics.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table to read from
+     * @param keyColumn A unique, monotonic column to seek on, or null
+     *                  to use the primary key of the table
+     * @param handler   The handler receiving each processed batch
+     * @return The number of rows streamed
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public long streamDataFromTable(
+            final ConnectionDetails connectionDetails,
+            final String type, final String tableName,
+            final String keyColumn,
+            final DataModelBatchHandler<Object> handler)
+            throws ReadFromDbExceptions {
+        return streamDataFromTable(connectionDetails, type, tableName,
+                keyColumn, null, handler, (lastKey, rows) -> { }, new EtlProgress());
+    }
+
+    /**
+     * Streams data from a relational database, resuming after a key.
+     * <p>The checkpoint is told the key of the last row of every batch
+     * the handler returns from, so a stopped job can be started again
+     * with that key and skip the batches already handled.
+     * </p>
+     * <p>The rows read and transformed are counted on the progress, and
+     * no further page is read once it has been cancelled.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table to read from
+     * @param keyColumn A unique, monotonic column to seek on, or null
+     *                  to use the primary key of the table
+     * @param afterKey  The last key already handled, or null to read
+     *                  from the start
+     * @param handler   The handler receiving each processed batch
+     * @param checkpoint Told about each handled batch
+     * @param progress  Counts the rows and carries the cancellation
+     * @return The number of rows streamed
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public long streamDataFromTable(
+            final ConnectionDetails connectionDetails,
+            final String type, final String tableName,
+            final String keyColumn, final Object afterKey,
+            final DataModelBatchHandler<Object> handler,
+            final BatchCheckpoint checkpoint,
+            final EtlProgress progress)
+            throws ReadFromDbExceptions {
+
+        validateArguments(type, tableName, handler, checkpoint, progress);
         Objects.requireNonNull(connectionDetails,
                 "Connection details cannot be null");
 
         try {
-            DatabaseExtractor databaseExtractor
-                    = databaseExtractorFactory.getExtractor(type.trim().toLowerCase());
+            DatabaseExtractor databaseExtractor = databaseExtractorFactory
+                    .getExtractor(type.trim().toLowerCase(), connectionDetails);
             Objects.requireNonNull(databaseExtractor,
                     "No suitable extractor for provided db type found");
+            TablePageReader pageReader = openPageReader(databaseExtractor,
+                    tableName, keyColumn, afterKey);
+            ColumnProfile profile = profileTable(databaseExtractor,
+                    tableName, pageReader.getKeyColumn());
 
-            databaseExtractor.configureDataSource(connectionDetails);
-            List<DataModel<Object>> allDataModels = new ArrayList<>();
-            int offSet = 0;
-
-            while (true) {
-                List<DataModel<Object>> dataModels
-                        = databaseExtractor.readData(tableName, BATCH_SIZE, offSet);
+            while (!progress.isCancelled()) {
+                List<DataModel<Object>> dataModels = pageReader.nextPage();
                 if (dataModels.isEmpty()) {
                     break;
                 }
+                progress.addRead(dataModels.size());
 
-                processAndSaveDataModels(dataModels);
-                allDataModels.addAll(dataModels);
-                offSet += BATCH_SIZE;
-
+                dataModelProcessor.processAndSaveDataModels(dataModels,
+                        BATCH_SIZE, dataModelRepository, profile);
+                progress.addTransformed(dataModels.size());
+                handler.handle(dataModels);
+                checkpoint.commit(pageReader.getLastKey(), dataModels.size());
             }
 
             log.info("Total {} data models processed from table {}",
-                    allDataModels.size(), tableName);
-            return allDataModels;
+                    pageReader.getRowsRead(), tableName);
+            return pageReader.getRowsRead();
+
+        } catch (SQLException e) {
+            log.error("SQL error while reading data from database: {}, "
+                    + "Cause: {}", e.getMessage(), " {} ", e.getCause());
+            throw new ReadFromDbExceptions("SQL error reading from database: "
+                    + e.getMessage(), ErrorType.READ_FROM_DB_EXCEPTIONS);
+        } catch (Exception e) {
+            log.error("Unexpected error during data extraction: {},"
+                    + " Cause: {}", e.getMessage(), " {} ", e.getCause());
+            throw new RuntimeException("Unexpected error during data extraction", e);
+        }
+    }
+
+
+    /**
+     * Streams data from a relational database through a pipeline.
+     * <p>Reading, processing and handing over run on their own threads:
+     * the next page is read while the current one is processed, and the
+     * handler receives a batch while the next one is processed. The stages
+     * are joined by queues of {@code queueCapacity} batches, so a slow
+     * stage holds back the others instead of filling the heap.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table to read from
+     * @param keyColumn A unique, monotonic column to seek on, or null
+     *                  to use the primary key of the table
+     * @param queueCapacity The number of batches held between two stages
+     * @param handler   The handler receiving each processed batch,
+     *                  called from a single thread in page order
+     * @return The timing of each stage
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public PipelineStatistics pipelineDataFromTable(
+            final ConnectionDetails connectionDetails,
+            final String type, final String tableName,
+            final String keyColumn, final int queueCapacity,
+            final DataModelBatchHandler<Object> handler)
+            throws ReadFromDbExceptions {
+        return pipelineDataFromTable(connectionDetails, type, tableName,
+                keyColumn, null, queueCapacity, handler, (lastKey, rows) -> { },
+                new EtlProgress());
+    }
+
+    /**
+     * Streams data from a relational database through a pipeline,
+     * resuming after a key.
+     * <p>The key of the last row of each page is taken when the page is
+     * read and travels with it through the stages, so the checkpoint is
+     * told the key of a batch only once the handler returned from it.
+     * Once the progress is cancelled no further page is read; the
+     * batches already read go through the remaining stages.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table to read from
+     * @param keyColumn A unique, monotonic column to seek on, or null
+     *                  to use the primary key of the table
+     * @param afterKey  The last key already handled, or null to read
+     *                  from the start
+     * @param queueCapacity The number of batches held between two stages
+     * @param handler   The handler receiving each processed batch,
+     *                  called from a single thread in page order
+     * @param checkpoint Told about each handled batch, from the thread
+     *                   calling the handler
+     * @param progress  Counts the rows and carries the cancellation
+     * @return The timing of each stage
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public PipelineStatistics pipelineDataFromTable(
+            final ConnectionDetails connectionDetails,
+            final String type, final String tableName,
+            final String keyColumn, final Object afterKey,
+            final int queueCapacity,
+            final DataModelBatchHandler<Object> handler,
+            final BatchCheckpoint checkpoint,
+            final EtlProgress progress)
+            throws ReadFromDbExceptions {
+
+        validateArguments(type, tableName, handler, checkpoint, progress);
+        Objects.requireNonNull(connectionDetails,
+                "Connection details cannot be null");
+
+        try {
+            DatabaseExtractor databaseExtractor = databaseExtractorFactory
+                    .getExtractor(type.trim().toLowerCase(), connectionDetails);
+            Objects.requireNonNull(databaseExtractor,
+                    "No suitable extractor for provided db type found");
+            TablePageReader pageReader = openPageReader(databaseExtractor,
+                    tableName, keyColumn, afterKey);
+            ColumnProfile profile = profileTable(databaseExtractor,
+                    tableName, pageReader.getKeyColumn());
+            // The last key of each page read, in page order.
+            Queue<Optional<Object>> lastKeys = new ConcurrentLinkedQueue<>();
+
+            PipelineStatistics statistics = new EtlPipeline(queueCapacity).run(
+                    () -> {
+                        if (progress.isCancelled()) {
+                            return List.of();
+                        }
+                        List<DataModel<Object>> page = pageReader.nextPage();
+                        if (!page.isEmpty()) {
+                            lastKeys.add(Optional.ofNullable(pageReader.getLastKey()));
+                            progress.addRead(page.size());
+                        }
+                        return page;
+                    },
+                    dataModels -> {
+                        dataModelProcessor.processAndSaveDataModels(
+                                dataModels, BATCH_SIZE, dataModelRepository, profile);
+                        progress.addTransformed(dataModels.size());
+                    },
+                    dataModels -> {
+                        handler.handle(dataModels);
+                        checkpoint.commit(lastKeys.remove().orElse(null),
+                                dataModels.size());
+                    });
+
+            log.info("Total {} data models processed from table {}",
+                    pageReader.getRowsRead(), tableName);
+            return statistics;
 
         } catch (SQLException e) {
             log.error("SQL error while reading data from database: {}, "
@@ -184,6 +458,203 @@ public class DataModelService {
         }
     }
 
+    /**
+     * Streams the rows of a relational table changed since the last run.
+     * <p>The rows are read in the order of a watermark column, such as
+     * an {@code updated_at} timestamp or an auto-increment id, starting
+     * after the high-water mark saved by the previous run. The mark is
+     * saved after every batch the handler returns from, so a failed run
+     * resumes after the last loaded batch and a nightly run only reads
+     * the rows changed since the night before.
+     * </p>
+     * <p>When the watermark column is not the primary key, the primary
+     * key breaks ties between rows with the same watermark, so rows
+     * sharing the watermark of a batch boundary are not skipped. Rows
+     * must get a watermark above the saved mark when they change;
+     * deletes are not seen.
+     * </p>
+     * <p>The profile is taken from the first changed rows rather than
+     * from the whole table, so a run with no changes reads nothing past
+     * the watermark query. Batches held while profiling are handed over,
+     * and their mark saved, once the profile is frozen.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table to read from
+     * @param watermarkColumn The column that grows whenever a row changes
+     * @param handler   The handler receiving each processed batch
+     * @return The number of rows streamed
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public long streamChangedRowsFromTable(
+            final ConnectionDetails connectionDetails,
+            final String type, final String tableName,
+            final String watermarkColumn,
+            final DataModelBatchHandler<Object> handler)
+            throws ReadFromDbExceptions {
+        return streamChangedRowsFromTable(connectionDetails, type, tableName,
+                watermarkColumn, handler, new EtlProgress());
+    }
+
+    /**
+     * Streams the rows of a relational table changed since the last run,
+     * counting them on a progress.
+     * <p>No further page is read once the progress is cancelled; the
+     * high-water mark stays after the last handled batch.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table to read from
+     * @param watermarkColumn The column that grows whenever a row changes
+     * @param handler   The handler receiving each processed batch
+     * @param progress  Counts the rows and carries the cancellation
+     * @return The number of rows streamed
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public long streamChangedRowsFromTable(
+            final ConnectionDetails connectionDetails,
+            final String type, final String tableName,
+            final String watermarkColumn,
+            final DataModelBatchHandler<Object> handler,
+            final EtlProgress progress)
+            throws ReadFromDbExceptions {
+
+        validateArguments(type, tableName, watermarkColumn, handler, progress);
+        Objects.requireNonNull(connectionDetails,
+                "Connection details cannot be null");
+
+        String dbType = type.trim().toLowerCase();
+        String column = watermarkColumn.trim();
+        WatermarkKey key = new WatermarkKey(dbType,
+                connectionDetails.getUrl(), tableName);
+        try {
+            DatabaseExtractor databaseExtractor = databaseExtractorFactory
+                    .getExtractor(dbType, connectionDetails);
+            Objects.requireNonNull(databaseExtractor,
+                    "No suitable extractor for provided db type found");
+            String primaryKey = databaseExtractor.findKeyColumn(tableName);
+            String tieBreaker = primaryKey != null
+                    && !primaryKey.equalsIgnoreCase(column) ? primaryKey : null;
+            if (primaryKey == null) {
+                log.warn("Table {} has no single column primary key, "
+                        + "watermark column {} must be unique", tableName, column);
+            }
+
+            // A mark saved for other columns cannot be resumed, start over.
+            Watermark watermark = watermarkStore.get(key)
+                    .filter(saved -> column.equals(saved.get(WATERMARK_COLUMN))
+                            && Objects.equals(tieBreaker, saved.get(TIE_BREAKER_COLUMN)))
+                    .orElseGet(() -> Watermark.empty()
+                            .with(WATERMARK_COLUMN, column)
+                            .with(TIE_BREAKER_COLUMN, tieBreaker));
+            TablePageReader pageReader = new TablePageReader(databaseExtractor,
+                    tableName, column, tieBreaker, processingProperties.getPageSize(),
+                    watermark.getPosition(LAST_KEY),
+                    watermark.getPosition(LAST_TIE_BREAKER));
+            log.info("Reading rows of table {} changed after {} {}",
+                    tableName, column, pageReader.getLastKey());
+
+            // Only the changed rows are profiled, so a run costs in
+            // proportion to them; the mark of each page, in page order,
+            // is saved once the page has been handed over.
+            Queue<Watermark> marks = new ArrayDeque<>();
+            WarmUpBatchHandler warmUp = dataModelProcessor.warmUpHandler(BATCH_SIZE,
+                    dataModelRepository, primaryKey != null
+                            ? new ColumnProfile(Set.of(primaryKey))
+                            : new ColumnProfile(),
+                    dataModels -> {
+                        progress.addTransformed(dataModels.size());
+                        handler.handle(dataModels);
+                        watermarkStore.put(key, marks.remove());
+                    });
+
+            while (!progress.isCancelled()) {
+                List<DataModel<Object>> dataModels = pageReader.nextPage();
+                if (dataModels.isEmpty()) {
+                    break;
+                }
+                progress.addRead(dataModels.size());
+                watermark = watermark
+                        .withPosition(LAST_KEY, pageReader.getLastKey())
+                        .withPosition(LAST_TIE_BREAKER, pageReader.getLastTieBreaker());
+                marks.add(watermark);
+                warmUp.handle(dataModels);
+            }
+            warmUp.finish();
+
+            log.info("Total {} changed rows processed from table {}",
+                    pageReader.getRowsRead(), tableName);
+            return pageReader.getRowsRead();
+
+        } catch (ReadFromDbExceptions | DataLoadingException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error during incremental extraction of table {}: {}",
+                    tableName, e.getMessage());
+            throw new ReadFromDbExceptions("Error reading changed rows of "
+                    + tableName + ": " + e.getMessage(),
+                    ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
+
+    /**
+     * Finds the column identifying the rows of a relational table.
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table
+     * @return The single column primary key, or null if the table has
+     *         no primary key or a composite one
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public String findKeyColumn(final ConnectionDetails connectionDetails,
+                                final String type, final String tableName)
+            throws ReadFromDbExceptions {
+
+        validateArguments(type, tableName);
+        Objects.requireNonNull(connectionDetails,
+                "Connection details cannot be null");
+
+        DatabaseExtractor databaseExtractor = databaseExtractorFactory
+                .getExtractor(type.trim().toLowerCase(), connectionDetails);
+        Objects.requireNonNull(databaseExtractor,
+                "No suitable extractor for provided db type found");
+        return databaseExtractor.findKeyColumn(tableName);
+    }
+
+    /**
+     * Estimates the number of rows of a relational table.
+     * <p>The estimate comes from the table statistics of the database,
+     * without counting the rows, so it is cheap on a large table but
+     * may be off by a few percent.
+     * </p>
+     *
+     * @param connectionDetails The connection details of the database
+     * @param type      The type of the database
+     * @param tableName The name of the table
+     * @return The estimated number of rows, negative when unknown
+     * @throws ReadFromDbExceptions if the table cannot be read
+     */
+
+    public long estimateRowCount(final ConnectionDetails connectionDetails,
+                                 final String type, final String tableName)
+            throws ReadFromDbExceptions {
+
+        validateArguments(type, tableName);
+        Objects.requireNonNull(connectionDetails,
+                "Connection details cannot be null");
+
+        DatabaseExtractor databaseExtractor = databaseExtractorFactory
+                .getExtractor(type.trim().toLowerCase(), connectionDetails);
+        Objects.requireNonNull(databaseExtractor,
+                "No suitable extractor for provided db type found");
+        return databaseExtractor.estimateRowCount(tableName);
+    }
 
     /**
      * Reads data from a non-relational database.
@@ -233,6 +704,114 @@ public class DataModelService {
         }
     }
 
+    /**
+     * Streams the documents of a collection batch by batch.
+     * <p>The collection is scanned in parallel {@code _id} ranges with
+     * a bounded cursor batch size and only the requested fields. The
+     * batches are processed and handed to the handler one at a time,
+     * while the scans keep reading, so a large collection is read with
+     * all cores and bounded memory. The first batches are held until
+     * the column statistics are profiled, then every batch is scaled
+     * with the same statistics.
+     * </p>
+     *
+     * @param type The type of the database
+     * @param databaseName The name of the database
+     * @param collectionName The name of the collection
+     * @param url The url of the database
+     * @param fields The fields to read, all fields if empty
+     * @param handler The handler receiving each processed batch
+     * @return The number of documents streamed
+     * @throws ReadFromDbExceptions if the collection cannot be read
+     */
+
+    public long streamDataFromCollection(
+            final String type, final String databaseName,
+            final String collectionName, final String url,
+            final List<String> fields,
+            final DataModelBatchHandler<Object> handler)
+            throws ReadFromDbExceptions {
+
+        validateArguments(type, databaseName, collectionName, url, handler);
+
+        DatabaseExtractor databaseExtractor
+                = databaseExtractorFactory.getExtractor(
+                        type.trim().toLowerCase());
+        Objects.requireNonNull(databaseExtractor,
+                "No suitable extractor for provided db type found");
+
+        WarmUpBatchHandler warmUp = dataModelProcessor.warmUpHandler(BATCH_SIZE,
+                dataModelRepository, new ColumnProfile(), handler);
+        Object lock = new Object();
+        try {
+            long documents = databaseExtractor.streamData(databaseName,
+                    collectionName, url, fields != null ? fields : List.of(),
+                    dataModels -> {
+                        synchronized (lock) {
+                            warmUp.handle(dataModels);
+                        }
+                    });
+            warmUp.finish();
+            return documents;
+        } catch (Exception e) {
+            log.error("Error while streaming collection {}.{}: {}",
+                    databaseName, collectionName, e.getMessage());
+            throw new ReadFromDbExceptions("Error reading from database: "
+                    + e.getMessage(), ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
+
+    /**
+     * Streams the documents of a collection changed since the last call.
+     * <p>Changes are read from the change stream of the collection and
+     * resumed from the token saved after the last handled batch; the
+     * first call reads the whole collection. The batches are processed
+     * and handed to the handler as for {@link #streamDataFromCollection}.
+     * </p>
+     *
+     * @param type The type of the database
+     * @param databaseName The name of the database
+     * @param collectionName The name of the collection
+     * @param url The url of the database
+     * @param handler The handler receiving each processed batch
+     * @return The number of documents streamed
+     * @throws ReadFromDbExceptions if the changes cannot be read
+     */
+
+    public long streamChangesFromCollection(
+            final String type, final String databaseName,
+            final String collectionName, final String url,
+            final DataModelBatchHandler<Object> handler)
+            throws ReadFromDbExceptions {
+
+        validateArguments(type, databaseName, collectionName, url, handler);
+
+        DatabaseExtractor databaseExtractor
+                = databaseExtractorFactory.getExtractor(
+                        type.trim().toLowerCase());
+        Objects.requireNonNull(databaseExtractor,
+                "No suitable extractor for provided db type found");
+
+        WarmUpBatchHandler warmUp = dataModelProcessor.warmUpHandler(BATCH_SIZE,
+                dataModelRepository, new ColumnProfile(), handler);
+        Object lock = new Object();
+        try {
+            long documents = databaseExtractor.streamChanges(databaseName,
+                    collectionName, url, dataModels -> {
+                        synchronized (lock) {
+                            warmUp.handle(dataModels);
+                        }
+                    });
+            warmUp.finish();
+            return documents;
+        } catch (Exception e) {
+            log.error("Error while streaming changes of {}.{}: {}",
+                    databaseName, collectionName, e.getMessage());
+            throw new ReadFromDbExceptions("Error reading from database: "
+                    + e.getMessage(), ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
+
     /**
      * Reads files from classPath.
      * @param resourcePath The path of the file to read from
@@ -269,6 +848,9 @@ public class DataModelService {
 
     /**
      * Reads data from a file on the file system.
+     * <p>The file is read batch by batch, in parallel chunks unless
+     * the stream reader is configured, and each batch is processed and
+     * saved as it arrives.</p>
      *
      * @param filePath The path of the file to read from
      * @throws DataExtractionException if the file path is invalid
@@ -282,10 +864,12 @@ public class DataModelService {
         Path path = Paths.get(filePath);
         validateFileAccess(path);
 
-        try (InputStream inputStream = Files.newInputStream(path)) {
-            List<DataModel<Object>> dataModels
-                    = fileExtractor.readDataWithApacheCSV(inputStream);
-            processAndSaveDataModels(dataModels);
+        try {
+            WarmUpBatchHandler warmUp = dataModelProcessor.warmUpHandler(BATCH_SIZE,
+                    dataModelRepository, new ColumnProfile(), dataModels -> { });
+            long rows = fileExtractor.readDataInBatches(filePath, warmUp);
+            warmUp.finish();
+            log.info("Total {} data models processed from file {}", rows, filePath);
         } catch (IOException e) {
             log.error("Error while reading data from file: {}", filePath, e);
             throw new DataExtractionException(
@@ -306,20 +890,43 @@ public class DataModelService {
 
     /**
      * Loads data to a relational database.
+     * @param connectionDetails the connection details of the database.
      * @param dataModels the data models list.
      * @param tableName the table name.
      * @param type the database type.
      */
 
     @Transactional(rollbackFor = DataLoadingException.class)
-    public void loadDataToSQL(final List<DataModel<Object>> dataModels,
+    public void loadDataToSQL(final ConnectionDetails connectionDetails,
+                              final List<DataModel<Object>> dataModels,
                               final String tableName, final String type) {
+        loadDataToSQL(connectionDetails, dataModels, tableName, type, null);
+    }
+
+    /**
+     * Loads data to a relational database, replacing the rows
+     * loaded before with the same key.
+     * <p>Loading a batch again, e.g. when a failed job is resumed,
+     * updates its rows instead of inserting them twice.</p>
+     * @param connectionDetails the connection details of the database.
+     * @param dataModels the data models list.
+     * @param tableName the table name.
+     * @param type the database type.
+     * @param keyColumn the column identifying a row, null to load
+     *                  without a key.
+     */
+
+    @Transactional(rollbackFor = DataLoadingException.class)
+    public void loadDataToSQL(final ConnectionDetails connectionDetails,
+                              final List<DataModel<Object>> dataModels,
+                              final String tableName, final String type,
+                              final String keyColumn) {
 
-        validateArguments(dataModels, tableName, type);
+        validateArguments(connectionDetails, dataModels, tableName, type);
         try {
             DatabaseExtractor extractor
                     = databaseExtractorFactory.getExtractor(
-                            type.trim().toLowerCase());
+                            type.trim().toLowerCase(), connectionDetails);
 
             Objects.requireNonNull(extractor,
                     "No suitable extractor for provided db type found");
@@ -327,7 +934,11 @@ public class DataModelService {
             List<List<DataModel<Object>>> partitions
                     = partitionList(dataModels, BATCH_SIZE);
             for (List<DataModel<Object>> batch : partitions) {
-                extractor.loadData(batch, tableName);
+                if (keyColumn != null) {
+                    extractor.loadData(batch, tableName, keyColumn);
+                } else {
+                    extractor.loadData(batch, tableName);
+                }
                 dataModelRepository.saveAll(batch);
             }
         } catch (SQLException e) {
@@ -339,6 +950,40 @@ public class DataModelService {
         }
     }
 
+    /**
+     * Loads a columnar batch to a relational database.
+     * <p>The batch is processed column by column and bound to the
+     * insert statement straight from its vectors, without building
+     * a DataAttributes object per cell.</p>
+     * @param connectionDetails the connection details of the database.
+     * @param batch the batch of rows stored column by column.
+     * @param tableName the table name.
+     * @param type the database type.
+     */
+
+    @Transactional(rollbackFor = DataLoadingException.class)
+    public void loadDataToSQL(final ConnectionDetails connectionDetails,
+                              final ColumnarBatch batch,
+                              final String tableName, final String type) {
+
+        validateArguments(connectionDetails, batch, tableName, type);
+        try {
+            DatabaseExtractor extractor
+                    = databaseExtractorFactory.getExtractor(
+                            type.trim().toLowerCase(), connectionDetails);
+
+            Objects.requireNonNull(extractor,
+                    "No suitable extractor for provided db type found");
+
+            dataModelProcessor.processColumnarBatch(batch);
+            extractor.loadData(batch, tableName);
+        } catch (Exception e) {
+            log.error("Error loading columnar batch to SQL", e);
+            throw new DataLoadingException("Unable to load data to target dest."
+                    + e.getMessage(), ErrorType.DATA_LOADING_EXCEPTION);
+        }
+    }
+
     /**
      * Loads data to a non-relational database.
      * @param dataModels The list of DataModel objects to load.
@@ -433,6 +1078,43 @@ public class DataModelService {
         }
     }
 
+    private TablePageReader openPageReader(
+            final DatabaseExtractor databaseExtractor,
+            final String tableName, final String keyColumn,
+            final Object afterKey) {
+        String seekColumn = keyColumn != null && !keyColumn.isBlank()
+                ? keyColumn.trim()
+                : databaseExtractor.findKeyColumn(tableName);
+        if (seekColumn == null) {
+            log.info("No key column for table {}, paging with LIMIT/OFFSET",
+                    tableName);
+            if (afterKey != null) {
+                log.warn("Table {} cannot be resumed without a key column, "
+                        + "reading from the start", tableName);
+            }
+            return new TablePageReader(databaseExtractor, tableName,
+                    null, processingProperties.getPageSize());
+        }
+        log.info("Paging table {} with keyset pagination on column {} after {}",
+                tableName, seekColumn, afterKey);
+        return new TablePageReader(databaseExtractor, tableName,
+                seekColumn, null, processingProperties.getPageSize(), afterKey, null);
+    }
+
+    // Profiles the table from its start, also when the stream resumes,
+    // so every page is scaled with the same statistics.
+    private ColumnProfile profileTable(
+            final DatabaseExtractor databaseExtractor,
+            final String tableName, final String keyColumn) throws Exception {
+        // A rewritten key would no longer match its source row.
+        ColumnProfile profile = keyColumn != null
+                ? new ColumnProfile(Set.of(keyColumn))
+                : new ColumnProfile();
+        TablePageReader profileReader = new TablePageReader(databaseExtractor,
+                tableName, keyColumn, processingProperties.getPageSize());
+        return dataModelProcessor.profileSource(profileReader::nextPage, profile);
+    }
+
     private void validateFilePath(final String filePath)
             throws DataExtractionException {
         if (filePath == null || filePath.isEmpty()) {
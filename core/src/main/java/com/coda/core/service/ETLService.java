@@ -1,27 +1,94 @@
 package com.coda.core.service;
 
+import com.coda.core.batch.BatchCheckpoint;
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.EtlProgress;
+import com.coda.core.batch.pipeline.PipelineStatistics;
+import com.coda.core.config.PipelineProperties;
+import com.coda.core.config.WatermarkProperties;
 import com.coda.core.dtos.ConnectionDetails;
-import com.coda.core.entities.DataModel;
+import com.coda.core.util.timestamps.FileWatermarkStore;
+import com.coda.core.util.timestamps.Watermark;
+import com.coda.core.util.timestamps.WatermarkKey;
+import com.coda.core.util.timestamps.WatermarkStore;
 import com.coda.core.util.types.ErrorType;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.coda.core.util.timestamps.Watermark.LAST_KEY;
 
 @Slf4j
 @Service
 public class ETLService {
 
+    /**
+     * The source type under which checkpoints are saved.
+     */
+    private static final String CHECKPOINT = "etl";
+
+    /**
+     * The name of the key column value of a checkpoint.
+     */
+    private static final String KEY_COLUMN = "keyColumn";
+
+    /**
+     * The name of the rows loaded value of a checkpoint.
+     */
+    private static final String ROWS_LOADED = "rowsLoaded";
+
+    /**
+     * The name of the target table value of a checkpoint.
+     */
+    private static final String TARGET_TABLE = "targetTable";
+
     private final DataModelService dataModelService;
 
+    private final PipelineProperties pipelineProperties;
+
+    private final WatermarkStore watermarkStore;
+
     public ETLService(DataModelService dataModelService) {
+        this(dataModelService, new PipelineProperties(),
+                new FileWatermarkStore(Paths.get(
+                        new WatermarkProperties().getDirectory())));
+    }
+
+    @Autowired
+    public ETLService(DataModelService dataModelService,
+                      PipelineProperties pipelineProperties,
+                      WatermarkStore watermarkStore) {
         this.dataModelService = dataModelService;
+        this.pipelineProperties = pipelineProperties;
+        this.watermarkStore = watermarkStore;
     }
 
     /**
      * Perform ETL process.
+     * <p>The source table is streamed batch by batch: each batch is
+     * extracted, transformed and loaded before the next one is read,
+     * so the heap used depends on the batch size, not the table size.
+     * </p>
+     * <p>When pipelining is enabled the three phases overlap: the next
+     * batch is extracted and transformed while the previous one is
+     * loaded, and the time spent in each phase is logged.
+     * </p>
+     * <p>A checkpoint is saved after every loaded batch with the primary
+     * key of its last row and the number of rows loaded so far. A run
+     * that fails or is killed leaves its checkpoint behind, and the next
+     * run of the same source and target tables resumes after it; the
+     * checkpoint is removed once a run completes. The target table gets
+     * a unique key on the primary key, so the batch that was being
+     * loaded when the run stopped replaces its rows when it is loaded
+     * again. Tables without a single column primary key cannot resume
+     * and are read from the start.
+     * </p>
      *
      * @param connectionDetails the connection details
      * @param sourceDbType the source db type
@@ -34,19 +101,80 @@ public class ETLService {
     public void performETLProcess(ConnectionDetails connectionDetails,
                                   String sourceDbType, String sourceTableName,
                                   String targetTableName, String targetDbType) {
+        performETLProcess(connectionDetails, sourceDbType, sourceTableName,
+                targetTableName, targetDbType, new EtlProgress());
+    }
+
+    /**
+     * Perform ETL process, reporting its progress.
+     * <p>The rows read, transformed and loaded are counted on the
+     * progress, along with an estimate of the rows left to load. A
+     * cancelled run stops reading, loads the batches already read and
+     * keeps its checkpoint, so the next run resumes where it stopped.
+     * </p>
+     *
+     * @param connectionDetails the connection details
+     * @param sourceDbType the source db type
+     * @param sourceTableName the source table name
+     * @param targetTableName the target table name
+     * @param targetDbType the target db type
+     * @param progress counts the rows and carries the cancellation
+     */
+
+    @Transactional
+    public void performETLProcess(ConnectionDetails connectionDetails,
+                                  String sourceDbType, String sourceTableName,
+                                  String targetTableName, String targetDbType,
+                                  EtlProgress progress) {
         try {
-            // Extract data
-            List<DataModel<Object>> extractedData
-                    = dataModelService.extractDataFromTable(connectionDetails,
+            WatermarkKey checkpointKey = new WatermarkKey(CHECKPOINT,
+                    connectionDetails.getUrl(), sourceTableName + ">" + targetTableName);
+            String keyColumn = dataModelService.findKeyColumn(connectionDetails,
                     sourceDbType, sourceTableName);
-            extractedData.forEach(dataModel -> log.info("Extracted data: {}", dataModel));
-
-            // Transform data - handled within extraction method (processAndSaveDataModels)
+            Watermark checkpoint = resumeFrom(checkpointKey, keyColumn, targetTableName);
+            Object afterKey = checkpoint.getPosition(LAST_KEY);
+            AtomicLong rowsLoaded = new AtomicLong(Long.parseLong(
+                    checkpoint.getState().getOrDefault(ROWS_LOADED, "0")));
+            long estimatedRows = dataModelService.estimateRowCount(connectionDetails,
+                    sourceDbType, sourceTableName);
+            progress.setTotalRows(estimatedRows < 0 ? -1
+                    : Math.max(estimatedRows - rowsLoaded.get(), 0));
+            AtomicReference<Watermark> saved = new AtomicReference<>(checkpoint);
+            BatchCheckpoint commit = (lastKey, rows) -> {
+                Watermark next = saved.get()
+                        .withPosition(LAST_KEY, lastKey)
+                        .with(ROWS_LOADED, String.valueOf(rowsLoaded.addAndGet(rows)));
+                watermarkStore.put(checkpointKey, next);
+                saved.set(next);
+                progress.addLoaded(rows);
+            };
+            DataModelBatchHandler<Object> loader = batch -> dataModelService
+                    .loadDataToSQL(connectionDetails, batch, targetTableName,
+                            targetDbType, keyColumn);
 
-            // Load data to target database
-            dataModelService.loadDataToSQL(extractedData, targetTableName, targetDbType);
+            if (pipelineProperties.isEnabled()) {
+                PipelineStatistics statistics = dataModelService.pipelineDataFromTable(
+                        connectionDetails, sourceDbType, sourceTableName, keyColumn,
+                        afterKey, pipelineProperties.getQueueCapacity(), loader, commit,
+                        progress);
+                if (!stoppedOnCancel(progress, checkpointKey)) {
+                    watermarkStore.remove(checkpointKey);
+                    log.info("ETL process completed successfully from {} to {}: {}",
+                            sourceTableName, targetTableName, statistics);
+                }
+                return;
+            }
+            // Extract and transform one batch at a time,
+            // then load it to the target database
+            dataModelService.streamDataFromTable(connectionDetails, sourceDbType,
+                    sourceTableName, keyColumn, afterKey, loader, commit, progress);
+            if (stoppedOnCancel(progress, checkpointKey)) {
+                return;
+            }
+            watermarkStore.remove(checkpointKey);
 
-            log.info("ETL process completed successfully.");
+            log.info("ETL process completed successfully, {} rows loaded "
+                    + "from {} to {}.", rowsLoaded.get(), sourceTableName, targetTableName);
         } catch (Exception e) {
             log.error("Error during ETL process", e);
             throw new ETLException("Error during ETL process",
@@ -54,6 +182,110 @@ public class ETLService {
         }
     }
 
+    /**
+     * Perform an incremental ETL process.
+     * <p>Only the source rows changed since the previous run are
+     * extracted, in the order of the watermark column, and the high-water
+     * mark is saved after each loaded batch, so a run costs in proportion
+     * to the rows changed since the last one. Changed rows are upserted
+     * on the primary key of the source, so they replace their earlier
+     * copies in the target.
+     * </p>
+     *
+     * @param connectionDetails the connection details
+     * @param sourceDbType the source db type
+     * @param sourceTableName the source table name
+     * @param targetTableName the target table name
+     * @param targetDbType the target db type
+     * @param watermarkColumn the source column that grows when a row
+     *                        changes, e.g. updated_at or an auto-increment id
+     */
+
+    public void performETLProcess(ConnectionDetails connectionDetails,
+                                  String sourceDbType, String sourceTableName,
+                                  String targetTableName, String targetDbType,
+                                  String watermarkColumn) {
+        performETLProcess(connectionDetails, sourceDbType, sourceTableName,
+                targetTableName, targetDbType, watermarkColumn, new EtlProgress());
+    }
+
+    /**
+     * Perform an incremental ETL process, reporting its progress.
+     * <p>The number of changed rows is not known up front, so no
+     * estimate of the rows left is given. A cancelled run stops after
+     * the batches already read, with the high-water mark after the last
+     * loaded one.
+     * </p>
+     *
+     * @param connectionDetails the connection details
+     * @param sourceDbType the source db type
+     * @param sourceTableName the source table name
+     * @param targetTableName the target table name
+     * @param targetDbType the target db type
+     * @param watermarkColumn the source column that grows when a row changes
+     * @param progress counts the rows and carries the cancellation
+     */
+
+    public void performETLProcess(ConnectionDetails connectionDetails,
+                                  String sourceDbType, String sourceTableName,
+                                  String targetTableName, String targetDbType,
+                                  String watermarkColumn, EtlProgress progress) {
+        try {
+            // A changed row replaces its earlier copy in the target.
+            String keyColumn = dataModelService.findKeyColumn(connectionDetails,
+                    sourceDbType, sourceTableName);
+            if (keyColumn == null) {
+                log.warn("Source table {} has no single column primary key, "
+                        + "changed rows are appended to {}", sourceTableName, targetTableName);
+            }
+            long rowsLoaded = dataModelService.streamChangedRowsFromTable(
+                    connectionDetails, sourceDbType, sourceTableName, watermarkColumn,
+                    batch -> {
+                        dataModelService.loadDataToSQL(connectionDetails, batch,
+                                targetTableName, targetDbType, keyColumn);
+                        progress.addLoaded(batch.size());
+                    }, progress);
+
+            log.info("Incremental ETL process completed successfully, {} changed rows "
+                    + "loaded from {} to {}.", rowsLoaded, sourceTableName, targetTableName);
+        } catch (Exception e) {
+            log.error("Error during incremental ETL process", e);
+            throw new ETLException("Error during ETL process",
+                    ErrorType.ETL_PROCESS_FAILED);
+        }
+    }
+
+    private boolean stoppedOnCancel(EtlProgress progress, WatermarkKey checkpointKey) {
+        if (!progress.isCancelled()) {
+            return false;
+        }
+        log.info("ETL process {} cancelled after {} rows, the checkpoint is kept",
+                checkpointKey, progress.getRowsLoaded());
+        return true;
+    }
+
+    private Watermark resumeFrom(WatermarkKey checkpointKey, String keyColumn,
+                                 String targetTableName) {
+        Watermark fresh = Watermark.empty()
+                .with(KEY_COLUMN, keyColumn)
+                .with(TARGET_TABLE, targetTableName);
+        if (keyColumn == null) {
+            log.warn("Source of {} has no single column primary key, the ETL "
+                    + "process cannot resume and is read from the start", checkpointKey);
+            return fresh;
+        }
+        // A checkpoint saved for another key column cannot be resumed.
+        Watermark checkpoint = watermarkStore.get(checkpointKey)
+                .filter(saved -> keyColumn.equals(saved.get(KEY_COLUMN)))
+                .orElse(fresh);
+        if (checkpoint.get(LAST_KEY) != null) {
+            log.info("Resuming ETL process {} after {} {}, {} rows already loaded",
+                    checkpointKey, keyColumn, checkpoint.get(LAST_KEY),
+                    checkpoint.get(ROWS_LOADED));
+        }
+        return checkpoint;
+    }
+
     @Getter
     private static class ETLException extends RuntimeException {
         private final String message;
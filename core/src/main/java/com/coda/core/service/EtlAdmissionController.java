@@ -0,0 +1,238 @@
+package com.coda.core.service;
+
+import com.coda.core.config.AsyncEtlProperties;
+import com.coda.core.dtos.EtlAdmissionMetrics;
+import com.coda.core.exceptions.EtlJobException;
+import com.coda.core.util.types.ErrorType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Admission control in front of the ETL jobs.
+ * <p>At most a fixed number of jobs run at once, and at most a fixed
+ * number of them read from the same source database, so a burst of
+ * requests cannot exhaust the connection pool of a source or the heap.
+ * Jobs beyond either limit wait in a bounded queue and are started in
+ * submission order as running jobs finish; a job whose source is at its
+ * limit does not hold up jobs of other sources behind it.
+ * </p>
+ * <p>Once the queue is full further jobs are rejected straight away
+ * with the number of seconds after which a retry is likely to be
+ * admitted, estimated from the mean duration of the finished jobs.
+ * </p>
+ */
+@Slf4j
+@Service
+public class EtlAdmissionController {
+
+    /**
+     * The executor running the admitted jobs.
+     */
+    private final TaskExecutor executor;
+
+    /**
+     * The number of jobs run at once.
+     */
+    private final int maxConcurrentJobs;
+
+    /**
+     * The number of jobs run at once against one source.
+     */
+    private final int maxJobsPerSource;
+
+    /**
+     * The number of jobs waiting to run.
+     */
+    private final int maxQueuedJobs;
+
+    /**
+     * The retry delay given while no job has finished yet.
+     */
+    private final long defaultRetryAfterSeconds;
+
+    /**
+     * The jobs waiting to run, oldest first.
+     */
+    private final LinkedList<Admission> queue = new LinkedList<>();
+
+    /**
+     * The number of running jobs, by source.
+     */
+    private final Map<String, Integer> runningBySource = new HashMap<>();
+
+    /**
+     * The number of running jobs.
+     */
+    private int running;
+
+    /**
+     * The number of jobs admitted so far.
+     */
+    private long admitted;
+
+    /**
+     * The number of jobs rejected so far.
+     */
+    private long rejected;
+
+    /**
+     * The number of jobs finished so far.
+     */
+    private long finished;
+
+    /**
+     * The total run time of the finished jobs.
+     */
+    private long finishedMillis;
+
+    /**
+     * Constructor for EtlAdmissionController.
+     * @param jobExecutor the executor running the admitted jobs.
+     * @param properties the asynchronous job properties.
+     */
+    public EtlAdmissionController(@Qualifier("etlAsyncJobExecutor")
+                                  final TaskExecutor jobExecutor,
+                                  final AsyncEtlProperties properties) {
+        this.executor = jobExecutor;
+        this.maxConcurrentJobs = Math.max(1, properties.getMaxConcurrentJobs());
+        this.maxJobsPerSource = Math.max(1, properties.getMaxJobsPerSource());
+        this.maxQueuedJobs = Math.max(0, properties.getQueueCapacity());
+        this.defaultRetryAfterSeconds = Math.max(1, properties.getRetryAfterSeconds());
+    }
+
+    /**
+     * Admits a job, starting it now if both limits allow it or queuing it.
+     * @param source the source the job reads from.
+     * @param job the job.
+     * @return the admission, to withdraw the job while it waits.
+     * @throws EtlJobException if the queue is full.
+     */
+    public synchronized Admission admit(final String source, final Runnable job) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(job, "Job cannot be null");
+        Admission admission = new Admission(source, job);
+        if (canStart(source)) {
+            start(admission);
+        } else if (queue.size() < maxQueuedJobs) {
+            queue.addLast(admission);
+        } else {
+            rejected++;
+            long retryAfter = retryAfterSeconds();
+            log.warn("ETL job on {} rejected, {} jobs running and {} queued, "
+                    + "retry after {} s", source, running, queue.size(), retryAfter);
+            throw new EtlJobException("Too many ETL jobs queued, try again later",
+                    ErrorType.ETL_JOB_REJECTED, retryAfter);
+        }
+        admitted++;
+        return admission;
+    }
+
+    /**
+     * Withdraws a job that is still waiting.
+     * @param admission the admission of the job.
+     * @return true if the job was waiting and will never start.
+     */
+    public synchronized boolean withdraw(final Admission admission) {
+        return queue.remove(admission);
+    }
+
+    /**
+     * Returns the current load and limits.
+     * @return the metrics.
+     */
+    public synchronized EtlAdmissionMetrics metrics() {
+        Map<String, Integer> queuedBySource = new HashMap<>();
+        for (Admission admission : queue) {
+            queuedBySource.merge(admission.source, 1, Integer::sum);
+        }
+        return new EtlAdmissionMetrics(running, queue.size(), maxConcurrentJobs,
+                maxJobsPerSource, maxQueuedJobs, Map.copyOf(runningBySource),
+                Map.copyOf(queuedBySource), admitted, rejected,
+                finished > 0 ? finishedMillis / finished : null);
+    }
+
+    private boolean canStart(final String source) {
+        return running < maxConcurrentJobs
+                && runningBySource.getOrDefault(source, 0) < maxJobsPerSource;
+    }
+
+    private void start(final Admission admission) {
+        running++;
+        runningBySource.merge(admission.source, 1, Integer::sum);
+        try {
+            executor.execute(() -> run(admission));
+        } catch (TaskRejectedException e) {
+            // Only happens once the executor is shutting down.
+            release(admission.source, 0);
+            throw new EtlJobException("ETL jobs are shutting down",
+                    ErrorType.ETL_JOB_REJECTED, defaultRetryAfterSeconds);
+        }
+    }
+
+    private void run(final Admission admission) {
+        long started = System.currentTimeMillis();
+        try {
+            admission.job.run();
+        } finally {
+            synchronized (this) {
+                finished++;
+                release(admission.source, System.currentTimeMillis() - started);
+                startQueued();
+            }
+        }
+    }
+
+    private void release(final String source, final long millis) {
+        running--;
+        runningBySource.computeIfPresent(source, (key, count) -> count > 1 ? count - 1 : null);
+        finishedMillis += millis;
+    }
+
+    private void startQueued() {
+        Iterator<Admission> waiting = queue.iterator();
+        while (running < maxConcurrentJobs && waiting.hasNext()) {
+            Admission next = waiting.next();
+            if (canStart(next.source)) {
+                waiting.remove();
+                try {
+                    start(next);
+                } catch (EtlJobException e) {
+                    log.warn("Queued ETL job on {} dropped: {}", next.source, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private long retryAfterSeconds() {
+        if (finished == 0) {
+            return defaultRetryAfterSeconds;
+        }
+        // A slot frees up about every mean duration / concurrent jobs.
+        double meanSeconds = finishedMillis / 1000.0 / finished;
+        return Math.max(1, (long) Math.ceil(meanSeconds / maxConcurrentJobs));
+    }
+
+    /**
+     * A job admitted to run.
+     */
+    public static final class Admission {
+
+        private final String source;
+
+        private final Runnable job;
+
+        private Admission(final String jobSource, final Runnable runnable) {
+            this.source = jobSource;
+            this.job = runnable;
+        }
+    }
+}
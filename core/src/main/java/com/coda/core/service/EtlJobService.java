@@ -0,0 +1,181 @@
+package com.coda.core.service;
+
+import com.coda.core.config.EtlJobConfig;
+import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.exceptions.ReadFromDbExceptions;
+import com.coda.core.util.db.DataSourceRegistry;
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.db.DatabaseExtractorFactory;
+import com.coda.core.util.types.ErrorType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+/**
+ * Service launching the Spring Batch table ETL job.
+ * <p>Each run is a new job instance. A failed or stopped run is
+ * restarted by its execution id and resumes from its last committed
+ * chunks. Runs are submitted through {@link AsyncEtlService}, which
+ * admits them like the other ETL jobs.
+ * </p>
+ */
+@Slf4j
+@Service
+public class EtlJobService {
+
+    /**
+     * The job parameter making each run a new job instance.
+     */
+    static final String RUN_ID = "run.id";
+
+    /**
+     * The launcher running the job.
+     */
+    private final JobLauncher jobLauncher;
+
+    /**
+     * The explorer reading past executions.
+     */
+    private final JobExplorer jobExplorer;
+
+    /**
+     * The table ETL job.
+     */
+    private final Job tableEtlJob;
+
+    /**
+     * The DatabaseExtractorFactory object.
+     */
+    private final DatabaseExtractorFactory databaseExtractorFactory;
+
+    /**
+     * The registry holding the pools of the source databases.
+     */
+    private final DataSourceRegistry dataSourceRegistry;
+
+    /**
+     * Constructor for EtlJobService.
+     * @param launcher the job launcher.
+     * @param explorer the job explorer.
+     * @param job the table ETL job.
+     * @param factory the DatabaseExtractorFactory object.
+     * @param registry the registry holding the pools of the source databases.
+     */
+    public EtlJobService(final JobLauncher launcher,
+                         final JobExplorer explorer,
+                         @Qualifier(EtlJobConfig.TABLE_ETL_JOB) final Job job,
+                         final DatabaseExtractorFactory factory,
+                         final DataSourceRegistry registry) {
+        this.jobLauncher = launcher;
+        this.jobExplorer = explorer;
+        this.tableEtlJob = job;
+        this.databaseExtractorFactory = factory;
+        this.dataSourceRegistry = registry;
+    }
+
+    /**
+     * Runs the table ETL job.
+     * <p>The target table is written to the source database.</p>
+     * @param connectionDetails the connection details of the source.
+     * @param sourceDbType the source db type.
+     * @param sourceTableName the source table name.
+     * @param targetTableName the target table name.
+     * @return the execution of the job.
+     * @throws JobExecutionException if the job cannot be launched.
+     * @throws ReadFromDbExceptions if the source table has no single
+     * column primary key.
+     */
+    public JobExecution runTableJob(final ConnectionDetails connectionDetails,
+                                    final String sourceDbType,
+                                    final String sourceTableName,
+                                    final String targetTableName)
+            throws JobExecutionException {
+        Objects.requireNonNull(connectionDetails, "Connection details cannot be null");
+        String sourceType = sourceDbType.trim().toLowerCase();
+        // The steps find the pool opened here by url and username.
+        dataSourceRegistry.getOrCreate(connectionDetails);
+        DatabaseExtractor extractor = databaseExtractorFactory.getExtractor(sourceType,
+                connectionDetails);
+        Objects.requireNonNull(extractor,
+                "No suitable extractor for provided db type found");
+        String keyColumn = extractor.findKeyColumn(sourceTableName);
+        if (keyColumn == null) {
+            throw new ReadFromDbExceptions("Table " + sourceTableName
+                    + " needs a single column primary key to be partitioned",
+                    ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+
+        JobParameters parameters = new JobParametersBuilder()
+                .addString(EtlJobConfig.SOURCE_DB_TYPE, sourceType)
+                .addString(EtlJobConfig.SOURCE_URL, connectionDetails.getUrl())
+                .addString(EtlJobConfig.SOURCE_USER, connectionDetails.getUsername())
+                .addString(EtlJobConfig.SOURCE_TABLE, sourceTableName)
+                .addString(EtlJobConfig.KEY_COLUMN, keyColumn)
+                .addString(EtlJobConfig.TARGET_TABLE, targetTableName)
+                .addLong(RUN_ID, System.currentTimeMillis())
+                .toJobParameters();
+        log.info("Launching {} from {} to {}", tableEtlJob.getName(),
+                sourceTableName, targetTableName);
+        return jobLauncher.run(tableEtlJob, parameters);
+    }
+
+    /**
+     * Returns the parameters of a run of the table ETL job.
+     * @param executionId the id of the execution.
+     * @return the job parameters.
+     * @throws IllegalArgumentException if there is no such execution.
+     */
+    public JobParameters getJobParameters(final long executionId) {
+        return findExecution(executionId).getJobParameters();
+    }
+
+    /**
+     * Restarts a failed or stopped run of the table ETL job.
+     * @param executionId the id of the execution to restart.
+     * @param connectionDetails the connection details of the source.
+     * @return the new execution of the job.
+     * @throws JobExecutionException if the job cannot be restarted.
+     */
+    public JobExecution restart(final long executionId,
+                                final ConnectionDetails connectionDetails)
+            throws JobExecutionException {
+        Objects.requireNonNull(connectionDetails, "Connection details cannot be null");
+        JobExecution previous = findExecution(executionId);
+        if (previous.getStatus() != BatchStatus.FAILED
+                && previous.getStatus() != BatchStatus.STOPPED) {
+            throw new IllegalStateException("Job execution " + executionId
+                    + " is " + previous.getStatus() + ", only failed or stopped"
+                    + " executions can be restarted");
+        }
+        JobParameters parameters = previous.getJobParameters();
+        if (!Objects.equals(connectionDetails.getUrl(),
+                parameters.getString(EtlJobConfig.SOURCE_URL))
+                || !Objects.equals(connectionDetails.getUsername(),
+                parameters.getString(EtlJobConfig.SOURCE_USER))) {
+            throw new IllegalArgumentException("Job execution " + executionId
+                    + " did not read from " + connectionDetails.getUrl()
+                    + " as " + connectionDetails.getUsername());
+        }
+        dataSourceRegistry.getOrCreate(connectionDetails);
+        log.info("Restarting {} execution {}", tableEtlJob.getName(), executionId);
+        return jobLauncher.run(tableEtlJob, parameters);
+    }
+
+    private JobExecution findExecution(final long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null) {
+            throw new IllegalArgumentException("No job execution " + executionId);
+        }
+        return execution;
+    }
+}
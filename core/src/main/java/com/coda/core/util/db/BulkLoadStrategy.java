@@ -0,0 +1,33 @@
+package com.coda.core.util.db;
+
+/**
+ * <p>BulkLoadStrategy is the way rows are written to a SQL table.
+ * </p>
+ * <p>All strategies upsert on the keys of the table, so a load
+ * that is retried with another strategy never duplicates rows.
+ * </p>
+ * @see BulkLoader
+ */
+public enum BulkLoadStrategy {
+
+    /**
+     * One single row {@code INSERT ... ON DUPLICATE KEY UPDATE}
+     * sent with addBatch/executeBatch. Only fast when the connection
+     * sets {@code rewriteBatchedStatements}.
+     */
+    BATCHED,
+
+    /**
+     * {@code INSERT ... VALUES (...), (...)} statements holding as many
+     * rows as fit in the {@code max_allowed_packet} of the server.
+     */
+    MULTI_ROW,
+
+    /**
+     * {@code LOAD DATA LOCAL INFILE} fed from a CSV stream generated in
+     * memory. Needs {@code allowLoadLocalInfile=true} on the connection;
+     * falls back to {@link #MULTI_ROW} when the driver or the server
+     * does not allow it.
+     */
+    LOAD_DATA_INFILE
+}
@@ -0,0 +1,332 @@
+package com.coda.core.util.db;
+
+import com.coda.core.exceptions.DataLoadingException;
+import com.coda.core.util.types.ErrorType;
+import com.mysql.cj.jdbc.JdbcStatement;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * <p>BulkLoader writes rows to a SQL table with a {@link BulkLoadStrategy}.
+ * </p>
+ * <p>Multi row statements are sized from the {@code max_allowed_packet}
+ * of the server, read once per loader unless configured. A
+ * {@code LOAD DATA LOCAL INFILE} load streams the rows as CSV, encoded
+ * one row at a time, and falls back to multi row statements on
+ * databases that cannot run it (e.g. H2 in the tests, or MySQL
+ * without {@code allowLoadLocalInfile}). The fallback is logged once
+ * per table.
+ * </p>
+ * @see LoadStatistics
+ */
+@Slf4j
+@Getter
+public final class BulkLoader {
+
+    /**
+     * The packet size assumed when the server cannot be asked, the
+     * default {@code max_allowed_packet} of MySQL 5.7.
+     */
+    static final int DEFAULT_MAX_PACKET_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * The most placeholders MySQL accepts in one prepared statement.
+     */
+    static final int MAX_PLACEHOLDERS = 65_535;
+
+    /**
+     * The size assumed for a value that is not text.
+     */
+    private static final int VALUE_BYTES = 24;
+
+    /**
+     * The strategy used to write the rows.
+     */
+    private final BulkLoadStrategy strategy;
+
+    /**
+     * The largest statement sent to the server in bytes,
+     * 0 to use the {@code max_allowed_packet} of the server.
+     */
+    private final int maxPacketBytes;
+
+    /**
+     * The {@code max_allowed_packet} read from the server.
+     */
+    private volatile int serverPacketBytes;
+
+    /**
+     * The tables whose LOAD DATA LOCAL INFILE fallback was logged.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Set<String> fallbackTables = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for BulkLoader.
+     * @param loadStrategy the strategy used to write the rows.
+     * @param packetBytes the largest statement in bytes,
+     *                    0 to ask the server.
+     */
+    public BulkLoader(final BulkLoadStrategy loadStrategy,
+                      final int packetBytes) {
+        this.strategy = loadStrategy != null ? loadStrategy : BulkLoadStrategy.BATCHED;
+        this.maxPacketBytes = Math.max(0, packetBytes);
+    }
+
+    /**
+     * Writes rows to a table, replacing the rows with the same keys.
+     * @param connectionFactory the connection factory.
+     * @param tableName the sanitized name of the table.
+     * @param columns the sanitized names of the columns, in value order.
+     * @param rows the rows.
+     * @return the statistics of the load.
+     */
+    public LoadStatistics load(final ConnectionFactory connectionFactory,
+                               final String tableName,
+                               final List<String> columns,
+                               final Rows rows) {
+        long start = System.nanoTime();
+        try (Connection connection = connectionFactory.dataSource().getConnection()) {
+            BulkLoadStrategy used = strategy;
+            long statements;
+            switch (strategy) {
+                case MULTI_ROW -> statements = writeMultiRow(connection, tableName, columns, rows);
+                case LOAD_DATA_INFILE -> {
+                    long loaded = loadDataInfile(connection, tableName, columns, rows);
+                    if (loaded < 0) {
+                        used = BulkLoadStrategy.MULTI_ROW;
+                        statements = writeMultiRow(connection, tableName, columns, rows);
+                    } else {
+                        statements = loaded;
+                    }
+                }
+                default -> statements = writeBatched(connection, tableName, columns, rows);
+            }
+            LoadStatistics statistics = new LoadStatistics(used, rows.size(),
+                    statements, System.nanoTime() - start);
+            log.info("Loaded table {}: {}", tableName, statistics);
+            return statistics;
+        } catch (SQLException e) {
+            log.error("Error while loading data into database", e);
+            throw new DataLoadingException("Error while loading data into database: "
+                    + e, ErrorType.DATA_LOADING_EXCEPTION);
+        }
+    }
+
+    private long writeBatched(final Connection connection, final String tableName,
+                              final List<String> columns, final Rows rows)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                insertSql(tableName, columns, 1))) {
+            for (int row = 0; row < rows.size(); row++) {
+                bindRow(statement, columns.size(), rows, row, 0);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return 1;
+    }
+
+    private long writeMultiRow(final Connection connection, final String tableName,
+                               final List<String> columns, final Rows rows)
+            throws SQLException {
+        int columnCount = columns.size();
+        int maxRows = Math.max(1, MAX_PLACEHOLDERS / columnCount);
+        // Values are sent as text, so leave room for escaping and the
+        // statement around them.
+        long budget = packetBytes(connection) * 3L / 4
+                - insertSql(tableName, columns, 0).length();
+        Map<Integer, String> sqlByRowCount = new HashMap<>();
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long statements = 0;
+        try {
+            int first = 0;
+            while (first < rows.size()) {
+                int end = first;
+                long bytes = 0;
+                while (end < rows.size() && end - first < maxRows) {
+                    long rowBytes = estimateRowBytes(rows, end, columnCount);
+                    if (end > first && bytes + rowBytes > budget) {
+                        break;
+                    }
+                    bytes += rowBytes;
+                    end++;
+                }
+                String sql = sqlByRowCount.computeIfAbsent(end - first,
+                        rowCount -> insertSql(tableName, columns, rowCount));
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int row = first; row < end; row++) {
+                        bindRow(statement, columnCount, rows, row, (row - first) * columnCount);
+                    }
+                    statement.executeUpdate();
+                }
+                statements++;
+                first = end;
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return statements;
+    }
+
+    /**
+     * Streams the rows with LOAD DATA LOCAL INFILE.
+     * @return the number of statements, or -1 if the rows
+     * have to be written another way.
+     */
+    private long loadDataInfile(final Connection connection, final String tableName,
+                                final List<String> columns, final Rows rows)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (!statement.isWrapperFor(JdbcStatement.class)) {
+                warnFallback(tableName, "LOAD DATA LOCAL INFILE needs MySQL Connector/J");
+                return -1;
+            }
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(
+                    new CsvRowStream(rows, columns.size()));
+            try {
+                statement.execute(loadDataSql(tableName, columns));
+            } catch (SQLException e) {
+                // Both ways replace rows by key, so writing them again is safe.
+                warnFallback(tableName, "LOAD DATA LOCAL INFILE failed: " + e.getMessage());
+                return -1;
+            }
+        }
+        return 1;
+    }
+
+    private void warnFallback(final String tableName, final String reason) {
+        if (fallbackTables.add(tableName)) {
+            log.warn("{}, loading table {} with multi row inserts", reason, tableName);
+        } else {
+            log.debug("{}, loading table {} with multi row inserts", reason, tableName);
+        }
+    }
+
+    private int packetBytes(final Connection connection) {
+        if (maxPacketBytes > 0) {
+            return maxPacketBytes;
+        }
+        if (serverPacketBytes == 0) {
+            int packetBytes = DEFAULT_MAX_PACKET_BYTES;
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT @@max_allowed_packet")) {
+                if (resultSet.next()) {
+                    packetBytes = (int) Math.min(Integer.MAX_VALUE, resultSet.getLong(1));
+                }
+            } catch (SQLException e) {
+                log.debug("Cannot read max_allowed_packet, assuming {} bytes: {}",
+                        packetBytes, e.getMessage());
+            }
+            serverPacketBytes = packetBytes;
+        }
+        return serverPacketBytes;
+    }
+
+    private static long estimateRowBytes(final Rows rows, final int row, final int columnCount) {
+        long bytes = 4;
+        for (int column = 0; column < columnCount; column++) {
+            Object value = rows.value(row, column);
+            if (value instanceof CharSequence text) {
+                bytes += 2L * text.length() + 4;
+            } else if (value instanceof byte[] data) {
+                bytes += 2L * data.length + 4;
+            } else {
+                bytes += VALUE_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private static void bindRow(final PreparedStatement statement, final int columnCount,
+                                final Rows rows, final int row, final int offset)
+            throws SQLException {
+        for (int column = 0; column < columnCount; column++) {
+            rows.bind(statement, offset + column + 1, row, column);
+        }
+    }
+
+    static String insertSql(final String tableName, final List<String> columns,
+                            final int rowCount) {
+        String columnList = columns.stream()
+                .collect(Collectors.joining("`, `", "`", "`"));
+        String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        String updateClause = columns.stream()
+                .map(column -> "`" + column + "`=VALUES(`" + column + "`)")
+                .collect(Collectors.joining(", "));
+
+        StringBuilder sql = new StringBuilder("INSERT INTO `").append(tableName)
+                .append("` (").append(columnList).append(") VALUES ");
+        for (int row = 0; row < rowCount; row++) {
+            sql.append(row == 0 ? "(" : ", (").append(placeholders).append(')');
+        }
+        return sql.append(" ON DUPLICATE KEY UPDATE ").append(updateClause).toString();
+    }
+
+    static String loadDataSql(final String tableName, final List<String> columns) {
+        return "LOAD DATA LOCAL INFILE 'stream' REPLACE INTO TABLE `" + tableName
+                + "` CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'"
+                + " LINES TERMINATED BY '\\n' "
+                + columns.stream().collect(Collectors.joining("`, `", "(`", "`)"));
+    }
+
+    /**
+     * The rows of a load, read by row and column.
+     */
+    public interface Rows {
+
+        /**
+         * Returns the number of rows.
+         * @return the number of rows.
+         */
+        int size();
+
+        /**
+         * Returns a value.
+         * @param row the row.
+         * @param column the column, in the order of the loaded columns.
+         * @return the value, or null.
+         */
+        Object value(int row, int column);
+
+        /**
+         * Binds a value to a statement parameter.
+         * @param statement the statement.
+         * @param index the parameter index.
+         * @param row the row.
+         * @param column the column.
+         * @throws SQLException if the value cannot be bound.
+         */
+        default void bind(final PreparedStatement statement, final int index,
+                          final int row, final int column) throws SQLException {
+            Object value = value(row, column);
+            if (value != null) {
+                statement.setObject(index, value);
+            } else {
+                statement.setNull(index, Types.NULL);
+            }
+        }
+    }
+}
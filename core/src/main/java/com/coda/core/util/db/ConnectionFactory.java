@@ -1,7 +1,5 @@
 package com.coda.core.util.db;
 
-import com.coda.core.dtos.ConnectionDetails;
-
 import javax.sql.DataSource;
 
 /**
@@ -13,13 +11,11 @@ import javax.sql.DataSource;
  * @see SqlDbConnectionFactory
  */
 
+@FunctionalInterface
 public interface ConnectionFactory {
     /**
      * This method establishes obtain the datasource.
      * @return DataSource object.
      */
     DataSource dataSource();
-
-    void createDataSource(ConnectionDetails connectionDetails);
 }
-
@@ -0,0 +1,124 @@
+package com.coda.core.util.db;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>CsvRowStream reads rows as the CSV expected by
+ * {@link BulkLoader#loadDataSql}: comma separated, text enclosed in
+ * double quotes, backslash escapes and {@code \N} for nulls.
+ * </p>
+ * <p>Rows are encoded one at a time as the driver reads the stream,
+ * so the CSV of a whole batch is never held in memory.
+ * </p>
+ */
+final class CsvRowStream extends InputStream {
+
+    /**
+     * The rows to encode.
+     */
+    private final BulkLoader.Rows rows;
+
+    /**
+     * The number of columns of each row.
+     */
+    private final int columnCount;
+
+    /**
+     * The next row to encode.
+     */
+    private int nextRow;
+
+    /**
+     * The encoded current row.
+     */
+    private byte[] buffer = new byte[0];
+
+    /**
+     * The position of the next byte in the buffer.
+     */
+    private int position;
+
+    /**
+     * Constructor for CsvRowStream.
+     * @param source the rows to encode.
+     * @param columns the number of columns of each row.
+     */
+    CsvRowStream(final BulkLoader.Rows source, final int columns) {
+        this.rows = source;
+        this.columnCount = columns;
+    }
+
+    @Override
+    public int read() {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < length && fill()) {
+            int count = Math.min(length - read, buffer.length - position);
+            System.arraycopy(buffer, position, bytes, offset + read, count);
+            position += count;
+            read += count;
+        }
+        return read == 0 ? -1 : read;
+    }
+
+    private boolean fill() {
+        while (position == buffer.length) {
+            if (nextRow == rows.size()) {
+                return false;
+            }
+            buffer = encodeRow(nextRow++);
+            position = 0;
+        }
+        return true;
+    }
+
+    private byte[] encodeRow(final int row) {
+        StringBuilder line = new StringBuilder(columnCount * 16);
+        for (int column = 0; column < columnCount; column++) {
+            if (column > 0) {
+                line.append(',');
+            }
+            appendValue(line, rows.value(row, column));
+        }
+        return line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static void appendValue(final StringBuilder line, final Object value) {
+        if (value == null) {
+            line.append("\\N");
+        } else if (value instanceof Boolean bool) {
+            line.append(bool ? '1' : '0');
+        } else if (value instanceof BigDecimal decimal) {
+            line.append(decimal.toPlainString());
+        } else if (value instanceof Number) {
+            line.append(value);
+        } else {
+            line.append('"');
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '"' -> line.append("\\\"");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\0' -> line.append("\\0");
+                    default -> line.append(c);
+                }
+            }
+            line.append('"');
+        }
+    }
+}
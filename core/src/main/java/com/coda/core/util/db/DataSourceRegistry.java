@@ -0,0 +1,341 @@
+package com.coda.core.util.db;
+
+import com.coda.core.config.AsyncEtlProperties;
+import com.coda.core.config.EtlJobProperties;
+import com.coda.core.config.LoadProperties;
+import com.coda.core.config.MySQLProperties;
+import com.coda.core.dtos.ConnectionDetails;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>DataSourceRegistry keeps one connection pool per
+ * (url, username), so requests against the same database share
+ * a pool instead of opening a new one each time.
+ * </p>
+ * <p>Pools that have not been used for
+ * {@link MySQLProperties#getPoolIdleTimeout()} and have no
+ * connection in use are closed and removed; the next lookup
+ * opens a new one. A pool is also replaced when the password
+ * of its connection details changes; the replaced pool is no longer
+ * handed out and is closed once it is idle, so callers still holding
+ * it can finish.
+ * </p>
+ * <p>A pool is never smaller than the connections the ETL jobs allowed
+ * to run against one database at once can hold: a reader and a writer
+ * per partition of each job. Otherwise jobs on virtual threads, which
+ * are cheap to start, would queue on the pool and time out.
+ * </p>
+ * <p>MySQL pools allow {@code LOAD DATA LOCAL INFILE} when it is the
+ * configured load strategy; Connector/J refuses it otherwise.
+ * </p>
+ */
+@Slf4j
+@Component
+public class DataSourceRegistry implements AutoCloseable {
+
+    /**
+     * The driver used for MySQL urls when none is configured.
+     */
+    private static final String MYSQL_DRIVER_CLASS_NAME = "com.mysql.cj.jdbc.Driver";
+
+    /**
+     * The number of pools opened so far, used to name them.
+     */
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    /**
+     * The pool settings.
+     */
+    private final MySQLProperties properties;
+
+    /**
+     * The pools, by url and username.
+     */
+    private final Map<PoolKey, PoolEntry> pools = new ConcurrentHashMap<>();
+
+    /**
+     * The replaced pools, closed once they are idle.
+     */
+    private final Queue<PoolEntry> retired = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The maximum number of connections of each pool.
+     */
+    private final int maximumPoolSize;
+
+    /**
+     * Whether MySQL pools allow LOAD DATA LOCAL INFILE.
+     */
+    private final boolean allowLoadLocalInfile;
+
+    /**
+     * Closes the pools that are no longer used.
+     */
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Constructor for DataSourceRegistry.
+     * @param mySQLProperties the pool settings.
+     */
+    public DataSourceRegistry(final MySQLProperties mySQLProperties) {
+        this(mySQLProperties, 0);
+    }
+
+    /**
+     * Constructor for DataSourceRegistry sizing the pools for the
+     * ETL jobs run at once against one database.
+     * @param mySQLProperties the pool settings.
+     * @param asyncEtlProperties the limits of the ETL jobs.
+     * @param etlJobProperties the partitioning of the ETL jobs.
+     * @param loadProperties the bulk load settings.
+     */
+    @Autowired
+    public DataSourceRegistry(final MySQLProperties mySQLProperties,
+                              final AsyncEtlProperties asyncEtlProperties,
+                              final EtlJobProperties etlJobProperties,
+                              final LoadProperties loadProperties) {
+        this(mySQLProperties, Math.max(1, asyncEtlProperties.getMaxJobsPerSource())
+                * 2 * Math.max(1, etlJobProperties.getGridSize()),
+                loadProperties.getStrategy() == BulkLoadStrategy.LOAD_DATA_INFILE);
+    }
+
+    /**
+     * Constructor for DataSourceRegistry.
+     * @param mySQLProperties the pool settings.
+     * @param concurrentConnections the connections the jobs run at
+     *                              once against one database hold.
+     */
+    public DataSourceRegistry(final MySQLProperties mySQLProperties,
+                              final int concurrentConnections) {
+        this(mySQLProperties, concurrentConnections, false);
+    }
+
+    /**
+     * Constructor for DataSourceRegistry.
+     * @param mySQLProperties the pool settings.
+     * @param concurrentConnections the connections the jobs run at
+     *                              once against one database hold.
+     * @param localInfile whether MySQL pools allow
+     *                    LOAD DATA LOCAL INFILE.
+     */
+    public DataSourceRegistry(final MySQLProperties mySQLProperties,
+                              final int concurrentConnections,
+                              final boolean localInfile) {
+        this.properties = mySQLProperties;
+        this.allowLoadLocalInfile = localInfile;
+        this.maximumPoolSize = Math.max(mySQLProperties.getMaximumPoolSize(),
+                concurrentConnections);
+        if (maximumPoolSize > mySQLProperties.getMaximumPoolSize()) {
+            log.info("Raising the maximum pool size from {} to {} to match the "
+                    + "concurrent ETL jobs", mySQLProperties.getMaximumPoolSize(),
+                    maximumPoolSize);
+        }
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datasource-registry-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000, mySQLProperties.getPoolEvictionInterval());
+        evictor.scheduleWithFixedDelay(() -> evictIdle(System.currentTimeMillis()),
+                interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the pool of a database, opening it if needed.
+     * @param connectionDetails the connection details.
+     * @return the pool.
+     */
+    public HikariDataSource getOrCreate(final ConnectionDetails connectionDetails) {
+        PoolKey key = new PoolKey(connectionDetails.getUrl(), connectionDetails.getUsername());
+        // Touched inside compute, so evictIdle cannot see the pool idle
+        // between the lookup and the caller getting it.
+        PoolEntry entry = pools.compute(key, (poolKey, current) -> {
+            if (current != null && !current.dataSource.isClosed()
+                    && Objects.equals(current.password, connectionDetails.getPassword())) {
+                current.lastUsed = System.currentTimeMillis();
+                return current;
+            }
+            if (current != null && !current.dataSource.isClosed()) {
+                log.info("Replacing the pool of {}", poolKey);
+                retired.add(current);
+            }
+            return new PoolEntry(createDataSource(connectionDetails),
+                    connectionDetails.getPassword());
+        });
+        return entry.dataSource;
+    }
+
+    /**
+     * Returns the open pool of a database, without the password needed
+     * to open one. Used where only the url and username can be kept,
+     * e.g. in the parameters of a batch job, while the pool is in use.
+     * @param url the url of the database.
+     * @param username the username.
+     * @return the pool.
+     * @throws IllegalStateException if no pool of the database is open.
+     */
+    public HikariDataSource get(final String url, final String username) {
+        PoolKey key = new PoolKey(url, username);
+        PoolEntry entry = pools.computeIfPresent(key, (poolKey, current) -> {
+            current.lastUsed = System.currentTimeMillis();
+            return current;
+        });
+        if (entry == null || entry.dataSource.isClosed()) {
+            throw new IllegalStateException("No open pool for " + key);
+        }
+        return entry.dataSource;
+    }
+
+    /**
+     * Returns the number of open pools.
+     * @return the number of pools.
+     */
+    public int size() {
+        return pools.size();
+    }
+
+    /**
+     * Closes the pools, and the replaced pools, that have been unused
+     * for longer than the pool idle timeout and have no connection
+     * in use.
+     * @param now the current time in milliseconds.
+     * @return the number of pools closed.
+     */
+    int evictIdle(final long now) {
+        List<PoolEntry> idle = new ArrayList<>();
+        for (PoolKey key : pools.keySet()) {
+            // Checked again inside computeIfPresent, so a pool handed out
+            // meanwhile is kept.
+            pools.computeIfPresent(key, (poolKey, pool) -> {
+                if (!isIdle(pool, now)) {
+                    return pool;
+                }
+                log.info("Closing the idle pool of {}", poolKey);
+                idle.add(pool);
+                return null;
+            });
+        }
+        retired.removeIf(pool -> {
+            if (!isIdle(pool, now)) {
+                return false;
+            }
+            log.info("Closing the replaced pool {}", pool.dataSource.getPoolName());
+            idle.add(pool);
+            return true;
+        });
+        idle.forEach(pool -> pool.dataSource.close());
+        return idle.size();
+    }
+
+    /**
+     * Closes all pools.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        pools.values().forEach(pool -> pool.dataSource.close());
+        pools.clear();
+        retired.forEach(pool -> pool.dataSource.close());
+        retired.clear();
+    }
+
+    private boolean isIdle(final PoolEntry pool, final long now) {
+        return now - pool.lastUsed >= properties.getPoolIdleTimeout() && !isInUse(pool);
+    }
+
+    private boolean isInUse(final PoolEntry pool) {
+        HikariPoolMXBean poolBean = pool.dataSource.getHikariPoolMXBean();
+        return poolBean != null && poolBean.getActiveConnections() > 0;
+    }
+
+    private HikariDataSource createDataSource(final ConnectionDetails connectionDetails) {
+        log.info("Initializing Hikari DataSource for {}", connectionDetails.getUrl());
+        return new HikariDataSource(poolConfig(connectionDetails));
+    }
+
+    HikariConfig poolConfig(final ConnectionDetails connectionDetails) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("etl-pool-" + POOL_COUNT.incrementAndGet());
+        config.setJdbcUrl(connectionDetails.getUrl());
+        config.setUsername(connectionDetails.getUsername());
+        config.setPassword(connectionDetails.getPassword());
+
+        config.setMaximumPoolSize(maximumPoolSize);
+        if (properties.getMinimumIdle() >= 0) {
+            config.setMinimumIdle(properties.getMinimumIdle());
+        }
+        config.setMaxLifetime(properties.getMaxLifetime());
+        config.setConnectionTimeout(properties.getConnectionTimeout());
+        config.setIdleTimeout(properties.getIdleTimeout());
+        config.setAutoCommit(true);
+
+        boolean mysql = connectionDetails.getUrl() != null
+                && connectionDetails.getUrl().startsWith("jdbc:mysql:");
+        if (mysql) {
+            String driverClassName = properties.getDriverClassName();
+            config.setDriverClassName(driverClassName != null && !driverClassName.isBlank()
+                    ? driverClassName : MYSQL_DRIVER_CLASS_NAME);
+            config.addDataSourceProperty("cachePrepStmts", true);
+            config.addDataSourceProperty("prepStmtCacheSize", properties.getPrepStmtCacheSize());
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", properties.getPrepStmtCacheSqlLimit());
+            config.addDataSourceProperty("useServerPrepStmts", properties.isUseServerPrepStmts());
+            config.addDataSourceProperty("rewriteBatchedStatements",
+                    properties.isRewriteBatchedStatements());
+            if (allowLoadLocalInfile) {
+                config.addDataSourceProperty("allowLoadLocalInfile", true);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * The database and user a pool connects as.
+     * @param url the url of the database.
+     * @param username the username.
+     */
+    private record PoolKey(String url, String username) {
+    }
+
+    /**
+     * A pool and when it was last handed out.
+     */
+    private static final class PoolEntry {
+
+        /**
+         * The pool.
+         */
+        private final HikariDataSource dataSource;
+
+        /**
+         * The password the pool connects with.
+         */
+        private final String password;
+
+        /**
+         * When the pool was last handed out, in milliseconds.
+         */
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PoolEntry(final HikariDataSource pool, final String poolPassword) {
+            this.dataSource = pool;
+            this.password = poolPassword;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.coda.core.util.db;
 
-import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.columnar.ColumnarBatch;
 import com.coda.core.entities.DataModel;
 import org.bson.Document;
 
@@ -20,13 +21,6 @@ import java.util.Map;
 
 public interface DatabaseExtractor {
 
-    /**
-     * configureDataSource().
-     * @param connectionDetails The connection details provided by the user.
-     */
-     void configureDataSource(ConnectionDetails connectionDetails);
-
-
     /**
      <p>
      This method is used to extract data
@@ -43,6 +37,52 @@ public interface DatabaseExtractor {
                                      int batchSize,
                                      int offSet) throws Exception;
 
+    /**
+     <p>
+     This method is used to extract one page of data
+     from a relational database with keyset pagination.
+     </p>
+     * @param query The keyset query describing the page.
+     * @return A list of DataModel objects ordered by the key column.
+     * @throws Exception if the table or key column is invalid.
+     */
+
+    List<DataModel<Object>> readData(KeysetQuery query) throws Exception;
+
+    /**
+     <p>
+     This method finds the column that can be used
+     to seek through a table, i.e. its single column primary key.
+     </p>
+     * @param tableName The name of the table.
+     * @return The key column, or null if the table has none.
+     */
+
+    String findKeyColumn(String tableName);
+
+    /**
+     <p>
+     This method reads the smallest and largest value
+     of the key column of a table, to split it into ranges.
+     </p>
+     * @param tableName The name of the table.
+     * @param keyColumn The key column.
+     * @return The key range, empty if the table has no rows.
+     */
+
+    KeyRange findKeyRange(String tableName, String keyColumn);
+
+    /**
+     <p>
+     This method estimates the number of rows of a table from
+     the statistics of the database, without counting them.
+     </p>
+     * @param tableName The name of the table.
+     * @return The estimated number of rows, negative when unknown.
+     */
+
+    long estimateRowCount(String tableName);
+
     /**
     <p>
      This method is used to extract data
@@ -56,6 +96,39 @@ public interface DatabaseExtractor {
     Map<String, DataModel<Document>> readData(String databaseName,
       String tableName, String url);
 
+    /**
+    <p>
+     This method streams the documents of a MongoDB
+     collection batch by batch.
+    </p>
+     * @param databaseName The name of the database.
+     * @param tableName The name of the collection to be extracted.
+     * @param url The url of the database.
+     * @param fields The fields to read, all fields if empty.
+     * @param handler The handler receiving each batch.
+     * @return The number of documents read.
+     * @throws Exception if a batch cannot be read or handled.
+     */
+    long streamData(String databaseName, String tableName, String url,
+                    List<String> fields,
+                    DataModelBatchHandler<Object> handler) throws Exception;
+
+    /**
+    <p>
+     This method streams the documents of a MongoDB
+     collection changed since the last call, from its
+     change stream.
+    </p>
+     * @param databaseName The name of the database.
+     * @param tableName The name of the collection to be extracted.
+     * @param url The url of the database.
+     * @param handler The handler receiving each batch.
+     * @return The number of documents read.
+     * @throws Exception if a batch cannot be read or handled.
+     */
+    long streamChanges(String databaseName, String tableName, String url,
+                       DataModelBatchHandler<Object> handler) throws Exception;
+
     /**
      * loadData().
      * This method loads data to  the database.
@@ -67,6 +140,30 @@ public interface DatabaseExtractor {
     void loadData(List<DataModel<Object>> dataModels, String tableName)
             throws Exception;
 
+    /**
+     * loadData().
+     * This method loads data to the database, giving the target table
+     * a unique key on the key column first, so a batch loaded again
+     * after a failure replaces its rows instead of duplicating them.
+     * @param dataModels A list of DataModel objects.
+     * @param tableName The name of the table to be loaded.
+     * @param keyColumn The column identifying a row.
+     * @throws Exception if the data is invalid.
+     */
+
+    void loadData(List<DataModel<Object>> dataModels, String tableName,
+                  String keyColumn) throws Exception;
+
+    /**
+     * loadData().
+     * This method loads a columnar batch to the database.
+     * @param batch The batch of rows stored column by column.
+     * @param tableName The name of the table to be loaded.
+     * @throws Exception if the data is invalid.
+     */
+
+    void loadData(ColumnarBatch batch, String tableName) throws Exception;
+
     /**
      * loadData().
      * This method loads data to  the database.
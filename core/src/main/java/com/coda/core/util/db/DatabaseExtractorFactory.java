@@ -1,5 +1,6 @@
 package com.coda.core.util.db;
 
+import com.coda.core.dtos.ConnectionDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -18,13 +19,13 @@ import org.springframework.stereotype.Component;
 public class DatabaseExtractorFactory {
 
     /**
-     * The SQL connection factory.
+     * The registry holding the SQL connection pools.
      */
 
-    private final ConnectionFactory connectionFactory;
+    private final DataSourceRegistry dataSourceRegistry;
 
     /**
-     * The MySqlExtractor.
+     * The MySqlExtractor every MySQL extractor is derived from.
      */
 
     private final MySQLExtractor mySQLExtractor;
@@ -37,19 +38,19 @@ public class DatabaseExtractorFactory {
 
     /**
      * The constructor.
-     * @param connection The connection factory.
+     * @param registry The registry holding the SQL connection pools.
      * @param sqlExtractor The mysql extractor.
      * @param noSqlExtractor The mongodb extractor.
      * @see MySQLExtractor
      * @see MongoDBExtractor
-     * @see ConnectionFactory
+     * @see DataSourceRegistry
      */
 
     @Autowired
-    public DatabaseExtractorFactory(final ConnectionFactory connection,
+    public DatabaseExtractorFactory(final DataSourceRegistry registry,
                                     final MySQLExtractor sqlExtractor,
                                     final MongoDBExtractor noSqlExtractor) {
-        this.connectionFactory = connection;
+        this.dataSourceRegistry = registry;
         this.mySQLExtractor = sqlExtractor;
         this.mongoDBExtractor = noSqlExtractor;
     }
@@ -57,22 +58,63 @@ public class DatabaseExtractorFactory {
     /**
      * This method returns the appropriate
      * DatabaseExtractor based on
-     * the database type provided.
+     * the database type provided, for databases
+     * whose url is given with each call.
      * @param databaseType The type of the database
      * @return DatabaseExtractor
      */
 
     public DatabaseExtractor getExtractor(final String databaseType) {
         return switch (databaseType) {
-            case DatabaseNames.MYSQL -> {
-                mySQLExtractor
-                        .setConnectionFactory(connectionFactory);
-                yield mySQLExtractor;
-            }
+            case DatabaseNames.MYSQL -> throw new IllegalArgumentException(
+                    "Connection details are required for " + databaseType);
             case DatabaseNames.MONGODB -> mongoDBExtractor;
             // other database types will be added here
             default -> throw new IllegalArgumentException(
                     "Unsupported database type: " + databaseType);
         };
     }
+
+    /**
+     * This method returns the appropriate
+     * DatabaseExtractor based on
+     * the database type provided, bound to
+     * the database of the connection details.
+     * <p>Each call returns its own SQL extractor, so concurrent
+     * jobs never read from or load to each other's database.</p>
+     * @param databaseType The type of the database
+     * @param connectionDetails The connection details of the database
+     * @return DatabaseExtractor
+     */
+
+    public DatabaseExtractor getExtractor(final String databaseType,
+                                          final ConnectionDetails connectionDetails) {
+        if (DatabaseNames.MYSQL.equals(databaseType)) {
+            return mySQLExtractor.withConnectionFactory(
+                    new SqlDbConnectionFactory(dataSourceRegistry, connectionDetails));
+        }
+        return getExtractor(databaseType);
+    }
+
+    /**
+     * This method returns the appropriate
+     * DatabaseExtractor based on
+     * the database type provided, bound to
+     * the open pool of a database.
+     * @param databaseType The type of the database
+     * @param url The url of the database
+     * @param username The username the pool was opened with
+     * @return DatabaseExtractor
+     * @see DataSourceRegistry#get(String, String)
+     */
+
+    public DatabaseExtractor getExtractor(final String databaseType,
+                                          final String url,
+                                          final String username) {
+        if (DatabaseNames.MYSQL.equals(databaseType)) {
+            return mySQLExtractor.withConnectionFactory(
+                    () -> dataSourceRegistry.get(url, username));
+        }
+        return getExtractor(databaseType);
+    }
 }
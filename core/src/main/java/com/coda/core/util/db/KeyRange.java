@@ -0,0 +1,46 @@
+package com.coda.core.util.db;
+
+import lombok.Getter;
+
+/**
+ * <p>KeyRange holds the smallest and largest key of a table,
+ * both null when the table is empty.
+ * </p>
+ * @see DatabaseExtractor#findKeyRange(String, String)
+ */
+@Getter
+public final class KeyRange {
+
+    /**
+     * The smallest key, null when the table is empty.
+     */
+    private final Object min;
+
+    /**
+     * The largest key, null when the table is empty.
+     */
+    private final Object max;
+
+    /**
+     * Constructor for KeyRange.
+     * @param minKey the smallest key.
+     * @param maxKey the largest key.
+     */
+    public KeyRange(final Object minKey, final Object maxKey) {
+        this.min = minKey;
+        this.max = maxKey;
+    }
+
+    /**
+     * Checks whether the table has no rows.
+     * @return true if there is no key.
+     */
+    public boolean isEmpty() {
+        return min == null || max == null;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + min + ", " + max + "]";
+    }
+}
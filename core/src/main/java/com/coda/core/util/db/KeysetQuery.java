@@ -0,0 +1,150 @@
+package com.coda.core.util.db;
+
+import lombok.Getter;
+
+/**
+ * <p>KeysetQuery describes one page of a keyset (seek)
+ * paginated read.
+ * </p>
+ * <p>Instead of skipping {@code offset} rows, the next page
+ * is located with {@code WHERE key > lastKey ORDER BY key},
+ * so the cost of a page does not depend on how deep
+ * the extraction already is.
+ * </p>
+ * <p>When the key column is not unique, e.g. an {@code updated_at}
+ * watermark column, a unique tie breaker column (the primary key)
+ * orders the rows sharing a key, and the next page seeks past
+ * the last {@code (key, tieBreaker)} pair.
+ * </p>
+ * <p>An upper key bounds the read to one key range, so the
+ * partitions of a table can be read side by side.
+ * </p>
+ * @see DatabaseExtractor#readData(KeysetQuery)
+ * @see TablePageReader
+ */
+@Getter
+public final class KeysetQuery {
+
+    /**
+     * The name of the table to read from.
+     */
+    private final String tableName;
+
+    /**
+     * The monotonic column used to order and seek the rows.
+     * i.e. the primary key of the table.
+     */
+    private final String keyColumn;
+
+    /**
+     * The key of the last row of the previous page.
+     * null when reading the first page.
+     */
+    private final Object lastKey;
+
+    /**
+     * The largest key to read, null to read to the end of the table.
+     */
+    private final Object upperKey;
+
+    /**
+     * The unique column ordering the rows with the same key,
+     * null when the key column is unique.
+     */
+    private final String tieBreakerColumn;
+
+    /**
+     * The tie breaker of the last row of the previous page.
+     */
+    private final Object lastTieBreaker;
+
+    /**
+     * The maximum number of rows in the page.
+     */
+    private final int batchSize;
+
+    /**
+     * Constructor for KeysetQuery.
+     * @param table the name of the table.
+     * @param key the monotonic key column.
+     * @param afterKey the last key already read, null for the first page.
+     * @param size the number of rows to read.
+     */
+    public KeysetQuery(final String table, final String key,
+                       final Object afterKey, final int size) {
+        this(table, key, afterKey, null, null, null, size);
+    }
+
+    /**
+     * Constructor for KeysetQuery over a key range.
+     * @param table the name of the table.
+     * @param key the monotonic key column.
+     * @param afterKey the last key already read, null for the first page.
+     * @param upToKey the largest key to read, null for no bound.
+     * @param size the number of rows to read.
+     */
+    public KeysetQuery(final String table, final String key,
+                       final Object afterKey, final Object upToKey,
+                       final int size) {
+        this(table, key, afterKey, upToKey, null, null, size);
+    }
+
+    /**
+     * Constructor for KeysetQuery over a non unique key.
+     * @param table the name of the table.
+     * @param key the monotonic key column.
+     * @param afterKey the last key already read, null for the first page.
+     * @param tieBreaker the unique column ordering rows with the same key.
+     * @param afterTieBreaker the last tie breaker already read.
+     * @param size the number of rows to read.
+     */
+    public KeysetQuery(final String table, final String key,
+                       final Object afterKey, final String tieBreaker,
+                       final Object afterTieBreaker, final int size) {
+        this(table, key, afterKey, null, tieBreaker, afterTieBreaker, size);
+    }
+
+    private KeysetQuery(final String table, final String key,
+                        final Object afterKey, final Object upToKey,
+                        final String tieBreaker, final Object afterTieBreaker,
+                        final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (tieBreaker != null && afterKey != null && afterTieBreaker == null) {
+            throw new IllegalArgumentException("The last tie breaker is required"
+                    + " to seek past a non unique key");
+        }
+        this.tableName = table;
+        this.keyColumn = key;
+        this.lastKey = afterKey;
+        this.upperKey = upToKey;
+        this.tieBreakerColumn = tieBreaker;
+        this.lastTieBreaker = afterTieBreaker;
+        this.batchSize = size;
+    }
+
+    /**
+     * Checks whether this query reads the first page.
+     * @return true if no key has been read yet.
+     */
+    public boolean isFirstPage() {
+        return lastKey == null;
+    }
+
+    /**
+     * Checks whether the read stops at an upper key.
+     * @return true if an upper key is set.
+     */
+    public boolean hasUpperKey() {
+        return upperKey != null;
+    }
+
+    /**
+     * Checks whether rows with the same key are ordered by a tie breaker.
+     * @return true if a tie breaker column is set.
+     */
+    public boolean hasTieBreaker() {
+        return tieBreakerColumn != null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.coda.core.util.db;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>LoadStatistics describes one bulk load: the strategy that
+ * actually wrote the rows, how many rows and statements it took
+ * and how long it ran.
+ * </p>
+ */
+@Getter
+public final class LoadStatistics {
+
+    /**
+     * The strategy that wrote the rows.
+     */
+    private final BulkLoadStrategy strategy;
+
+    /**
+     * The number of rows written.
+     */
+    private final long rows;
+
+    /**
+     * The number of statements sent to the database.
+     */
+    private final long statements;
+
+    /**
+     * The time spent writing, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructor for LoadStatistics.
+     * @param loadStrategy the strategy that wrote the rows.
+     * @param rowCount the number of rows written.
+     * @param statementCount the number of statements sent.
+     * @param nanos the time spent writing, in nanoseconds.
+     */
+    public LoadStatistics(final BulkLoadStrategy loadStrategy,
+                          final long rowCount, final long statementCount,
+                          final long nanos) {
+        this.strategy = loadStrategy;
+        this.rows = rowCount;
+        this.statements = statementCount;
+        this.elapsedNanos = nanos;
+    }
+
+    /**
+     * Returns the time spent writing.
+     * @return the time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Returns the throughput of the load.
+     * @return the rows written per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? rows
+                : rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows in %d statements, %d ms (%.0f rows/sec)",
+                strategy, rows, statements, getElapsedMillis(), getRowsPerSecond());
+    }
+}
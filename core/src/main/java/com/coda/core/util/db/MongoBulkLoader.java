@@ -0,0 +1,205 @@
+package com.coda.core.util.db;
+
+import com.coda.core.exceptions.DataLoadingException;
+import com.coda.core.util.types.ErrorType;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>MongoBulkLoader writes documents to a collection in fixed size
+ * chunks, each sent as one unordered {@code bulkWrite}.
+ * </p>
+ * <p>Every document is upserted with a {@code ReplaceOne} keyed on
+ * its key fields ({@code _id} unless configured otherwise), so
+ * loading the same documents again replaces them instead of failing
+ * on duplicate keys. Documents missing a key field are inserted.
+ * </p>
+ * <p>Documents are taken from the iterator one chunk at a time and
+ * at most {@code maxInFlight} chunks are written at once, so the
+ * memory used depends on the chunk size and not on the size of
+ * the load.
+ * </p>
+ * @see MongoLoadStatistics
+ */
+@Slf4j
+@Getter
+public final class MongoBulkLoader {
+
+    /**
+     * The number of documents per bulk write.
+     */
+    private final int chunkSize;
+
+    /**
+     * The number of chunks written at the same time.
+     */
+    private final int maxInFlight;
+
+    /**
+     * The fields identifying a document.
+     */
+    private final List<String> keyFields;
+
+    /**
+     * Constructor for MongoBulkLoader.
+     * @param size the number of documents per bulk write.
+     * @param inFlight the number of chunks written at the same time.
+     * @param key the fields identifying a document, _id if empty.
+     */
+    public MongoBulkLoader(final int size, final int inFlight,
+                           final List<String> key) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = size;
+        this.maxInFlight = Math.max(1, inFlight);
+        this.keyFields = key == null || key.isEmpty()
+                ? List.of("_id") : List.copyOf(key);
+    }
+
+    /**
+     * Writes documents to a collection, replacing the documents
+     * with the same keys.
+     * @param collection the collection.
+     * @param documents the documents.
+     * @return the statistics of the load.
+     */
+    public MongoLoadStatistics load(final MongoCollection<Document> collection,
+                                    final Iterator<Document> documents) {
+        long start = System.nanoTime();
+        List<MongoLoadStatistics.Chunk> chunks = maxInFlight == 1
+                ? writeSequential(collection, documents)
+                : writeConcurrent(collection, documents);
+        MongoLoadStatistics statistics = new MongoLoadStatistics(chunks,
+                System.nanoTime() - start);
+        log.info("Loaded collection {}: {}", collection.getNamespace(), statistics);
+        return statistics;
+    }
+
+    /**
+     * Builds the write of one document.
+     * @param document the document.
+     * @return a replace with upsert, or an insert without a full key.
+     */
+    WriteModel<Document> toWriteModel(final Document document) {
+        List<Bson> filters = new ArrayList<>(keyFields.size());
+        for (String field : keyFields) {
+            if (!document.containsKey(field)) {
+                return new InsertOneModel<>(document);
+            }
+            filters.add(Filters.eq(field, document.get(field)));
+        }
+        Bson filter = filters.size() == 1 ? filters.get(0) : Filters.and(filters);
+        return new ReplaceOneModel<>(filter, document,
+                new ReplaceOptions().upsert(true));
+    }
+
+    private List<MongoLoadStatistics.Chunk> writeSequential(
+            final MongoCollection<Document> collection,
+            final Iterator<Document> documents) {
+        List<MongoLoadStatistics.Chunk> chunks = new ArrayList<>();
+        while (documents.hasNext()) {
+            chunks.add(writeChunk(collection, chunks.size(), nextChunk(documents)));
+        }
+        return chunks;
+    }
+
+    private List<MongoLoadStatistics.Chunk> writeConcurrent(
+            final MongoCollection<Document> collection,
+            final Iterator<Document> documents) {
+        ExecutorService executor = Executors.newFixedThreadPool(maxInFlight);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<MongoLoadStatistics.Chunk>> futures = new ArrayList<>();
+        try {
+            // The next chunk is only built once a write has finished.
+            while (documents.hasNext() && !failed.get()) {
+                inFlight.acquire();
+                List<WriteModel<Document>> chunk = nextChunk(documents);
+                int index = futures.size();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return writeChunk(collection, index, chunk);
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            List<MongoLoadStatistics.Chunk> chunks = new ArrayList<>(futures.size());
+            for (Future<MongoLoadStatistics.Chunk> future : futures) {
+                chunks.add(future.get());
+            }
+            return chunks;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DataLoadingException("Error while loading data: " + e.getCause(),
+                    ErrorType.DATA_LOADING_EXCEPTION);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataLoadingException("Interrupted while loading data",
+                    ErrorType.DATA_LOADING_EXCEPTION);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<WriteModel<Document>> nextChunk(final Iterator<Document> documents) {
+        List<WriteModel<Document>> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && documents.hasNext()) {
+            chunk.add(toWriteModel(documents.next()));
+        }
+        return chunk;
+    }
+
+    private MongoLoadStatistics.Chunk writeChunk(final MongoCollection<Document> collection,
+                                                 final int index,
+                                                 final List<WriteModel<Document>> chunk) {
+        long start = System.nanoTime();
+        try {
+            BulkWriteResult result = collection.bulkWrite(chunk,
+                    new BulkWriteOptions().ordered(false));
+            if (!result.wasAcknowledged()) {
+                return new MongoLoadStatistics.Chunk(index, chunk.size(),
+                        0, 0, 0, System.nanoTime() - start);
+            }
+            return new MongoLoadStatistics.Chunk(index, chunk.size(),
+                    result.getInsertedCount() + result.getUpserts().size(),
+                    result.getMatchedCount(), result.getModifiedCount(),
+                    System.nanoTime() - start);
+        } catch (MongoBulkWriteException e) {
+            log.error("Chunk {} of {} failed", index, collection.getNamespace(), e);
+            String firstError = e.getWriteErrors().isEmpty()
+                    ? e.getMessage() : e.getWriteErrors().get(0).getMessage();
+            throw new DataLoadingException("Chunk " + index + " failed: "
+                    + e.getWriteErrors().size() + " of " + chunk.size()
+                    + " documents not written, first error: " + firstError,
+                    ErrorType.DATA_LOADING_EXCEPTION);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.coda.core.util.db;
+
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.entities.DataModel;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>MongoChangeStreamReader reads the documents changed in a
+ * collection from its change stream.
+ * </p>
+ * <p>Inserts, updates and replaces are read with the current version
+ * of the document and handed over in batches; a document changed
+ * several times within a batch is handed over once. Deletes are not
+ * read. The reader drains the events available when it is called and
+ * returns, reporting the resume token after every handled batch so the
+ * next read starts where this one stopped.
+ * </p>
+ * <p>Change streams need a replica set or a sharded cluster.
+ * </p>
+ */
+@Slf4j
+@Getter
+public final class MongoChangeStreamReader {
+
+    /**
+     * The operations that change the content of a document.
+     */
+    static final List<String> CHANGE_OPERATIONS = List.of("insert", "update", "replace");
+
+    /**
+     * The collection to watch.
+     */
+    private final MongoCollection<Document> collection;
+
+    /**
+     * The number of documents per handed over batch.
+     */
+    private final int batchSize;
+
+    /**
+     * How long the server waits for new events before answering,
+     * in milliseconds.
+     */
+    private final long maxAwaitMillis;
+
+    /**
+     * Constructor for MongoChangeStreamReader.
+     * @param mongoCollection the collection to watch.
+     * @param size the number of documents per batch.
+     * @param awaitMillis how long to wait for new events.
+     */
+    public MongoChangeStreamReader(final MongoCollection<Document> mongoCollection,
+                                   final int size, final long awaitMillis) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.collection = mongoCollection;
+        this.batchSize = size;
+        this.maxAwaitMillis = awaitMillis;
+    }
+
+    /**
+     * Returns the resume token of the current end of the stream,
+     * taken before a first full read so no change is missed.
+     * @return the resume token.
+     */
+    public BsonDocument currentToken() {
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor
+                     = watch(null).cursor()) {
+            return cursor.getResumeToken();
+        }
+    }
+
+    /**
+     * Reads the documents changed after a resume token.
+     * @param resumeToken the token to resume after, null to start now.
+     * @param handler the handler receiving each batch.
+     * @param checkpoint receives the token after each handled batch,
+     *                   null once the stream has been invalidated.
+     * @return the number of documents handed over.
+     * @throws Exception if a batch cannot be read or handled.
+     */
+    public long read(final BsonDocument resumeToken,
+                     final DataModelBatchHandler<Object> handler,
+                     final Consumer<BsonDocument> checkpoint) throws Exception {
+        long count = 0;
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor
+                     = watch(resumeToken).cursor()) {
+            Map<Object, DataModel<Object>> batch = new LinkedHashMap<>();
+            ChangeStreamDocument<Document> change;
+            while ((change = cursor.tryNext()) != null) {
+                if (change.getOperationType() == OperationType.INVALIDATE) {
+                    // The collection was dropped or renamed, start over.
+                    count += handle(batch, handler);
+                    log.warn("Change stream of {} was invalidated",
+                            collection.getNamespace());
+                    checkpoint.accept(null);
+                    return count;
+                }
+                Document document = change.getFullDocument();
+                if (document != null) {
+                    // A lookup of a document deleted since has no document.
+                    batch.put(document.get("_id"), MongoDocumentReader.toDataModel(document));
+                }
+                if (batch.size() >= batchSize) {
+                    count += handle(batch, handler);
+                    checkpoint.accept(cursor.getResumeToken());
+                }
+            }
+            count += handle(batch, handler);
+            BsonDocument token = cursor.getResumeToken();
+            if (token != null) {
+                checkpoint.accept(token);
+            }
+        }
+        log.info("Read {} changed documents from {}", count, collection.getNamespace());
+        return count;
+    }
+
+    private ChangeStreamIterable<Document> watch(final BsonDocument resumeToken) {
+        ChangeStreamIterable<Document> changes = collection
+                .watch(List.of(Aggregates.match(
+                        Filters.in("operationType", CHANGE_OPERATIONS))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .batchSize(batchSize)
+                .maxAwaitTime(maxAwaitMillis, TimeUnit.MILLISECONDS);
+        return resumeToken != null ? changes.resumeAfter(resumeToken) : changes;
+    }
+
+    private static long handle(final Map<Object, DataModel<Object>> batch,
+                               final DataModelBatchHandler<Object> handler)
+            throws Exception {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<DataModel<Object>> dataModels = new ArrayList<>(batch.values());
+        batch.clear();
+        handler.handle(dataModels);
+        return dataModels.size();
+    }
+}
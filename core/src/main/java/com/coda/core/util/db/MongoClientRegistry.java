@@ -0,0 +1,88 @@
+package com.coda.core.util.db;
+
+import com.coda.core.config.MongoDBProperties;
+import com.mongodb.client.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>MongoClientRegistry keeps one MongoClient per connection string,
+ * so reads and loads against the same cluster share its connection
+ * pool instead of creating and closing a client every call.
+ * </p>
+ * <p>Clients connect with the configured credentials and pool
+ * settings and stay open until the registry is closed on shutdown.
+ * Idle connections are closed by the client itself after
+ * {@link MongoDBProperties#getMaxConnectionIdleTime()}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MongoClientRegistry implements AutoCloseable {
+
+    /**
+     * The credentials, default url and pool settings.
+     */
+    private final MongoDBProperties properties;
+
+    /**
+     * The clients, by connection string.
+     */
+    private final Map<String, MongoClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for MongoClientRegistry.
+     * @param mongoDBProperties the credentials and pool settings.
+     */
+    public MongoClientRegistry(final MongoDBProperties mongoDBProperties) {
+        this.properties = mongoDBProperties;
+    }
+
+    /**
+     * Returns the client of the configured url.
+     * @return the client.
+     */
+    public MongoClient getDefault() {
+        return getOrCreate(properties.getUrl());
+    }
+
+    /**
+     * Returns the client of a connection string, creating it if needed.
+     * @param url the connection string, the configured url if blank.
+     * @return the client.
+     */
+    public MongoClient getOrCreate(final String url) {
+        String connectionString = url == null || url.isBlank()
+                ? properties.getUrl() : url;
+        if (connectionString == null || connectionString.isBlank()) {
+            throw new IllegalArgumentException("No MongoDB url configured");
+        }
+        return clients.computeIfAbsent(connectionString, key -> {
+            log.info("Creating MongoClient with a pool of at most {} connections",
+                    properties.getMaxPoolSize());
+            return MongoDBUtil.createMongoClient(key,
+                    properties.getUsername(), properties.getPassword(),
+                    properties);
+        });
+    }
+
+    /**
+     * Returns the number of open clients.
+     * @return the number of clients.
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Closes all clients.
+     */
+    @Override
+    public void close() {
+        clients.values().forEach(MongoClient::close);
+        clients.clear();
+    }
+}
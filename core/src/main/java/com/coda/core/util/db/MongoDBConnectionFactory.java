@@ -18,11 +18,6 @@ import org.springframework.stereotype.Component;
 @Component
 public final class MongoDBConnectionFactory {
 
-    /**
-     * The MongoClient object used to connect to the database.
-     */
-    private MongoClient mongoClient;
-
     /**
      * The MongoDBProperties object used to configure the connection.
      * The MongoDBProperties object contains the database name,
@@ -36,15 +31,14 @@ public final class MongoDBConnectionFactory {
     /**
      * <p>This constructor is used to
      * create a connection to the MongoDB database.
+     * The clients themselves are shared and owned by
+     * {@link MongoClientRegistry}.
      * </p>
      * @param properties The MongoDBProperties bean.
-     * @param client The MongoClient bean.
      */
     @Autowired
-    public MongoDBConnectionFactory(final MongoDBProperties properties,
-                                    final MongoClient client) {
+    public MongoDBConnectionFactory(final MongoDBProperties properties) {
         this.mongoDBProperties = properties;
-        this.mongoClient = client;
     }
 
     /**
@@ -66,15 +60,4 @@ public final class MongoDBConnectionFactory {
 
         return client.getDatabase(dbName);
     }
-
-    /**
-     * This method is used to close
-     * the connection to the MongoDB database.
-     */
-    public void close() {
-        if (mongoClient != null) {
-            mongoClient.close();
-            mongoClient = null;
-        }
-    }
 }
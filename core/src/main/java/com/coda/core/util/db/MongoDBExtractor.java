@@ -1,30 +1,37 @@
 package com.coda.core.util.db;
 
 
-import com.coda.core.config.MongoDBConfig;
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.columnar.ColumnarBatch;
 import com.coda.core.config.MongoDBProperties;
-import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.config.WatermarkProperties;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
 import com.coda.core.exceptions.DataLoadingException;
 import com.coda.core.util.timestamps.FileTimestampStorage;
+import com.coda.core.util.timestamps.FileWatermarkStore;
+import com.coda.core.util.timestamps.Watermark;
+import com.coda.core.util.timestamps.WatermarkKey;
+import com.coda.core.util.timestamps.WatermarkStore;
 import com.coda.core.util.types.ErrorType;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 
+import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Collections;
 
 
@@ -40,11 +47,6 @@ import java.util.Collections;
 public final class MongoDBExtractor implements DatabaseExtractor {
 
 
-    @Override
-    public void configureDataSource(ConnectionDetails connectionDetails) {
-        throw new UnsupportedOperationException("Not implemented");
-    }
-
     /**
      * MongoDBConnectionFactory is a custom class that
      * provides methods to create a connection
@@ -55,32 +57,92 @@ public final class MongoDBExtractor implements DatabaseExtractor {
     private final MongoDBConnectionFactory mongoDBConnectionFactory;
 
     /**
-     * The MongoConfig object.
+     * The registry of the shared MongoClients.
      */
-    private final MongoDBConfig mongoDBConfig;
+    private final MongoClientRegistry mongoClientRegistry;
 
     /**
      * The FileTimestampStorage object.
      */
     private final FileTimestampStorage fileTimestampStorage;
 
+    /**
+     * The MongoDBProperties object, holding the read settings.
+     */
+    private final MongoDBProperties mongoDBProperties;
+
+    /**
+     * Writes documents in chunks of upserts.
+     */
+    private final MongoBulkLoader mongoBulkLoader;
+
+    /**
+     * The watermark of each collection, holding the last
+     * change read and the change stream resume token.
+     */
+    private final WatermarkStore watermarkStore;
+
+    /**
+     * This constructor initializes the mongoDBConnectionFactory field
+     * with the value provided and the default read settings.
+     * @param mongoConnectFactory The MongoDBConnectionFactory object
+     * @param registry The registry of the shared clients
+     * @param fts The FileTimestampStorage object
+     * @see MongoDBConnectionFactory
+     * @see MongoClientRegistry
+     */
+
+    public MongoDBExtractor(
+            final MongoDBConnectionFactory mongoConnectFactory,
+            final MongoClientRegistry registry, final FileTimestampStorage fts) {
+        this(mongoConnectFactory, registry, fts, new MongoDBProperties());
+    }
+
+    /**
+     * This constructor initializes the mongoDBConnectionFactory field
+     * with the value provided.
+     * @param mongoConnectFactory The MongoDBConnectionFactory object
+     * @param registry The registry of the shared clients
+     * @param fts The FileTimestampStorage object
+     * @param properties The MongoDBProperties object
+     * @see MongoDBConnectionFactory
+     * @see MongoClientRegistry
+     */
+
+    public MongoDBExtractor(
+            final MongoDBConnectionFactory mongoConnectFactory,
+            final MongoClientRegistry registry, final FileTimestampStorage fts,
+            final MongoDBProperties properties) {
+        this(mongoConnectFactory, registry, fts, properties,
+                new FileWatermarkStore(Paths.get(
+                        new WatermarkProperties().getDirectory())));
+    }
+
     /**
      * This constructor initializes the mongoDBConnectionFactory field
      * with the value provided.
      * @param mongoConnectFactory The MongoDBConnectionFactory object
-     * @param config The MongoDBConfig object
+     * @param registry The registry of the shared clients
      * @param fts The FileTimestampStorage object
+     * @param properties The MongoDBProperties object
+     * @param watermarks The watermark of each collection
      * @see MongoDBConnectionFactory
-     * @see MongoDBConfig
+     * @see MongoClientRegistry
+     * @see WatermarkStore
      */
 
     @Autowired
     public MongoDBExtractor(
             @Lazy final MongoDBConnectionFactory mongoConnectFactory,
-            final MongoDBConfig config, final FileTimestampStorage fts) {
+            final MongoClientRegistry registry, final FileTimestampStorage fts,
+            final MongoDBProperties properties, final WatermarkStore watermarks) {
         this.mongoDBConnectionFactory = mongoConnectFactory;
-        this.mongoDBConfig = config;
+        this.mongoClientRegistry = registry;
         this.fileTimestampStorage = fts;
+        this.mongoDBProperties = properties;
+        this.mongoBulkLoader = new MongoBulkLoader(properties.getLoadBatchSize(),
+                properties.getLoadInFlight(), properties.getLoadKey());
+        this.watermarkStore = watermarks;
     }
 
     //== Extract ==
@@ -104,62 +166,153 @@ public final class MongoDBExtractor implements DatabaseExtractor {
             throw new IllegalArgumentException("Invalid arguments");
         }
 
-        MongoClient mongoClient = null;
+        MongoClient mongoClient = mongoClientRegistry.getOrCreate(url);
 
-        try {
+        MongoDatabase mongoDatabase
+                = mongoDBConnectionFactory
+                .getConnection(mongoClient, databaseName);
 
-            mongoClient = mongoDBConfig.mongoClient();
+        MongoCollection<Document> collection
+                = mongoDatabase.getCollection(tableName);
 
-            MongoDBProperties tempProperties = new MongoDBProperties();
-            tempProperties.setUrl(url);
+        Map<String, DataModel<Document>> dataModelList = new HashMap<>();
 
-            MongoDatabase mongoDatabase
-                    = mongoDBConnectionFactory
-                    .getConnection(mongoClient, databaseName);
+        Instant lastExtractedTimeStamp = fileTimestampStorage
+                .getLastExtractedTimestamp();
 
-            MongoCollection<Document> collection
-                    = mongoDatabase.getCollection(tableName);
+        // Filters.gt
 
-            Map<String, DataModel<Document>> dataModelList = new HashMap<>();
-
-            Instant lastExtractedTimeStamp = fileTimestampStorage
-                    .getLastExtractedTimestamp();
-
-            // Filters.gt
-
-            Bson filter = Filters.gt("updatedAt", lastExtractedTimeStamp);
-
-            for (Document document : collection.find(filter)) {
-                DataModel<Document> dataModel = new DataModel<>();
-                Map<String, DataAttributes<Document>> attributes
-                        = new HashMap<>();
-                for (String key : document.keySet()) {
-                    Object value = document.get(key);
-                    DataAttributes<Document> attribute
-                            = new DataAttributes<>(
-                            key, value instanceof Document
-                            ? value : new Document(key, value),
-                            "Document",
-                            Document.class);
-                    attributes.put(key, attribute);
-                }
-                dataModel.setAttributesMap(attributes);
-                dataModelList.put(document.get("_id").toString(), dataModel);
-            }
-            fileTimestampStorage.updateLastExtractedTimestamp(Instant.now());
-            return dataModelList;
-        } finally {
-            if (mongoClient != null) {
-                mongoDBConnectionFactory.close();
+        Bson filter = Filters.gt("updatedAt", lastExtractedTimeStamp);
+
+        for (Document document : collection.find(filter)) {
+            DataModel<Document> dataModel = new DataModel<>();
+            Map<String, DataAttributes<Document>> attributes
+                    = new HashMap<>();
+            for (String key : document.keySet()) {
+                Object value = document.get(key);
+                DataAttributes<Document> attribute
+                        = new DataAttributes<>(
+                        key, value instanceof Document
+                        ? value : new Document(key, value),
+                        "Document",
+                        Document.class);
+                attributes.put(key, attribute);
             }
+            dataModel.setAttributesMap(attributes);
+            dataModelList.put(document.get("_id").toString(), dataModel);
         }
+        fileTimestampStorage.updateLastExtractedTimestamp(Instant.now());
+        return dataModelList;
+    }
+
+    /**
+     <p>This method streams the documents of a collection
+     changed since the last extraction, batch by batch.
+     The collection is read through cursors with the configured
+     batch size and scanned in parallel _id ranges, so the
+     handler may be called from several threads at once.
+     </p>
+     * @param databaseName The name of the database.
+     * @param tableName The name of the collection.
+     * @param url The url of the database.
+     * @param fields The fields to read, all fields if empty.
+     * @param handler The handler receiving each batch.
+     * @return The number of documents read.
+     * @throws Exception if a batch cannot be read or handled.
+     * @see MongoDocumentReader
+     */
+    @Override
+    public long streamData(final String databaseName,
+                           final String tableName,
+                           final String url,
+                           final List<String> fields,
+                           final DataModelBatchHandler<Object> handler)
+            throws Exception {
+        validateStreamArguments(databaseName, tableName, url);
+        Objects.requireNonNull(handler, "handler cannot be null");
+
+        MongoDatabase mongoDatabase = mongoDBConnectionFactory
+                .getConnection(mongoClientRegistry.getOrCreate(url), databaseName);
+        MongoCollection<Document> collection
+                = mongoDatabase.getCollection(tableName);
+
+        // Documents updated while the scan runs are read again next time.
+        Instant startedAt = Instant.now();
+        WatermarkKey key = watermarkKey(url, databaseName, tableName);
+        // A collection without a watermark of its own is read in full.
+        Instant lastExtracted = watermarkStore.get(key)
+                .map(Watermark::getTimestamp)
+                .orElse(Instant.EPOCH);
+        Bson filter = Filters.gt("updatedAt", lastExtracted);
+
+        MongoDocumentReader reader = new MongoDocumentReader(collection,
+                mongoDBProperties.getReadBatchSize(),
+                mongoDBProperties.effectiveScanParallelism());
+        long count = reader.read(filter, fields, handler);
+        watermarkStore.put(key, watermarkStore.get(key)
+                .orElse(Watermark.empty()).withTimestamp(startedAt));
+        log.info("Streamed {} documents from {}.{}", count,
+                databaseName, tableName);
+        return count;
+    }
+
+    /**
+     <p>This method streams the documents of a collection
+     changed since the last call, from its change stream.
+     The first call reads the whole collection and remembers
+     where the stream stood before the read; later calls
+     resume from the token saved after each handled batch,
+     so writes made during a read are picked up next time.
+     </p>
+     * @param databaseName The name of the database.
+     * @param tableName The name of the collection.
+     * @param url The url of the database.
+     * @param handler The handler receiving each batch.
+     * @return The number of documents read.
+     * @throws Exception if a batch cannot be read or handled.
+     * @see MongoChangeStreamReader
+     */
+    @Override
+    public long streamChanges(final String databaseName,
+                              final String tableName,
+                              final String url,
+                              final DataModelBatchHandler<Object> handler)
+            throws Exception {
+        validateStreamArguments(databaseName, tableName, url);
+        Objects.requireNonNull(handler, "handler cannot be null");
+
+        MongoCollection<Document> collection = mongoDBConnectionFactory
+                .getConnection(mongoClientRegistry.getOrCreate(url), databaseName)
+                .getCollection(tableName);
+        MongoChangeStreamReader reader = new MongoChangeStreamReader(collection,
+                mongoDBProperties.getReadBatchSize(),
+                mongoDBProperties.getChangeStreamMaxAwaitTime());
+
+        long count = 0;
+        WatermarkKey key = watermarkKey(url, databaseName, tableName);
+        BsonDocument resumeToken = watermarkStore.get(key)
+                .map(Watermark::getResumeToken).orElse(null);
+        if (resumeToken == null) {
+            resumeToken = reader.currentToken();
+            log.info("No resume token for {}.{}, reading the whole collection",
+                    databaseName, tableName);
+            count += new MongoDocumentReader(collection,
+                    mongoDBProperties.getReadBatchSize(),
+                    mongoDBProperties.effectiveScanParallelism())
+                    .read(new Document(), List.of(), handler);
+            saveResumeToken(key, resumeToken);
+        }
+        count += reader.read(resumeToken, handler, token ->
+                saveResumeToken(key, token));
+        return count;
     }
 
     //== Load ==
 
     /* loadData().
     <p>This method is used to load
-    data into a MongoDB database.</p>
+    data into a MongoDB database, in chunks of
+    upserts keyed on the configured load key.</p>
     */
 
     @Override
@@ -174,45 +327,58 @@ public final class MongoDBExtractor implements DatabaseExtractor {
         Objects.requireNonNull(tableName, "tableName cannot be null");
         Objects.requireNonNull(url, "url cannot be null");
 
-        MongoClient mongoClient = null;
-        MongoDBProperties tempProperties = new MongoDBProperties();
-        tempProperties.setUrl(url);
         try {
 
-            mongoClient = mongoDBConfig.mongoClient();
+            MongoClient mongoClient = mongoClientRegistry.getOrCreate(url);
             MongoDatabase mongoDatabase = mongoDBConnectionFactory
                     .getConnection(mongoClient, dbName);
             MongoCollection<Document> collection
                     = mongoDatabase.getCollection(tableName);
 
-            List<Document> documents = new ArrayList<>();
-            for (DataModel<Document> dataModel : dataModels.values()) {
-                Document document = new Document();
-                for (Map.Entry<String, DataAttributes<Document>>
-                        entry : dataModel.getAttributesMap().entrySet()) {
-                    document.append(entry.getKey(),
-                            entry.getValue().getValue());
-                }
-                documents.add(document);
-            }
-
-            if (!documents.isEmpty()) {
-                collection.insertMany(documents);
-            }
-            fileTimestampStorage.updateLastExtractedTimestamp(Instant.now());
-            log.info("Data loaded successfully");
+            Iterator<Document> documents = dataModels.values().stream()
+                    .map(MongoDBExtractor::toDocument).iterator();
+            MongoLoadStatistics statistics
+                    = mongoBulkLoader.load(collection, documents);
+            log.info("Data loaded successfully: {}", statistics);
 
         } catch (Exception e) {
             log.error("Error while loading data", e);
-            throw new DataLoadingException("Error while loading data",
-                    ErrorType.DATA_LOADING_EXCEPTION);
-        } finally {
-            if (mongoClient != null) {
-                mongoDBConnectionFactory.close();
-            }
+            throw new DataLoadingException("Error while loading data: "
+                    + e.getMessage(), ErrorType.DATA_LOADING_EXCEPTION);
+        }
+    }
+
+    private static void validateStreamArguments(final String databaseName,
+                                                final String tableName,
+                                                final String url) {
+        if (databaseName == null || databaseName.isEmpty()
+                || tableName == null || tableName.isEmpty()
+                || url == null || url.isEmpty()) {
+            throw new IllegalArgumentException("Invalid arguments");
         }
+    }
+
+    // Collections of the same name on different servers are tracked apart.
+    private static WatermarkKey watermarkKey(final String url,
+                                             final String databaseName,
+                                             final String tableName) {
+        return new WatermarkKey(DatabaseNames.MONGODB, url,
+                databaseName + "." + tableName);
+    }
 
+    private void saveResumeToken(final WatermarkKey key,
+                                 final BsonDocument resumeToken) {
+        watermarkStore.put(key, watermarkStore.get(key)
+                .orElse(Watermark.empty()).withResumeToken(resumeToken));
+    }
 
+    private static Document toDocument(final DataModel<Document> dataModel) {
+        Document document = new Document();
+        for (Map.Entry<String, DataAttributes<Document>>
+                entry : dataModel.getAttributesMap().entrySet()) {
+            document.append(entry.getKey(), entry.getValue().getValue());
+        }
+        return document;
     }
 
     // == Not used for this class, but required to implement the interface ==
@@ -224,6 +390,28 @@ public final class MongoDBExtractor implements DatabaseExtractor {
         return Collections.emptyList();
     }
 
+    // == Not used for this class, but required to implement the interface ==
+    @Override
+    public List<DataModel<Object>> readData(final KeysetQuery query) {
+        return Collections.emptyList();
+    }
+
+    // == Not used for this class, but required to implement the interface ==
+    @Override
+    public String findKeyColumn(final String tableName) {
+        return null;
+    }
+
+    @Override
+    public KeyRange findKeyRange(final String tableName, final String keyColumn) {
+        return new KeyRange(null, null);
+    }
+
+    @Override
+    public long estimateRowCount(final String tableName) {
+        return -1;
+    }
+
     // == Not used for this class, but required to implement the interface ==
 
     @Override
@@ -232,4 +420,20 @@ public final class MongoDBExtractor implements DatabaseExtractor {
             throws Exception {
 
     }
+
+    // == Not used for this class, but required to implement the interface ==
+    @Override
+    public void loadData(final List<DataModel<Object>> dataModels,
+                         final String tableName, final String keyColumn)
+            throws Exception {
+        loadData(dataModels, tableName);
+    }
+
+    // == Not used for this class, but required to implement the interface ==
+
+    @Override
+    public void loadData(final ColumnarBatch batch,
+                         final String tableName) {
+
+    }
 }
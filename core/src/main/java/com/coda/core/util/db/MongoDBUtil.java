@@ -2,6 +2,7 @@ package com.coda.core.util.db;
 
 import com.coda.core.codec.DataAttributesCodec;
 import com.coda.core.codec.DataModelCodec;
+import com.coda.core.config.MongoDBProperties;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCredential;
@@ -10,6 +11,8 @@ import com.mongodb.client.MongoClients;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
 
+import java.util.concurrent.TimeUnit;
+
 public final class MongoDBUtil {
 
     /**
@@ -19,6 +22,23 @@ public final class MongoDBUtil {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * createMongoClient method.
+     * is used to create a MongoClient instance
+     * with the default pool settings.
+     * @param url The url of the database.
+     * @param username The username of the database.
+     * @param password The password of the database.
+     * @return MongoClient object.
+     */
+
+    public static MongoClient createMongoClient(final String url,
+                                                final String username,
+                                                final String password) {
+        return createMongoClient(url, username, password,
+                new MongoDBProperties());
+    }
+
     /**
      * createMongoClient method.
      * is used to create a MongoClient instance.
@@ -26,12 +46,14 @@ public final class MongoDBUtil {
      * @param url The url of the database.
      * @param username The username of the database.
      * @param password The password of the database.
+     * @param poolSettings The pool and socket settings.
      * @return MongoClient object.
      */
 
     public static MongoClient createMongoClient(final String url,
                                                 final String username,
-                                                final String password) {
+                                                final String password,
+                                                final MongoDBProperties poolSettings) {
         CodecRegistry defaultRegistry
                 = MongoClientSettings.getDefaultCodecRegistry();
 
@@ -49,6 +71,18 @@ public final class MongoDBUtil {
                 .credential(MongoCredential.createCredential(username,
                         "admin", password.toCharArray()))
                 .codecRegistry(codecRegistry)
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(poolSettings.getMinPoolSize())
+                        .maxSize(poolSettings.getMaxPoolSize())
+                        .maxConnecting(poolSettings.getMaxConnecting())
+                        .maxConnectionIdleTime(
+                                poolSettings.getMaxConnectionIdleTime(),
+                                TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(poolSettings.getConnectTimeout(),
+                                TimeUnit.MILLISECONDS)
+                        .readTimeout(poolSettings.getReadTimeout(),
+                                TimeUnit.MILLISECONDS))
                 .build();
 
         return MongoClients.create(settings);
@@ -0,0 +1,267 @@
+package com.coda.core.util.db;
+
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>MongoDocumentReader streams a collection batch by batch.
+ * </p>
+ * <p>Documents are read through a cursor with a fixed batch size and
+ * only the requested fields, and handed over as data models in batches
+ * of the same size. With a parallelism above one the collection is
+ * split into {@code _id} ranges, from boundaries sampled with
+ * {@code $sample}, and the ranges are scanned at the same time. A
+ * last range picks up documents whose {@code _id} is of another BSON
+ * type than the boundaries, so no document is missed.
+ * </p>
+ * <p>When ranges are scanned in parallel the handler is called from
+ * several threads, so it has to be thread safe. Each scan holds at
+ * most one batch, so the memory used depends on the batch size and
+ * the parallelism and not on the size of the collection.
+ * </p>
+ */
+@Slf4j
+@Getter
+public final class MongoDocumentReader {
+
+    /**
+     * The number of sampled ids per range used to place the boundaries.
+     */
+    static final int SAMPLES_PER_RANGE = 32;
+
+    /**
+     * The collection to read.
+     */
+    private final MongoCollection<Document> collection;
+
+    /**
+     * The number of documents per cursor batch and per handed over batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The number of ranges scanned at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * Constructor for MongoDocumentReader.
+     * @param mongoCollection the collection to read.
+     * @param size the number of documents per batch.
+     * @param scans the number of ranges scanned at the same time.
+     */
+    public MongoDocumentReader(final MongoCollection<Document> mongoCollection,
+                               final int size, final int scans) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.collection = mongoCollection;
+        this.batchSize = size;
+        this.parallelism = Math.max(1, scans);
+    }
+
+    /**
+     * Reads the documents matching a filter.
+     * @param filter the filter.
+     * @param fields the fields to read, all fields if empty.
+     * @param handler the handler receiving each batch.
+     * @return the number of documents read.
+     * @throws Exception if a batch cannot be read or handled.
+     */
+    public long read(final Bson filter, final List<String> fields,
+                     final DataModelBatchHandler<Object> handler) throws Exception {
+        Bson projection = fields == null || fields.isEmpty()
+                ? null : Projections.include(fields);
+        List<Bson> ranges = parallelism > 1 ? splitRanges(filter) : List.of();
+        if (ranges.size() <= 1) {
+            return scan(filter, projection, handler);
+        }
+
+        log.info("Scanning {} in {} ranges with {} threads",
+                collection.getNamespace(), ranges.size(), parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(parallelism, ranges.size()));
+        try {
+            List<Future<Long>> futures = new ArrayList<>(ranges.size());
+            for (Bson range : ranges) {
+                futures.add(executor.submit(() ->
+                        scan(Filters.and(filter, range), projection, handler)));
+            }
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += await(future, futures);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long scan(final Bson filter, final Bson projection,
+                      final DataModelBatchHandler<Object> handler) throws Exception {
+        FindIterable<Document> documents = collection.find(filter).batchSize(batchSize);
+        if (projection != null) {
+            documents = documents.projection(projection);
+        }
+        long count = 0;
+        List<DataModel<Object>> batch = new ArrayList<>(batchSize);
+        try (MongoCursor<Document> cursor = documents.iterator()) {
+            while (cursor.hasNext()) {
+                batch.add(toDataModel(cursor.next()));
+                if (batch.size() == batchSize) {
+                    count += batch.size();
+                    handler.handle(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            count += batch.size();
+            handler.handle(batch);
+        }
+        return count;
+    }
+
+    private List<Bson> splitRanges(final Bson filter) {
+        List<Object> sampledIds = new ArrayList<>();
+        for (Document document : collection.aggregate(List.of(
+                Aggregates.match(filter),
+                Aggregates.sample(parallelism * SAMPLES_PER_RANGE),
+                Aggregates.project(Projections.include("_id")),
+                Aggregates.sort(Sorts.ascending("_id"))))) {
+            sampledIds.add(document.get("_id"));
+        }
+        return ranges(sampledIds, parallelism);
+    }
+
+    /**
+     * Splits sorted sample ids into contiguous {@code _id} ranges.
+     * @param sampledIds the sampled ids, in ascending order.
+     * @param count the number of ranges wanted.
+     * @return the range filters, empty if the ids cannot be split.
+     */
+    static List<Bson> ranges(final List<Object> sampledIds, final int count) {
+        String typeAlias = typeAlias(sampledIds);
+        if (typeAlias == null || sampledIds.size() < count) {
+            return List.of();
+        }
+        List<Object> boundaries = new ArrayList<>(count - 1);
+        for (int i = 1; i < count; i++) {
+            Object boundary = sampledIds.get(i * sampledIds.size() / count);
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+
+        List<Bson> ranges = new ArrayList<>(boundaries.size() + 2);
+        ranges.add(Filters.lt("_id", boundaries.get(0)));
+        for (int i = 1; i < boundaries.size(); i++) {
+            ranges.add(Filters.and(Filters.gte("_id", boundaries.get(i - 1)),
+                    Filters.lt("_id", boundaries.get(i))));
+        }
+        ranges.add(Filters.gte("_id", boundaries.get(boundaries.size() - 1)));
+        // Range queries only match ids of the boundary type.
+        ranges.add(Filters.not(Filters.type("_id", typeAlias)));
+        return ranges;
+    }
+
+    private static String typeAlias(final List<Object> ids) {
+        String alias = null;
+        for (Object id : ids) {
+            String idAlias;
+            if (id instanceof ObjectId) {
+                idAlias = "objectId";
+            } else if (id instanceof String) {
+                idAlias = "string";
+            } else if (id instanceof Number) {
+                idAlias = "number";
+            } else if (id instanceof Date) {
+                idAlias = "date";
+            } else {
+                return null;
+            }
+            if (alias != null && !alias.equals(idAlias)) {
+                return null;
+            }
+            alias = idAlias;
+        }
+        return alias;
+    }
+
+    /**
+     * Turns a document into a data model the processing can handle.
+     * <p>Object ids become hex strings, dates become UTC
+     * LocalDateTimes, Decimal128 becomes BigDecimal, and nested
+     * documents and arrays become their JSON text.
+     * </p>
+     * @param document the document.
+     * @return the data model, with the ObjectId of the document as id.
+     */
+    public static DataModel<Object> toDataModel(final Document document) {
+        Map<String, DataAttributes<Object>> attributes = new HashMap<>(document.size() * 2);
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            Object value = toValue(entry.getValue());
+            attributes.put(entry.getKey(), new DataAttributes<>(entry.getKey(), value,
+                    value != null ? value.getClass().getName() : Object.class.getName(),
+                    Object.class));
+        }
+        Object id = document.get("_id");
+        return new DataModel<>(id instanceof ObjectId objectId ? objectId : new ObjectId(),
+                attributes);
+    }
+
+    private static Object toValue(final Object value) {
+        if (value instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        } else if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC);
+        } else if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        } else if (value instanceof Document nested) {
+            return nested.toJson();
+        } else if (value instanceof List<?> list) {
+            String json = new Document("v", list).toJson();
+            return json.substring(json.indexOf(':') + 1, json.lastIndexOf('}')).trim();
+        }
+        return value;
+    }
+
+    private static long await(final Future<Long> future, final List<Future<Long>> futures)
+            throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            futures.forEach(other -> other.cancel(true));
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
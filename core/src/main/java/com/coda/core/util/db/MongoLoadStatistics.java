@@ -0,0 +1,159 @@
+package com.coda.core.util.db;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>MongoLoadStatistics describes one bulk load into a collection:
+ * the statistics of every chunk written and how long the whole
+ * load ran.
+ * </p>
+ * @see MongoBulkLoader
+ */
+@Getter
+public final class MongoLoadStatistics {
+
+    /**
+     * The statistics of each chunk, in chunk order.
+     */
+    private final List<Chunk> chunks;
+
+    /**
+     * The time spent loading, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructor for MongoLoadStatistics.
+     * @param chunkStatistics the statistics of each chunk.
+     * @param nanos the time spent loading, in nanoseconds.
+     */
+    public MongoLoadStatistics(final List<Chunk> chunkStatistics,
+                               final long nanos) {
+        this.chunks = List.copyOf(chunkStatistics);
+        this.elapsedNanos = nanos;
+    }
+
+    /**
+     * Returns the number of documents sent.
+     * @return the number of documents.
+     */
+    public long getDocuments() {
+        return chunks.stream().mapToLong(Chunk::getDocuments).sum();
+    }
+
+    /**
+     * Returns the number of documents that did not exist before.
+     * @return the number of documents inserted.
+     */
+    public long getInserted() {
+        return chunks.stream().mapToLong(Chunk::getInserted).sum();
+    }
+
+    /**
+     * Returns the number of existing documents matched by their key.
+     * @return the number of documents matched.
+     */
+    public long getMatched() {
+        return chunks.stream().mapToLong(Chunk::getMatched).sum();
+    }
+
+    /**
+     * Returns the number of existing documents that changed.
+     * @return the number of documents modified.
+     */
+    public long getModified() {
+        return chunks.stream().mapToLong(Chunk::getModified).sum();
+    }
+
+    /**
+     * Returns the time spent loading.
+     * @return the time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Returns the throughput of the load.
+     * @return the documents written per second.
+     */
+    public double getDocumentsPerSecond() {
+        return elapsedNanos == 0 ? getDocuments()
+                : getDocuments() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d documents in %d chunks (%d inserted, %d matched,"
+                        + " %d modified), %d ms (%.0f documents/sec)",
+                getDocuments(), chunks.size(), getInserted(), getMatched(),
+                getModified(), getElapsedMillis(), getDocumentsPerSecond());
+    }
+
+    /**
+     * The write statistics of one chunk.
+     */
+    @Getter
+    public static final class Chunk {
+
+        /**
+         * The position of the chunk in the load.
+         */
+        private final int index;
+
+        /**
+         * The number of documents sent.
+         */
+        private final int documents;
+
+        /**
+         * The number of documents that did not exist before.
+         */
+        private final int inserted;
+
+        /**
+         * The number of existing documents matched by their key.
+         */
+        private final int matched;
+
+        /**
+         * The number of existing documents that changed.
+         */
+        private final int modified;
+
+        /**
+         * The time spent writing the chunk, in nanoseconds.
+         */
+        private final long elapsedNanos;
+
+        /**
+         * Constructor for Chunk.
+         * @param chunkIndex the position of the chunk in the load.
+         * @param documentCount the number of documents sent.
+         * @param insertedCount the number of documents inserted.
+         * @param matchedCount the number of documents matched.
+         * @param modifiedCount the number of documents modified.
+         * @param nanos the time spent writing, in nanoseconds.
+         */
+        public Chunk(final int chunkIndex, final int documentCount,
+                     final int insertedCount, final int matchedCount,
+                     final int modifiedCount, final long nanos) {
+            this.index = chunkIndex;
+            this.documents = documentCount;
+            this.inserted = insertedCount;
+            this.matched = matchedCount;
+            this.modified = modifiedCount;
+            this.elapsedNanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("chunk %d: %d documents (%d inserted, %d matched,"
+                            + " %d modified), %d ms", index, documents, inserted,
+                    matched, modified, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.coda.core.util.db;
 
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.columnar.ColumnarBatch;
 import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.config.MySQLProperties;
 import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
+import com.coda.core.exceptions.DataLoadingException;
 import com.coda.core.exceptions.ReadFromDbExceptions;
 import com.coda.core.service.DataRepoImpl;
 import com.coda.core.util.transform.DataTransformation;
@@ -11,7 +16,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,9 +29,11 @@ public final class MySQLExtractor implements DatabaseExtractor {
 
     private ConnectionFactory connectionFactory;
 
+    private BulkLoader bulkLoader = new BulkLoader(BulkLoadStrategy.BATCHED, 0);
+
     public static void main(String[] args) {
         DataRepoImpl dataRepo = new DataRepoImpl();
-        ConnectionFactory connectionFactory = new SqlDbConnectionFactory();
+        DataSourceRegistry dataSourceRegistry = new DataSourceRegistry(new MySQLProperties());
         DataTransformation transformation = new DataTransformation();
         DataModelProcessor processor = new DataModelProcessor(transformation);
         MySQLExtractor extractor = new MySQLExtractor();
@@ -33,7 +42,8 @@ public final class MySQLExtractor implements DatabaseExtractor {
                 "myuser",
                 "mypassword"
         );
-        connectionFactory.createDataSource(connectionDetails);
+        ConnectionFactory connectionFactory
+                = new SqlDbConnectionFactory(dataSourceRegistry, connectionDetails);
         extractor.setConnectionFactory(connectionFactory);
         List<DataModel<Object>> dataModels
                 = extractor.readData("products_new",
@@ -50,6 +60,7 @@ public final class MySQLExtractor implements DatabaseExtractor {
         extractor.loadData(dataModels, "products_copy13");
 
         extractor.drawTableAndDisplayLoadedData();
+        dataSourceRegistry.close();
 
 
 
@@ -61,9 +72,22 @@ public final class MySQLExtractor implements DatabaseExtractor {
         this.connectionFactory = factory;
     }
 
-    @Override
-    public void configureDataSource(ConnectionDetails connectionDetails) {
-        connectionFactory.createDataSource(connectionDetails);
+    public void setBulkLoader(final BulkLoader loader) {
+        this.bulkLoader = loader;
+    }
+
+    /**
+     * Returns an extractor of another database, sharing the bulk loader
+     * of this one. The extractor is bound to its database for its whole
+     * life, so concurrent jobs each use their own.
+     * @param factory The connection factory of the database.
+     * @return The extractor.
+     */
+    public MySQLExtractor withConnectionFactory(final ConnectionFactory factory) {
+        MySQLExtractor extractor = new MySQLExtractor();
+        extractor.setConnectionFactory(factory);
+        extractor.setBulkLoader(bulkLoader);
+        return extractor;
     }
 
     /**
@@ -95,6 +119,156 @@ public final class MySQLExtractor implements DatabaseExtractor {
         }
     }
 
+    /**
+     * Read one page of data from the database with keyset pagination.
+     * @param keysetQuery The keyset query describing the page.
+     * @return The list of data models ordered by the key column.
+     */
+
+    @Override
+    public List<DataModel<Object>> readData(final KeysetQuery keysetQuery) {
+        validateTableName(keysetQuery.getTableName());
+        validateColumnName(keysetQuery.getKeyColumn());
+
+        String tableName = keysetQuery.getTableName();
+        String keyColumn = keysetQuery.getKeyColumn();
+        String query;
+        if (keysetQuery.hasTieBreaker()) {
+            String tieBreaker = keysetQuery.getTieBreakerColumn();
+            validateColumnName(tieBreaker);
+            query = keysetQuery.isFirstPage()
+                    ? String.format(Queries.READ_FIRST_PAGE_BY_WATERMARK_FROM_MYSQL,
+                            tableName, keyColumn, tieBreaker)
+                    : String.format(Queries.READ_NEXT_PAGE_BY_WATERMARK_FROM_MYSQL,
+                            tableName, keyColumn, tieBreaker);
+        } else if (keysetQuery.hasUpperKey()) {
+            query = keysetQuery.isFirstPage()
+                    ? String.format(Queries.READ_FIRST_RANGE_PAGE_FROM_MYSQL, tableName, keyColumn)
+                    : String.format(Queries.READ_NEXT_RANGE_PAGE_FROM_MYSQL, tableName, keyColumn);
+        } else {
+            query = keysetQuery.isFirstPage()
+                    ? String.format(Queries.READ_FIRST_PAGE_FROM_MYSQL, tableName, keyColumn)
+                    : String.format(Queries.READ_NEXT_PAGE_FROM_MYSQL, tableName, keyColumn, keyColumn);
+        }
+
+        try (Connection connection = connectionFactory.dataSource().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            int index = 1;
+            if (!keysetQuery.isFirstPage()) {
+                preparedStatement.setObject(index++, keysetQuery.getLastKey());
+                if (keysetQuery.hasTieBreaker()) {
+                    preparedStatement.setObject(index++, keysetQuery.getLastKey());
+                    preparedStatement.setObject(index++, keysetQuery.getLastTieBreaker());
+                }
+            }
+            if (keysetQuery.hasUpperKey()) {
+                preparedStatement.setObject(index++, keysetQuery.getUpperKey());
+            }
+            preparedStatement.setInt(index, keysetQuery.getBatchSize());
+
+            return extractDataModels(preparedStatement);
+        } catch (SQLException e) {
+            log.error("Error while reading page after key {} from table {}",
+                    keysetQuery.getLastKey(), tableName, e);
+            throw new ReadFromDbExceptions("Error while reading data from database: "
+                    + e.getMessage(),
+                    ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
+
+    /**
+     * Find the single column primary key of a table.
+     * @param tableName The name of the table.
+     * @return The primary key column, or null if the table has
+     * no primary key or a composite one.
+     */
+
+    @Override
+    public String findKeyColumn(final String tableName) {
+        validateTableName(tableName);
+
+        try (Connection connection = connectionFactory.dataSource().getConnection();
+             ResultSet resultSet = connection.getMetaData()
+                     .getPrimaryKeys(connection.getCatalog(), null, tableName)) {
+            String keyColumn = null;
+            int keyColumns = 0;
+            while (resultSet.next()) {
+                keyColumn = resultSet.getString("COLUMN_NAME");
+                keyColumns++;
+            }
+            if (keyColumns != 1) {
+                log.info("Table {} has {} primary key columns, keyset pagination "
+                        + "needs exactly one", tableName, keyColumns);
+                return null;
+            }
+            return keyColumn;
+        } catch (SQLException e) {
+            log.error("Error while reading primary key of table {}", tableName, e);
+            throw new ReadFromDbExceptions("Error while reading primary key: "
+                    + e.getMessage(),
+                    ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
+
+
+    /**
+     * Find the smallest and largest key of a table.
+     * @param tableName The name of the table.
+     * @param keyColumn The key column.
+     * @return The key range, empty if the table has no rows.
+     */
+
+    @Override
+    public KeyRange findKeyRange(final String tableName, final String keyColumn) {
+        validateTableName(tableName);
+        validateColumnName(keyColumn);
+
+        String query = String.format(Queries.READ_KEY_RANGE_FROM_MYSQL, keyColumn, tableName);
+        try (Connection connection = connectionFactory.dataSource().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next()
+                    ? new KeyRange(resultSet.getObject(1), resultSet.getObject(2))
+                    : new KeyRange(null, null);
+        } catch (SQLException e) {
+            log.error("Error while reading key range of table {}", tableName, e);
+            throw new ReadFromDbExceptions("Error while reading key range: "
+                    + e.getMessage(),
+                    ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
+
+    /**
+     * Estimate the number of rows of a table from its statistics.
+     * <p>InnoDB samples the table to keep the estimate, so it is read
+     * without a scan but may differ from an exact count.</p>
+     * @param tableName The name of the table.
+     * @return The estimated number of rows, negative when unknown.
+     */
+
+    @Override
+    public long estimateRowCount(final String tableName) {
+        validateTableName(tableName);
+
+        try (Connection connection = connectionFactory.dataSource().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     Queries.ESTIMATE_ROW_COUNT_FROM_MYSQL)) {
+            preparedStatement.setString(1, tableName);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return -1;
+                }
+                long rows = resultSet.getLong(1);
+                return resultSet.wasNull() ? -1 : rows;
+            }
+        } catch (SQLException e) {
+            log.error("Error while estimating row count of table {}", tableName, e);
+            throw new ReadFromDbExceptions("Error while estimating row count: "
+                    + e.getMessage(),
+                    ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
 
     /**
      * Load data into the database.
@@ -115,7 +289,7 @@ public final class MySQLExtractor implements DatabaseExtractor {
 
         log.info("Loading data into table: {}", targetTableName);
 
-        if (doesTableExist(connectionFactory, targetTableName)) {
+        if (!doesTableExist(connectionFactory, targetTableName)) {
             log.info("Table {} does not exist. Creating table.", targetTableName);
             createTable(connectionFactory, targetTableName, dataModels.get(0).getAttributesMap());
         }
@@ -125,7 +299,108 @@ public final class MySQLExtractor implements DatabaseExtractor {
                 dataModels.get(0).getAttributesMap());
 
         log.info("Inserting data models into table: {}", targetTableName);
-        insertDataModels(connectionFactory, targetTableName, dataModels);
+        insertDataModels(connectionFactory, targetTableName, dataModels, bulkLoader);
+    }
+
+    /**
+     * Load data into the database, replacing rows with the same key.
+     * <p>The target table gets a unique key on the key column before
+     * the first load, so the {@code ON DUPLICATE KEY UPDATE} and
+     * {@code REPLACE} statements of the loader update a row loaded
+     * before instead of inserting it twice. A missing table is created
+     * first, so the key is in place for the first batch. A text
+     * column, or a column already holding duplicates, cannot be given
+     * a key; the rows are then loaded without one.</p>
+     * <p>The key is looked up once per table, not on every batch.</p>
+     * @param dataModels A list of DataModel objects.
+     * @param targetTableName The name of the table to be loaded.
+     * @param keyColumn The column identifying a row.
+     */
+
+    @Override
+    public void loadData(final List<DataModel<Object>> dataModels,
+                         final String targetTableName, final String keyColumn) {
+        if (dataModels == null || dataModels.isEmpty()) {
+            throw new IllegalArgumentException("DataModels cannot be null or empty");
+        }
+        validateTableName(targetTableName);
+        validateColumnName(keyColumn);
+
+        Map<String, DataAttributes<Object>> attributes = dataModels.get(0).getAttributesMap();
+        if (!doesTableExist(connectionFactory, targetTableName)) {
+            log.info("Table {} does not exist. Creating table.", targetTableName);
+            createTable(connectionFactory, targetTableName, attributes);
+        } else {
+            updateTableWithNewColumns(connectionFactory, targetTableName, attributes);
+        }
+        TableSchemaCache.isUniqueKey(connectionFactory, targetTableName, keyColumn,
+                () -> hasUniqueKey(targetTableName, keyColumn)
+                        || addUniqueKey(targetTableName, keyColumn));
+        loadData(dataModels, targetTableName);
+    }
+
+    private boolean hasUniqueKey(final String tableName, final String keyColumn) {
+        try (Connection connection = connectionFactory.dataSource().getConnection();
+             ResultSet resultSet = connection.getMetaData()
+                     .getIndexInfo(connection.getCatalog(), null, tableName, true, false)) {
+            Map<String, List<String>> uniqueKeys = new HashMap<>();
+            while (resultSet.next()) {
+                String columnName = resultSet.getString("COLUMN_NAME");
+                if (columnName != null) {
+                    uniqueKeys.computeIfAbsent(resultSet.getString("INDEX_NAME"),
+                            name -> new ArrayList<>()).add(columnName);
+                }
+            }
+            return uniqueKeys.values().stream().anyMatch(columns ->
+                    columns.size() == 1 && columns.get(0).equalsIgnoreCase(keyColumn));
+        } catch (SQLException e) {
+            log.error("Error while reading unique keys of table {}", tableName, e);
+            throw new DataLoadingException("Error while reading unique keys: "
+                    + e.getMessage(), ErrorType.DATA_LOADING_EXCEPTION);
+        }
+    }
+
+    private boolean addUniqueKey(final String tableName, final String keyColumn) {
+        String columnType = TableSchemaCache.get(connectionFactory, tableName)
+                .getColumnTypes().get(keyColumn);
+        if (columnType == null || columnType.contains("text") || columnType.contains("blob")) {
+            log.warn("Column {} of table {} cannot be a unique key, rows loaded "
+                    + "again are duplicated", keyColumn, tableName);
+            return false;
+        }
+        String sql = String.format(Queries.ADD_UNIQUE_KEY_TO_MYSQL, tableName, keyColumn);
+        try (Connection connection = connectionFactory.dataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+            log.info("Added unique key on column {} of table {}", keyColumn, tableName);
+            return true;
+        } catch (SQLException e) {
+            // Typically rows loaded before the key was asked for.
+            log.warn("Could not add a unique key on column {} of table {}, rows "
+                    + "loaded again are duplicated: {}", keyColumn, tableName, e.getMessage());
+            return false;
+        } finally {
+            TableSchemaCache.invalidate(connectionFactory, tableName);
+        }
+    }
+
+    /**
+     * Load a columnar batch into the database.
+     * <p>Values are bound with the typed setters of the
+     * prepared statement, straight from the column vectors.</p>
+     * @param batch The batch of rows stored column by column.
+     * @param targetTableName The name of the table to be loaded.
+     */
+
+    @Override
+    public void loadData(final ColumnarBatch batch,
+                         final String targetTableName) {
+        if (batch == null || batch.getRowCount() == 0) {
+            throw new IllegalArgumentException("Batch cannot be null or empty");
+        }
+
+        log.info("Loading {} into table: {}", batch, targetTableName);
+        insertColumnarBatch(connectionFactory, targetTableName, batch, bulkLoader);
     }
 
 //    @Override
@@ -174,6 +449,36 @@ public void drawTableAndDisplayLoadedData() {
                                                      String tableName, String url) {
         return Collections.emptyMap(); }
 
+    /**
+     * Stream data from the document database.
+     * @param databaseName The name of the database.
+     * @param tableName The name of the collection.
+     * @param url The URL of the database.
+     * @param fields The fields to read.
+     * @param handler The handler receiving each batch.
+     * @return 0, no documents are streamed.
+     */
+
+    @Override
+    public long streamData(String databaseName, String tableName, String url,
+                           List<String> fields,
+                           DataModelBatchHandler<Object> handler) {
+        return 0; }
+
+    /**
+     * Stream the changed documents of the document database.
+     * @param databaseName The name of the database.
+     * @param tableName The name of the collection.
+     * @param url The URL of the database.
+     * @param handler The handler receiving each batch.
+     * @return 0, no documents are streamed.
+     */
+
+    @Override
+    public long streamChanges(String databaseName, String tableName, String url,
+                              DataModelBatchHandler<Object> handler) {
+        return 0; }
+
     /**
      * Load data into the document database.
      * @param dataModels A map of DataModel Documents.
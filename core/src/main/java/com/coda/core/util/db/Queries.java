@@ -24,6 +24,101 @@ public final class Queries {
     public static final String READ_FROM_MYSQL
             = "SELECT * FROM %s LIMIT ? OFFSET ?";
 
+    /**
+     * Query to read the first page of a MySQL table
+     * with keyset pagination.
+     * <p>
+     * The first placeholder is the table name,
+     * the second one the key column.
+     * </p>
+     */
+    public static final String READ_FIRST_PAGE_FROM_MYSQL
+            = "SELECT * FROM `%s` ORDER BY `%s` LIMIT ?";
+
+    /**
+     * Query to read the next page of a MySQL table
+     * with keyset pagination.
+     * <p>
+     * Seeks past the last key read instead of skipping rows,
+     * so the cost of a page stays flat.
+     * </p>
+     */
+    public static final String READ_NEXT_PAGE_FROM_MYSQL
+            = "SELECT * FROM `%s` WHERE `%s` > ? ORDER BY `%s` LIMIT ?";
+
+    /**
+     * Query to read the first page of a key range of a MySQL table.
+     * <p>
+     * The placeholders are the table name and the key column,
+     * the parameters the largest key and the page size.
+     * </p>
+     */
+    public static final String READ_FIRST_RANGE_PAGE_FROM_MYSQL
+            = "SELECT * FROM `%1$s` WHERE `%2$s` <= ? ORDER BY `%2$s` LIMIT ?";
+
+    /**
+     * Query to read the next page of a key range of a MySQL table.
+     * <p>
+     * The parameters are the last key read, the largest key
+     * and the page size.
+     * </p>
+     */
+    public static final String READ_NEXT_RANGE_PAGE_FROM_MYSQL
+            = "SELECT * FROM `%1$s` WHERE `%2$s` > ? AND `%2$s` <= ? ORDER BY `%2$s` LIMIT ?";
+
+    /**
+     * Query to read the smallest and largest key of a MySQL table.
+     * <p>
+     * The placeholders are the key column and the table name.
+     * </p>
+     */
+    public static final String READ_KEY_RANGE_FROM_MYSQL
+            = "SELECT MIN(`%1$s`), MAX(`%1$s`) FROM `%2$s`";
+
+    /**
+     * Query to read the first page of a MySQL table ordered by a
+     * non unique watermark column.
+     * <p>
+     * The placeholders are the table name, the watermark column
+     * and the tie breaker column.
+     * </p>
+     */
+    public static final String READ_FIRST_PAGE_BY_WATERMARK_FROM_MYSQL
+            = "SELECT * FROM `%s` ORDER BY `%s`, `%s` LIMIT ?";
+
+    /**
+     * Query to read the next page of a MySQL table ordered by a
+     * non unique watermark column.
+     * <p>
+     * Seeks past the last (watermark, tie breaker) pair read, so rows
+     * sharing the watermark of the page boundary are neither skipped
+     * nor read twice.
+     * </p>
+     */
+    public static final String READ_NEXT_PAGE_BY_WATERMARK_FROM_MYSQL
+            = "SELECT * FROM `%1$s` WHERE `%2$s` > ? OR (`%2$s` = ? AND `%3$s` > ?)"
+            + " ORDER BY `%2$s`, `%3$s` LIMIT ?";
+
+    /**
+     * Query to read the estimated number of rows of a MySQL table
+     * from its statistics.
+     * <p>
+     * The parameter is the table name.
+     * </p>
+     */
+    public static final String ESTIMATE_ROW_COUNT_FROM_MYSQL
+            = "SELECT TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES"
+            + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    /**
+     * Statement adding a unique key on one column of a MySQL table.
+     * <p>
+     * The placeholders are the table name and the key column.
+     * </p>
+     */
+    public static final String ADD_UNIQUE_KEY_TO_MYSQL
+            = "ALTER TABLE `%1$s` ADD UNIQUE KEY `uk_%2$s` (`%2$s`)";
+
     /**
      * Query to extract data from MongoDB.
      * <p>
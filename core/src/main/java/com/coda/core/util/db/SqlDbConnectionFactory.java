@@ -1,76 +1,49 @@
 package com.coda.core.util.db;
 
 import com.coda.core.dtos.ConnectionDetails;
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
+import java.util.Objects;
 
 /**
  * SqlDbConnectionFactory is a class that creates a connection to a SQL database.
+ * <p>Pools are taken from the {@link DataSourceRegistry}, so factories
+ * of the same database share its pool. A factory is bound to one
+ * database for its whole life, so extractors of concurrent jobs never
+ * see each other's connection details.</p>
  */
-@Slf4j
-@Component
 public class SqlDbConnectionFactory implements ConnectionFactory {
 
-    private HikariDataSource dataSource;
-
     /**
-     * The driver class name of the database.
+     * The registry holding the connection pools.
      */
-    private final static String DRIVER_CLASS_NAME = "com.mysql.cj.jdbc.Driver";
+    private final DataSourceRegistry dataSourceRegistry;
 
     /**
-     * The maximum number of connections that can be
-     * allocated in the connection pool.
-     */
-    private final static int MAXIMUM_POOL_SIZE = 10;
-    /**
-     * The idle timeout in milliseconds for connections in the pool.
-     */
-    private final static long IDLE_TIME_OUT = 600000;
-    /**
-     * The maximum lifetime in milliseconds of a connection in the pool.
-     */
-    private final static long MAX_LIFE_TIME = 600000;
-    /**
-     * The connection timeout in milliseconds for the connection.
+     * The connection details of the database.
      */
-    private final static long CONNECTION_TIME_OUT = 30000;
+    private final ConnectionDetails connectionDetails;
 
     /**
-     * Dynamically creates a DataSource based on user-provided connection details.
-     * @param connectionDetails The connection details provided by the user.
+     * Constructor for SqlDbConnectionFactory.
+     * @param registry the registry holding the connection pools.
+     * @param details the connection details provided by the user.
      */
-
-    @Override
-    public void createDataSource(ConnectionDetails connectionDetails) {
-        log.info("Initializing Hikari DataSource with user-provided connection details");
-
-        HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(connectionDetails.getUrl());
-        config.setUsername(connectionDetails.getUsername());
-        config.setPassword(connectionDetails.getPassword());
-        config.setDriverClassName(DRIVER_CLASS_NAME);
-
-        config.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
-        config.setMaxLifetime(MAX_LIFE_TIME);
-        config.setConnectionTimeout(CONNECTION_TIME_OUT);
-        config.setIdleTimeout(IDLE_TIME_OUT);
-        config.setAutoCommit(true);
-        config.addDataSourceProperty("cachePrepStmts", true);
-
-        this.dataSource = new HikariDataSource(config);
+    public SqlDbConnectionFactory(final DataSourceRegistry registry,
+                                  final ConnectionDetails details) {
+        this.dataSourceRegistry = registry;
+        this.connectionDetails = Objects.requireNonNull(details,
+                "Connection details cannot be null");
     }
 
     /**
-     * Returns the current DataSource.
+     * Returns the DataSource of the database.
+     * <p>The pool is looked up on every call, which keeps it from being
+     * evicted while in use and reopens it if it was.</p>
      * @return DataSource object
      */
     @Override
     public DataSource dataSource() {
-        return this.dataSource;
+        return dataSourceRegistry.getOrCreate(connectionDetails);
     }
 }
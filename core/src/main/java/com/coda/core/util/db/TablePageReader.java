@@ -0,0 +1,195 @@
+package com.coda.core.util.db;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.exceptions.ReadFromDbExceptions;
+import com.coda.core.util.types.ErrorType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>TablePageReader reads a table page by page.
+ * </p>
+ * <p>When a key column is known the pages are read with
+ * keyset (seek) pagination, otherwise the reader falls back
+ * to {@code LIMIT/OFFSET} paging.
+ * The key of the last row is captured as soon as a page is read,
+ * before the rows are handed to the processing phase,
+ * because processing may rewrite the attribute values.
+ * </p>
+ * <p>A reader can start after a saved position, so an incremental
+ * extraction only reads the rows whose key is past the high-water
+ * mark of the previous run. With a non unique key, such as an
+ * {@code updated_at} column, a tie breaker column orders the rows
+ * sharing a key.
+ * </p>
+ * @see KeysetQuery
+ * @see DatabaseExtractor
+ */
+@Slf4j
+@Getter
+public final class TablePageReader {
+
+    /**
+     * The extractor used to read the pages.
+     */
+    private final DatabaseExtractor databaseExtractor;
+
+    /**
+     * The name of the table to read from.
+     */
+    private final String tableName;
+
+    /**
+     * The monotonic key column, null when paging by offset.
+     */
+    private final String keyColumn;
+
+    /**
+     * The unique column ordering rows with the same key, may be null.
+     */
+    private final String tieBreakerColumn;
+
+    /**
+     * The number of rows per page.
+     */
+    private final int batchSize;
+
+    /**
+     * The key of the last row read so far.
+     */
+    private Object lastKey;
+
+    /**
+     * The tie breaker of the last row read so far.
+     */
+    private Object lastTieBreaker;
+
+    /**
+     * The offset of the next page, used when no key column is known.
+     */
+    private int offSet;
+
+    /**
+     * The number of rows read so far.
+     */
+    private long rowsRead;
+
+    /**
+     * Whether the end of the table has been reached.
+     */
+    private boolean exhausted;
+
+    /**
+     * Constructor for TablePageReader.
+     * @param extractor the extractor used to read the pages.
+     * @param table the name of the table.
+     * @param key the monotonic key column, null to page by offset.
+     * @param size the number of rows per page.
+     */
+    public TablePageReader(final DatabaseExtractor extractor,
+                           final String table, final String key,
+                           final int size) {
+        this(extractor, table, key, null, size, null, null);
+    }
+
+    /**
+     * Constructor for TablePageReader resuming after a saved position.
+     * @param extractor the extractor used to read the pages.
+     * @param table the name of the table.
+     * @param key the monotonic key column.
+     * @param tieBreaker the unique column ordering rows with the same key,
+     *                   null when the key is unique.
+     * @param size the number of rows per page.
+     * @param afterKey the last key already read, null to read from the start.
+     * @param afterTieBreaker the last tie breaker already read.
+     */
+    public TablePageReader(final DatabaseExtractor extractor,
+                           final String table, final String key,
+                           final String tieBreaker, final int size,
+                           final Object afterKey, final Object afterTieBreaker) {
+        this.databaseExtractor = extractor;
+        this.tableName = table;
+        this.keyColumn = key;
+        this.tieBreakerColumn = tieBreaker;
+        this.batchSize = size;
+        this.lastKey = afterKey;
+        this.lastTieBreaker = afterTieBreaker;
+    }
+
+    /**
+     * Checks whether the reader uses keyset pagination.
+     * @return true if a key column is used to seek the pages.
+     */
+    public boolean isKeyset() {
+        return keyColumn != null;
+    }
+
+    /**
+     * Reads the next page of the table.
+     * @return the rows of the page, empty when the table is exhausted.
+     * @throws Exception if the page cannot be read.
+     */
+    public List<DataModel<Object>> nextPage() throws Exception {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+
+        List<DataModel<Object>> page = isKeyset()
+                ? databaseExtractor.readData(new KeysetQuery(tableName,
+                        keyColumn, lastKey, tieBreakerColumn, lastTieBreaker, batchSize))
+                : databaseExtractor.readData(tableName, batchSize, offSet);
+
+        if (page.isEmpty()) {
+            exhausted = true;
+            return page;
+        }
+
+        if (isKeyset()) {
+            DataModel<Object> last = page.get(page.size() - 1);
+            lastKey = keyValueOf(last, keyColumn);
+            if (tieBreakerColumn != null) {
+                lastTieBreaker = keyValueOf(last, tieBreakerColumn);
+            }
+        } else {
+            offSet += batchSize;
+        }
+        rowsRead += page.size();
+        if (page.size() < batchSize && isKeyset()) {
+            exhausted = true;
+        }
+        return page;
+    }
+
+    /**
+     * Returns the raw value of the key column of a row.
+     * @param dataModel the row.
+     * @param column the key column.
+     * @return the key value.
+     */
+    public static Object keyValueOf(final DataModel<Object> dataModel,
+                                    final String column) {
+        Map<String, DataAttributes<Object>> attributes
+                = dataModel.getAttributesMap();
+        DataAttributes<Object> attribute = attributes.get(column);
+        if (attribute == null) {
+            attribute = attributes.entrySet().stream()
+                    .filter(entry -> entry.getKey().equalsIgnoreCase(column))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (attribute == null || attribute.getValue() == null) {
+            log.error("Key column {} is missing or null, keyset "
+                    + "pagination cannot continue", column);
+            throw new ReadFromDbExceptions("Key column " + column
+                    + " is missing or null",
+                    ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+        return attribute.getValue();
+    }
+}
@@ -0,0 +1,105 @@
+package com.coda.core.util.db;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>TableSchema is a snapshot of the columns of a SQL table,
+ * read from {@code information_schema} by {@link TableSchemaCache}.
+ * </p>
+ */
+@Getter
+public final class TableSchema {
+
+    /**
+     * The name of the table.
+     */
+    private final String tableName;
+
+    /**
+     * Whether the table exists.
+     */
+    private final boolean exists;
+
+    /**
+     * The row format of the table, e.g. Dynamic.
+     */
+    private final String rowFormat;
+
+    /**
+     * The lower case SQL type of each column, in column order.
+     */
+    private final Map<String, String> columnTypes;
+
+    /**
+     * The sum of the maximum character lengths of the columns.
+     */
+    private final long characterLength;
+
+    /**
+     * Constructor for TableSchema.
+     * @param table the name of the table.
+     * @param tableExists whether the table exists.
+     * @param format the row format of the table.
+     * @param types the SQL type of each column.
+     * @param length the sum of the maximum character lengths.
+     */
+    public TableSchema(final String table, final boolean tableExists,
+                       final String format, final Map<String, String> types,
+                       final long length) {
+        this.tableName = table;
+        this.exists = tableExists;
+        this.rowFormat = format;
+        this.columnTypes = Collections.unmodifiableMap(new LinkedHashMap<>(types));
+        this.characterLength = length;
+    }
+
+    /**
+     * Returns the schema of a table that does not exist.
+     * @param table the name of the table.
+     * @return the schema.
+     */
+    public static TableSchema missing(final String table) {
+        return new TableSchema(table, false, null, Map.of(), 0);
+    }
+
+    /**
+     * Returns the names of the columns.
+     * @return the column names, in column order.
+     */
+    public Set<String> getColumnNames() {
+        return columnTypes.keySet();
+    }
+
+    /**
+     * Checks whether the table has a column.
+     * @param columnName the name of the column.
+     * @return true if the column exists.
+     */
+    public boolean hasColumn(final String columnName) {
+        return columnTypes.containsKey(columnName);
+    }
+
+    /**
+     * Checks whether a column already has a SQL type.
+     * Integer display widths are ignored, so {@code int(11)}
+     * has the type {@code INT}.
+     * @param columnName the name of the column.
+     * @param sqlType the SQL type.
+     * @return true if the column has the type.
+     */
+    public boolean hasColumnType(final String columnName, final String sqlType) {
+        String columnType = columnTypes.get(columnName);
+        return columnType != null
+                && normalize(columnType).equals(normalize(sqlType));
+    }
+
+    private static String normalize(final String sqlType) {
+        return sqlType.toLowerCase(Locale.ROOT).replaceAll("^(int|bigint)\\(\\d+\\)", "$1");
+    }
+}
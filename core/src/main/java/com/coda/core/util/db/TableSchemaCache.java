@@ -0,0 +1,164 @@
+package com.coda.core.util.db;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>TableSchemaCache keeps the schema of the target tables of each
+ * data source, so the schema of a table is read with one
+ * {@code information_schema} query per job instead of several
+ * queries per batch.
+ * </p>
+ * <p>Whoever changes a table (CREATE, ALTER) must call
+ * {@link #invalidate} so the next lookup reads the new schema.
+ * Data sources are held weakly and their entries go away with them.
+ * </p>
+ * <p>Whether a column is a unique key of a table is kept apart from
+ * the schema: adding a column does not drop a key, so the keys of a
+ * table are looked up once, not again after every new column.
+ * </p>
+ */
+@Slf4j
+public final class TableSchemaCache {
+
+    /**
+     * Reads whether a table exists, its row format and its columns.
+     */
+    static final String SCHEMA_QUERY = "SELECT t.ROW_FORMAT, c.COLUMN_NAME, "
+            + "c.COLUMN_TYPE, c.CHARACTER_MAXIMUM_LENGTH "
+            + "FROM INFORMATION_SCHEMA.TABLES t "
+            + "LEFT JOIN INFORMATION_SCHEMA.COLUMNS c "
+            + "ON c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME "
+            + "WHERE t.TABLE_SCHEMA = DATABASE() AND t.TABLE_NAME = ? "
+            + "ORDER BY c.ORDINAL_POSITION";
+
+    /**
+     * The cached schemas of each data source, by table name.
+     */
+    private static final Map<DataSource, Map<String, TableSchema>> SCHEMAS
+            = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Whether each key column of each data source is a unique key,
+     * by table and column name.
+     */
+    private static final Map<DataSource, Map<String, Boolean>> UNIQUE_KEYS
+            = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private TableSchemaCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the schema of a table, reading it on the first lookup.
+     * @param connectionFactory the connection factory of the data source.
+     * @param tableName the name of the table.
+     * @return the schema, missing if the table does not exist
+     * or cannot be read.
+     */
+    public static TableSchema get(final ConnectionFactory connectionFactory,
+                                  final String tableName) {
+        Map<String, TableSchema> tables = tablesOf(connectionFactory.dataSource());
+        TableSchema schema = tables.get(tableName);
+        if (schema != null) {
+            return schema;
+        }
+        try {
+            schema = read(connectionFactory.dataSource(), tableName);
+        } catch (SQLException e) {
+            // Not cached, so the next lookup tries again.
+            log.error("Error reading the schema of table {}", tableName, e);
+            return TableSchema.missing(tableName);
+        }
+        TableSchema cached = tables.putIfAbsent(tableName, schema);
+        return cached != null ? cached : schema;
+    }
+
+    /**
+     * Drops the cached schema of a table after it was changed.
+     * @param connectionFactory the connection factory of the data source.
+     * @param tableName the name of the table.
+     */
+    public static void invalidate(final ConnectionFactory connectionFactory,
+                                  final String tableName) {
+        tablesOf(connectionFactory.dataSource()).remove(tableName);
+    }
+
+    /**
+     * Returns whether a column is a unique key of a table, asking the
+     * lookup on the first call only.
+     * <p>The lookup may add the key; concurrent callers for the same
+     * column wait for it. A lookup that throws is asked again on the
+     * next call.</p>
+     * @param connectionFactory the connection factory of the data source.
+     * @param tableName the name of the table.
+     * @param keyColumn the name of the key column.
+     * @param lookup finds, or adds, the unique key.
+     * @return true if the column is a unique key.
+     */
+    public static boolean isUniqueKey(final ConnectionFactory connectionFactory,
+                                      final String tableName, final String keyColumn,
+                                      final BooleanSupplier lookup) {
+        Map<String, Boolean> keys;
+        synchronized (UNIQUE_KEYS) {
+            keys = UNIQUE_KEYS.computeIfAbsent(connectionFactory.dataSource(),
+                    key -> new ConcurrentHashMap<>());
+        }
+        return keys.computeIfAbsent(tableName + "." + keyColumn,
+                key -> lookup.getAsBoolean());
+    }
+
+    /**
+     * Drops the cached schemas and keys of all tables of a data source.
+     * @param connectionFactory the connection factory of the data source.
+     */
+    public static void invalidateAll(final ConnectionFactory connectionFactory) {
+        SCHEMAS.remove(connectionFactory.dataSource());
+        UNIQUE_KEYS.remove(connectionFactory.dataSource());
+    }
+
+    private static Map<String, TableSchema> tablesOf(final DataSource dataSource) {
+        synchronized (SCHEMAS) {
+            return SCHEMAS.computeIfAbsent(dataSource, key -> new ConcurrentHashMap<>());
+        }
+    }
+
+    private static TableSchema read(final DataSource dataSource, final String tableName)
+            throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SCHEMA_QUERY)) {
+            statement.setString(1, tableName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                boolean exists = false;
+                String rowFormat = null;
+                Map<String, String> columnTypes = new LinkedHashMap<>();
+                long characterLength = 0;
+                while (resultSet.next()) {
+                    exists = true;
+                    rowFormat = resultSet.getString("ROW_FORMAT");
+                    String columnName = resultSet.getString("COLUMN_NAME");
+                    if (columnName != null) {
+                        String columnType = resultSet.getString("COLUMN_TYPE");
+                        columnTypes.put(columnName, columnType != null
+                                ? columnType.toLowerCase(Locale.ROOT) : "");
+                        characterLength += resultSet.getLong("CHARACTER_MAXIMUM_LENGTH");
+                    }
+                }
+                log.debug("Read schema of table {}: {}", tableName, columnTypes);
+                return new TableSchema(tableName, exists, rowFormat, columnTypes, characterLength);
+            }
+        }
+    }
+}
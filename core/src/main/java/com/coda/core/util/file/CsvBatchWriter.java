@@ -0,0 +1,146 @@
+package com.coda.core.util.file;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>CsvBatchWriter writes batches of data models to a CSV file.
+ * </p>
+ * <p>The columns are fixed once, from the first row unless given, and
+ * every row is written in that order by looking its values up by name,
+ * straight into a large buffer; a column a row lacks is left empty and
+ * a column the header lacks is dropped. The batches are pulled one at a
+ * time, so the output can be far larger than the heap, and it can be
+ * gzip compressed on the way out.
+ * </p>
+ */
+public final class CsvBatchWriter {
+
+    /**
+     * The size of the buffers between the printer and the file.
+     */
+    static final int BUFFER_SIZE = 1 << 18;
+
+    /**
+     * The charset of the file.
+     */
+    private final Charset charset;
+
+    /**
+     * Whether the file is gzip compressed.
+     */
+    private final boolean gzip;
+
+    /**
+     * The columns in the order written, null to take them from the first row.
+     */
+    private final List<String> columns;
+
+    /**
+     * Constructor for CsvBatchWriter taking the columns from the first row.
+     * @param fileCharset the charset of the file.
+     * @param compress whether the file is gzip compressed.
+     */
+    public CsvBatchWriter(final Charset fileCharset, final boolean compress) {
+        this(fileCharset, compress, null);
+    }
+
+    /**
+     * Constructor for CsvBatchWriter.
+     * @param fileCharset the charset of the file.
+     * @param compress whether the file is gzip compressed.
+     * @param header the columns in the order written,
+     *               null to take them from the first row.
+     */
+    public CsvBatchWriter(final Charset fileCharset, final boolean compress,
+                          final List<String> header) {
+        this.charset = fileCharset;
+        this.gzip = compress;
+        this.columns = header != null ? List.copyOf(header) : null;
+    }
+
+    /**
+     * Writes batches to a file, replacing it.
+     * @param file the file.
+     * @param batches the batches.
+     * @return the number of rows written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long write(final Path file, final Stream<List<DataModel<Object>>> batches)
+            throws IOException {
+        return write(file, batches.iterator());
+    }
+
+    /**
+     * Writes batches to a file, replacing it.
+     * @param file the file.
+     * @param batches the batches.
+     * @return the number of rows written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long write(final Path file, final Iterator<List<DataModel<Object>>> batches)
+            throws IOException {
+        try (OutputStream output = Files.newOutputStream(file)) {
+            return write(output, batches);
+        }
+    }
+
+    /**
+     * Writes batches to a stream, which is left open.
+     * @param output the stream.
+     * @param batches the batches.
+     * @return the number of rows written.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long write(final OutputStream output,
+                      final Iterator<List<DataModel<Object>>> batches) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : output, charset), BUFFER_SIZE);
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT);
+        List<String> header = columns;
+        long rows = 0;
+        if (header != null) {
+            printer.printRecord(header);
+        }
+        while (batches.hasNext()) {
+            for (DataModel<Object> dataModel : batches.next()) {
+                Map<String, DataAttributes<Object>> attributes =
+                        dataModel.getAttributesMap() != null
+                                ? dataModel.getAttributesMap() : Map.of();
+                if (header == null) {
+                    header = List.copyOf(attributes.keySet());
+                    printer.printRecord(header);
+                }
+                for (String column : header) {
+                    DataAttributes<Object> attribute = attributes.get(column);
+                    printer.print(attribute != null ? attribute.getValue() : null);
+                }
+                printer.println();
+                rows++;
+            }
+        }
+        printer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        output.flush();
+        return rows;
+    }
+}
@@ -0,0 +1,64 @@
+package com.coda.core.util.file;
+
+/**
+ * The type of a CSV column, inferred from a sample of its values.
+ */
+public enum CsvColumnType {
+
+    /**
+     * Integers that fit in an int.
+     */
+    INTEGER("java.lang.Integer"),
+
+    /**
+     * Integers that fit in a long.
+     */
+    LONG("java.lang.Long"),
+
+    /**
+     * Decimals with at most 15 significant digits, or in scientific notation.
+     */
+    DOUBLE("java.lang.Double"),
+
+    /**
+     * Integers or decimals too long for a long or a double.
+     */
+    DECIMAL("java.math.BigDecimal"),
+
+    /**
+     * true or false, in any case.
+     */
+    BOOLEAN("java.lang.Boolean"),
+
+    /**
+     * Dates or date times in one format.
+     */
+    TIMESTAMP("java.time.LocalDateTime"),
+
+    /**
+     * Any other text.
+     */
+    STRING("java.lang.String"),
+
+    /**
+     * Raw text of a file read without inference.
+     */
+    UNTYPED("Object");
+
+    /**
+     * The attribute type of the values.
+     */
+    private final String typeName;
+
+    CsvColumnType(final String attributeType) {
+        this.typeName = attributeType;
+    }
+
+    /**
+     * Returns the attribute type of the values of the column.
+     * @return the type name, i.e. "java.lang.Long".
+     */
+    public String typeName() {
+        return typeName;
+    }
+}
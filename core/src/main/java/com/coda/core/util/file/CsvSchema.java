@@ -0,0 +1,351 @@
+package com.coda.core.util.file;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import org.apache.commons.csv.CSVRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * <p>CsvSchema holds the type of every column of a CSV file and parses
+ * the values of each column with the parser of its type.
+ * </p>
+ * <p>The types are inferred once from a sample of the first rows, so a
+ * cell is parsed by a parser fixed for its column instead of having its
+ * type guessed: integers become Integers or Longs, decimals Doubles or,
+ * when too long, BigDecimals, true and false Booleans, and dates in one
+ * of the known formats LocalDateTimes. A column with integers written
+ * with leading zeros, like zip codes, stays text.
+ * </p>
+ * <p>A later cell its column parser rejects keeps its text and is typed
+ * as a String, so one stray value does not fail the file.
+ * </p>
+ */
+public final class CsvSchema {
+
+    /**
+     * The date and date time formats tried, in order; a day first format
+     * wins over a month first one when both fit the sample.
+     */
+    private static final List<String> DATE_FORMATS = List.of(
+            "uuuu-MM-dd'T'HH:mm:ss",
+            "uuuu-MM-dd'T'HH:mm:ss.SSS",
+            "uuuu-MM-dd HH:mm:ss",
+            "uuuu-MM-dd HH:mm:ss.SSS",
+            "uuuu-MM-dd",
+            "uuuu/MM/dd",
+            "dd/MM/uuuu HH:mm:ss",
+            "MM/dd/uuuu HH:mm:ss",
+            "dd/MM/uuuu",
+            "MM/dd/uuuu",
+            "dd-MM-uuuu",
+            "dd.MM.uuuu");
+
+    /**
+     * The parsers of the date formats.
+     */
+    private static final Map<String, DateTimeFormatter> DATE_FORMATTERS =
+            DATE_FORMATS.stream().collect(Collectors.toUnmodifiableMap(Function.identity(),
+                    format -> DateTimeFormatter.ofPattern(format)
+                            .withResolverStyle(ResolverStyle.STRICT)));
+
+    /**
+     * A number in scientific notation.
+     */
+    private static final Pattern SCIENTIFIC = Pattern.compile("-?\\d+(\\.\\d+)?[eE][-+]?\\d+");
+
+    /**
+     * The most significant digits of a decimal kept exactly by a double.
+     */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+
+    /**
+     * The names of the columns.
+     */
+    private final List<String> headers;
+
+    /**
+     * The types of the columns.
+     */
+    private final CsvColumnType[] types;
+
+    /**
+     * The date formats of the TIMESTAMP columns.
+     */
+    private final String[] formats;
+
+    /**
+     * The parsers of the date formats.
+     */
+    private final DateTimeFormatter[] formatters;
+
+    private CsvSchema(final List<String> columnNames, final CsvColumnType[] columnTypes,
+                      final String[] dateFormats) {
+        this.headers = List.copyOf(columnNames);
+        this.types = columnTypes;
+        this.formats = dateFormats;
+        this.formatters = new DateTimeFormatter[dateFormats.length];
+        for (int i = 0; i < dateFormats.length; i++) {
+            formatters[i] = dateFormats[i] != null ? DATE_FORMATTERS.get(dateFormats[i]) : null;
+        }
+    }
+
+    /**
+     * Creates a schema keeping every value as raw text.
+     * @param headers the names of the columns.
+     * @return the schema.
+     */
+    public static CsvSchema untyped(final List<String> headers) {
+        CsvColumnType[] types = new CsvColumnType[headers.size()];
+        Arrays.fill(types, CsvColumnType.UNTYPED);
+        return new CsvSchema(headers, types, new String[headers.size()]);
+    }
+
+    /**
+     * Infers the types of the columns from a sample of rows.
+     * @param headers the names of the columns.
+     * @param sample the sampled rows; empty cells are ignored.
+     * @return the schema; a column without values in the sample is text.
+     */
+    public static CsvSchema infer(final List<String> headers, final List<CSVRecord> sample) {
+        CsvColumnType[] types = new CsvColumnType[headers.size()];
+        String[] formats = new String[headers.size()];
+        for (int column = 0; column < headers.size(); column++) {
+            ColumnSample values = new ColumnSample();
+            for (CSVRecord record : sample) {
+                if (column < record.size()) {
+                    values.add(record.get(column));
+                }
+            }
+            types[column] = values.type();
+            formats[column] = types[column] == CsvColumnType.TIMESTAMP
+                    ? values.dateFormats.get(0) : null;
+        }
+        return new CsvSchema(headers, types, formats);
+    }
+
+    /**
+     * Returns the names of the columns.
+     * @return the column names.
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the type of a column.
+     * @param column the index of the column.
+     * @return the type.
+     */
+    public CsvColumnType getType(final int column) {
+        return types[column];
+    }
+
+    /**
+     * Returns the date format of a column.
+     * @param column the index of the column.
+     * @return the format of a TIMESTAMP column, null for the others.
+     */
+    public String getFormat(final int column) {
+        return formats[column];
+    }
+
+    /**
+     * Parses a value with the parser of its column.
+     * @param column the index of the column.
+     * @param value the text of the value.
+     * @return the parsed value, or the text if empty or not parsable.
+     */
+    public Object parse(final int column, final String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        try {
+            return switch (types[column]) {
+                case INTEGER -> Integer.parseInt(value);
+                case LONG -> Long.parseLong(value);
+                case DOUBLE -> Double.parseDouble(value);
+                case DECIMAL -> new BigDecimal(value);
+                case BOOLEAN -> "true".equalsIgnoreCase(value) ? Boolean.TRUE
+                        : "false".equalsIgnoreCase(value) ? Boolean.FALSE : value;
+                case TIMESTAMP -> hasTime(formats[column])
+                        ? LocalDateTime.parse(value, formatters[column])
+                        : LocalDate.parse(value, formatters[column]).atStartOfDay();
+                case STRING, UNTYPED -> value;
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Creates the attribute holding a parsed value of a column.
+     * @param column the index of the column.
+     * @param value the parsed value.
+     * @return the attribute, typed as its column unless the value
+     * is text its column parser rejected.
+     */
+    public DataAttributes<Object> attribute(final int column, final Object value) {
+        String name = headers.get(column);
+        CsvColumnType type = types[column];
+        boolean rejected = value instanceof String text && !text.isEmpty()
+                && type != CsvColumnType.STRING && type != CsvColumnType.UNTYPED;
+        DataAttributes<Object> attribute = new DataAttributes<>(name, value,
+                rejected ? CsvColumnType.STRING.typeName() : type.typeName(), Object.class);
+        if (!rejected && formats[column] != null) {
+            attribute.setFormat(formats[column]);
+        }
+        return attribute;
+    }
+
+    /**
+     * Turns a CSV record into a data model.
+     * @param record the record.
+     * @return the data model.
+     */
+    public DataModel<Object> toDataModel(final CSVRecord record) {
+        int columns = Math.min(headers.size(), record.size());
+        Map<String, DataAttributes<Object>> attributes = HashMap.newHashMap(columns);
+        for (int i = 0; i < columns; i++) {
+            attributes.put(headers.get(i), attribute(i, parse(i, record.get(i))));
+        }
+        DataModel<Object> dataModel = new DataModel<>();
+        dataModel.setAttributesMap(attributes);
+        return dataModel;
+    }
+
+    @Override
+    public String toString() {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            columns.put(headers.get(i), formats[i] != null
+                    ? types[i] + " " + formats[i] : types[i].toString());
+        }
+        return columns.toString();
+    }
+
+    private static boolean hasTime(final String format) {
+        return format.contains("HH");
+    }
+
+    /**
+     * The types the sampled values of one column still fit.
+     */
+    private static final class ColumnSample {
+
+        private int values;
+
+        private boolean integer = true;
+
+        private boolean fitsInt = true;
+
+        private boolean fitsLong = true;
+
+        private boolean plainDecimal = true;
+
+        private int maxDigits;
+
+        private boolean floating = true;
+
+        private boolean bool = true;
+
+        private final List<String> dateFormats = new ArrayList<>(DATE_FORMATS);
+
+        void add(final String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+            values++;
+            int digits = plainNumberDigits(value);
+            boolean hasPoint = value.indexOf('.') >= 0;
+            integer &= digits > 0 && !hasPoint;
+            if (integer) {
+                long parsed = digits <= 18 ? Long.parseLong(value) : 0;
+                fitsLong &= digits <= 18;
+                fitsInt &= digits <= 18 && parsed >= Integer.MIN_VALUE
+                        && parsed <= Integer.MAX_VALUE;
+            }
+            plainDecimal &= digits > 0;
+            maxDigits = Math.max(maxDigits, digits);
+            floating &= digits > 0 || isScientific(value);
+            bool &= "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+            if (!dateFormats.isEmpty()) {
+                dateFormats.removeIf(format -> !parses(format, value));
+            }
+        }
+
+        CsvColumnType type() {
+            if (values == 0) {
+                return CsvColumnType.STRING;
+            } else if (bool) {
+                return CsvColumnType.BOOLEAN;
+            } else if (integer) {
+                return fitsInt ? CsvColumnType.INTEGER
+                        : fitsLong ? CsvColumnType.LONG : CsvColumnType.DECIMAL;
+            } else if (plainDecimal) {
+                return maxDigits <= MAX_DOUBLE_DIGITS
+                        ? CsvColumnType.DOUBLE : CsvColumnType.DECIMAL;
+            } else if (floating) {
+                return CsvColumnType.DOUBLE;
+            } else if (!dateFormats.isEmpty()) {
+                return CsvColumnType.TIMESTAMP;
+            }
+            return CsvColumnType.STRING;
+        }
+
+        /**
+         * Counts the digits of a plain integer or decimal.
+         * @return the number of digits, or 0 if the value is no such
+         * number or its integer part has leading zeros.
+         */
+        private static int plainNumberDigits(final String value) {
+            int start = value.startsWith("-") ? 1 : 0;
+            int point = value.indexOf('.');
+            int integerEnd = point >= 0 ? point : value.length();
+            if (integerEnd == start || point == value.length() - 1
+                    || integerEnd - start > 1 && value.charAt(start) == '0') {
+                return 0;
+            }
+            for (int i = start; i < value.length(); i++) {
+                if (i != point && !Character.isDigit(value.charAt(i))) {
+                    return 0;
+                }
+            }
+            return value.length() - start - (point >= 0 ? 1 : 0);
+        }
+
+        private static boolean isScientific(final String value) {
+            return SCIENTIFIC.matcher(value).matches();
+        }
+
+        private static boolean parses(final String format, final String value) {
+            if (!Character.isDigit(value.charAt(0))) {
+                return false;
+            }
+            try {
+                if (hasTime(format)) {
+                    LocalDateTime.parse(value, DATE_FORMATTERS.get(format));
+                } else {
+                    LocalDate.parse(value, DATE_FORMATTERS.get(format));
+                }
+                return true;
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.coda.core.util.file;
 
+import com.coda.core.batch.DataModelBatchHandler;
 import com.coda.core.entities.DataModel;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -42,6 +44,23 @@ public interface FileExtractor {
         List<DataModel<Object>> readDataWithApacheCSV(
                 InputStream inputStream) throws IOException;
 
+        /**
+         * Reads data from a file in batches.
+         * <p>This method hands the rows of a file over batch by
+         * batch, so the file never has to fit in memory. Depending on
+         * the configured reader the file is parsed on one thread or in
+         * chunks on several threads.
+         * </p>
+         * @param filePath The path of the file to read data from.
+         * @param handler Receives the batches of DataModel objects.
+         * @return The number of rows read.
+         * @throws Exception If the file cannot be read
+         * or a batch cannot be handled.
+         */
+
+        long readDataInBatches(String filePath,
+                               DataModelBatchHandler<Object> handler) throws Exception;
+
 
         /**
          * Checks if a file exists.
@@ -85,4 +104,20 @@ public interface FileExtractor {
         void writeDataWithApacheCSV(
                 List<DataModel<Object>> dataModels,
                 String filePath) throws IOException;
+
+        /**
+         * Writes batches of data to a file.
+         * <p>This method pulls the batches one at a time and writes
+         * every row in the column order of the first row, so the file
+         * can be far larger than the memory. The file is gzip
+         * compressed if so configured or if its name ends in .gz.
+         * </p>
+         * @param batches The batches of DataModel objects to write.
+         * @param filePath The path of the file to write data to.
+         * @return The number of rows written.
+         * @throws IOException If an I/O error occurs.
+         */
+        long writeDataInBatches(
+                Iterator<List<DataModel<Object>>> batches,
+                String filePath) throws IOException;
 }
@@ -1,36 +1,58 @@
 package com.coda.core.util.file;
 
-import com.coda.core.entities.DataAttributes;
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.config.FileProperties;
 import com.coda.core.entities.DataModel;
 import com.coda.core.exceptions.ReadFromFileException;
 import com.coda.core.util.types.ErrorType;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.BufferedReader;
-import java.io.Writer;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Component
 public final class FileExtractorImpl implements FileExtractor {
 
+    /**
+     * The file reading settings.
+     */
+    private final FileProperties properties;
+
+    /**
+     * Constructor for FileExtractorImpl with the default settings.
+     */
+    public FileExtractorImpl() {
+        this(new FileProperties());
+    }
+
+    /**
+     * Constructor for FileExtractorImpl.
+     * @param fileProperties the file reading settings.
+     */
+    @Autowired
+    public FileExtractorImpl(final FileProperties fileProperties) {
+        this.properties = fileProperties;
+    }
+
     // file implementation
     @Override
     public List<DataModel<Object>> readDataWithApacheCSV(final String filePath)
@@ -53,15 +75,16 @@ public final class FileExtractorImpl implements FileExtractor {
     readDataWithApacheCSV(final InputStream inputStream) {
         List<DataModel<Object>> dataModels = new ArrayList<>();
         try (Reader reader =
-                     new BufferedReader(new InputStreamReader(inputStream));
+                     new BufferedReader(new InputStreamReader(inputStream,
+                             Charset.forName(properties.getCharset())));
              CSVParser csvParser =
                      new CSVParser(reader,
                              CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
-            for (CSVRecord record : csvParser) {
-                DataModel<Object> dataModel =
-                        createDataModelFromCsvRecord(record);
-                dataModels.add(dataModel);
-            }
+            List<CSVRecord> sample = new ArrayList<>();
+            CsvSchema schema = inferSchema(csvParser, sample);
+            Stream.concat(sample.stream(), csvParser.stream())
+                    .map(schema::toDataModel)
+                    .forEach(dataModels::add);
         } catch (IOException e) {
             log.error("Failed to read data from input stream", e);
             throw new ReadFromFileException(e.getMessage(),
@@ -70,6 +93,59 @@ public final class FileExtractorImpl implements FileExtractor {
         return dataModels;
     }
 
+    /**
+     * Reads data from a file in batches.
+     * <p>With the parallel reader the file is split into chunks at
+     * record boundaries and the chunks are parsed on several threads;
+     * the batches are still handed over on the calling thread. The
+     * column types are inferred from the first rows and every value is
+     * parsed with the parser of its column.</p>
+     * @param filePath The path of the file to read data from.
+     * @param handler Receives the batches of data models.
+     * @return The number of rows read.
+     * @throws Exception If the file cannot be read or a batch handled.
+     */
+
+    @Override
+    public long readDataInBatches(final String filePath,
+                                  final DataModelBatchHandler<Object> handler)
+            throws Exception {
+        Path path = Path.of(filePath);
+        Charset charset = Charset.forName(properties.getCharset());
+        if (properties.getReader() == FileProperties.Reader.PARALLEL) {
+            return new ParallelCsvReader(properties.effectiveParallelism(),
+                    properties.getChunkSize(), properties.getBatchSize(), charset,
+                    properties.getSampleSize())
+                    .read(path, properties.isOrdered(), handler);
+        }
+        long rows = 0;
+        try (Reader reader = Files.newBufferedReader(path, charset);
+             CSVParser csvParser = new CSVParser(reader,
+                     CSVFormat.DEFAULT.builder()
+                             .setHeader()
+                             .setSkipHeaderRecord(true)
+                             .build())) {
+            List<CSVRecord> sample = new ArrayList<>();
+            CsvSchema schema = inferSchema(csvParser, sample);
+            Iterator<CSVRecord> records =
+                    Stream.concat(sample.stream(), csvParser.stream()).iterator();
+            List<DataModel<Object>> batch = new ArrayList<>(properties.getBatchSize());
+            while (records.hasNext()) {
+                batch.add(schema.toDataModel(records.next()));
+                if (batch.size() == properties.getBatchSize()) {
+                    handler.handle(batch);
+                    rows += batch.size();
+                    batch = new ArrayList<>(properties.getBatchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                handler.handle(batch);
+                rows += batch.size();
+            }
+        }
+        return rows;
+    }
+
     /**
      * Checks if a file exists at the given path.
      * @param filePath The path of the file to check.
@@ -136,44 +212,46 @@ public final class FileExtractorImpl implements FileExtractor {
                     ErrorType.NO_DATA);
         }
 
-        Path path = Paths.get(filePath);
-        try (Writer writer = Files.newBufferedWriter(path);
-             CSVPrinter csvPrinter = new CSVPrinter(writer,
-                     CSVFormat.DEFAULT.withHeader(
-                             extractHeaders(dataModels)))) {
-            for (DataModel<Object> dataModel : dataModels) {
-                List<String> record =
-                        dataModel.getAttributesMap().values().stream()
-                        .map(attr -> Optional.ofNullable(attr.getValue())
-                                .orElse(""))
-                        .map(Object::toString)
-                        .collect(Collectors.toList());
-                csvPrinter.printRecord(record);
-                log.info("Record written: {}", record);
-            }
-            csvPrinter.flush();
+        try {
+            long rows = writeDataInBatches(List.of(dataModels).iterator(), filePath);
+            log.info("Wrote {} records to {}", rows, filePath);
         } catch (IOException e) {
             log.error("Failed to write data to file: {}", filePath, e);
             throw e;
         }
     }
 
-    // Private methods
-    private DataModel<Object> createDataModelFromCsvRecord(
-            final CSVRecord record) {
-        Map<String, DataAttributes<Object>> attributes =
-                record.toMap().entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey,
-                        e -> new DataAttributes<>(e.getKey(), e.getValue(),
-                                "Object", Object.class)));
-        DataModel<Object> dataModel = new DataModel<>();
-        dataModel.setAttributesMap(attributes);
-        return dataModel;
+    /**
+     * Writes batches of data to a file.
+     * <p>The columns are fixed by the first row and every row is
+     * written in that order straight into a large buffer, one batch
+     * at a time.</p>
+     * @param batches The batches of data models to write.
+     * @param filePath The path of the file to write to.
+     * @return The number of rows written.
+     * @throws IOException If an I/O error occurs.
+     */
+
+    @Override
+    public long writeDataInBatches(final Iterator<List<DataModel<Object>>> batches,
+                                   final String filePath) throws IOException {
+        return new CsvBatchWriter(Charset.forName(properties.getCharset()),
+                properties.isCompressOutput() || filePath.endsWith(".gz"))
+                .write(Path.of(filePath), batches);
     }
 
-    private String[] extractHeaders(final List<DataModel<Object>> dataModels) {
-        return dataModels.get(0)
-                .getAttributesMap()
-                .keySet().toArray(new String[0]);
+    // Private methods
+    private CsvSchema inferSchema(final CSVParser csvParser,
+                                  final List<CSVRecord> sample) {
+        // The sampled records are consumed here and parsed by the caller.
+        if (properties.getSampleSize() <= 0) {
+            return CsvSchema.untyped(csvParser.getHeaderNames());
+        }
+        Iterator<CSVRecord> records = csvParser.iterator();
+        while (sample.size() < properties.getSampleSize() && records.hasNext()) {
+            sample.add(records.next());
+        }
+        return CsvSchema.infer(csvParser.getHeaderNames(), sample);
     }
+
 }
@@ -0,0 +1,395 @@
+package com.coda.core.util.file;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>MappedCsvTokenizer parses the chunks of a CSV file straight from
+ * memory-mapped regions of the file.
+ * </p>
+ * <p>A record is first tokenized into the offsets of its fields, without
+ * copying or decoding anything. Only the fields of the selected columns
+ * are then materialized, with the parser of their column in the
+ * {@link CsvSchema}: the values of INTEGER, LONG and DOUBLE columns are
+ * parsed straight from their bytes, and the short values of text columns
+ * are decoded once per chunk and column and shared by every row
+ * repeating them, so a low cardinality column costs one lookup instead
+ * of one allocation per row. Everything else is decoded and handed to
+ * the schema.
+ * </p>
+ */
+final class MappedCsvTokenizer implements ParallelCsvReader.ChunkParser {
+
+    /**
+     * The strings interned per chunk and column.
+     */
+    static final int MAX_INTERNED_VALUES = 1024;
+
+    /**
+     * The length in bytes of the longest string interned.
+     */
+    static final int MAX_INTERNED_LENGTH = 64;
+
+    /**
+     * The most digits of a decimal computed exactly from its digits;
+     * the digits and the power of ten are then both exact doubles.
+     */
+    private static final int MAX_EXACT_DECIMAL_DIGITS = 15;
+
+    /**
+     * The most digits parsed from bytes, which always fit in a long;
+     * longer numbers go through the schema.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private static final byte QUOTED = 1;
+
+    private static final byte ESCAPED_QUOTES = 2;
+
+    /**
+     * The charset of the files.
+     */
+    private final Charset charset;
+
+    /**
+     * The columns materialized, empty for all of them.
+     */
+    private final Set<String> columns;
+
+    /**
+     * Constructor for MappedCsvTokenizer.
+     * @param fileCharset the charset of the files.
+     * @param selectedColumns the columns materialized, empty for all of them.
+     */
+    MappedCsvTokenizer(final Charset fileCharset, final Collection<String> selectedColumns) {
+        this.charset = fileCharset;
+        this.columns = Set.copyOf(selectedColumns);
+    }
+
+    @Override
+    public void parse(final FileChannel channel, final CsvSchema schema,
+                      final long from, final long to,
+                      final ParallelCsvReader.RowSink rows) throws Exception {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new IOException("Record at byte " + from + " is too large to map");
+        }
+        if (to > from) {
+            new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from), from,
+                    schema).parse(rows);
+        }
+    }
+
+    /**
+     * The state of parsing one chunk, confined to the thread parsing it.
+     */
+    private final class Chunk {
+
+        private final MappedByteBuffer buffer;
+
+        private final long offset;
+
+        private final CsvSchema schema;
+
+        private final List<String> headers;
+
+        private final boolean[] selected;
+
+        private final int selectedCount;
+
+        private final Dictionary[] dictionaries;
+
+        private int[] starts = new int[16];
+
+        private int[] ends = new int[16];
+
+        private byte[] flags = new byte[16];
+
+        private int fieldCount;
+
+        private byte[] scratch = new byte[MAX_INTERNED_LENGTH];
+
+        Chunk(final MappedByteBuffer mapped, final long position,
+              final CsvSchema columnSchema) {
+            this.buffer = mapped;
+            this.offset = position;
+            this.schema = columnSchema;
+            this.headers = columnSchema.getHeaders();
+            this.selected = new boolean[headers.size()];
+            int count = 0;
+            for (int i = 0; i < headers.size(); i++) {
+                selected[i] = columns.isEmpty() || columns.contains(headers.get(i));
+                count += selected[i] ? 1 : 0;
+            }
+            this.selectedCount = count;
+            this.dictionaries = new Dictionary[headers.size()];
+        }
+
+        void parse(final ParallelCsvReader.RowSink rows) throws IOException, InterruptedException {
+            int limit = buffer.limit();
+            int position = 0;
+            while (position < limit) {
+                position = tokenize(position, limit);
+                if (fieldCount == 1 && flags[0] == 0 && starts[0] == ends[0]) {
+                    // An empty line.
+                    continue;
+                }
+                rows.accept(toDataModel());
+            }
+        }
+
+        /**
+         * Records the offsets of the fields of the record at a position.
+         * @return the position of the next record.
+         */
+        private int tokenize(final int from, final int limit) throws IOException {
+            fieldCount = 0;
+            int position = from;
+            while (true) {
+                int start;
+                int end;
+                byte flag = 0;
+                if (position < limit && buffer.get(position) == '"') {
+                    flag = QUOTED;
+                    start = ++position;
+                    while (true) {
+                        if (position >= limit) {
+                            throw new IOException("Unterminated quoted field at byte "
+                                    + (offset + start - 1));
+                        }
+                        if (buffer.get(position) == '"') {
+                            if (position + 1 < limit && buffer.get(position + 1) == '"') {
+                                flag |= ESCAPED_QUOTES;
+                                position += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        position++;
+                    }
+                    end = position++;
+                    // Whatever follows the closing quote, such as a carriage return.
+                    while (position < limit && !isDelimiter(buffer.get(position))) {
+                        position++;
+                    }
+                } else {
+                    start = position;
+                    while (position < limit && !isDelimiter(buffer.get(position))) {
+                        position++;
+                    }
+                    end = position;
+                    if (end > start && buffer.get(end - 1) == '\r'
+                            && (position == limit || buffer.get(position) == '\n')) {
+                        end--;
+                    }
+                }
+                addField(start, end, flag);
+                if (position >= limit) {
+                    return limit;
+                }
+                if (buffer.get(position++) == '\n') {
+                    return position;
+                }
+            }
+        }
+
+        private boolean isDelimiter(final byte b) {
+            return b == ',' || b == '\n';
+        }
+
+        private void addField(final int start, final int end, final byte flag) {
+            if (fieldCount == starts.length) {
+                starts = Arrays.copyOf(starts, fieldCount * 2);
+                ends = Arrays.copyOf(ends, fieldCount * 2);
+                flags = Arrays.copyOf(flags, fieldCount * 2);
+            }
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+            flags[fieldCount] = flag;
+            fieldCount++;
+        }
+
+        private DataModel<Object> toDataModel() {
+            int count = Math.min(headers.size(), fieldCount);
+            Map<String, DataAttributes<Object>> attributes = HashMap.newHashMap(selectedCount);
+            for (int i = 0; i < count; i++) {
+                if (selected[i]) {
+                    attributes.put(headers.get(i), schema.attribute(i, value(i)));
+                }
+            }
+            DataModel<Object> dataModel = new DataModel<>();
+            dataModel.setAttributesMap(attributes);
+            return dataModel;
+        }
+
+        private Object value(final int field) {
+            int start = starts[field];
+            int end = ends[field];
+            if ((flags[field] & ESCAPED_QUOTES) != 0) {
+                return schema.parse(field, unescape(start, end));
+            }
+            if (start == end) {
+                return "";
+            }
+            CsvColumnType type = schema.getType(field);
+            if (type == CsvColumnType.STRING || type == CsvColumnType.UNTYPED) {
+                return text(field, start, end);
+            }
+            if (type == CsvColumnType.INTEGER || type == CsvColumnType.LONG
+                    || type == CsvColumnType.DOUBLE) {
+                Object number = number(start, end, type);
+                if (number != null) {
+                    return number;
+                }
+            }
+            return schema.parse(field, decode(start, end));
+        }
+
+        private String text(final int field, final int start, final int end) {
+            if (end - start > MAX_INTERNED_LENGTH) {
+                return decode(start, end);
+            }
+            if (dictionaries[field] == null) {
+                dictionaries[field] = new Dictionary();
+            }
+            return dictionaries[field].intern(start, end);
+        }
+
+        /**
+         * Parses a number of a numeric column from its bytes.
+         * @return the Integer, Long or Double, or null if the schema has
+         * to parse it, i.e. for a sign or an exponent or a long value.
+         */
+        private Object number(final int start, final int end, final CsvColumnType type) {
+            int position = start;
+            boolean negative = buffer.get(position) == '-';
+            if (negative) {
+                position++;
+            }
+            long digits = 0;
+            int digitCount = 0;
+            int fractionDigits = 0;
+            boolean point = false;
+            for (; position < end; position++) {
+                byte b = buffer.get(position);
+                if (b == '.' && !point && type == CsvColumnType.DOUBLE) {
+                    point = true;
+                    continue;
+                }
+                if (!isDigit(b) || ++digitCount > MAX_LONG_DIGITS) {
+                    return null;
+                }
+                digits = digits * 10 + (b - '0');
+                fractionDigits += point ? 1 : 0;
+            }
+            if (digitCount == 0) {
+                return null;
+            }
+            long signed = negative ? -digits : digits;
+            if (type == CsvColumnType.LONG) {
+                return signed;
+            } else if (type == CsvColumnType.INTEGER) {
+                return signed >= Integer.MIN_VALUE && signed <= Integer.MAX_VALUE
+                        ? Integer.valueOf((int) signed) : null;
+            } else if (digitCount > MAX_EXACT_DECIMAL_DIGITS) {
+                return null;
+            }
+            double value = digits / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        private boolean isDigit(final byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private String decode(final int start, final int end) {
+            int length = end - start;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, charset);
+        }
+
+        private String unescape(final int start, final int end) {
+            if (scratch.length < end - start) {
+                scratch = new byte[Math.max(end - start, scratch.length * 2)];
+            }
+            int length = 0;
+            for (int position = start; position < end; position++) {
+                byte b = buffer.get(position);
+                scratch[length++] = b;
+                if (b == '"') {
+                    // Skip the second quote of the pair.
+                    position++;
+                }
+            }
+            return new String(scratch, 0, length, charset);
+        }
+
+        /**
+         * The strings of one column, looked up by their bytes.
+         */
+        private final class Dictionary {
+
+            private final byte[][] keys = new byte[MAX_INTERNED_VALUES * 2][];
+
+            private final String[] values = new String[MAX_INTERNED_VALUES * 2];
+
+            private int size;
+
+            String intern(final int start, final int end) {
+                int mask = keys.length - 1;
+                int slot = hash(start, end) & mask;
+                while (keys[slot] != null) {
+                    if (matches(keys[slot], start, end)) {
+                        return values[slot];
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                String value = decode(start, end);
+                // Once full, further values are decoded every time.
+                if (size < MAX_INTERNED_VALUES) {
+                    keys[slot] = Arrays.copyOf(scratch, end - start);
+                    values[slot] = value;
+                    size++;
+                }
+                return value;
+            }
+
+            private int hash(final int start, final int end) {
+                int hash = 0;
+                for (int position = start; position < end; position++) {
+                    hash = 31 * hash + buffer.get(position);
+                }
+                return hash ^ (hash >>> 16);
+            }
+
+            private boolean matches(final byte[] key, final int start, final int end) {
+                if (key.length != end - start) {
+                    return false;
+                }
+                for (int i = 0; i < key.length; i++) {
+                    if (key[i] != buffer.get(start + i)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+}
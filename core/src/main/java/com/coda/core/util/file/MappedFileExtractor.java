@@ -0,0 +1,137 @@
+package com.coda.core.util.file;
+
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.config.FileProperties;
+import com.coda.core.entities.DataModel;
+import com.coda.core.exceptions.ReadFromFileException;
+import com.coda.core.util.types.ErrorType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>MappedFileExtractor reads CSV files on the file system from
+ * memory-mapped regions of the file instead of through a Reader.
+ * </p>
+ * <p>The file is split into chunks at record boundaries as the
+ * parallel reader does, and every chunk is tokenized into field offsets
+ * by {@link MappedCsvTokenizer}, which only decodes the configured
+ * columns, parses numbers straight from their bytes and interns
+ * repeated strings. Input streams, the file checks and writing are left
+ * to {@link FileExtractorImpl}.
+ * </p>
+ * <p>It replaces {@link FileExtractorImpl} when
+ * {@code etl.file.reader} is {@code MAPPED}.
+ * </p>
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "etl.file", name = "reader", havingValue = "MAPPED")
+public final class MappedFileExtractor implements FileExtractor {
+
+    /**
+     * The file reading settings.
+     */
+    private final FileProperties properties;
+
+    /**
+     * Handles everything but reading files.
+     */
+    private final FileExtractor delegate;
+
+    /**
+     * Constructor for MappedFileExtractor.
+     * @param fileProperties the file reading settings.
+     * @param fileExtractor handles everything but reading files.
+     */
+    public MappedFileExtractor(final FileProperties fileProperties,
+                               final FileExtractorImpl fileExtractor) {
+        this.properties = fileProperties;
+        this.delegate = fileExtractor;
+    }
+
+    /**
+     * Reads a whole file into memory.
+     * @param filePath The path of the file to read data from.
+     * @return The data models of the rows.
+     * @throws IOException If the file cannot be read.
+     */
+
+    @Override
+    public List<DataModel<Object>> readDataWithApacheCSV(final String filePath)
+            throws IOException {
+        List<DataModel<Object>> dataModels = new ArrayList<>();
+        try {
+            readDataInBatches(filePath, dataModels::addAll);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to read data from file: {}", filePath, e);
+            throw new ReadFromFileException(e.getMessage(), ErrorType.READ_ERROR);
+        }
+        return dataModels;
+    }
+
+    @Override
+    public List<DataModel<Object>> readDataWithApacheCSV(final InputStream inputStream)
+            throws IOException {
+        return delegate.readDataWithApacheCSV(inputStream);
+    }
+
+    /**
+     * Reads data from a file in batches, tokenizing memory-mapped chunks
+     * of the file on several threads.
+     * @param filePath The path of the file to read data from.
+     * @param handler Receives the batches of data models.
+     * @return The number of rows read.
+     * @throws Exception If the file cannot be read or a batch handled.
+     */
+
+    @Override
+    public long readDataInBatches(final String filePath,
+                                  final DataModelBatchHandler<Object> handler)
+            throws Exception {
+        Charset charset = Charset.forName(properties.getCharset());
+        return new ParallelCsvReader(properties.effectiveParallelism(),
+                properties.getChunkSize(), properties.getBatchSize(), charset,
+                properties.getSampleSize(), new MappedCsvTokenizer(charset, properties.getColumns()))
+                .read(Path.of(filePath), properties.isOrdered(), handler);
+    }
+
+    @Override
+    public boolean exists(final String filePath) {
+        return delegate.exists(filePath);
+    }
+
+    @Override
+    public boolean canRead(final String filePath) {
+        return delegate.canRead(filePath);
+    }
+
+    @Override
+    public boolean canWrite(final String filePath) {
+        return delegate.canWrite(filePath);
+    }
+
+    @Override
+    public void writeDataWithApacheCSV(final List<DataModel<Object>> dataModels,
+                                       final String filePath) throws IOException {
+        delegate.writeDataWithApacheCSV(dataModels, filePath);
+    }
+
+    @Override
+    public long writeDataInBatches(final Iterator<List<DataModel<Object>>> batches,
+                                   final String filePath) throws IOException {
+        return delegate.writeDataInBatches(batches, filePath);
+    }
+}
@@ -0,0 +1,543 @@
+package com.coda.core.util.file;
+
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.entities.DataModel;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>ParallelCsvReader parses a CSV file on several threads.
+ * </p>
+ * <p>The file is split into chunks of about {@code chunkBytes} bytes
+ * whose boundaries are moved forward to the next record boundary. A
+ * newline ends a record only outside quotes, and since an escaped quote
+ * is written twice, it does so exactly when an even number of quotes
+ * precedes it. The quotes of every chunk are counted in parallel, which
+ * gives the quote parity at the start of each chunk and so its first
+ * record boundary, including around quoted newlines. The chunks are
+ * then parsed in parallel, with Apache Commons CSV unless another
+ * {@link ChunkParser} is given. Unless the sample size is 0, the column
+ * types are first inferred from the leading rows into a
+ * {@link CsvSchema} every chunk parses its values with.
+ * </p>
+ * <p>Batches are handed over on the calling thread, either in file
+ * order or as soon as they are parsed. In file order at most
+ * {@code parallelism} chunks are parsed ahead of the one handed over,
+ * which bounds the rows held in memory; in any order the batches go
+ * through a bounded queue.
+ * </p>
+ * <p>The file must quote fields as RFC 4180 does: a quote inside an
+ * unquoted field would throw the quote parity off.
+ * </p>
+ */
+@Slf4j
+public final class ParallelCsvReader {
+
+    /**
+     * The size of the buffer the quotes are counted in.
+     */
+    private static final int SCAN_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The size of the buffer a chunk is parsed from.
+     */
+    private static final int PARSE_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The UTF-8 byte order mark.
+     */
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /**
+     * The number of chunks parsed at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * The approximate size of a chunk in bytes.
+     */
+    private final long chunkBytes;
+
+    /**
+     * The number of rows per batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The charset of the files.
+     */
+    private final Charset charset;
+
+    /**
+     * The number of rows the column types are inferred from,
+     * 0 to keep every value as raw text.
+     */
+    private final int sampleRows;
+
+    /**
+     * Turns the records of a chunk into data models.
+     */
+    private final ChunkParser chunkParser;
+
+    /**
+     * Constructor for ParallelCsvReader.
+     * @param threads the number of chunks parsed at the same time.
+     * @param chunkSize the approximate size of a chunk in bytes.
+     * @param rowsPerBatch the number of rows per batch.
+     * @param fileCharset the charset of the files; newlines and quotes
+     *                    must be the single bytes they are in ASCII.
+     */
+    public ParallelCsvReader(final int threads, final long chunkSize,
+                             final int rowsPerBatch, final Charset fileCharset) {
+        this(threads, chunkSize, rowsPerBatch, fileCharset, 0);
+    }
+
+    /**
+     * Constructor for ParallelCsvReader inferring the column types.
+     * @param threads the number of chunks parsed at the same time.
+     * @param chunkSize the approximate size of a chunk in bytes.
+     * @param rowsPerBatch the number of rows per batch.
+     * @param fileCharset the charset of the files; newlines and quotes
+     *                    must be the single bytes they are in ASCII.
+     * @param sampleSize the number of first rows the column types are
+     *                   inferred from, 0 to keep every value as raw text.
+     */
+    public ParallelCsvReader(final int threads, final long chunkSize,
+                             final int rowsPerBatch, final Charset fileCharset,
+                             final int sampleSize) {
+        this(threads, chunkSize, rowsPerBatch, fileCharset, sampleSize,
+                csvParser(fileCharset));
+    }
+
+    /**
+     * Constructor for ParallelCsvReader with another chunk parser.
+     * @param threads the number of chunks parsed at the same time.
+     * @param chunkSize the approximate size of a chunk in bytes.
+     * @param rowsPerBatch the number of rows per batch.
+     * @param fileCharset the charset of the files; newlines and quotes
+     *                    must be the single bytes they are in ASCII.
+     * @param sampleSize the number of first rows the column types are
+     *                   inferred from, 0 to keep every value as raw text.
+     * @param parser turns the records of a chunk into data models.
+     */
+    ParallelCsvReader(final int threads, final long chunkSize, final int rowsPerBatch,
+                      final Charset fileCharset, final int sampleSize,
+                      final ChunkParser parser) {
+        if (threads <= 0 || chunkSize <= 0 || rowsPerBatch <= 0) {
+            throw new IllegalArgumentException(
+                    "Parallelism, chunk size and batch size must be positive");
+        }
+        if (!Arrays.equals("\n\"".getBytes(fileCharset), new byte[] {'\n', '"'})) {
+            throw new IllegalArgumentException("Charset " + fileCharset
+                    + " does not encode newlines and quotes as single bytes");
+        }
+        this.parallelism = threads;
+        this.chunkBytes = chunkSize;
+        this.batchSize = rowsPerBatch;
+        this.charset = fileCharset;
+        this.sampleRows = Math.max(0, sampleSize);
+        this.chunkParser = parser;
+    }
+
+    /**
+     * Reads a CSV file whose first record is the header.
+     * @param file the file.
+     * @param ordered whether the batches are handed over in file order.
+     * @param handler receives the batches, on the calling thread.
+     * @return the number of rows read.
+     * @throws Exception if the file cannot be read or a batch handled.
+     */
+    public long read(final Path file, final boolean ordered,
+                     final DataModelBatchHandler<Object> handler) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long start = startOfData(channel);
+            long headerEnd = recordEnd(channel, start);
+            if (headerEnd == start) {
+                return 0;
+            }
+            CsvSchema schema = schema(channel, parseHeader(channel, start, headerEnd),
+                    headerEnd);
+            ExecutorService executor = Thread.currentThread().isVirtual()
+                    ? Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().factory())
+                    : Executors.newFixedThreadPool(parallelism);
+            try {
+                long[] boundaries = split(channel, executor, headerEnd);
+                log.info("Parsing {} in {} chunks on {} threads", file,
+                        boundaries.length - 1, parallelism);
+                return ordered
+                        ? readOrdered(channel, executor, schema, boundaries, handler)
+                        : readUnordered(channel, executor, schema, boundaries, handler);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static ChunkParser csvParser(final Charset charset) {
+        return (channel, schema, from, to, rows) -> {
+            try (CSVParser parser = new CSVParser(reader(channel, from, to, charset),
+                    CSVFormat.DEFAULT)) {
+                for (CSVRecord record : parser) {
+                    rows.accept(schema.toDataModel(record));
+                }
+            }
+        };
+    }
+
+    private long readOrdered(final FileChannel channel, final ExecutorService executor,
+                             final CsvSchema schema, final long[] boundaries,
+                             final DataModelBatchHandler<Object> handler) throws Exception {
+        int chunks = boundaries.length - 1;
+        List<BlockingQueue<List<DataModel<Object>>>> queues = new ArrayList<>(chunks);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (int i = 0; i < chunks; i++) {
+            queues.add(new LinkedBlockingQueue<>());
+        }
+        int submitted = 0;
+        long rows = 0;
+        for (int i = 0; i < chunks; i++) {
+            // Parse at most parallelism chunks ahead of the one handed over.
+            while (submitted < chunks && submitted < i + parallelism) {
+                int chunk = submitted++;
+                executor.execute(() -> parse(channel, schema, boundaries[chunk],
+                        boundaries[chunk + 1], queues.get(chunk), failure));
+            }
+            rows += drain(queues.get(i), 1, failure, handler);
+            queues.set(i, null);
+        }
+        return rows;
+    }
+
+    private long readUnordered(final FileChannel channel, final ExecutorService executor,
+                               final CsvSchema schema, final long[] boundaries,
+                               final DataModelBatchHandler<Object> handler) throws Exception {
+        int chunks = boundaries.length - 1;
+        BlockingQueue<List<DataModel<Object>>> queue = new ArrayBlockingQueue<>(2 * parallelism);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (int i = 0; i < chunks; i++) {
+            int chunk = i;
+            executor.execute(() -> parse(channel, schema, boundaries[chunk],
+                    boundaries[chunk + 1], queue, failure));
+        }
+        return drain(queue, chunks, failure, handler);
+    }
+
+    private long drain(final BlockingQueue<List<DataModel<Object>>> queue, final int chunks,
+                       final AtomicReference<Exception> failure,
+                       final DataModelBatchHandler<Object> handler) throws Exception {
+        long rows = 0;
+        int finished = 0;
+        while (finished < chunks) {
+            List<DataModel<Object>> batch = queue.take();
+            if (batch.isEmpty()) {
+                // The end of a chunk.
+                finished++;
+                if (failure.get() != null) {
+                    throw failure.get();
+                }
+                continue;
+            }
+            handler.handle(batch);
+            rows += batch.size();
+        }
+        return rows;
+    }
+
+    private void parse(final FileChannel channel, final CsvSchema schema,
+                       final long from, final long to,
+                       final BlockingQueue<List<DataModel<Object>>> output,
+                       final AtomicReference<Exception> failure) {
+        try {
+            if (failure.get() == null) {
+                Batcher batcher = new Batcher(output);
+                chunkParser.parse(channel, schema, from, to, batcher);
+                batcher.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            log.error("Failed to parse bytes {} to {}: {}", from, to, e.getMessage());
+            failure.compareAndSet(null, e);
+        }
+        try {
+            output.put(List.of());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long[] split(final FileChannel channel, final ExecutorService executor,
+                         final long start) throws Exception {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 1,
+                (size - start + chunkBytes - 1) / chunkBytes));
+        long[] nominal = new long[chunks + 1];
+        for (int i = 0; i <= chunks; i++) {
+            nominal[i] = start + (size - start) / chunks * i;
+        }
+        nominal[chunks] = size;
+
+        List<Future<QuoteScan>> futures = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long from = nominal[i];
+            long to = nominal[i + 1];
+            futures.add(executor.submit(() -> scan(channel, from, to)));
+        }
+        QuoteScan[] scans = new QuoteScan[chunks];
+        for (int i = 0; i < chunks; i++) {
+            try {
+                scans[i] = futures.get(i).get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        // The data starts outside quotes; carry the parity chunk to chunk.
+        int[] parity = new int[chunks];
+        for (int i = 1; i < chunks; i++) {
+            parity[i] = (int) ((parity[i - 1] + scans[i - 1].quotes) & 1);
+        }
+        long[] boundaries = new long[chunks + 1];
+        boundaries[0] = start;
+        boundaries[chunks] = size;
+        for (int i = chunks - 1; i > 0; i--) {
+            long newline = scans[i].firstNewline[parity[i]];
+            // A chunk without a record boundary joins the previous one.
+            boundaries[i] = newline >= 0 ? newline + 1 : boundaries[i + 1];
+        }
+        return Arrays.stream(boundaries).distinct().toArray();
+    }
+
+    private QuoteScan scan(final FileChannel channel, final long from,
+                           final long to) throws IOException {
+        QuoteScan scan = new QuoteScan();
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '"') {
+                    scan.quotes++;
+                } else if (bytes[i] == '\n') {
+                    int localParity = (int) (scan.quotes & 1);
+                    if (scan.firstNewline[localParity] < 0) {
+                        scan.firstNewline[localParity] = position + i;
+                    }
+                }
+            }
+            position += read;
+        }
+        return scan;
+    }
+
+    private long recordEnd(final FileChannel channel, final long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(PARSE_BUFFER_SIZE);
+        long size = channel.size();
+        long quotes = 0;
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    quotes++;
+                } else if (b == '\n' && (quotes & 1) == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private long startOfData(final FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(UTF8_BOM.length);
+        channel.read(buffer, 0);
+        return buffer.position() == UTF8_BOM.length
+                && Arrays.equals(buffer.array(), UTF8_BOM) ? UTF8_BOM.length : 0;
+    }
+
+    private CsvSchema schema(final FileChannel channel, final List<String> headers,
+                             final long from) throws IOException {
+        if (sampleRows == 0) {
+            return CsvSchema.untyped(headers);
+        }
+        List<CSVRecord> sample = new ArrayList<>(sampleRows);
+        try (CSVParser parser = new CSVParser(reader(channel, from, channel.size(), charset),
+                CSVFormat.DEFAULT)) {
+            Iterator<CSVRecord> records = parser.iterator();
+            while (sample.size() < sampleRows && records.hasNext()) {
+                sample.add(records.next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        CsvSchema schema = CsvSchema.infer(headers, sample);
+        log.info("Column types inferred from {} rows: {}", sample.size(), schema);
+        return schema;
+    }
+
+    private List<String> parseHeader(final FileChannel channel, final long from,
+                                     final long to) throws IOException {
+        try (CSVParser parser = new CSVParser(reader(channel, from, to, charset),
+                CSVFormat.DEFAULT)) {
+            List<CSVRecord> records = parser.getRecords();
+            return records.isEmpty() ? List.of() : records.get(0).toList();
+        }
+    }
+
+    private static Reader reader(final FileChannel channel, final long from, final long to,
+                                 final Charset charset) {
+        return new InputStreamReader(new BufferedInputStream(
+                new RangeInputStream(channel, from, to), PARSE_BUFFER_SIZE), charset);
+    }
+
+    /**
+     * Turns the records between two record boundaries into data models.
+     */
+    @FunctionalInterface
+    interface ChunkParser {
+
+        /**
+         * Parses a chunk.
+         * @param channel the file.
+         * @param schema the column names and types.
+         * @param from the position of the first record.
+         * @param to the position after the last record.
+         * @param rows receives the rows in file order.
+         * @throws Exception if the chunk cannot be parsed.
+         */
+        void parse(FileChannel channel, CsvSchema schema, long from, long to,
+                   RowSink rows) throws Exception;
+    }
+
+    /**
+     * Receives the rows of a chunk.
+     */
+    @FunctionalInterface
+    interface RowSink {
+
+        /**
+         * Receives a row.
+         * @param row the row.
+         * @throws InterruptedException if interrupted while waiting
+         * for room for the row.
+         */
+        void accept(DataModel<Object> row) throws InterruptedException;
+    }
+
+    /**
+     * Groups the rows of a chunk into batches.
+     */
+    private final class Batcher implements RowSink {
+
+        private final BlockingQueue<List<DataModel<Object>>> output;
+
+        private List<DataModel<Object>> batch = new ArrayList<>(batchSize);
+
+        Batcher(final BlockingQueue<List<DataModel<Object>>> queue) {
+            this.output = queue;
+        }
+
+        @Override
+        public void accept(final DataModel<Object> row) throws InterruptedException {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                output.put(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        void flush() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                output.put(batch);
+            }
+        }
+    }
+
+    /**
+     * The quotes of a chunk and its first newline after an even and
+     * after an odd number of them.
+     */
+    private static final class QuoteScan {
+
+        private long quotes;
+
+        private final long[] firstNewline = {-1, -1};
+    }
+
+    /**
+     * Reads a byte range of a file with positional reads, so the
+     * chunks can share one channel.
+     */
+    private static final class RangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+
+        private final long end;
+
+        private long position;
+
+        RangeInputStream(final FileChannel fileChannel, final long from, final long to) {
+            this.channel = fileChannel;
+            this.position = from;
+            this.end = to;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length)
+                throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int wanted = (int) Math.min(length, end - position);
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, wanted), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+}
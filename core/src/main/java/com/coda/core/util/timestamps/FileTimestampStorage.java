@@ -4,14 +4,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 
+/**
+ * <p>FileTimestampStorage keeps one last extracted timestamp shared
+ * by every source. Positions per source table are kept by a
+ * {@link WatermarkStore}, which falls back to this timestamp for
+ * tables it has not seen yet.
+ * </p>
+ */
 @Component
 @Slf4j
 public class FileTimestampStorage {
@@ -26,16 +35,10 @@ public class FileTimestampStorage {
      * @return the last extracted timestamp
      */
 
-    public Instant getLastExtractedTimestamp() {
+    public synchronized Instant getLastExtractedTimestamp() {
         File file = new File(TIMESTAMP_FILE);
         if (!file.exists()) {
             // If file doesn't exist, create it with the epoch start time
-            file.getParentFile().mkdirs();
-            try {
-                file.createNewFile();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
             updateLastExtractedTimestamp(Instant.EPOCH);
             return Instant.EPOCH;
         }
@@ -51,15 +54,20 @@ public class FileTimestampStorage {
 
     /**
      * updateLastExtractedTimestamp().
-     * writes the last extracted timestamp to the file.
+     * writes the last extracted timestamp to a temporary file
+     * and moves it over the previous one.
      * @param timestamp the last extracted timestamp.
      */
 
-    public void updateLastExtractedTimestamp(final Instant timestamp) {
+    public synchronized void updateLastExtractedTimestamp(final Instant timestamp) {
 
-        try (BufferedWriter writer
-                     = new BufferedWriter(new FileWriter(TIMESTAMP_FILE))) {
-            writer.write(timestamp.toString());
+        Path file = Paths.get(TIMESTAMP_FILE).toAbsolutePath();
+        try {
+            Path temp = Files.createTempFile(file.getParent(),
+                    TIMESTAMP_FILE, ".tmp");
+            Files.writeString(temp, timestamp.toString());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             log.error("Error updating last extracted "
                     + "timestamp: {}", e.getMessage());
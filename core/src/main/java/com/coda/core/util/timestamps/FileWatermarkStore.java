@@ -0,0 +1,94 @@
+package com.coda.core.util.timestamps;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * <p>FileWatermarkStore keeps one JSON file per source table
+ * in a local directory.
+ * </p>
+ * <p>A watermark is written to a temporary file, forced to disk and
+ * then moved over the previous file, so a crash leaves either the old
+ * or the new watermark. Different tables use different files, so
+ * concurrent jobs never write the same file unless they extract the
+ * same table.
+ * </p>
+ */
+@Slf4j
+public class FileWatermarkStore implements WatermarkStore {
+
+    /**
+     * The directory holding the watermark files.
+     */
+    private final Path directory;
+
+    /**
+     * Constructor for FileWatermarkStore.
+     * @param watermarkDirectory the directory holding the files.
+     */
+    public FileWatermarkStore(final Path watermarkDirectory) {
+        this.directory = watermarkDirectory;
+    }
+
+    @Override
+    public Optional<Watermark> get(final WatermarkKey key) {
+        Path file = watermarkFile(key);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Watermark.fromJson(
+                    Files.readString(file, StandardCharsets.UTF_8)));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable watermark {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(final WatermarkKey key, final Watermark watermark) {
+        Path file = watermarkFile(key);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory,
+                    file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(
+                        watermark.toJson().getBytes(StandardCharsets.UTF_8)));
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Error saving watermark {}: {}", key, e.getMessage());
+            throw new UncheckedIOException("Error saving watermark " + key, e);
+        }
+    }
+
+    @Override
+    public void remove(final WatermarkKey key) {
+        try {
+            Files.deleteIfExists(watermarkFile(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error removing watermark " + key, e);
+        }
+    }
+
+    private Path watermarkFile(final WatermarkKey key) {
+        String name = String.join("__", key.sourceType(),
+                key.databaseName(), key.tableName())
+                .replaceAll("[^A-Za-z0-9._-]", "_");
+        return directory.resolve(name + ".json");
+    }
+}
@@ -0,0 +1,174 @@
+package com.coda.core.util.timestamps;
+
+import com.coda.core.exceptions.DataLoadingException;
+import com.coda.core.exceptions.ReadFromDbExceptions;
+import com.coda.core.util.types.ErrorType;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * <p>JdbcWatermarkStore keeps one row per source table in a SQL
+ * table, created on first use. It runs on H2 as well as MySQL.
+ * </p>
+ * <p>A watermark is saved in one transaction, updating the row or
+ * inserting it when missing; two jobs inserting the same row at the
+ * same time are resolved by retrying the update.
+ * </p>
+ */
+@Slf4j
+public class JdbcWatermarkStore implements WatermarkStore {
+
+    /**
+     * Supplies the data source of the database holding the table,
+     * looked up on every use so a pool closed while idle is reopened.
+     */
+    private final Supplier<DataSource> dataSource;
+
+    /**
+     * The name of the table holding the watermarks.
+     */
+    private final String tableName;
+
+    /**
+     * Whether the table is known to exist.
+     */
+    private volatile boolean initialized;
+
+    /**
+     * Constructor for JdbcWatermarkStore.
+     * @param source supplies the data source of the database.
+     * @param table the name of the table holding the watermarks.
+     */
+    public JdbcWatermarkStore(final Supplier<DataSource> source, final String table) {
+        if (table == null || !table.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid watermark table name: " + table);
+        }
+        this.dataSource = source;
+        this.tableName = table;
+    }
+
+    @Override
+    public Optional<Watermark> get(final WatermarkKey key) {
+        String sql = "SELECT state FROM " + tableName
+                + " WHERE source_type = ? AND database_name = ? AND table_name = ?";
+        try (Connection connection = dataSource.get().getConnection()) {
+            createTableIfMissing(connection);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                bindKey(statement, 1, key);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next()
+                            ? Optional.of(Watermark.fromJson(resultSet.getString(1)))
+                            : Optional.empty();
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error reading watermark {}: {}", key, e.getMessage());
+            throw new ReadFromDbExceptions("Error reading watermark " + key
+                    + ": " + e.getMessage(), ErrorType.READ_FROM_DB_EXCEPTIONS);
+        }
+    }
+
+    @Override
+    public void put(final WatermarkKey key, final Watermark watermark) {
+        try (Connection connection = dataSource.get().getConnection()) {
+            createTableIfMissing(connection);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (update(connection, key, watermark) == 0) {
+                    try {
+                        insert(connection, key, watermark);
+                    } catch (SQLIntegrityConstraintViolationException e) {
+                        // Another job inserted the row first.
+                        connection.rollback();
+                        update(connection, key, watermark);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.error("Error saving watermark {}: {}", key, e.getMessage());
+            throw new DataLoadingException("Error saving watermark " + key
+                    + ": " + e.getMessage(), ErrorType.DATA_LOADING_EXCEPTION);
+        }
+    }
+
+    @Override
+    public void remove(final WatermarkKey key) {
+        String sql = "DELETE FROM " + tableName
+                + " WHERE source_type = ? AND database_name = ? AND table_name = ?";
+        try (Connection connection = dataSource.get().getConnection()) {
+            createTableIfMissing(connection);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                bindKey(statement, 1, key);
+                statement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataLoadingException("Error removing watermark " + key
+                    + ": " + e.getMessage(), ErrorType.DATA_LOADING_EXCEPTION);
+        }
+    }
+
+    private int update(final Connection connection, final WatermarkKey key,
+                       final Watermark watermark) throws SQLException {
+        String sql = "UPDATE " + tableName + " SET state = ?, updated_at = ?"
+                + " WHERE source_type = ? AND database_name = ? AND table_name = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, watermark.toJson());
+            statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            bindKey(statement, 3, key);
+            return statement.executeUpdate();
+        }
+    }
+
+    private void insert(final Connection connection, final WatermarkKey key,
+                        final Watermark watermark) throws SQLException {
+        String sql = "INSERT INTO " + tableName
+                + " (source_type, database_name, table_name, state, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindKey(statement, 1, key);
+            statement.setString(4, watermark.toJson());
+            statement.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+            statement.executeUpdate();
+        }
+    }
+
+    private static void bindKey(final PreparedStatement statement, final int first,
+                                final WatermarkKey key) throws SQLException {
+        statement.setString(first, key.sourceType());
+        statement.setString(first + 1, key.databaseName());
+        statement.setString(first + 2, key.tableName());
+    }
+
+    private void createTableIfMissing(final Connection connection) throws SQLException {
+        if (initialized) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + tableName + " ("
+                    + "source_type VARCHAR(64) NOT NULL, "
+                    + "database_name VARCHAR(255) NOT NULL, "
+                    + "table_name VARCHAR(255) NOT NULL, "
+                    + "state VARCHAR(8192) NOT NULL, "
+                    + "updated_at TIMESTAMP NOT NULL, "
+                    + "PRIMARY KEY (source_type, database_name, table_name))");
+        }
+        initialized = true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.coda.core.util.timestamps;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>MongoWatermarkStore keeps one document per source table in a
+ * MongoDB collection, with the source table as its {@code _id}.
+ * </p>
+ * <p>A watermark is saved with a single upserting replace, which
+ * MongoDB applies atomically to the document.
+ * </p>
+ */
+public class MongoWatermarkStore implements WatermarkStore {
+
+    /**
+     * The collection holding the watermarks.
+     */
+    private final MongoCollection<Document> collection;
+
+    /**
+     * Constructor for MongoWatermarkStore.
+     * @param watermarks the collection holding the watermarks.
+     */
+    public MongoWatermarkStore(final MongoCollection<Document> watermarks) {
+        this.collection = watermarks;
+    }
+
+    @Override
+    public Optional<Watermark> get(final WatermarkKey key) {
+        Document document = collection.find(byKey(key)).first();
+        if (document == null) {
+            return Optional.empty();
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        Document state = document.get("state", Document.class);
+        if (state != null) {
+            state.forEach((name, value) -> {
+                if (value != null) {
+                    values.put(name, value.toString());
+                }
+            });
+        }
+        return Optional.of(new Watermark(values));
+    }
+
+    @Override
+    public void put(final WatermarkKey key, final Watermark watermark) {
+        Document document = new Document("_id", id(key))
+                .append("state", new Document(new LinkedHashMap<>(watermark.getState())))
+                .append("updatedAt", new Date());
+        collection.replaceOne(byKey(key), document, new ReplaceOptions().upsert(true));
+    }
+
+    @Override
+    public void remove(final WatermarkKey key) {
+        collection.deleteOne(byKey(key));
+    }
+
+    private static Bson byKey(final WatermarkKey key) {
+        return Filters.eq("_id", id(key));
+    }
+
+    private static Document id(final WatermarkKey key) {
+        return new Document("sourceType", key.sourceType())
+                .append("database", key.databaseName())
+                .append("table", key.tableName());
+    }
+}
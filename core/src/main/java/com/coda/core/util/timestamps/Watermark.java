@@ -0,0 +1,258 @@
+package com.coda.core.util.timestamps;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Watermark is the position an incremental extraction reached
+ * in one source table: the last change timestamp read, the last
+ * primary key read, a change stream resume token, or any other
+ * named cursor value.
+ * </p>
+ * <p>A watermark is immutable; the {@code with} methods return a
+ * copy with one value changed, and a null value removes it.
+ * </p>
+ */
+public final class Watermark {
+
+    /**
+     * The name of the timestamp value.
+     */
+    public static final String TIMESTAMP = "timestamp";
+
+    /**
+     * The name of the last primary key value.
+     */
+    public static final String LAST_KEY = "lastKey";
+
+    /**
+     * The name of the resume token value.
+     */
+    public static final String RESUME_TOKEN = "resumeToken";
+
+    /**
+     * The suffix of the value holding the type of a position.
+     */
+    static final String TYPE_SUFFIX = "Type";
+
+    /**
+     * The types of the column values that can be saved as a position.
+     */
+    private static final Set<String> POSITION_TYPES = Set.of(
+            "java.lang.String", "java.lang.Integer", "java.lang.Long",
+            "java.lang.Short", "java.lang.Double", "java.lang.Float",
+            "java.math.BigInteger", "java.math.BigDecimal",
+            "java.sql.Timestamp", "java.sql.Date", "java.time.Instant",
+            "java.time.LocalDate", "java.time.LocalDateTime",
+            "java.time.OffsetDateTime");
+
+    /**
+     * The cursor values, by name.
+     */
+    private final Map<String, String> state;
+
+    /**
+     * Constructor for Watermark.
+     * @param values the cursor values, by name.
+     */
+    public Watermark(final Map<String, String> values) {
+        this.state = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    /**
+     * Returns a watermark without values.
+     * @return the empty watermark.
+     */
+    public static Watermark empty() {
+        return new Watermark(Map.of());
+    }
+
+    /**
+     * Returns the cursor values.
+     * @return the values, by name.
+     */
+    public Map<String, String> getState() {
+        return state;
+    }
+
+    /**
+     * Returns a cursor value.
+     * @param name the name of the value.
+     * @return the value, or null if not set.
+     */
+    public String get(final String name) {
+        return state.get(name);
+    }
+
+    /**
+     * Returns a copy with a cursor value changed.
+     * @param name the name of the value.
+     * @param value the value, null to remove it.
+     * @return the new watermark.
+     */
+    public Watermark with(final String name, final String value) {
+        Map<String, String> values = new LinkedHashMap<>(state);
+        if (value == null) {
+            values.remove(name);
+        } else {
+            values.put(name, value);
+        }
+        return new Watermark(values);
+    }
+
+    /**
+     * Returns the timestamp of the last change read.
+     * @return the timestamp, or null if not set.
+     */
+    public Instant getTimestamp() {
+        String timestamp = state.get(TIMESTAMP);
+        return timestamp != null ? Instant.parse(timestamp) : null;
+    }
+
+    /**
+     * Returns a copy with the timestamp changed.
+     * @param timestamp the timestamp, null to remove it.
+     * @return the new watermark.
+     */
+    public Watermark withTimestamp(final Instant timestamp) {
+        return with(TIMESTAMP, timestamp != null ? timestamp.toString() : null);
+    }
+
+    /**
+     * Returns the last primary key read.
+     * @return the key, or null if not set.
+     */
+    public String getLastKey() {
+        return state.get(LAST_KEY);
+    }
+
+    /**
+     * Returns a copy with the last primary key changed.
+     * @param lastKey the key, null to remove it.
+     * @return the new watermark.
+     */
+    public Watermark withLastKey(final String lastKey) {
+        return with(LAST_KEY, lastKey);
+    }
+
+    /**
+     * Returns the change stream resume token.
+     * @return the token, or null if not set.
+     */
+    public BsonDocument getResumeToken() {
+        String token = state.get(RESUME_TOKEN);
+        return token != null ? BsonDocument.parse(token) : null;
+    }
+
+    /**
+     * Returns a copy with the resume token changed.
+     * @param resumeToken the token, null to remove it.
+     * @return the new watermark.
+     */
+    public Watermark withResumeToken(final BsonDocument resumeToken) {
+        return with(RESUME_TOKEN, resumeToken != null ? resumeToken.toJson() : null);
+    }
+
+    /**
+     * Returns a column value saved with {@link #withPosition}, with
+     * the Java type it was read with, so it can be bound back to a
+     * query without a conversion by the database.
+     * @param name the name of the value.
+     * @return the value, or null if not set.
+     */
+    public Object getPosition(final String name) {
+        String value = state.get(name);
+        if (value == null) {
+            return null;
+        }
+        String type = state.getOrDefault(name + TYPE_SUFFIX, String.class.getName());
+        return switch (type) {
+            case "java.lang.String" -> value;
+            case "java.lang.Integer" -> Integer.valueOf(value);
+            case "java.lang.Long" -> Long.valueOf(value);
+            case "java.lang.Short" -> Short.valueOf(value);
+            case "java.lang.Double" -> Double.valueOf(value);
+            case "java.lang.Float" -> Float.valueOf(value);
+            case "java.math.BigInteger" -> new BigInteger(value);
+            case "java.math.BigDecimal" -> new BigDecimal(value);
+            case "java.sql.Timestamp" -> Timestamp.valueOf(value);
+            case "java.sql.Date" -> java.sql.Date.valueOf(value);
+            case "java.time.Instant" -> Instant.parse(value);
+            case "java.time.LocalDate" -> LocalDate.parse(value);
+            case "java.time.LocalDateTime" -> LocalDateTime.parse(value);
+            case "java.time.OffsetDateTime" -> OffsetDateTime.parse(value);
+            default -> throw new IllegalStateException("Unsupported type "
+                    + type + " of watermark value " + name);
+        };
+    }
+
+    /**
+     * Returns a copy with a column value changed, keeping its type.
+     * @param name the name of the value.
+     * @param value the value, null to remove it.
+     * @return the new watermark.
+     * @throws IllegalArgumentException if the type of the value
+     * cannot be saved.
+     */
+    public Watermark withPosition(final String name, final Object value) {
+        if (value == null) {
+            return with(name, null).with(name + TYPE_SUFFIX, null);
+        }
+        String type = value.getClass().getName();
+        if (!POSITION_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unsupported type "
+                    + type + " of watermark value " + name);
+        }
+        return with(name, value.toString()).with(name + TYPE_SUFFIX, type);
+    }
+
+    /**
+     * Writes the cursor values as a JSON object.
+     * @return the JSON.
+     */
+    public String toJson() {
+        return new Document(new LinkedHashMap<>(state)).toJson();
+    }
+
+    /**
+     * Reads cursor values written by {@link #toJson()}.
+     * @param json the JSON.
+     * @return the watermark.
+     */
+    public static Watermark fromJson(final String json) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Document.parse(json).forEach((name, value) -> {
+            if (value != null) {
+                values.put(name, value.toString());
+            }
+        });
+        return new Watermark(values);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof Watermark watermark && state.equals(watermark.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return state.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Watermark" + state;
+    }
+}
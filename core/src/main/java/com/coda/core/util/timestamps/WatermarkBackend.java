@@ -0,0 +1,22 @@
+package com.coda.core.util.timestamps;
+
+/**
+ * The storage behind a {@link WatermarkStore}.
+ */
+public enum WatermarkBackend {
+
+    /**
+     * One JSON file per source table in a local directory.
+     */
+    FILE,
+
+    /**
+     * One row per source table in a SQL table, e.g. in H2 or MySQL.
+     */
+    JDBC,
+
+    /**
+     * One document per source table in a MongoDB collection.
+     */
+    MONGO
+}
@@ -0,0 +1,30 @@
+package com.coda.core.util.timestamps;
+
+import java.util.Objects;
+
+/**
+ * The source table a watermark belongs to.
+ * @param sourceType the type of the source, e.g. mysql or mongodb.
+ * @param databaseName the name of the database.
+ * @param tableName the name of the table or collection.
+ */
+public record WatermarkKey(String sourceType, String databaseName,
+                           String tableName) {
+
+    /**
+     * Constructor for WatermarkKey.
+     * @param sourceType the type of the source, e.g. mysql or mongodb.
+     * @param databaseName the name of the database.
+     * @param tableName the name of the table or collection.
+     */
+    public WatermarkKey {
+        Objects.requireNonNull(sourceType, "sourceType cannot be null");
+        Objects.requireNonNull(databaseName, "databaseName cannot be null");
+        Objects.requireNonNull(tableName, "tableName cannot be null");
+    }
+
+    @Override
+    public String toString() {
+        return sourceType + ":" + databaseName + "." + tableName;
+    }
+}
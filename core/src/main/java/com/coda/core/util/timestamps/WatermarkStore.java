@@ -0,0 +1,36 @@
+package com.coda.core.util.timestamps;
+
+import java.util.Optional;
+
+/**
+ * <p>WatermarkStore keeps the {@link Watermark} of each source table,
+ * so incremental extractions of different tables can run at the same
+ * time without overwriting each other's position.
+ * </p>
+ * <p>Each watermark is replaced as a whole: a reader sees either the
+ * previous or the new watermark, never a partly written one.
+ * </p>
+ * @see WatermarkBackend
+ */
+public interface WatermarkStore {
+
+    /**
+     * Returns the watermark of a source table.
+     * @param key the source table.
+     * @return the watermark, or empty if none was saved.
+     */
+    Optional<Watermark> get(WatermarkKey key);
+
+    /**
+     * Saves the watermark of a source table.
+     * @param key the source table.
+     * @param watermark the watermark.
+     */
+    void put(WatermarkKey key, Watermark watermark);
+
+    /**
+     * Forgets the watermark of a source table.
+     * @param key the source table.
+     */
+    void remove(WatermarkKey key);
+}
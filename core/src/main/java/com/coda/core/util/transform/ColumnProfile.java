@@ -0,0 +1,196 @@
+package com.coda.core.util.transform;
+
+import com.coda.core.batch.columnar.ColumnVector;
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.columnar.NumericColumnVector;
+import com.coda.core.batch.columnar.StringColumnVector;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ColumnProfile holds the {@link ColumnStatistics} of every column of a data set.
+ * <p>It is the first pass of the column processing: every row is
+ * visited once and each cell updates the statistics of its column.
+ * A profile can be updated batch by batch while data is streamed and
+ * merged with the profiles of other partitions.
+ * </p>
+ * <p>Once frozen a profile no longer changes, so every batch of a
+ * stream it is applied to is scaled with the same statistics.
+ * </p>
+ * <p>Numbers feed the numeric statistics, any other non empty
+ * value the value counts used for the mode.
+ * </p>
+ */
+public final class ColumnProfile {
+
+    /**
+     * The statistics of each column, by column name.
+     */
+    private final Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+
+    /**
+     * The columns identifying a row, left untouched by the processing.
+     */
+    private final Set<String> keyColumns;
+
+    /**
+     * Whether the statistics are final.
+     */
+    private boolean frozen;
+
+    /**
+     * Constructor for ColumnProfile.
+     */
+    public ColumnProfile() {
+        this(Set.of());
+    }
+
+    /**
+     * Constructor for ColumnProfile of a data set with key columns.
+     * @param keys the columns identifying a row.
+     */
+    public ColumnProfile(final Set<String> keys) {
+        this.keyColumns = Set.copyOf(keys);
+    }
+
+    /**
+     * Updates the profile with a batch of data models.
+     * @param dataModels the data models.
+     * @param <T> the type of the data model values.
+     * @return this profile.
+     */
+    public <T> ColumnProfile update(final List<DataModel<T>> dataModels) {
+        checkNotFrozen();
+        for (DataModel<T> dataModel : dataModels) {
+            if (dataModel.getAttributesMap() == null) {
+                continue;
+            }
+            for (Map.Entry<String, DataAttributes<T>> entry
+                    : dataModel.getAttributesMap().entrySet()) {
+                Object value = entry.getValue() != null
+                        ? entry.getValue().getValue() : null;
+                add(statistics(entry.getKey()), value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Updates the profile with a columnar batch.
+     * @param batch the batch.
+     * @return this profile.
+     */
+    public ColumnProfile update(final ColumnarBatch batch) {
+        checkNotFrozen();
+        for (int column = 0; column < batch.getColumnCount(); column++) {
+            ColumnStatistics statistics = statistics(
+                    batch.getSchema().get(column).getName());
+            ColumnVector vector = batch.getVectors().get(column);
+            if (vector instanceof NumericColumnVector numeric) {
+                for (int row = 0; row < numeric.size(); row++) {
+                    if (numeric.isNull(row)) {
+                        statistics.addNull();
+                    } else {
+                        statistics.add(numeric.getAsDouble(row));
+                    }
+                }
+            } else if (vector instanceof StringColumnVector strings) {
+                for (int row = 0; row < strings.size(); row++) {
+                    if (strings.isNull(row)
+                            || strings.dictionaryValue(strings.getCode(row)).isEmpty()) {
+                        statistics.addNull();
+                    } else {
+                        statistics.addCategory(strings.getString(row));
+                    }
+                }
+            } else {
+                for (int row = 0; row < vector.size(); row++) {
+                    add(statistics, vector.getObject(row));
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Merges the profile of another partition of the same data set.
+     * @param other the profile to merge.
+     * @return this profile.
+     */
+    public ColumnProfile merge(final ColumnProfile other) {
+        checkNotFrozen();
+        other.columns.forEach((name, statistics)
+                -> statistics(name).merge(statistics));
+        return this;
+    }
+
+    /**
+     * Makes the statistics final; later updates are rejected.
+     * @return this profile.
+     */
+    public ColumnProfile freeze() {
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Checks whether the statistics are final.
+     * @return true once the profile has been frozen.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Returns the statistics of a column.
+     * @param columnName the name of the column.
+     * @return the statistics, or null if the column was never seen.
+     */
+    public ColumnStatistics get(final String columnName) {
+        return columns.get(columnName);
+    }
+
+    /**
+     * Checks whether a column identifies a row, so a transformed
+     * value would no longer match the source row.
+     * @param columnName the name of the column.
+     * @return true if the column is a key column.
+     */
+    public boolean isKeyColumn(final String columnName) {
+        return keyColumns.contains(columnName);
+    }
+
+    /**
+     * Returns the statistics of every column.
+     * @return the statistics by column name.
+     */
+    public Map<String, ColumnStatistics> getColumns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("The profile is frozen");
+        }
+    }
+
+    private ColumnStatistics statistics(final String columnName) {
+        return columns.computeIfAbsent(columnName, name -> new ColumnStatistics());
+    }
+
+    private static void add(final ColumnStatistics statistics, final Object value) {
+        if (value == null || (value instanceof String string && string.isEmpty())) {
+            statistics.addNull();
+        } else if (value instanceof Number number) {
+            statistics.add(number.doubleValue());
+        } else {
+            statistics.addCategory(value);
+        }
+    }
+}
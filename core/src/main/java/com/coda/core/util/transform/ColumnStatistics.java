@@ -0,0 +1,246 @@
+package com.coda.core.util.transform;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * ColumnStatistics gathers the statistics of one column in a single pass.
+ * <p>Mean and variance are kept with Welford's online algorithm,
+ * quantiles are estimated from a fixed size reservoir sample and the
+ * mode from a bounded value count. All of it needs constant memory per
+ * column, so statistics can be built batch by batch over a stream and
+ * merged from partitions.
+ * </p>
+ */
+public final class ColumnStatistics {
+
+    /**
+     * The number of values kept for the quantile estimates.
+     * Columns with fewer values get exact quantiles.
+     */
+    static final int SAMPLE_SIZE = 4096;
+
+    /**
+     * The number of distinct values counted for the mode.
+     */
+    static final int MAX_DISTINCT_VALUES = 10_000;
+
+    /**
+     * The number of numeric values.
+     */
+    @Getter
+    private long count;
+
+    /**
+     * The number of null or empty values.
+     */
+    @Getter
+    private long nullCount;
+
+    /**
+     * The running mean of the numeric values.
+     */
+    @Getter
+    private double mean;
+
+    /**
+     * The running sum of squared deviations from the mean.
+     */
+    private double m2;
+
+    /**
+     * The smallest numeric value.
+     */
+    @Getter
+    private double min = Double.POSITIVE_INFINITY;
+
+    /**
+     * The largest numeric value.
+     */
+    @Getter
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * The reservoir sample of the numeric values.
+     */
+    private double[] sample = new double[0];
+
+    /**
+     * The number of values kept in the sample.
+     */
+    private int sampleSize;
+
+    /**
+     * The sorted sample, kept until the next value is added.
+     */
+    private volatile double[] sortedSample;
+
+    /**
+     * The count of each categorical value.
+     */
+    private final Map<Object, Long> valueCounts = new HashMap<>();
+
+    /**
+     * The random source of the reservoir sampling, seeded
+     * so that the same data gives the same estimates.
+     */
+    private final SplittableRandom random = new SplittableRandom(SAMPLE_SIZE);
+
+    /**
+     * Adds a numeric value.
+     * @param value the value.
+     */
+    public void add(final double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        addToSample(value);
+    }
+
+    /**
+     * Adds a categorical value for the mode.
+     * @param value the value.
+     */
+    public void addCategory(final Object value) {
+        if (valueCounts.size() < MAX_DISTINCT_VALUES
+                || valueCounts.containsKey(value)) {
+            valueCounts.merge(value, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Adds a null or empty value.
+     */
+    public void addNull() {
+        nullCount++;
+    }
+
+    /**
+     * Merges the statistics of another part of the same column.
+     * @param other the statistics to merge.
+     * @return this statistics.
+     */
+    public ColumnStatistics merge(final ColumnStatistics other) {
+        if (other.count > 0) {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            m2 += other.m2 + delta * delta * count * other.count / total;
+            mean += delta * other.count / total;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            mergeSample(other, total);
+            count = total;
+        }
+        nullCount += other.nullCount;
+        other.valueCounts.forEach((value, valueCount) -> {
+            if (valueCounts.size() < MAX_DISTINCT_VALUES
+                    || valueCounts.containsKey(value)) {
+                valueCounts.merge(value, valueCount, Long::sum);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Returns the population variance of the numeric values.
+     * @return the variance, or NaN without values.
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * Returns the population standard deviation of the numeric values.
+     * @return the standard deviation, or NaN without values.
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Estimates a quantile of the numeric values.
+     * @param quantile the quantile, between 0 and 1.
+     * @return the value at the quantile, or NaN without values.
+     */
+    public double quantile(final double quantile) {
+        if (sampleSize == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = sortedSample;
+        if (sorted == null) {
+            sorted = Arrays.copyOf(sample, sampleSize);
+            Arrays.sort(sorted);
+            sortedSample = sorted;
+        }
+        double position = quantile * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = (int) Math.ceil(position);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+    }
+
+    /**
+     * Returns the most frequent categorical value.
+     * @return the mode, or null without values.
+     */
+    public Object getMode() {
+        Object mode = null;
+        long modeCount = 0;
+        for (Map.Entry<Object, Long> entry : valueCounts.entrySet()) {
+            if (entry.getValue() > modeCount) {
+                mode = entry.getKey();
+                modeCount = entry.getValue();
+            }
+        }
+        return mode;
+    }
+
+    private void addToSample(final double value) {
+        sortedSample = null;
+        if (sampleSize < SAMPLE_SIZE) {
+            if (sampleSize == sample.length) {
+                sample = Arrays.copyOf(sample,
+                        Math.min(SAMPLE_SIZE, Math.max(16, sampleSize * 2)));
+            }
+            sample[sampleSize++] = value;
+        } else {
+            long slot = random.nextLong(count);
+            if (slot < SAMPLE_SIZE) {
+                sample[(int) slot] = value;
+            }
+        }
+    }
+
+    private void mergeSample(final ColumnStatistics other, final long total) {
+        sortedSample = null;
+        if (sampleSize + other.sampleSize <= SAMPLE_SIZE) {
+            sample = Arrays.copyOf(sample, sampleSize + other.sampleSize);
+            System.arraycopy(other.sample, 0, sample, sampleSize, other.sampleSize);
+            sampleSize += other.sampleSize;
+            return;
+        }
+        // Draw from each sample in proportion to the values it stands for.
+        double[] merged = new double[SAMPLE_SIZE];
+        double[] mine = Arrays.copyOf(sample, sampleSize);
+        double[] theirs = Arrays.copyOf(other.sample, other.sampleSize);
+        int mineLeft = mine.length;
+        int theirsLeft = theirs.length;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            boolean fromMine = theirsLeft == 0 || (mineLeft > 0
+                    && random.nextLong(total) < count);
+            double[] source = fromMine ? mine : theirs;
+            int left = fromMine ? mineLeft-- : theirsLeft--;
+            int pick = random.nextInt(left);
+            merged[i] = source[pick];
+            source[pick] = source[left - 1];
+        }
+        sample = merged;
+        sampleSize = SAMPLE_SIZE;
+    }
+}
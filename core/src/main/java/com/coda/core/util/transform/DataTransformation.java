@@ -1,5 +1,10 @@
 package com.coda.core.util.transform;
 
+import com.coda.core.batch.columnar.ColumnSchema;
+import com.coda.core.batch.columnar.ColumnVector;
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.columnar.NumericColumnVector;
+import com.coda.core.batch.columnar.StringColumnVector;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
 import com.coda.core.exceptions.TransformationException;
@@ -9,6 +14,7 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,6 +37,10 @@ public class DataTransformation {
             Map.entry("TEXT", new StringTransform())
     );
 
+    private final Map<PlanKey, TransformPlan> compiledPlans = new ConcurrentHashMap<>();
+
+    private static final Map<String, Class<?>> RESOLVED_CLASSES = new ConcurrentHashMap<>();
+
     public <T> T transformValue(final String type, final Object value,
                                 final String format, final String attributeName) {
 
@@ -39,7 +49,18 @@ public class DataTransformation {
                     ErrorType.TRANSFORMATION_FAILED);
         }
 
-        TransformValue transformValue = TRANSFORM_VALUE_MAP.get(type);
+        T transformedValue = compilePlan(type, format).apply(value, attributeName);
+        log.debug("Transformed value: {}", transformedValue);
+        return transformedValue;
+    }
+
+    public TransformPlan compilePlan(final String type, final String format) {
+        TransformPlan plan = compiledPlans.get(new PlanKey(type, format));
+        if (plan != null) {
+            return plan;
+        }
+
+        TransformValue transformValue = type != null ? TRANSFORM_VALUE_MAP.get(type) : null;
         if (transformValue == null) {
             log.error("No transformation strategy found for type: {}", type);
             throw new TransformationException("No transformation strategy found",
@@ -47,31 +68,35 @@ public class DataTransformation {
         }
 
         try {
-            if ("VARCHAR".equals(type) || "TEXT".equals(type)) {
-                Optional<?> transformedValue = transformValue.transformValue(value.toString(),
-                        String.class, format);
-                log.info("Transformed value: {}", transformedValue.orElse(null));
-                return (T) transformedValue.orElse(null);
-            }
-            Optional<?> transformedValue = transformValue.transformValue(value.toString(),
-                    Class.forName(type), format);
-            log.info("Transformed value: {}", transformedValue.orElse(null));
-
-            return (T) transformedValue.orElse(null);
-
+            Class<?> targetClass = "VARCHAR".equals(type) || "TEXT".equals(type)
+                    ? String.class : resolveClass(type);
+            plan = new TransformPlan(type, format, transformValue, targetClass);
         } catch (Exception e) {
-            log.error("Transformation failed for attribute '{}', type '{}': {}",
-                    attributeName, type, e.getMessage(), e);
+            log.error("Transformation plan failed for type '{}': {}", type, e.getMessage(), e);
             throw new TransformationException("Error: " + e + " Cause: " + e.getCause(),
                     ErrorType.TRANSFORMATION_FAILED);
         }
+        compiledPlans.putIfAbsent(new PlanKey(type, format), plan);
+        return plan;
+    }
+
+    public static Class<?> resolveClass(final String className) throws ClassNotFoundException {
+        Class<?> clazz = RESOLVED_CLASSES.get(className);
+        if (clazz == null) {
+            clazz = Class.forName(className);
+            RESOLVED_CLASSES.putIfAbsent(className, clazz);
+        }
+        return clazz;
+    }
+
+    private record PlanKey(String type, String format) {
     }
 
     public <T> T cleanCategoricalValues(final String type, final Object value) throws ClassNotFoundException {
         if ("String".equals(type) && value instanceof String) {
-            return (T) Class.forName(type).cast(((String) value).replaceAll("[^a-zA-Z0-9]", ""));
+            return (T) resolveClass(type).cast(((String) value).replaceAll("[^a-zA-Z0-9]", ""));
         }
-        log.info("Cleaned Value: {}", value);
+        log.debug("Cleaned Value: {}", value);
         return (T) value;
     }
 
@@ -136,18 +161,17 @@ public class DataTransformation {
             throws ClassNotFoundException {
 
         String typeClazzName = attribute.getTypeClazzName();
-        log.info("Type Class Name: {}", typeClazzName);
-        log.info("Attribute Value: {}", attribute.getValue());
-        log.info("Attribute Type: {}", attribute.getType());
+        log.debug("Type Class Name: {}, Attribute Value: {}, Attribute Type: {}",
+                typeClazzName, attribute.getValue(), attribute.getType());
 
-        Class<?> clazz = Class.forName(typeClazzName);
+        Class<?> clazz = resolveClass(typeClazzName);
 
         if (Number.class.isAssignableFrom(clazz)) {
             OptionalDouble average = column.stream()
                     .filter(attr -> attr.getValue() != null)
                     .mapToDouble(attr -> ((Number) attr.getValue()).doubleValue())
                     .average();
-            log.info("Average: {}", average);
+            log.debug("Average: {}", average);
 
             if (average.isPresent()) {
                 if (attribute.getValue() == null) {
@@ -155,7 +179,7 @@ public class DataTransformation {
                     Number newValue = convertToType(avgValue, clazz);
                     if (newValue != null) {
                         attribute.setValue((T) clazz.cast(newValue));
-                        log.info("Replaced missing value with average: {}", avgValue);
+                        log.debug("Replaced missing value with average: {}", avgValue);
                     } else {
                         log.warn("Conversion to type {} resulted in null", clazz.getName());
                     }
@@ -187,110 +211,148 @@ public class DataTransformation {
     }
 
     public <T> void normalize(List<DataModel<T>> dataModels) throws ClassNotFoundException {
-        Map<String, List<DataAttributes<T>>> attributeGroups = new HashMap<>();
-
+        // One pass gathers the mean and variance of every numeric column,
+        // a second pass replaces the values by their z-score.
+        Map<String, ColumnStatistics> statistics = new HashMap<>();
         for (DataModel<T> dataModel : dataModels) {
             for (DataAttributes<T> attribute : dataModel.getAttributesMap().values()) {
-                if (Number.class.isAssignableFrom(Class.forName(attribute.getType()))) {
-                    attributeGroups.computeIfAbsent(attribute.getAttributeName(), k -> new ArrayList<>()).add(attribute);
+                if (isNormalizable(attribute)) {
+                    statistics.computeIfAbsent(attribute.getAttributeName(), k -> new ColumnStatistics())
+                            .add(((Number) attribute.getValue()).doubleValue());
                 }
             }
         }
+        statistics.forEach((column, stats) -> log.debug("Column {}: mean {}, standard deviation {}",
+                column, stats.getMean(), stats.getStdDev()));
 
-        for (Map.Entry<String, List<DataAttributes<T>>> entry : attributeGroups.entrySet()) {
-            normalizeData(entry.getValue());
+        for (DataModel<T> dataModel : dataModels) {
+            for (DataAttributes<T> attribute : dataModel.getAttributesMap().values()) {
+                ColumnStatistics column = statistics.get(attribute.getAttributeName());
+                if (column != null && isNormalizable(attribute)) {
+                    Number value = (Number) attribute.getValue();
+                    attribute.setValue((T) castLike(value, zScore(column, value.doubleValue())));
+                }
+            }
         }
     }
 
-    private <T> void normalizeData(final List<DataAttributes<T>> column)
-            throws ClassNotFoundException {
-        if (column.isEmpty()) return;
+    private <T> boolean isNormalizable(final DataAttributes<T> attribute) {
+        return attribute.getValue() instanceof Number
+                && !Objects.equals(attribute.getAttributeName(), "id");
+    }
 
-        String type = column.get(0).getType();
-        log.info("Type Class Name: {}", type);
+    public static double zScore(final ColumnStatistics column, final double value) {
+        double stdDev = column.getStdDev();
+        return stdDev == 0 ? 0.0 : (value - column.getMean()) / stdDev;
+    }
 
-        if (Number.class.isAssignableFrom(Class.forName(type))) {
-            OptionalDouble meanOpt = column.stream()
-                    .filter(attr -> !Objects.equals(attr.getAttributeName(), "id"))
-                    .filter(attr -> attr.getValue() != null)
-                    .mapToDouble(attr -> ((Number) attr.getValue()).doubleValue())
-                    .average();
+    public static Number castLike(final Number template, final double value) {
+        if (template instanceof Integer) {
+            return (int) value;
+        } else if (template instanceof Long) {
+            return (long) value;
+        } else if (template instanceof Float) {
+            return (float) value;
+        } else if (template instanceof Short) {
+            return (short) value;
+        } else if (template instanceof Byte) {
+            return (byte) value;
+        } else if (template instanceof BigDecimal) {
+            return BigDecimal.valueOf(value);
+        }
+        return value;
+    }
 
-            if (meanOpt.isEmpty()) {
-                log.warn("Mean calculation failed due to empty or invalid data for column: {}",
-                        column.get(0).getAttributeName());
-                return;
+    public void normalize(final ColumnarBatch batch) {
+        for (int column = 0; column < batch.getColumnCount(); column++) {
+            ColumnSchema schema = batch.getSchema().get(column);
+            ColumnVector vector = batch.getVectors().get(column);
+            if (vector instanceof NumericColumnVector numeric
+                    && !Objects.equals(schema.getName(), "id")) {
+                normalizeColumn(schema.getName(), numeric);
             }
-            double meanValue = meanOpt.getAsDouble();
-            log.info("Mean: {}", meanValue);
+        }
+    }
 
-            OptionalDouble varianceOpt = column.stream()
-                    .filter(attr -> !Objects.equals(attr.getAttributeName(), "id"))
-                    .filter(attr -> attr.getValue() != null)
-                    .mapToDouble(attr -> {
-                        double val = ((Number) attr.getValue()).doubleValue();
-                        return Math.pow(val - meanValue, 2);
-                    }).average();
-
-            if (varianceOpt.isEmpty()) {
-                log.warn("Standard deviation calculation failed due to empty or invalid data for column: {}",
-                        column.get(0).getAttributeName());
-                return;
+    private void normalizeColumn(final String columnName,
+                                 final NumericColumnVector column) {
+        ColumnStatistics statistics = new ColumnStatistics();
+        for (int row = 0; row < column.size(); row++) {
+            if (!column.isNull(row)) {
+                statistics.add(column.getAsDouble(row));
             }
-            double variance = varianceOpt.getAsDouble();
-            double stdDev = Math.sqrt(variance);
-            log.info("Standard Deviation: {}", stdDev);
+        }
+        if (statistics.getCount() == 0) {
+            log.warn("Mean calculation failed due to empty or invalid data for column: {}",
+                    columnName);
+            return;
+        }
+        log.debug("Column {}: mean {}, standard deviation {}", columnName,
+                statistics.getMean(), statistics.getStdDev());
 
-            if (stdDev == 0) {
-                log.warn("Standard deviation is zero, normalization not applicable");
-                setNormalizedValueToZero(column, type);
-            } else {
-                column.stream()
-                        .filter(attr -> attr.getValue() != null)
-                        .forEach(attr -> {
-                            double normalizedValue = (((Number) attr.getValue()).doubleValue() - meanValue) / stdDev;
-                            log.info("Original Value: {}, Normalized Value: {}", attr.getValue(), normalizedValue);
-                            setNormalizedValue(attr, normalizedValue, type);
-                        });
+        for (int row = 0; row < column.size(); row++) {
+            if (!column.isNull(row)) {
+                column.setFromDouble(row, zScore(statistics, column.getAsDouble(row)));
             }
-        } else {
-            log.error("Attempted to normalize data for non-numerical type: {}", type);
-            throw new ArithmeticException("Attempt to normalize data for non-numerical type failed");
         }
     }
 
-    private <T> void setNormalizedValueToZero(List<DataAttributes<T>> column, String type) {
-        column.stream()
-                .filter(attr -> attr.getValue() != null)
-                .forEach(attr -> {
-                    try {
-                        T castedValue = castToType(type, 0.0);
-                        attr.setValue(castedValue);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error setting normalized value", e);
-                    }
-                });
+    public void replaceMissingValues(final ColumnarBatch batch) {
+        for (int column = 0; column < batch.getColumnCount(); column++) {
+            ColumnVector vector = batch.getVectors().get(column);
+            if (vector.nullCount() == 0) {
+                continue;
+            }
+            if (vector instanceof NumericColumnVector numeric) {
+                replaceMissingNumericalValues(numeric);
+            } else if (vector instanceof StringColumnVector strings) {
+                replaceMissingCategoricalValues(strings);
+            }
+        }
     }
 
-    private <T> void setNormalizedValue(DataAttributes<T> attr, double normalizedValue, String type) {
-        try {
-            T castedValue = castToType(type, normalizedValue);
-            attr.setValue(castedValue);
-        } catch (Exception e) {
-            throw new RuntimeException("Error setting normalized value", e);
+    private void replaceMissingNumericalValues(final NumericColumnVector column) {
+        int count = 0;
+        double sum = 0;
+        for (int row = 0; row < column.size(); row++) {
+            if (!column.isNull(row)) {
+                sum += column.getAsDouble(row);
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        double average = sum / count;
+        for (int row = 0; row < column.size(); row++) {
+            if (column.isNull(row)) {
+                column.setFromDouble(row, average);
+            }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T castToType(String type, double value) {
-        return switch (type) {
-            case "java.lang.Integer" -> (T) Integer.valueOf((int) value);
-            case "java.lang.Double" -> (T) Double.valueOf(value);
-            case "java.lang.Float" -> (T) Float.valueOf((float) value);
-            case "java.lang.Long" -> (T) Long.valueOf((long) value);
-            case "java.math.BigDecimal" -> (T) BigDecimal.valueOf(value);
-            default -> throw new IllegalArgumentException("Unsupported numerical type: " + type);
-        };
+    private void replaceMissingCategoricalValues(final StringColumnVector column) {
+        int[] counts = new int[column.dictionarySize()];
+        for (int row = 0; row < column.size(); row++) {
+            if (!column.isNull(row)) {
+                counts[column.getCode(row)]++;
+            }
+        }
+        int mostFrequentCode = -1;
+        for (int code = 0; code < counts.length; code++) {
+            if (!column.dictionaryValue(code).isEmpty()
+                    && (mostFrequentCode < 0 || counts[code] > counts[mostFrequentCode])) {
+                mostFrequentCode = code;
+            }
+        }
+        if (mostFrequentCode < 0) {
+            return;
+        }
+        for (int row = 0; row < column.size(); row++) {
+            if (column.isNull(row)) {
+                column.setCode(row, mostFrequentCode);
+            }
+        }
     }
 
     public <T> void encodeCatVariables(List<DataModel<T>> dataModels, Set<String> categoricalAttributes) {
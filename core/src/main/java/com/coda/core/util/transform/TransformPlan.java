@@ -0,0 +1,127 @@
+package com.coda.core.util.transform;
+
+import com.coda.core.exceptions.TransformationException;
+import com.coda.core.util.types.ErrorType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * TransformPlan is the compiled transformation of one column.
+ * <p>The strategy, the target class and, for dates, the
+ * DateTimeFormatter are resolved once when the plan is compiled,
+ * so transforming a cell is a single call on a known strategy
+ * instead of a map lookup and a Class.forName.
+ * </p>
+ * <p>Plans are immutable and can be shared between threads.
+ * </p>
+ * @see DataTransformation#compilePlan(String, String)
+ */
+@Slf4j
+@Getter
+public final class TransformPlan {
+
+    /**
+     * The declared type of the column.
+     */
+    private final String type;
+
+    /**
+     * The format of the column, or null.
+     */
+    private final String format;
+
+    /**
+     * The strategy transforming the values.
+     */
+    private final TransformValue strategy;
+
+    /**
+     * The class the values are transformed to.
+     */
+    private final Class<?> targetClass;
+
+    /**
+     * The parsed date format, only set for LocalDateTime columns with a format.
+     */
+    private final DateTimeFormatter dateTimeFormatter;
+
+    /**
+     * Constructor for TransformPlan.
+     * @param columnType the declared type of the column.
+     * @param columnFormat the format of the column.
+     * @param transformValue the strategy transforming the values.
+     * @param clazz the class the values are transformed to.
+     */
+    TransformPlan(final String columnType, final String columnFormat,
+                  final TransformValue transformValue, final Class<?> clazz) {
+        this.type = columnType;
+        this.format = columnFormat;
+        this.strategy = transformValue;
+        this.targetClass = clazz;
+        this.dateTimeFormatter = LocalDateTime.class.equals(clazz)
+                && columnFormat != null && !columnFormat.isEmpty()
+                ? DateTimeFormatter.ofPattern(columnFormat) : null;
+    }
+
+    /**
+     * Checks whether the plan was compiled for a type and format.
+     * @param columnType the declared type.
+     * @param columnFormat the format.
+     * @return true if the plan can transform values of that type and format.
+     */
+    public boolean matches(final String columnType, final String columnFormat) {
+        return Objects.equals(type, columnType) && Objects.equals(format, columnFormat);
+    }
+
+    /**
+     * Transforms one value of the column.
+     * @param value the value, neither null nor empty.
+     * @param attributeName the name of the attribute, for error messages.
+     * @param <T> the type of the transformed value.
+     * @return the transformed value, or null if the strategy gave none.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T apply(final Object value, final String attributeName) {
+        if (value == null || (value instanceof String && ((String) value).isEmpty())) {
+            throw new TransformationException("Transformation failed, value is null or empty",
+                    ErrorType.TRANSFORMATION_FAILED);
+        }
+
+        if (targetClass != Object.class && targetClass.isInstance(value)) {
+            // Already parsed, i.e. by a typed CSV column.
+            return (T) value;
+        }
+        try {
+            if (dateTimeFormatter != null) {
+                return (T) parseDateTime(value.toString());
+            }
+            Optional<?> transformedValue = strategy.transformValue(value.toString(),
+                    targetClass, format);
+            return (T) transformedValue.orElse(null);
+        } catch (Exception e) {
+            log.error("Transformation failed for attribute '{}', type '{}': {}",
+                    attributeName, type, e.getMessage(), e);
+            throw new TransformationException("Error: " + e + " Cause: " + e.getCause(),
+                    ErrorType.TRANSFORMATION_FAILED);
+        }
+    }
+
+    private LocalDateTime parseDateTime(final String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(trimmed, dateTimeFormatter);
+        } catch (DateTimeParseException e) {
+            log.error("Error parsing LocalDateTime from value: {}", value, e);
+            return null;
+        }
+    }
+}
@@ -170,5 +170,18 @@ public enum ErrorType {
      */
     UNKNOWN_ATTRIBUTE_TYPE, DATA_LOADING_EXCEPTION, INVALID_CONNECTION_DETAILS, ETL_PROCESS_FAILED,
 
+    /**
+     * ETL_JOB_NOT_FOUND.
+     * Identify when no ETL job has the given id.
+     */
+    ETL_JOB_NOT_FOUND,
+
+    /**
+     * ETL_JOB_REJECTED.
+     * Identify when an ETL job is refused because
+     * the job queue is full; retry after a delay.
+     */
+    ETL_JOB_REJECTED,
+
 }
 
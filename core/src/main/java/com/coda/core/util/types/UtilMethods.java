@@ -1,9 +1,21 @@
 package com.coda.core.util.types;
 
+import com.coda.core.batch.columnar.BooleanColumnVector;
+import com.coda.core.batch.columnar.ColumnVector;
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.columnar.DoubleColumnVector;
+import com.coda.core.batch.columnar.IntColumnVector;
+import com.coda.core.batch.columnar.LongColumnVector;
+import com.coda.core.batch.columnar.StringColumnVector;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
 import com.coda.core.exceptions.DataLoadingException;
+import com.coda.core.util.db.BulkLoadStrategy;
+import com.coda.core.util.db.BulkLoader;
 import com.coda.core.util.db.ConnectionFactory;
+import com.coda.core.util.db.LoadStatistics;
+import com.coda.core.util.db.TableSchema;
+import com.coda.core.util.db.TableSchemaCache;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
 
@@ -25,24 +37,27 @@ public final class UtilMethods {
         }
     }
 
-    public static boolean doesTableExist(ConnectionFactory connectionFactory, String tableName) {
-        String query = "SELECT COUNT(*) FROM information_schema.tables "
-                + "WHERE table_schema = DATABASE() AND table_name = ?";
-        try (Connection conn = connectionFactory.dataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, tableName);
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next() && rs.getInt(1) > 0;
-            }
-        } catch (SQLException e) {
-            log.error("Error checking table existence", e);
-            return false;
+    public static void validateColumnName(String columnName) {
+        if (!isTableNameValid(columnName)) {
+            throw new IllegalArgumentException("Invalid column name");
         }
     }
 
+    public static boolean doesTableExist(ConnectionFactory connectionFactory, String tableName) {
+        return TableSchemaCache.get(connectionFactory, tableName).isExists();
+    }
+
     public static void insertDataModels(ConnectionFactory connectionFactory,
                                         String tableName,
                                         List<DataModel<Object>> dataModels) {
+        insertDataModels(connectionFactory, tableName, dataModels,
+                new BulkLoader(BulkLoadStrategy.BATCHED, 0));
+    }
+
+    public static LoadStatistics insertDataModels(ConnectionFactory connectionFactory,
+                                                  String tableName,
+                                                  List<DataModel<Object>> dataModels,
+                                                  BulkLoader bulkLoader) {
         tableName = sanitizeTableName(tableName);
         Set<String> columns = extractColumns(dataModels, true);
         log.info("Extracted columns: {}", columns);
@@ -62,40 +77,86 @@ public final class UtilMethods {
         }
 
         log.info("Final existing columns: {}", existingColumns);
-        String insertSQL = buildInsertSQL(dataModels.get(0), tableName, columns);
-        log.info("Executing SQL: {}", insertSQL);
+        List<String> columnList = columns.stream()
+                .map(UtilMethods::sanitizeColumnName).toList();
+        return bulkLoader.load(connectionFactory, tableName, columnList,
+                new DataModelRows(dataModels, new ArrayList<>(columns)));
+    }
 
-        try (Connection connection = connectionFactory.dataSource().getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(insertSQL)) {
-            for (DataModel<Object> model : dataModels) {
-                log.info("DataModel: {}", model.getAttributesMap());
-                setupPreparedStatement(preparedStatement, model.getAttributesMap(), columns);
-                preparedStatement.addBatch();
+    public static void insertColumnarBatch(ConnectionFactory connectionFactory,
+                                           String tableName,
+                                           ColumnarBatch batch) {
+        insertColumnarBatch(connectionFactory, tableName, batch,
+                new BulkLoader(BulkLoadStrategy.BATCHED, 0));
+    }
+
+    public static LoadStatistics insertColumnarBatch(ConnectionFactory connectionFactory,
+                                                     String tableName,
+                                                     ColumnarBatch batch,
+                                                     BulkLoader bulkLoader) {
+        tableName = sanitizeTableName(tableName);
+        Map<String, DataAttributes<Object>> sampleAttributes = batch.sampleAttributes();
+
+        if (!doesTableExist(connectionFactory, tableName)) {
+            createTable(connectionFactory, tableName, sampleAttributes);
+        } else {
+            updateTableWithNewColumns(connectionFactory, tableName, sampleAttributes);
+        }
+        adjustExistingColumns(connectionFactory, tableName);
+
+        Set<String> columns = new LinkedHashSet<>();
+        List<ColumnVector> vectors = new ArrayList<>();
+        for (int column = 0; column < batch.getColumnCount(); column++) {
+            if (columns.add(sanitizeKey(batch.getSchema().get(column).getName()))) {
+                vectors.add(batch.getVectors().get(column));
             }
-            preparedStatement.executeBatch();
-        } catch (SQLException e) {
-            log.error("Error while loading data into database", e);
-            throw new DataLoadingException("Error while loading data into database: "
-                    + e, ErrorType.DATA_LOADING_EXCEPTION);
         }
+        List<String> columnList = columns.stream()
+                .map(UtilMethods::sanitizeColumnName).toList();
+        log.info("Loading {} rows into {} columns {}", batch.getRowCount(), tableName, columnList);
+        return bulkLoader.load(connectionFactory, tableName, columnList,
+                new ColumnarRows(vectors, batch.getRowCount()));
     }
 
-
+    private static void bindColumnValue(PreparedStatement stmt, int index,
+                                        ColumnVector vector, int row) throws SQLException {
+        if (vector.isNull(row)) {
+            stmt.setNull(index, Types.NULL);
+            return;
+        }
+        switch (vector.type()) {
+            case INT -> stmt.setInt(index, ((IntColumnVector) vector).getInt(row));
+            case LONG -> stmt.setLong(index, ((LongColumnVector) vector).getLong(row));
+            case DOUBLE -> stmt.setDouble(index, ((DoubleColumnVector) vector).getDouble(row));
+            case BOOLEAN -> stmt.setBoolean(index, ((BooleanColumnVector) vector).getBoolean(row));
+            case STRING -> stmt.setString(index, ((StringColumnVector) vector).getString(row));
+            default -> stmt.setObject(index, vector.getObject(row));
+        }
+    }
 
     private static void adjustExistingColumns(ConnectionFactory connectionFactory, String tableName) {
-        Set<String> existingColumns = getExistingColumns(connectionFactory, tableName);
-        for (String column : existingColumns) {
+        TableSchema schema = TableSchemaCache.get(connectionFactory, tableName);
+        boolean altered = false;
+        for (String column : schema.getColumnNames()) {
+            String sqlType = determineSQLTypeForAdjustment(column);
+            if (schema.hasColumnType(column, sqlType)) {
+                continue;
+            }
             String alterColumnSQL = String.format("ALTER TABLE `%s` MODIFY COLUMN `%s` %s;", tableName,
-                    sanitizeColumnName(column), determineSQLTypeForAdjustment(column));
+                    sanitizeColumnName(column), sqlType);
             log.info("Adjusting column: {} to appropriate type using SQL: {}", column, alterColumnSQL);
             try (Connection connection = connectionFactory.dataSource().getConnection();
                  Statement statement = connection.createStatement()) {
                 statement.executeUpdate(alterColumnSQL);
+                altered = true;
                 log.info("Adjusted column: {}", column);
             } catch (SQLException e) {
                 log.error("Failed to adjust column: {}", column, e);
             }
         }
+        if (altered) {
+            TableSchemaCache.invalidate(connectionFactory, tableName);
+        }
     }
 
     private static String determineSQLTypeForAdjustment(String column) {
@@ -150,48 +211,27 @@ public final class UtilMethods {
 
         String alterTableSQL = String.format("ALTER TABLE `%s` ADD COLUMN `%s` %s;", tableName, sanitizedColumnName, columnType);
         log.info("Adding column with SQL: {}", alterTableSQL);
-        executeSqlUpdate(connectionFactory, alterTableSQL);
+        executeDdl(connectionFactory, tableName, alterTableSQL);
     }
 
 
     private static boolean doesColumnExist(ConnectionFactory connectionFactory,
                                            String tableName, String columnName) {
-        String query = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA "
-                + "= DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
-        try (Connection conn = connectionFactory.dataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, tableName);
-            stmt.setString(2, columnName);
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next() && rs.getInt(1) > 0;
-            }
-        } catch (SQLException e) {
-            log.error("Error checking column existence", e);
-        }
-        return false;
+        return TableSchemaCache.get(connectionFactory, tableName).hasColumn(columnName);
     }
 
     private static boolean canAddColumnWithType(ConnectionFactory connectionFactory, String tableName, String columnType) {
         int maxRowSize = 65535;
         int newColumnLength = columnType.startsWith("VARCHAR") ? Integer.parseInt(columnType.replaceAll("[^0-9]", "")) : 255;
-
-        String query = String.format("SELECT SUM(CHARACTER_MAXIMUM_LENGTH) AS total_length FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = '%s'", tableName);
-        try (Connection connection = connectionFactory.dataSource().getConnection();
-             Statement statement = connection.createStatement();
-             ResultSet rs = statement.executeQuery(query)) {
-            if (rs.next()) {
-                int totalLength = rs.getInt("total_length");
-                return (totalLength + newColumnLength) <= maxRowSize;
-            }
-        } catch (SQLException e) {
-            log.error("Error checking row size", e);
-            throw new DataLoadingException("Error while checking row size: " + e, ErrorType.DATA_LOADING_EXCEPTION);
-        }
-        return false;
+        long totalLength = TableSchemaCache.get(connectionFactory, tableName).getCharacterLength();
+        return (totalLength + newColumnLength) <= maxRowSize;
     }
 
     private static void setRowFormatToDynamic(ConnectionFactory connectionFactory,
                                               String tableName) {
+        if ("Dynamic".equalsIgnoreCase(TableSchemaCache.get(connectionFactory, tableName).getRowFormat())) {
+            return;
+        }
         String setRowFormatSQL = String.format("ALTER TABLE `%s` ROW_FORMAT=DYNAMIC;", tableName);
         log.info("Setting ROW_FORMAT to DYNAMIC using SQL: {}", setRowFormatSQL);
 
@@ -202,6 +242,8 @@ public final class UtilMethods {
         } catch (SQLException e) {
             log.error("Failed to set ROW_FORMAT to DYNAMIC for table: {}", tableName, e);
             throw new DataLoadingException("Error while setting ROW_FORMAT to DYNAMIC for table: " + tableName, ErrorType.DATA_LOADING_EXCEPTION);
+        } finally {
+            TableSchemaCache.invalidate(connectionFactory, tableName);
         }
     }
 
@@ -215,25 +257,14 @@ public final class UtilMethods {
     }
 
     private static boolean isRowSizeTooLarge(ConnectionFactory connectionFactory, String tableName, String newColumnType) {
-        String query = String.format("SELECT SUM(CHARACTER_MAXIMUM_LENGTH) AS total_length FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = '%s'", tableName);
-        try (Connection connection = connectionFactory.dataSource().getConnection();
-             Statement statement = connection.createStatement();
-             ResultSet rs = statement.executeQuery(query)) {
-            if (rs.next()) {
-                int totalLength = rs.getInt("total_length");
-                log.info("Total length of columns in table {}: {}", tableName, totalLength);
-                int maxRowSize = 65535;
-                int newColumnLength = 255;
-                if (newColumnType.startsWith("VARCHAR")) {
-                    newColumnLength = Integer.parseInt(newColumnType.replaceAll("[^0-9]", ""));
-                }
-                return (totalLength + newColumnLength) > maxRowSize;
-            }
-        } catch (SQLException e) {
-            log.error("Error checking row size", e);
-            throw new DataLoadingException("Error while checking row size: " + e, ErrorType.DATA_LOADING_EXCEPTION);
+        long totalLength = TableSchemaCache.get(connectionFactory, tableName).getCharacterLength();
+        log.info("Total length of columns in table {}: {}", tableName, totalLength);
+        int maxRowSize = 65535;
+        int newColumnLength = 255;
+        if (newColumnType.startsWith("VARCHAR")) {
+            newColumnLength = Integer.parseInt(newColumnType.replaceAll("[^0-9]", ""));
         }
-        return false;
+        return (totalLength + newColumnLength) > maxRowSize;
     }
 
     private static String determineSQLType(List<DataModel<Object>> dataModels, String columnName) {
@@ -264,7 +295,7 @@ public final class UtilMethods {
                 String alterTableSQL = String.format("ALTER TABLE `%s` ADD COLUMN `%s` %s;",
                         tableName, columnName, sqlType);
                 log.info("Adding new column with SQL: {}", alterTableSQL);
-                executeSqlUpdate(connectionFactory, alterTableSQL);
+                executeDdl(connectionFactory, tableName, alterTableSQL);
             } else {
                 log.info("Column {} already exists in table {}, skipping addition.", columnName, tableName);
             }
@@ -301,7 +332,7 @@ public final class UtilMethods {
 
             createTableSQL.append(");");
             log.info("Creating table with SQL: {}", createTableSQL.toString());
-            executeSqlUpdate(connectionFactory, createTableSQL.toString());
+            executeDdl(connectionFactory, tableName, createTableSQL.toString());
         } else {
             log.info("Table {} already exists, skipping creation.", tableName);
         }
@@ -336,32 +367,6 @@ public final class UtilMethods {
         }
     }
 
-    private static void setupPreparedStatement(PreparedStatement stmt,
-                                               Map<String, DataAttributes<Object>> attributes,
-                                               Set<String> columns) throws SQLException {
-        int index = 1;
-
-        Map<String, Object> combinedAttributes = new HashMap<>();
-        attributes.forEach((column, attr) -> {
-            if (attr != null && attr.getValue() != null) {
-                combinedAttributes.put(column, attr.getValue());
-            }
-            assert attr != null;
-            if (attr.getEncodedValues() != null) {
-                combinedAttributes.putAll(attr.getEncodedValues());
-            }
-        });
-
-        for (String column : columns) {
-            Object value = combinedAttributes.get(column);
-            if (value != null) {
-                stmt.setObject(index++, value);
-            } else {
-                stmt.setNull(index++, Types.NULL);
-            }
-        }
-    }
-
     private static Set<String> extractColumns(List<DataModel<Object>> dataModels,
                                               boolean includeEncoded) {
         Set<String> columns = new HashSet<>();
@@ -378,20 +383,14 @@ public final class UtilMethods {
     }
 
     private static Set<String> getExistingColumns(ConnectionFactory connectionFactory, String tableName) {
-        String query = "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ?";
-        try (Connection connection = connectionFactory.dataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, tableName);
-            try (ResultSet rs = stmt.executeQuery()) {
-                Set<String> columns = new HashSet<>();
-                while (rs.next()) {
-                    columns.add(rs.getString("COLUMN_NAME"));
-                }
-                return columns;
-            }
-        } catch (SQLException e) {
-            log.error("Error retrieving existing columns", e);
-            return Collections.emptySet();
+        return TableSchemaCache.get(connectionFactory, tableName).getColumnNames();
+    }
+
+    private static void executeDdl(ConnectionFactory connectionFactory, String tableName, String sql) {
+        try {
+            executeSqlUpdate(connectionFactory, sql);
+        } finally {
+            TableSchemaCache.invalidate(connectionFactory, tableName);
         }
     }
 
@@ -432,30 +431,6 @@ public final class UtilMethods {
         return "TEXT";
     }
 
-    private static String buildInsertSQL(DataModel<Object> dataModel, String tableName, Set<String> columns) {
-        String columnList = columns.stream()
-                .map(UtilMethods::sanitizeColumnName)
-                .collect(Collectors.joining("`, `", "`", "`"));
-        String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
-
-        StringBuilder query = new StringBuilder("INSERT INTO ");
-        query.append(tableName)
-                .append(" (")
-                .append(columnList)
-                .append(") VALUES (")
-                .append(placeholders)
-                .append(") ON DUPLICATE KEY UPDATE ");
-
-        String updateClause = columns.stream()
-                .map(column -> "`" + sanitizeColumnName(column)
-                        + "`=VALUES(`"
-                        + sanitizeColumnName(column) + "`)")
-                .collect(Collectors.joining(", "));
-
-        query.append(updateClause);
-        return query.toString();
-    }
-
     private static boolean isTableNameValid(String tableName) {
         if (tableName == null || tableName.trim().isEmpty()) {
             return false;
@@ -463,4 +438,80 @@ public final class UtilMethods {
         String regex = "^[a-zA-Z0-9_]+$";
         return tableName.matches(regex);
     }
+
+    /**
+     * The rows of data models, with the encoded values of each attribute
+     * loaded as columns of their own.
+     */
+    private static final class DataModelRows implements BulkLoader.Rows {
+
+        private final List<DataModel<Object>> dataModels;
+
+        private final List<String> columns;
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        private int currentRow = -1;
+
+        DataModelRows(List<DataModel<Object>> models, List<String> columnNames) {
+            this.dataModels = models;
+            this.columns = columnNames;
+        }
+
+        @Override
+        public int size() {
+            return dataModels.size();
+        }
+
+        @Override
+        public Object value(int row, int column) {
+            if (row != currentRow) {
+                values.clear();
+                dataModels.get(row).getAttributesMap().forEach((key, attr) -> {
+                    if (attr == null) {
+                        return;
+                    }
+                    if (attr.getValue() != null) {
+                        values.put(key, attr.getValue());
+                    }
+                    if (attr.getEncodedValues() != null) {
+                        values.putAll(attr.getEncodedValues());
+                    }
+                });
+                currentRow = row;
+            }
+            return values.get(columns.get(column));
+        }
+    }
+
+    /**
+     * The rows of a columnar batch, bound with the typed setters.
+     */
+    private static final class ColumnarRows implements BulkLoader.Rows {
+
+        private final List<ColumnVector> vectors;
+
+        private final int rowCount;
+
+        ColumnarRows(List<ColumnVector> columnVectors, int rows) {
+            this.vectors = columnVectors;
+            this.rowCount = rows;
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+
+        @Override
+        public Object value(int row, int column) {
+            return vectors.get(column).getObject(row);
+        }
+
+        @Override
+        public void bind(PreparedStatement statement, int index, int row, int column)
+                throws SQLException {
+            bindColumnValue(statement, index, vectors.get(column), row);
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package com.coda.core.batch.columnar;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarBatchTest {
+
+    @Test
+    public void testFromDataModels_TypedVectors() {
+        List<DataModel<Object>> dataModels = List.of(
+                row(1, "Engineering", 1.5, true, new BigDecimal("10.00")),
+                row(2, "Sales", null, false, new BigDecimal("20.00")),
+                row(3, "Engineering", 3.5, null, null));
+
+        ColumnarBatch batch = ColumnarBatch.fromDataModels(dataModels);
+
+        assertEquals(3, batch.getRowCount());
+        assertEquals(5, batch.getColumnCount());
+        assertEquals(ColumnType.INT, batch.column("id").type());
+        assertEquals(ColumnType.STRING, batch.column("department").type());
+        assertEquals(ColumnType.DOUBLE, batch.column("score").type());
+        assertEquals(ColumnType.BOOLEAN, batch.column("active").type());
+        assertEquals(ColumnType.OBJECT, batch.column("salary").type());
+
+        IntColumnVector ids = (IntColumnVector) batch.column("id");
+        assertEquals(3, ids.getInt(2));
+
+        StringColumnVector departments = (StringColumnVector) batch.column("department");
+        assertEquals(2, departments.dictionarySize());
+        assertEquals(departments.getCode(0), departments.getCode(2));
+        assertEquals("Sales", departments.getString(1));
+
+        assertTrue(batch.column("score").isNull(1));
+        assertEquals(1, batch.column("score").nullCount());
+        assertFalse(((BooleanColumnVector) batch.column("active")).getBoolean(1));
+        assertTrue(batch.column("active").isNull(2));
+    }
+
+    @Test
+    public void testFromDataModels_WidensMixedNumbers() {
+        List<DataModel<Object>> dataModels = new ArrayList<>();
+        dataModels.add(model(Map.of("value", 1)));
+        dataModels.add(model(Map.of("value", 2.5)));
+        dataModels.add(model(Map.of("other", "x")));
+
+        ColumnarBatch batch = ColumnarBatch.fromDataModels(dataModels);
+
+        DoubleColumnVector values = (DoubleColumnVector) batch.column("value");
+        assertEquals(1.0, values.getDouble(0));
+        assertEquals(2.5, values.getDouble(1));
+        assertTrue(values.isNull(2));
+        assertTrue(batch.column("other").isNull(0));
+    }
+
+    @Test
+    public void testToDataModels_RoundTrip() {
+        List<DataModel<Object>> dataModels = List.of(
+                row(1, "Engineering", 1.5, true, new BigDecimal("10.00")),
+                row(2, null, 2.5, false, null));
+
+        List<DataModel<Object>> result = ColumnarBatch.fromDataModels(dataModels).toDataModels();
+
+        assertEquals(2, result.size());
+        assertEquals(dataModels.get(1).getId(), result.get(1).getId());
+        assertEquals("Engineering", result.get(0).getAttributesMap().get("department").getValue());
+        assertNull(result.get(1).getAttributesMap().get("department").getValue());
+        assertEquals(new BigDecimal("10.00"), result.get(0).getAttributesMap().get("salary").getValue());
+        assertEquals("java.lang.Double", result.get(0).getAttributesMap().get("score").getType());
+    }
+
+    @Test
+    public void testVectorGrowsBeyondInitialCapacity() {
+        LongColumnVector vector = new LongColumnVector(1);
+        for (int i = 0; i < 200; i++) {
+            if (i % 3 == 0) {
+                vector.appendNull();
+            } else {
+                vector.appendLong(i);
+            }
+        }
+
+        assertEquals(200, vector.size());
+        assertEquals(67, vector.nullCount());
+        assertEquals(199L, vector.getLong(199));
+        assertTrue(vector.isNull(198));
+    }
+
+    @Test
+    public void testColumn_Unknown() {
+        ColumnarBatch batch = ColumnarBatch.fromDataModels(List.of(row(1, "a", 1.0, true, null)));
+
+        assertEquals(-1, batch.indexOf("missing"));
+        assertThrows(IllegalArgumentException.class, () -> batch.column("missing"));
+    }
+
+    private DataModel<Object> row(final Integer id, final String department,
+                                  final Double score, final Boolean active,
+                                  final BigDecimal salary) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("department", department);
+        values.put("score", score);
+        values.put("active", active);
+        values.put("salary", salary);
+        return model(values);
+    }
+
+    private DataModel<Object> model(final Map<String, Object> values) {
+        Map<String, DataAttributes<Object>> attributes = new HashMap<>();
+        values.forEach((name, value) -> attributes.put(name, new DataAttributes<>(name, value,
+                value != null ? value.getClass().getName() : "java.lang.Object", Object.class)));
+        return new DataModel<>(new ObjectId(), attributes);
+    }
+}
@@ -0,0 +1,83 @@
+package com.coda.core.batch.job;
+
+import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.repository.DataModelRepository;
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.transform.ColumnProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.Chunk;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class DataModelItemWriterTest {
+
+    @Mock
+    private DatabaseExtractor databaseExtractor;
+
+    @Mock
+    private DataModelProcessor dataModelProcessor;
+
+    @Mock
+    private DataModelRepository dataModelRepository;
+
+    @Test
+    public void testWrite_NormalizesUpsertsAndSavesTheChunkOnce() throws Exception {
+        DataModel<Object> first = row(1);
+        DataModel<Object> second = row(2);
+        ColumnProfile profile = new ColumnProfile(Set.of("id")).freeze();
+        DataModelItemWriter writer = new DataModelItemWriter(databaseExtractor,
+                "target", "id", dataModelProcessor, dataModelRepository, profile);
+
+        writer.write(new Chunk<>(first, second));
+
+        InOrder order = inOrder(dataModelProcessor, databaseExtractor, dataModelRepository);
+        order.verify(dataModelProcessor).normalizeDataModels(List.of(first, second), profile);
+        order.verify(databaseExtractor).loadData(List.of(first, second), "target", "id");
+        order.verify(dataModelRepository).saveAll(List.of(first, second));
+        verify(databaseExtractor, never()).loadData(anyList(), anyString());
+    }
+
+    @Test
+    public void testWrite_SkipsEmptyChunks() throws Exception {
+        DataModelItemWriter writer = new DataModelItemWriter(databaseExtractor,
+                "target", "id", dataModelProcessor, dataModelRepository,
+                new ColumnProfile().freeze());
+
+        writer.write(new Chunk<>());
+
+        verify(databaseExtractor, never()).loadData(anyList(), any(), any());
+        verifyNoInteractions(dataModelRepository);
+    }
+
+    @Test
+    public void testConstructor_RejectsProfileStillChanging() {
+        assertThrows(IllegalArgumentException.class, () -> new DataModelItemWriter(
+                databaseExtractor, "target", "id", dataModelProcessor,
+                dataModelRepository, new ColumnProfile()));
+    }
+
+    private static DataModel<Object> row(final int id) {
+        DataModel<Object> dataModel = new DataModel<>();
+        dataModel.setAttributesMap(Map.of("id",
+                new DataAttributes<>("id", id, "java.lang.Integer", Object.class)));
+        return dataModel;
+    }
+}
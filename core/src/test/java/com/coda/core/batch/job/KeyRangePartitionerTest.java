@@ -0,0 +1,102 @@
+package com.coda.core.batch.job;
+
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.db.KeyRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class KeyRangePartitionerTest {
+
+    @Mock
+    private DatabaseExtractor databaseExtractor;
+
+    @Test
+    public void testPartition_SplitsTheKeyRangeEvenly() {
+        when(databaseExtractor.findKeyRange("orders", "id")).thenReturn(new KeyRange(1, 100));
+
+        Map<String, ExecutionContext> partitions
+                = new KeyRangePartitioner(databaseExtractor, "orders", "id").partition(4);
+
+        assertEquals(List.of("partition0", "partition1", "partition2", "partition3"),
+                List.copyOf(partitions.keySet()));
+        assertBounds(partitions.get("partition0"), null, 25L);
+        assertBounds(partitions.get("partition1"), 25L, 50L);
+        assertBounds(partitions.get("partition2"), 50L, 75L);
+        assertBounds(partitions.get("partition3"), 75L, null);
+    }
+
+    @Test
+    public void testPartition_NoMorePartitionsThanKeys() {
+        when(databaseExtractor.findKeyRange("orders", "id"))
+                .thenReturn(new KeyRange(BigInteger.valueOf(7), BigInteger.valueOf(8)));
+
+        Map<String, ExecutionContext> partitions
+                = new KeyRangePartitioner(databaseExtractor, "orders", "id").partition(4);
+
+        assertEquals(2, partitions.size());
+        assertBounds(partitions.get("partition0"), null, 7L);
+        assertBounds(partitions.get("partition1"), 7L, null);
+    }
+
+    @Test
+    public void testPartition_EmptyTableIsOnePartition() {
+        when(databaseExtractor.findKeyRange("orders", "id")).thenReturn(new KeyRange(null, null));
+
+        Map<String, ExecutionContext> partitions
+                = new KeyRangePartitioner(databaseExtractor, "orders", "id").partition(4);
+
+        assertEquals(1, partitions.size());
+        assertBounds(partitions.get("partition0"), null, null);
+    }
+
+    @Test
+    public void testPartition_NonIntegerKeyIsOnePartition() {
+        when(databaseExtractor.findKeyRange("orders", "code")).thenReturn(new KeyRange("a", "z"));
+
+        Map<String, ExecutionContext> partitions
+                = new KeyRangePartitioner(databaseExtractor, "orders", "code").partition(4);
+
+        assertEquals(1, partitions.size());
+        assertTrue(partitions.get("partition0").isEmpty());
+    }
+
+    @Test
+    public void testPartition_WholeLongRangeDoesNotOverflow() {
+        when(databaseExtractor.findKeyRange("orders", "id"))
+                .thenReturn(new KeyRange(Long.MIN_VALUE, Long.MAX_VALUE));
+
+        Map<String, ExecutionContext> partitions
+                = new KeyRangePartitioner(databaseExtractor, "orders", "id").partition(2);
+
+        assertBounds(partitions.get("partition0"), null, -1L);
+        assertBounds(partitions.get("partition1"), -1L, null);
+    }
+
+    private static void assertBounds(final ExecutionContext context,
+                                     final Long lower, final Long upper) {
+        if (lower == null) {
+            assertFalse(context.containsKey(KeyRangePartitioner.LOWER_KEY));
+        } else {
+            assertEquals(lower, context.get(KeyRangePartitioner.LOWER_KEY));
+        }
+        if (upper == null) {
+            assertNull(context.get(KeyRangePartitioner.UPPER_KEY));
+        } else {
+            assertEquals(upper, context.get(KeyRangePartitioner.UPPER_KEY));
+        }
+    }
+}
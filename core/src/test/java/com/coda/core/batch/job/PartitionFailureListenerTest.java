@@ -0,0 +1,59 @@
+package com.coda.core.batch.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionFailureListenerTest {
+
+    private final PartitionFailureListener listener = new PartitionFailureListener();
+
+    private StepExecution manager;
+
+    private StepExecution failed;
+
+    private StepExecution running;
+
+    private StepExecution completed;
+
+    @BeforeEach
+    public void setUp() {
+        JobExecution jobExecution = new JobExecution(1L);
+        manager = started(jobExecution.createStepExecution("tableEtlStep"));
+        failed = jobExecution.createStepExecution("tableEtlWorkerStep:partition0");
+        running = started(jobExecution.createStepExecution("tableEtlWorkerStep:partition1"));
+        completed = jobExecution.createStepExecution("tableEtlWorkerStep:partition2");
+        completed.setStatus(BatchStatus.COMPLETED);
+    }
+
+    @Test
+    public void testAfterStep_StopsRunningSiblingsOfFailedPartition() {
+        failed.setStatus(BatchStatus.FAILED);
+
+        listener.afterStep(failed);
+
+        assertTrue(running.isTerminateOnly());
+        assertFalse(completed.isTerminateOnly());
+        assertFalse(manager.isTerminateOnly());
+        assertFalse(failed.isTerminateOnly());
+    }
+
+    @Test
+    public void testAfterStep_LeavesSiblingsOfCompletedPartition() {
+        failed.setStatus(BatchStatus.COMPLETED);
+
+        listener.afterStep(failed);
+
+        assertFalse(running.isTerminateOnly());
+    }
+
+    private static StepExecution started(final StepExecution stepExecution) {
+        stepExecution.setStatus(BatchStatus.STARTED);
+        return stepExecution;
+    }
+}
@@ -0,0 +1,90 @@
+package com.coda.core.batch.job;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.db.KeysetQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TableItemReaderTest {
+
+    @Mock
+    private DatabaseExtractor databaseExtractor;
+
+    @Test
+    public void testRead_PagesThroughTheRange() throws Exception {
+        when(databaseExtractor.readData(any(KeysetQuery.class)))
+                .thenReturn(List.of(row(11), row(12)), List.of(row(13)));
+        TableItemReader reader = new TableItemReader(databaseExtractor,
+                "orders", "id", 10L, 20L, 2);
+        reader.open(new ExecutionContext());
+
+        assertEquals(11, reader.read().getAttributesMap().get("id").getValue());
+        assertEquals(12, reader.read().getAttributesMap().get("id").getValue());
+        assertEquals(13, reader.read().getAttributesMap().get("id").getValue());
+        assertNull(reader.read());
+
+        ArgumentCaptor<KeysetQuery> queries = ArgumentCaptor.forClass(KeysetQuery.class);
+        verify(databaseExtractor, times(2)).readData(queries.capture());
+        assertEquals(10L, queries.getAllValues().get(0).getLastKey());
+        assertEquals(20L, queries.getAllValues().get(0).getUpperKey());
+        assertEquals(12, queries.getAllValues().get(1).getLastKey());
+    }
+
+    @Test
+    public void testUpdate_SavesTheLastKeyHandedOver() throws Exception {
+        when(databaseExtractor.readData(any(KeysetQuery.class)))
+                .thenReturn(List.of(row(1), row(2), row(3)));
+        TableItemReader reader = new TableItemReader(databaseExtractor,
+                "orders", "id", null, null, 3);
+        reader.open(new ExecutionContext());
+        reader.read();
+        reader.read();
+
+        ExecutionContext context = new ExecutionContext();
+        reader.update(context);
+
+        // The third row was read ahead but not handed over yet.
+        assertEquals(2, context.get(TableItemReader.LAST_KEY));
+    }
+
+    @Test
+    public void testOpen_ResumesAfterTheSavedKey() throws Exception {
+        when(databaseExtractor.readData(any(KeysetQuery.class))).thenReturn(List.of());
+        ExecutionContext context = new ExecutionContext();
+        context.put(TableItemReader.LAST_KEY, 42);
+        TableItemReader reader = new TableItemReader(databaseExtractor,
+                "orders", "id", 10L, 100L, 5);
+
+        reader.open(context);
+        assertNull(reader.read());
+
+        ArgumentCaptor<KeysetQuery> query = ArgumentCaptor.forClass(KeysetQuery.class);
+        verify(databaseExtractor).readData(query.capture());
+        assertEquals(42, query.getValue().getLastKey());
+        assertEquals(100L, query.getValue().getUpperKey());
+    }
+
+    private static DataModel<Object> row(final int id) {
+        DataModel<Object> dataModel = new DataModel<>();
+        dataModel.setAttributesMap(Map.of("id",
+                new DataAttributes<>("id", id, "java.lang.Integer", Object.class)));
+        return dataModel;
+    }
+}
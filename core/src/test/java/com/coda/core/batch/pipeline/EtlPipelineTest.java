@@ -0,0 +1,148 @@
+package com.coda.core.batch.pipeline;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EtlPipelineTest {
+
+    @Test
+    public void testRun_TransformsAndLoadsEveryBatchInOrder() throws Exception {
+        List<List<DataModel<Object>>> pages = List.of(page(1, 2), page(3), page(4, 5, 6));
+        Iterator<List<DataModel<Object>>> source = pages.iterator();
+        List<Integer> transformed = Collections.synchronizedList(new ArrayList<>());
+        List<List<DataModel<Object>>> loaded = Collections.synchronizedList(new ArrayList<>());
+
+        PipelineStatistics statistics = new EtlPipeline(1).run(
+                () -> source.hasNext() ? source.next() : List.of(),
+                batch -> transformed.add(batch.size()),
+                loaded::add);
+
+        assertEquals(List.of(2, 1, 3), transformed);
+        assertEquals(pages.size(), loaded.size());
+        for (int i = 0; i < pages.size(); i++) {
+            assertSame(pages.get(i), loaded.get(i));
+        }
+        assertEquals(6, statistics.getRows());
+        assertEquals(3, statistics.getStage(EtlPipeline.EXTRACT).getBatches());
+        assertEquals(3, statistics.getStage(EtlPipeline.TRANSFORM).getBatches());
+        assertEquals(3, statistics.getStage(EtlPipeline.LOAD).getBatches());
+    }
+
+    @Test
+    public void testRun_RunsStagesOnVirtualThreadsWhenCalledFromOne() throws Exception {
+        List<Boolean> virtualStages = Collections.synchronizedList(new ArrayList<>());
+        Iterator<List<DataModel<Object>>> source = List.of(page(1), page(2)).iterator();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                new EtlPipeline(1).run(
+                        () -> {
+                            virtualStages.add(Thread.currentThread().isVirtual());
+                            return source.hasNext() ? source.next() : List.of();
+                        },
+                        batch -> virtualStages.add(Thread.currentThread().isVirtual()),
+                        batch -> virtualStages.add(Thread.currentThread().isVirtual()));
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        caller.join(5000);
+
+        assertNull(failure.get());
+        assertEquals(7, virtualStages.size());
+        assertTrue(virtualStages.stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    public void testRun_ExtractsWhileLoading() throws Exception {
+        CountDownLatch thirdPageRequested = new CountDownLatch(1);
+        AtomicInteger pagesRead = new AtomicInteger();
+        List<Boolean> overlapped = new ArrayList<>();
+
+        new EtlPipeline(1).run(
+                () -> {
+                    int index = pagesRead.incrementAndGet();
+                    if (index == 3) {
+                        thirdPageRequested.countDown();
+                    }
+                    return index <= 3 ? page(index) : List.of();
+                },
+                batch -> { },
+                batch -> {
+                    if (overlapped.isEmpty()) {
+                        // The first load waits for the reader to run ahead.
+                        overlapped.add(thirdPageRequested.await(5, TimeUnit.SECONDS));
+                    }
+                });
+
+        assertEquals(List.of(true), overlapped);
+    }
+
+    @Test
+    public void testRun_BoundsTheBatchesReadAhead() throws Exception {
+        AtomicInteger pagesRead = new AtomicInteger();
+        List<Integer> readAhead = new ArrayList<>();
+
+        new EtlPipeline(1).run(
+                () -> pagesRead.incrementAndGet() <= 20 ? page(1) : List.of(),
+                batch -> { },
+                batch -> {
+                    if (readAhead.isEmpty()) {
+                        Thread.sleep(200);
+                        readAhead.add(pagesRead.get());
+                    }
+                });
+
+        // Two queues of one batch, plus one batch in each stage.
+        assertTrue(readAhead.get(0) <= 5, "read ahead " + readAhead.get(0));
+    }
+
+    @Test
+    public void testRun_RethrowsTheFirstFailure() {
+        IllegalStateException failure = new IllegalStateException("Load error");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> new EtlPipeline(2).run(
+                        () -> page(1),
+                        batch -> { },
+                        batch -> {
+                            throw failure;
+                        }));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    public void testConstructor_RejectsEmptyQueues() {
+        assertThrows(IllegalArgumentException.class, () -> new EtlPipeline(0));
+    }
+
+    private static List<DataModel<Object>> page(final int... ids) {
+        List<DataModel<Object>> page = new ArrayList<>();
+        for (int id : ids) {
+            DataModel<Object> dataModel = new DataModel<>();
+            dataModel.setAttributesMap(Map.of("id",
+                    new DataAttributes<>("id", id, "java.lang.Integer", Object.class)));
+            page.add(dataModel);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,139 @@
+package com.coda.core.batch.processor;
+
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.columnar.DoubleColumnVector;
+import com.coda.core.batch.columnar.StringColumnVector;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.util.transform.ColumnProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnProcessorTest {
+
+    private ColumnProcessor columnProcessor;
+
+    @BeforeEach
+    public void setUp() {
+        columnProcessor = new ColumnProcessor();
+    }
+
+    @Test
+    public void testProcess_ZScoresNumericColumns() {
+        List<DataModel<Object>> dataModels = List.of(
+                row(1, 10.0, "HR"), row(2, 20.0, "HR"), row(3, 30.0, "Sales"));
+
+        ColumnProfile profile = columnProcessor.process(dataModels);
+
+        double stdDev = Math.sqrt(200.0 / 3);
+        assertEquals(-10.0 / stdDev, value(dataModels.get(0), "salary"), 1e-9);
+        assertEquals(0.0, value(dataModels.get(1), "salary"), 1e-9);
+        assertEquals(3, value(dataModels.get(2), "id"), 0.0);
+        assertEquals(20.0, profile.get("salary").getMean(), 1e-9);
+    }
+
+    @Test
+    public void testProcess_ImputesMissingValues() {
+        List<DataModel<Object>> dataModels = List.of(
+                row(1, 10.0, "HR"), row(2, null, null), row(3, 30.0, "HR"), row(4, 20.0, "Sales"));
+
+        columnProcessor.process(dataModels);
+
+        assertEquals(0.0, value(dataModels.get(1), "salary"), 1e-9);
+        assertEquals("HR", dataModels.get(1).getAttributesMap().get("department").getValue());
+    }
+
+    @Test
+    public void testProcess_ClampsOutliers() {
+        List<DataModel<Object>> dataModels = new ArrayList<>();
+        for (int i = 1; i <= 9; i++) {
+            dataModels.add(row(i, 10.0 + i, "HR"));
+        }
+        dataModels.add(row(10, 10_000.0, "HR"));
+
+        ColumnProfile profile = columnProcessor.process(dataModels);
+
+        double q3 = profile.get("salary").quantile(0.75);
+        double q1 = profile.get("salary").quantile(0.25);
+        double upperFence = q3 + 1.5 * (q3 - q1);
+        double expected = (upperFence - profile.get("salary").getMean())
+                / profile.get("salary").getStdDev();
+        assertEquals(expected, value(dataModels.get(9), "salary"), 1e-9);
+    }
+
+    @Test
+    public void testProcess_StreamedBatchesShareProfile() {
+        ColumnProfile profile = new ColumnProfile();
+        List<DataModel<Object>> first = List.of(row(1, 10.0, "HR"), row(2, 20.0, "HR"));
+        List<DataModel<Object>> second = List.of(row(3, 30.0, "Sales"), row(4, 40.0, "Sales"));
+
+        columnProcessor.process(first, profile);
+        columnProcessor.process(second, profile);
+
+        assertEquals(4, profile.get("salary").getCount());
+        assertEquals(25.0, profile.get("salary").getMean(), 1e-9);
+        double stdDev = Math.sqrt(125.0);
+        assertEquals(15.0 / stdDev, value(second.get(1), "salary"), 1e-9);
+    }
+
+    @Test
+    public void testProcess_FrozenProfileScalesEveryBatchAlike() {
+        ColumnProfile profile = new ColumnProfile()
+                .update(List.of(row(1, 10.0, "HR"), row(2, 30.0, "HR")))
+                .freeze();
+        List<DataModel<Object>> first = List.of(row(3, 20.0, "HR"));
+        List<DataModel<Object>> second = List.of(row(4, 20.0, "Sales"), row(5, 1000.0, "Sales"));
+
+        columnProcessor.process(first, profile);
+        columnProcessor.process(second, profile);
+
+        assertEquals(2, profile.get("salary").getCount());
+        assertEquals(value(first.get(0), "salary"), value(second.get(0), "salary"), 0.0);
+        assertThrows(IllegalStateException.class, () -> profile.update(first));
+    }
+
+    @Test
+    public void testProcess_LeavesKeyColumnsOfProfileUntouched() {
+        List<DataModel<Object>> dataModels = List.of(
+                row(1, 10.0, "HR"), row(2, 20.0, "HR"), row(3, 30.0, "Sales"));
+
+        columnProcessor.process(dataModels, new ColumnProfile(Set.of("salary")));
+
+        assertEquals(10.0, value(dataModels.get(0), "salary"), 0.0);
+        assertEquals(30.0, value(dataModels.get(2), "salary"), 0.0);
+    }
+
+    @Test
+    public void testProcess_ColumnarBatch() {
+        ColumnarBatch batch = ColumnarBatch.fromDataModels(List.of(
+                row(1, 10.0, "HR"), row(2, null, null), row(3, 30.0, "HR")));
+
+        columnProcessor.process(batch);
+
+        DoubleColumnVector salaries = (DoubleColumnVector) batch.column("salary");
+        assertEquals(-1.0, salaries.getDouble(0), 1e-9);
+        assertEquals(0.0, salaries.getDouble(1), 1e-9);
+        assertEquals("HR", ((StringColumnVector) batch.column("department")).getString(1));
+    }
+
+    private double value(final DataModel<Object> dataModel, final String column) {
+        return ((Number) dataModel.getAttributesMap().get(column).getValue()).doubleValue();
+    }
+
+    private DataModel<Object> row(final Integer id, final Double salary, final String department) {
+        Map<String, DataAttributes<Object>> attributes = new HashMap<>();
+        attributes.put("id", new DataAttributes<>("id", id, "java.lang.Integer", Object.class));
+        attributes.put("salary", new DataAttributes<>("salary", salary, "java.lang.Double", Object.class));
+        attributes.put("department", new DataAttributes<>("department", department,
+                "java.lang.String", Object.class));
+        return new DataModel<>(null, attributes);
+    }
+}
@@ -0,0 +1,176 @@
+package com.coda.core.batch.processor;
+
+import com.coda.core.config.ProcessingProperties;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.exceptions.DataExtractionException;
+import com.coda.core.repository.DataModelRepository;
+import com.coda.core.util.transform.ColumnProfile;
+import com.coda.core.util.transform.DataTransformation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class DataModelProcessorTest {
+
+    private ExecutorService executor;
+
+    private DataModelRepository dataModelRepository;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ForkJoinPool(4);
+        dataModelRepository = mock(DataModelRepository.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testProcessAndSaveDataModels_ParallelMatchesSequential() throws Exception {
+        List<DataModel<Object>> sequentialModels = rows(1000);
+        List<DataModel<Object>> parallelModels = rows(1000);
+
+        ColumnProfile sequentialProfile = new ColumnProfile();
+        new DataModelProcessor(new DataTransformation())
+                .processAndSaveDataModels(sequentialModels, 100, dataModelRepository, sequentialProfile);
+        ColumnProfile parallelProfile = new ColumnProfile();
+        parallelProcessor().processAndSaveDataModels(parallelModels, 100,
+                dataModelRepository, parallelProfile);
+
+        assertEquals(sequentialProfile.get("salary").getMean(),
+                parallelProfile.get("salary").getMean(), 1e-9);
+        assertEquals(sequentialProfile.get("salary").getVariance(),
+                parallelProfile.get("salary").getVariance(), 1e-6);
+        for (int i = 0; i < sequentialModels.size(); i++) {
+            assertEquals((Double) value(sequentialModels.get(i), "salary"),
+                    (Double) value(parallelModels.get(i), "salary"), 1e-9);
+            assertEquals(value(sequentialModels.get(i), "id"), value(parallelModels.get(i), "id"));
+        }
+        verify(dataModelRepository, times(20)).saveAll(anyList());
+    }
+
+    @Test
+    public void testProcessAndSaveDataModels_SaveFailure() {
+        when(dataModelRepository.saveAll(anyList())).thenThrow(new RuntimeException("Mongo down"));
+
+        DataExtractionException exception = assertThrows(DataExtractionException.class,
+                () -> parallelProcessor().processAndSaveDataModels(rows(1000), 100, dataModelRepository));
+
+        assertTrue(exception.getMessage().contains("Mongo down"));
+    }
+
+    @Test
+    public void testProcessAndSaveDataModels_SmallBatchStaysSequential() throws Exception {
+        ExecutorService unused = mock(ExecutorService.class);
+        DataModelProcessor processor = new DataModelProcessor(new DataTransformation(),
+                parallelProperties(), unused);
+
+        processor.processAndSaveDataModels(rows(10), 100, dataModelRepository);
+
+        verifyNoInteractions(unused);
+        verify(dataModelRepository).saveAll(anyList());
+    }
+
+    @Test
+    public void testProfileSource_FreezesAfterProfileRows() throws Exception {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setProfileRows(150);
+        DataModelProcessor processor = new DataModelProcessor(new DataTransformation(),
+                properties, null);
+        List<List<DataModel<Object>>> pages = new ArrayList<>(List.of(rows(100), rows(100), rows(100)));
+
+        ColumnProfile profile = processor.profileSource(
+                () -> pages.isEmpty() ? List.of() : pages.remove(0), new ColumnProfile());
+
+        assertTrue(profile.isFrozen());
+        assertEquals(200, profile.get("salary").getCount());
+        assertEquals(1, pages.size());
+    }
+
+    @Test
+    public void testWarmUpHandler_HoldsBatchesUntilTheProfileIsFrozen() throws Exception {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setProfileRows(150);
+        DataModelProcessor processor = new DataModelProcessor(new DataTransformation(),
+                properties, null);
+        List<DataModel<Object>> first = rows(100);
+        List<DataModel<Object>> second = rows(100);
+        List<DataModel<Object>> third = rows(100);
+        List<List<DataModel<Object>>> handled = new ArrayList<>();
+        ColumnProfile profile = new ColumnProfile();
+
+        WarmUpBatchHandler handler = processor.warmUpHandler(100, dataModelRepository,
+                profile, handled::add);
+        handler.handle(first);
+        assertTrue(handled.isEmpty());
+        handler.handle(second);
+        handler.handle(third);
+        handler.finish();
+
+        assertEquals(List.of(first, second, third), handled);
+        assertTrue(profile.isFrozen());
+        assertEquals(200, profile.get("salary").getCount());
+        // Equal rows of different batches are scaled alike.
+        assertEquals(value(first.get(7), "salary"), value(third.get(7), "salary"));
+        verify(dataModelRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    public void testWarmUpHandler_FreezesAtTheEndOfAShortStream() throws Exception {
+        DataModelProcessor processor = new DataModelProcessor(new DataTransformation());
+        List<List<DataModel<Object>>> handled = new ArrayList<>();
+        ColumnProfile profile = new ColumnProfile();
+
+        WarmUpBatchHandler handler = processor.warmUpHandler(100, dataModelRepository,
+                profile, handled::add);
+        handler.handle(rows(10));
+        handler.finish();
+
+        assertEquals(1, handled.size());
+        assertTrue(profile.isFrozen());
+        assertEquals(10, profile.get("salary").getCount());
+    }
+
+    private DataModelProcessor parallelProcessor() {
+        return new DataModelProcessor(new DataTransformation(), parallelProperties(), executor);
+    }
+
+    private ProcessingProperties parallelProperties() {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setParallel(true);
+        properties.setParallelism(4);
+        properties.setMinPartitionSize(100);
+        properties.setSaveConcurrency(2);
+        return properties;
+    }
+
+    private Object value(final DataModel<Object> dataModel, final String column) {
+        return dataModel.getAttributesMap().get(column).getValue();
+    }
+
+    private List<DataModel<Object>> rows(final int count) {
+        List<DataModel<Object>> dataModels = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, DataAttributes<Object>> attributes = new HashMap<>();
+            attributes.put("id", new DataAttributes<>("id", i, "java.lang.Integer", Object.class));
+            attributes.put("salary", new DataAttributes<>("salary", 1000.0 + (i * 37) % 500,
+                    "java.lang.Double", Object.class));
+            dataModels.add(new DataModel<>(null, attributes));
+        }
+        return dataModels;
+    }
+}
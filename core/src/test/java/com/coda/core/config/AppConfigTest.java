@@ -0,0 +1,51 @@
+package com.coda.core.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AppConfigTest {
+
+    @Test
+    public void testEtlAsyncJobExecutor_PoolsMaxConcurrentJobsPlatformThreads() {
+        AsyncEtlProperties properties = new AsyncEtlProperties();
+        properties.setMaxConcurrentJobs(3);
+
+        TaskExecutor executor = new AppConfig().etlAsyncJobExecutor(properties,
+                environment(false));
+
+        ThreadPoolTaskExecutor pool = assertInstanceOf(ThreadPoolTaskExecutor.class, executor);
+        assertEquals(3, pool.getMaxPoolSize());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testEtlAsyncJobExecutor_RunsEachJobOnAVirtualThread() throws Exception {
+        TaskExecutor executor = new AppConfig().etlAsyncJobExecutor(new AsyncEtlProperties(),
+                environment(true));
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+
+        executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, executor);
+        assertTrue(virtual.get(5, TimeUnit.SECONDS));
+    }
+
+    private static StandardEnvironment environment(final boolean virtualThreads) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of("spring.threads.virtual.enabled", String.valueOf(virtualThreads))));
+        return environment;
+    }
+}
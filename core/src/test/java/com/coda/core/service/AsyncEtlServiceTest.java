@@ -0,0 +1,262 @@
+package com.coda.core.service;
+
+import com.coda.core.batch.EtlProgress;
+import com.coda.core.config.AsyncEtlProperties;
+import com.coda.core.config.EtlJobConfig;
+import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.dtos.EtlJobStatus;
+import com.coda.core.exceptions.EtlJobException;
+import com.coda.core.util.types.ErrorType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncEtlServiceTest {
+
+    @Mock
+    private ETLService etlService;
+
+    @Mock
+    private EtlJobService etlJobService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private AsyncEtlService asyncEtlService;
+
+    private ConnectionDetails connectionDetails;
+
+    @BeforeEach
+    public void setUp() {
+        connectionDetails = new ConnectionDetails("url", "username", "password");
+        AsyncEtlProperties properties = new AsyncEtlProperties();
+        properties.setMaxConcurrentJobs(1);
+        properties.setQueueCapacity(1);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        asyncEtlService = new AsyncEtlService(etlService, etlJobService,
+                new EtlAdmissionController(executor, properties), properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSubmit_CompletesAndReportsProgress() throws Exception {
+        doAnswer(invocation -> {
+            EtlProgress progress = invocation.getArgument(5);
+            progress.setTotalRows(100);
+            progress.addRead(100);
+            progress.addTransformed(100);
+            progress.addLoaded(100);
+            return null;
+        }).when(etlService).performETLProcess(eq(connectionDetails), eq("mysql"),
+                eq("source"), eq("target"), eq("mysql"), any(EtlProgress.class));
+
+        EtlJobStatus submitted = asyncEtlService.submit(connectionDetails, "mysql",
+                "source", "target", "mysql", null);
+        EtlJobStatus status = awaitFinished(submitted.jobId());
+
+        assertEquals(EtlJobStatus.State.COMPLETED, status.state());
+        assertEquals(100, status.rowsRead());
+        assertEquals(100, status.rowsTransformed());
+        assertEquals(100, status.rowsLoaded());
+        assertEquals(100L, status.totalRows());
+        assertNull(status.etaSeconds());
+        assertNull(status.error());
+    }
+
+    @Test
+    public void testSubmit_RunsIncrementalProcessWithWatermarkColumn() throws Exception {
+        EtlJobStatus submitted = asyncEtlService.submit(connectionDetails, "mysql",
+                "source", "target", "mysql", "updated_at");
+        awaitFinished(submitted.jobId());
+
+        verify(etlService).performETLProcess(eq(connectionDetails), eq("mysql"),
+                eq("source"), eq("target"), eq("mysql"), eq("updated_at"),
+                any(EtlProgress.class));
+    }
+
+    @Test
+    public void testSubmit_ReportsFailure() throws Exception {
+        doThrow(new RuntimeException("Error during ETL process"))
+                .when(etlService).performETLProcess(any(), any(), any(), any(), any(),
+                        any(EtlProgress.class));
+
+        EtlJobStatus submitted = asyncEtlService.submit(connectionDetails, "mysql",
+                "source", "target", "mysql", null);
+        EtlJobStatus status = awaitFinished(submitted.jobId());
+
+        assertEquals(EtlJobStatus.State.FAILED, status.state());
+        assertEquals("Error during ETL process", status.error());
+    }
+
+    @Test
+    public void testCancel_StopsRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            EtlProgress progress = invocation.getArgument(5);
+            started.countDown();
+            // Stands in for the batch loop, which stops once cancelled.
+            while (!progress.isCancelled()) {
+                Thread.sleep(5);
+            }
+            return null;
+        }).when(etlService).performETLProcess(any(), any(), any(), any(), any(),
+                any(EtlProgress.class));
+
+        EtlJobStatus submitted = asyncEtlService.submit(connectionDetails, "mysql",
+                "source", "target", "mysql", null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        EtlJobStatus cancelling = asyncEtlService.cancel(submitted.jobId());
+        EtlJobStatus status = awaitFinished(submitted.jobId());
+
+        assertTrue(cancelling.state() == EtlJobStatus.State.CANCELLING
+                || cancelling.state() == EtlJobStatus.State.CANCELLED);
+        assertEquals(EtlJobStatus.State.CANCELLED, status.state());
+    }
+
+    @Test
+    public void testCancel_QueuedJobNeverRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(etlService).performETLProcess(any(), any(), any(), any(), any(),
+                any(EtlProgress.class));
+
+        EtlJobStatus running = asyncEtlService.submit(connectionDetails, "mysql",
+                "first", "target", "mysql", null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        EtlJobStatus queued = asyncEtlService.submit(connectionDetails, "mysql",
+                "second", "target", "mysql", null);
+        assertEquals(EtlJobStatus.State.QUEUED, queued.state());
+
+        assertEquals(EtlJobStatus.State.CANCELLED,
+                asyncEtlService.cancel(queued.jobId()).state());
+        release.countDown();
+        awaitFinished(running.jobId());
+
+        verify(etlService, times(1)).performETLProcess(any(), any(), any(), any(), any(),
+                any(EtlProgress.class));
+        verify(etlService, never()).performETLProcess(any(), any(), eq("second"), any(),
+                any(), any(EtlProgress.class));
+    }
+
+    @Test
+    public void testSubmit_RejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(etlService).performETLProcess(any(), any(), any(), any(), any(),
+                any(EtlProgress.class));
+
+        asyncEtlService.submit(connectionDetails, "mysql", "first", "target", "mysql", null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        asyncEtlService.submit(connectionDetails, "mysql", "second", "target", "mysql", null);
+
+        EtlJobException exception = assertThrows(EtlJobException.class,
+                () -> asyncEtlService.submit(connectionDetails, "mysql",
+                        "third", "target", "mysql", null));
+        assertEquals(ErrorType.ETL_JOB_REJECTED, exception.getErrorType());
+        assertEquals(30L, exception.getRetryAfterSeconds());
+        assertEquals(2, asyncEtlService.listJobs().size());
+        release.countDown();
+    }
+
+    @Test
+    public void testGetStatus_UnknownJob() {
+        EtlJobException exception = assertThrows(EtlJobException.class,
+                () -> asyncEtlService.getStatus("missing"));
+        assertEquals(ErrorType.ETL_JOB_NOT_FOUND, exception.getErrorType());
+    }
+
+    @Test
+    public void testSubmitTableJob_FailsWithTheBatchExecutionToRestart() throws Exception {
+        JobExecution execution = batchExecution(7L, BatchStatus.FAILED);
+        when(etlJobService.runTableJob(connectionDetails, "mysql", "source", "target"))
+                .thenReturn(execution);
+
+        EtlJobStatus submitted = asyncEtlService.submitTableJob(connectionDetails, "mysql",
+                "source", "target");
+        EtlJobStatus status = awaitFinished(submitted.jobId());
+
+        assertEquals(EtlJobStatus.State.FAILED, status.state());
+        assertEquals(7L, status.batchExecutionId());
+        assertEquals(3, status.rowsLoaded());
+    }
+
+    @Test
+    public void testRestartTableJob_CompletesTheRestartedExecution() throws Exception {
+        when(etlJobService.getJobParameters(7L)).thenReturn(new JobParametersBuilder()
+                .addString(EtlJobConfig.SOURCE_TABLE, "source")
+                .addString(EtlJobConfig.TARGET_TABLE, "target")
+                .toJobParameters());
+        when(etlJobService.restart(7L, connectionDetails))
+                .thenReturn(batchExecution(8L, BatchStatus.COMPLETED));
+
+        EtlJobStatus submitted = asyncEtlService.restartTableJob(7L, connectionDetails);
+        EtlJobStatus status = awaitFinished(submitted.jobId());
+
+        assertEquals(EtlJobStatus.State.COMPLETED, status.state());
+        assertEquals("source", status.sourceTable());
+        assertEquals(8L, status.batchExecutionId());
+    }
+
+    private static JobExecution batchExecution(final long id, final BatchStatus batchStatus) {
+        JobExecution execution = new JobExecution(id);
+        execution.setStatus(batchStatus);
+        // The manager step sums the partitions, which are counted once.
+        StepExecution manager = execution.createStepExecution("tableEtlStep");
+        manager.setWriteCount(3);
+        StepExecution partition = execution.createStepExecution("tableEtlWorkerStep:partition0");
+        partition.setReadCount(3);
+        partition.setWriteCount(3);
+        return execution;
+    }
+
+    private EtlJobStatus awaitFinished(final String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        EtlJobStatus status = asyncEtlService.getStatus(jobId);
+        while (!status.state().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = asyncEtlService.getStatus(jobId);
+        }
+        return status;
+    }
+}
@@ -1,6 +1,10 @@
 package com.coda.core.service;
 
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.EtlProgress;
 import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.batch.processor.WarmUpBatchHandler;
+import com.coda.core.config.ProcessingProperties;
 import com.coda.core.dtos.ConnectionDetails;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
@@ -9,15 +13,23 @@ import com.coda.core.exceptions.DataLoadingException;
 import com.coda.core.repository.DataModelRepository;
 import com.coda.core.util.db.DatabaseExtractor;
 import com.coda.core.util.db.DatabaseExtractorFactory;
+import com.coda.core.util.db.KeysetQuery;
 import com.coda.core.util.file.FileExtractor;
+import com.coda.core.util.timestamps.Watermark;
+import com.coda.core.util.timestamps.WatermarkKey;
+import com.coda.core.util.timestamps.WatermarkStore;
+import com.coda.core.util.transform.ColumnProfile;
 import com.coda.core.util.transform.DataTransformation;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -25,9 +37,17 @@ import org.springframework.core.io.ResourceLoader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
+import static com.coda.core.util.Constants.BATCH_SIZE;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.Mockito.*;
 
 /**
@@ -62,6 +82,12 @@ public class DataModelServiceTest {
     @Mock
     private DataModelProcessor dataModelProcessor;
 
+    @Mock
+    private WatermarkStore watermarkStore;
+
+    @Spy
+    private ProcessingProperties processingProperties = new ProcessingProperties();
+
 
     @InjectMocks
     private DataModelService dataModelService;
@@ -72,7 +98,7 @@ public class DataModelServiceTest {
 
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws Exception {
         dataModels = new HashMap<>();
         DataModel<Document> dataModel = new DataModel<>();
         Map<String, DataAttributes<Document>> attributesMap = new HashMap<>();
@@ -81,6 +107,10 @@ public class DataModelServiceTest {
                 "Document", Document.class));
         dataModel.setAttributesMap(attributesMap);
         dataModels.put("model1", dataModel);
+
+        processingProperties.setPageSize(BATCH_SIZE);
+        lenient().when(dataModelProcessor.profileSource(any(), any()))
+                .thenAnswer(invocation -> invocation.<ColumnProfile>getArgument(1).freeze());
     }
     /**
      * This method is used to test the extractDataFromTable method
@@ -100,7 +130,7 @@ public class DataModelServiceTest {
         int BATCH_SIZE = 100;
         int offset = 0;
 
-        when(databaseExtractorFactory.getExtractor(type)).thenReturn(databaseExtractor);
+        when(databaseExtractorFactory.getExtractor(type, connectionDetails)).thenReturn(databaseExtractor);
 
         List<DataModel<Object>> expectedDataModels = new ArrayList<>();
         DataModel<Object> model = new DataModel<>();
@@ -123,14 +153,363 @@ public class DataModelServiceTest {
 
         // Assert
         assertEquals(expectedDataModels, actualDataModels);
-        verify(databaseExtractorFactory).getExtractor(type);
+        verify(databaseExtractorFactory).getExtractor(type, connectionDetails);
         verify(databaseExtractor).readData(tableName, BATCH_SIZE, offset);
         verify(databaseExtractor).readData(tableName, BATCH_SIZE, offset + BATCH_SIZE);
-        verify(databaseExtractor).configureDataSource(connectionDetails);
         verify(databaseExtractor, times(2)).readData(anyString(), anyInt(), anyInt()); // Called twice: first for data retrieval, second returns empty list
-        verify(dataModelProcessor, times(1)).processAndSaveDataModels(anyList(), anyInt(), any());
+        verify(dataModelProcessor, times(1)).processAndSaveDataModels(anyList(), anyInt(), any(), any(ColumnProfile.class));
+    }
+
+
+    @Test
+    public void testExtractDataFromTable_KeysetPagination() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String type = "mysql";
+        String tableName = "test_table";
+
+        when(databaseExtractorFactory.getExtractor(type, connectionDetails)).thenReturn(databaseExtractor);
+        when(databaseExtractor.findKeyColumn(tableName)).thenReturn("id");
+
+        List<DataModel<Object>> firstPage = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            DataModel<Object> model = new DataModel<>();
+            model.setAttributesMap(Map.of("id",
+                    new DataAttributes<>("id", i, "java.lang.Integer", Object.class)));
+            firstPage.add(model);
+        }
+        DataModel<Object> last = new DataModel<>();
+        last.setAttributesMap(Map.of("id",
+                new DataAttributes<>("id", 101, "java.lang.Integer", Object.class)));
+
+        when(databaseExtractor.readData(any(KeysetQuery.class)))
+                .thenReturn(firstPage, List.of(last));
+
+        List<DataModel<Object>> actualDataModels
+                = dataModelService.extractDataFromTable(connectionDetails, type, tableName);
+
+        assertEquals(101, actualDataModels.size());
+        ArgumentCaptor<KeysetQuery> queries = ArgumentCaptor.forClass(KeysetQuery.class);
+        verify(databaseExtractor, times(2)).readData(queries.capture());
+        assertNull(queries.getAllValues().get(0).getLastKey());
+        assertEquals(100, queries.getAllValues().get(1).getLastKey());
+        assertEquals("id", queries.getAllValues().get(1).getKeyColumn());
+        verify(databaseExtractor, never()).readData(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testStreamChangedRowsFromTable_ResumesAfterWatermark() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String type = "mysql";
+        String tableName = "test_table";
+        WatermarkKey key = new WatermarkKey(type, "url", tableName);
+        LocalDateTime savedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime changedAt = LocalDateTime.of(2024, 1, 2, 0, 0);
+
+        when(databaseExtractorFactory.getExtractor(type, connectionDetails)).thenReturn(databaseExtractor);
+        when(databaseExtractor.findKeyColumn(tableName)).thenReturn("id");
+        when(watermarkStore.get(key)).thenReturn(Optional.of(Watermark.empty()
+                .with("watermarkColumn", "updated_at")
+                .with("tieBreakerColumn", "id")
+                .withPosition(Watermark.LAST_KEY, savedAt)
+                .withPosition("lastTieBreaker", 7L)));
+        stubWarmUpHandler();
+
+        DataModel<Object> changed = new DataModel<>();
+        changed.setAttributesMap(Map.of(
+                "id", new DataAttributes<>("id", 3L, "java.lang.Long", Object.class),
+                "updated_at", new DataAttributes<>("updated_at", changedAt,
+                        "java.time.LocalDateTime", Object.class)));
+        when(databaseExtractor.readData(any(KeysetQuery.class))).thenReturn(List.of(changed));
+
+        List<List<DataModel<Object>>> handled = new ArrayList<>();
+        long rows = dataModelService.streamChangedRowsFromTable(connectionDetails, type,
+                tableName, "updated_at", handled::add);
+
+        assertEquals(1, rows);
+        assertEquals(1, handled.size());
+        ArgumentCaptor<KeysetQuery> query = ArgumentCaptor.forClass(KeysetQuery.class);
+        verify(databaseExtractor).readData(query.capture());
+        assertEquals("updated_at", query.getValue().getKeyColumn());
+        assertEquals("id", query.getValue().getTieBreakerColumn());
+        assertEquals(savedAt, query.getValue().getLastKey());
+        assertEquals(7L, query.getValue().getLastTieBreaker());
+
+        ArgumentCaptor<Watermark> saved = ArgumentCaptor.forClass(Watermark.class);
+        verify(watermarkStore).put(eq(key), saved.capture());
+        assertEquals(changedAt, saved.getValue().getPosition(Watermark.LAST_KEY));
+        assertEquals(3L, saved.getValue().getPosition("lastTieBreaker"));
+    }
+
+    @Test
+    public void testStreamChangedRowsFromTable_RestartsWhenColumnChanges() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String type = "mysql";
+        String tableName = "test_table";
+
+        when(databaseExtractorFactory.getExtractor(type, connectionDetails)).thenReturn(databaseExtractor);
+        when(databaseExtractor.findKeyColumn(tableName)).thenReturn("id");
+        when(watermarkStore.get(any())).thenReturn(Optional.of(Watermark.empty()
+                .with("watermarkColumn", "created_at")
+                .withPosition(Watermark.LAST_KEY, 42)));
+        stubWarmUpHandler();
+        when(databaseExtractor.readData(any(KeysetQuery.class))).thenReturn(List.of());
+
+        long rows = dataModelService.streamChangedRowsFromTable(connectionDetails, type,
+                tableName, "id", batch -> fail("No batch expected"));
+
+        assertEquals(0, rows);
+        ArgumentCaptor<KeysetQuery> query = ArgumentCaptor.forClass(KeysetQuery.class);
+        verify(databaseExtractor).readData(query.capture());
+        assertTrue(query.getValue().isFirstPage());
+        assertFalse(query.getValue().hasTieBreaker());
+        verify(watermarkStore, never()).put(any(), any());
+    }
+
+    @Test
+    public void testStreamChangedRowsFromTable_NoChangesReadsOnlyPastWatermark() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String type = "mysql";
+        String tableName = "test_table";
+
+        when(databaseExtractorFactory.getExtractor(type, connectionDetails)).thenReturn(databaseExtractor);
+        when(databaseExtractor.findKeyColumn(tableName)).thenReturn("id");
+        when(watermarkStore.get(any())).thenReturn(Optional.of(Watermark.empty()
+                .with("watermarkColumn", "id")
+                .withPosition(Watermark.LAST_KEY, 42)));
+        stubWarmUpHandler();
+        when(databaseExtractor.readData(any(KeysetQuery.class))).thenReturn(List.of());
+
+        long rows = dataModelService.streamChangedRowsFromTable(connectionDetails, type,
+                tableName, "id", batch -> fail("No batch expected"));
+
+        assertEquals(0, rows);
+        // The table is not profiled from its first row: the only read is
+        // the one after the saved mark.
+        ArgumentCaptor<KeysetQuery> query = ArgumentCaptor.forClass(KeysetQuery.class);
+        verify(databaseExtractor, times(1)).readData(query.capture());
+        assertEquals(42, query.getValue().getLastKey());
+        verify(databaseExtractor, never()).readData(anyString(), anyInt(), anyInt());
+        verify(dataModelProcessor, never()).profileSource(any(), any());
+        verify(watermarkStore, never()).put(any(), any());
     }
 
+    @Test
+    public void testStreamDataFromTable_HandsOverEachBatch() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String type = "mysql";
+        String tableName = "test_table";
+
+        when(databaseExtractorFactory.getExtractor(type, connectionDetails)).thenReturn(databaseExtractor);
+
+        DataModel<Object> model = new DataModel<>();
+        model.setAttributesMap(Map.of("column1",
+                new DataAttributes<>("column1", "value1", "VARCHAR", Object.class)));
+        List<DataModel<Object>> page = List.of(model);
+        when(databaseExtractor.readData(tableName, 100, 0)).thenReturn(page);
+        when(databaseExtractor.readData(tableName, 100, 100)).thenReturn(Collections.emptyList());
+
+        List<List<DataModel<Object>>> handled = new ArrayList<>();
+        long rows = dataModelService.streamDataFromTable(connectionDetails, type,
+                tableName, null, handled::add);
+
+        assertEquals(1, rows);
+        assertEquals(1, handled.size());
+        assertSame(page, handled.get(0));
+        verify(dataModelProcessor).processAndSaveDataModels(eq(page), anyInt(), any(), any(ColumnProfile.class));
+    }
+
+    @Test
+    public void testStreamDataFromTable_HandlerFailureStopsExtraction() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+
+        when(databaseExtractorFactory.getExtractor("mysql", connectionDetails)).thenReturn(databaseExtractor);
+        DataModel<Object> model = new DataModel<>();
+        when(databaseExtractor.readData("test_table", 100, 0)).thenReturn(List.of(model));
+
+        assertThrows(RuntimeException.class, () -> dataModelService.streamDataFromTable(
+                connectionDetails, "mysql", "test_table", null, batch -> {
+                    throw new DataLoadingException("Load failed", null);
+                }));
+        verify(databaseExtractor, never()).readData("test_table", 100, 100);
+    }
+
+    @Test
+    public void testStreamDataFromTable_ResumesAfterKeyAndCheckpointsEachBatch() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String tableName = "test_table";
+
+        when(databaseExtractorFactory.getExtractor("mysql", connectionDetails)).thenReturn(databaseExtractor);
+        DataModel<Object> model = new DataModel<>();
+        model.setAttributesMap(Map.of("id",
+                new DataAttributes<>("id", 501, "java.lang.Integer", Object.class)));
+        when(databaseExtractor.readData(any(KeysetQuery.class)))
+                .thenReturn(List.of(model), List.of());
+
+        List<Object> checkpoints = new ArrayList<>();
+        long rows = dataModelService.streamDataFromTable(connectionDetails, "mysql",
+                tableName, "id", 500, batch -> { },
+                (lastKey, batchRows) -> checkpoints.add(lastKey + ":" + batchRows),
+                new EtlProgress());
+
+        assertEquals(1, rows);
+        assertEquals(List.of("501:1"), checkpoints);
+        // A short page is the last one.
+        ArgumentCaptor<KeysetQuery> query = ArgumentCaptor.forClass(KeysetQuery.class);
+        verify(databaseExtractor).readData(query.capture());
+        assertEquals(500, query.getValue().getLastKey());
+        ArgumentCaptor<ColumnProfile> profile = ArgumentCaptor.forClass(ColumnProfile.class);
+        verify(dataModelProcessor).processAndSaveDataModels(anyList(), anyInt(), any(),
+                profile.capture());
+        assertTrue(profile.getValue().isKeyColumn("id"));
+        assertTrue(profile.getValue().isFrozen());
+        verify(dataModelProcessor).profileSource(any(), same(profile.getValue()));
+    }
+
+    @Test
+    public void testPipelineDataFromTable_CheckpointsEachBatchInOrder() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String tableName = "test_table";
+
+        when(databaseExtractorFactory.getExtractor("mysql", connectionDetails)).thenReturn(databaseExtractor);
+        when(databaseExtractor.findKeyColumn(tableName)).thenReturn("id");
+        List<List<DataModel<Object>>> pages = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            List<DataModel<Object>> rows = new ArrayList<>();
+            for (int row = 1; row <= 100; row++) {
+                DataModel<Object> model = new DataModel<>();
+                model.setAttributesMap(Map.of("id", new DataAttributes<>("id",
+                        page * 100 + row, "java.lang.Integer", Object.class)));
+                rows.add(model);
+            }
+            pages.add(rows);
+        }
+        when(databaseExtractor.readData(any(KeysetQuery.class)))
+                .thenReturn(pages.get(0), pages.get(1), pages.get(2), List.of());
+
+        List<List<DataModel<Object>>> handled = new ArrayList<>();
+        List<Object> checkpoints = new ArrayList<>();
+        dataModelService.pipelineDataFromTable(connectionDetails, "mysql", tableName,
+                null, null, 1, handled::add,
+                (lastKey, batchRows) -> {
+                    // A batch is checkpointed only after it was handled.
+                    assertEquals(checkpoints.size() + 1, handled.size());
+                    checkpoints.add(lastKey);
+                }, new EtlProgress());
+
+        assertEquals(pages, handled);
+        assertEquals(List.of(100, 200, 300), checkpoints);
+    }
+
+    @Test
+    public void testStreamDataFromTable_StopsReadingOnceCancelled() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        String tableName = "test_table";
+
+        when(databaseExtractorFactory.getExtractor("mysql", connectionDetails)).thenReturn(databaseExtractor);
+        List<DataModel<Object>> page = new ArrayList<>();
+        for (int row = 1; row <= 100; row++) {
+            DataModel<Object> model = new DataModel<>();
+            model.setAttributesMap(Map.of("id", new DataAttributes<>("id",
+                    row, "java.lang.Integer", Object.class)));
+            page.add(model);
+        }
+        when(databaseExtractor.readData(any(KeysetQuery.class))).thenReturn(page);
+
+        EtlProgress progress = new EtlProgress();
+        List<Object> checkpoints = new ArrayList<>();
+        long rows = dataModelService.streamDataFromTable(connectionDetails, "mysql",
+                tableName, "id", null, batch -> progress.cancel(),
+                (lastKey, batchRows) -> checkpoints.add(lastKey), progress);
+
+        // The batch being handled is still checkpointed, no further page is read.
+        assertEquals(100, rows);
+        assertEquals(List.of(100), checkpoints);
+        assertEquals(100, progress.getRowsRead());
+        assertEquals(100, progress.getRowsTransformed());
+        verify(databaseExtractor, times(1)).readData(any(KeysetQuery.class));
+    }
+
+    @Test
+    public void testStreamDataFromTable_ProcessesDefaultPagesInParallel() throws Exception {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setParallel(true);
+        properties.setParallelism(2);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ExecutorService executor = mock(ExecutorService.class, delegatesTo(pool));
+        DataModelService service = new DataModelService(dataModelRepository,
+                databaseExtractorFactory, fileExtractor, resourceLoader, null,
+                dataTransformation, new DataModelProcessor(new DataTransformation(),
+                        properties, executor), watermarkStore, properties);
+        when(databaseExtractorFactory.getExtractor(eq("mysql"), any(ConnectionDetails.class))).thenReturn(databaseExtractor);
+        when(databaseExtractor.findKeyColumn("test_table")).thenReturn("id");
+        // The profiling pass and the stream each read the table once.
+        when(databaseExtractor.readData(any(KeysetQuery.class)))
+                .thenReturn(numberedRows(properties.getPageSize()), List.of(),
+                        numberedRows(properties.getPageSize()), List.of());
+
+        try {
+            long rows = service.streamDataFromTable(new ConnectionDetails("url",
+                    "username", "password"), "mysql", "test_table", null, batch -> { });
+
+            assertEquals(properties.getPageSize(), rows);
+            assertTrue(properties.getPageSize() > properties.getMinPartitionSize());
+            verify(executor, atLeast(2)).submit(any(Callable.class));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExtractDataFromFileOnFileSystem_ProcessesEachBatch(@TempDir final Path directory)
+            throws Exception {
+        Path file = Files.writeString(directory.resolve("data.csv"), "column1\nvalue1\n");
+        List<DataModel<Object>> first = List.of(new DataModel<>());
+        List<DataModel<Object>> second = List.of(new DataModel<>());
+        when(dataModelProcessor.warmUpHandler(anyInt(), any(), any(), any())).thenAnswer(invocation
+                -> new WarmUpBatchHandler(dataModelProcessor, invocation.getArgument(1),
+                        invocation.getArgument(0), 0, invocation.getArgument(2),
+                        invocation.getArgument(3)));
+        when(fileExtractor.readDataInBatches(eq(file.toString()), any())).thenAnswer(invocation -> {
+            DataModelBatchHandler<Object> handler = invocation.getArgument(1);
+            handler.handle(first);
+            handler.handle(second);
+            return 2L;
+        });
+
+        dataModelService.extractDataFromFileOnFileSystem(file.toString());
+
+        // Both batches are normalized with the same frozen statistics.
+        ArgumentCaptor<ColumnProfile> profile = ArgumentCaptor.forClass(ColumnProfile.class);
+        verify(dataModelProcessor).normalizeAndSaveDataModels(same(first), eq(BATCH_SIZE),
+                same(dataModelRepository), profile.capture());
+        verify(dataModelProcessor).normalizeAndSaveDataModels(same(second), eq(BATCH_SIZE),
+                same(dataModelRepository), same(profile.getValue()));
+        assertTrue(profile.getValue().isFrozen());
+    }
+
+    @Test
+    public void testLoadDataToSQL_LoadsWithKeyColumn() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
+        List<DataModel<Object>> batch = List.of(new DataModel<>());
+        when(databaseExtractorFactory.getExtractor("mysql", connectionDetails)).thenReturn(databaseExtractor);
+
+        dataModelService.loadDataToSQL(connectionDetails, batch, "target", "mysql", "id");
+
+        verify(databaseExtractor).loadData(batch, "target", "id");
+        verify(databaseExtractor, never()).loadData(anyList(), anyString());
+        verify(dataModelRepository).saveAll(batch);
+    }
 
     @Test
     void testExtractDataFromTableNoSQL() {
@@ -257,8 +636,10 @@ public class DataModelServiceTest {
 
     @Test
     public void testLoadDataToSQL() throws Exception {
+        ConnectionDetails connectionDetails
+                = new ConnectionDetails("url", "username", "password");
         // Mock dependencies
-        when(databaseExtractorFactory.getExtractor(anyString())).thenReturn(databaseExtractor);
+        when(databaseExtractorFactory.getExtractor(anyString(), any(ConnectionDetails.class))).thenReturn(databaseExtractor);
 
         // test DataModel
         Map<String, DataAttributes<Object>> attributes = new HashMap<>();
@@ -268,11 +649,11 @@ public class DataModelServiceTest {
         List<DataModel<Object>> dataModels = Collections.singletonList(dataModel);
 
         // Execute the method
-        dataModelService.loadDataToSQL(dataModels, "test_table", "MySQL");
+        dataModelService.loadDataToSQL(connectionDetails, dataModels, "test_table", "MySQL");
 
         // Verify interactions
         verify(databaseExtractor).loadData(dataModels, "test_table");
-        verify(databaseExtractorFactory).getExtractor("mysql");
+        verify(databaseExtractorFactory).getExtractor("mysql", connectionDetails);
     }
 
     @Test
@@ -340,5 +721,23 @@ public class DataModelServiceTest {
 
 
 
-}
 
+    private List<DataModel<Object>> numberedRows(final int count) {
+        List<DataModel<Object>> rows = new ArrayList<>();
+        for (int row = 1; row <= count; row++) {
+            Map<String, DataAttributes<Object>> attributes = new HashMap<>();
+            attributes.put("id", new DataAttributes<>("id", row, "java.lang.Integer", Object.class));
+            attributes.put("salary", new DataAttributes<>("salary", 1000.0 + row % 50,
+                    "java.lang.Double", Object.class));
+            rows.add(new DataModel<>(null, attributes));
+        }
+        return rows;
+    }
+
+    private void stubWarmUpHandler() {
+        when(dataModelProcessor.warmUpHandler(anyInt(), any(), any(), any())).thenAnswer(invocation
+                -> new WarmUpBatchHandler(dataModelProcessor, invocation.getArgument(1),
+                        invocation.getArgument(0), 0, invocation.getArgument(2),
+                        invocation.getArgument(3)));
+    }
+}
@@ -0,0 +1,241 @@
+package com.coda.core.service;
+
+import com.coda.core.batch.BatchCheckpoint;
+import com.coda.core.batch.DataModelBatchHandler;
+import com.coda.core.batch.pipeline.PipelineStatistics;
+import com.coda.core.config.PipelineProperties;
+import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.util.timestamps.Watermark;
+import com.coda.core.util.timestamps.WatermarkKey;
+import com.coda.core.util.timestamps.WatermarkStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ETLServiceTest {
+
+    @Mock
+    private DataModelService dataModelService;
+
+    @Mock
+    private WatermarkStore watermarkStore;
+
+    private ETLService etlService;
+
+    private ConnectionDetails connectionDetails;
+
+    @BeforeEach
+    public void setUp() {
+        connectionDetails = new ConnectionDetails("url", "username", "password");
+        PipelineProperties pipelineProperties = new PipelineProperties();
+        pipelineProperties.setEnabled(false);
+        etlService = new ETLService(dataModelService, pipelineProperties, watermarkStore);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPerformETLProcess_PipelinedLoadsEachBatch() {
+        List<DataModel<Object>> batch = List.of(row(1));
+        PipelineProperties pipelineProperties = new PipelineProperties();
+        pipelineProperties.setQueueCapacity(3);
+        etlService = new ETLService(dataModelService, pipelineProperties, watermarkStore);
+
+        when(dataModelService.pipelineDataFromTable(eq(connectionDetails), eq("mysql"),
+                eq("source"), isNull(), isNull(), eq(3), any(), any(), any())).thenAnswer(invocation -> {
+                    DataModelBatchHandler<Object> handler = invocation.getArgument(6);
+                    handler.handle(batch);
+                    return new PipelineStatistics(List.of(), 0);
+                });
+
+        etlService.performETLProcess(connectionDetails, "mysql", "source", "target", "mysql");
+
+        verify(dataModelService).loadDataToSQL(connectionDetails, batch, "target", "mysql", null);
+        verify(dataModelService, never()).streamDataFromTable(any(), any(), any(), any(),
+                any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPerformETLProcess_LoadsEachBatchAsItIsStreamed() {
+        List<DataModel<Object>> firstBatch = List.of(row(1), row(2));
+        List<DataModel<Object>> secondBatch = List.of(row(3));
+
+        when(dataModelService.streamDataFromTable(eq(connectionDetails), eq("mysql"),
+                eq("source"), isNull(), isNull(), any(), any(), any())).thenAnswer(invocation -> {
+                    DataModelBatchHandler<Object> handler = invocation.getArgument(5);
+                    handler.handle(firstBatch);
+                    verify(dataModelService).loadDataToSQL(connectionDetails, firstBatch, "target", "mysql", null);
+                    handler.handle(secondBatch);
+                    return 3L;
+                });
+
+        etlService.performETLProcess(connectionDetails, "mysql", "source", "target", "mysql");
+
+        verify(dataModelService).loadDataToSQL(connectionDetails, secondBatch, "target", "mysql", null);
+    }
+
+    @Test
+    public void testPerformETLProcess_WrapsFailures() {
+        when(dataModelService.streamDataFromTable(any(), anyString(), anyString(), isNull(),
+                isNull(), any(), any(), any())).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RuntimeException.class, () -> etlService.performETLProcess(
+                connectionDetails, "mysql", "source", "target", "mysql"));
+        verify(dataModelService, never()).loadDataToSQL(any(ConnectionDetails.class), anyList(), anyString(), anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPerformETLProcess_StopsOnLoadFailure() {
+        List<DataModel<Object>> batch = List.of(row(1));
+        doThrow(new RuntimeException("Load error")).when(dataModelService)
+                .loadDataToSQL(connectionDetails, batch, "target", "mysql", null);
+        when(dataModelService.streamDataFromTable(any(), anyString(), anyString(), isNull(),
+                isNull(), any(), any(), any())).thenAnswer(invocation -> {
+                    DataModelBatchHandler<Object> handler = invocation.getArgument(5);
+                    handler.handle(batch);
+                    return 1L;
+                });
+
+        assertThrows(RuntimeException.class, () -> etlService.performETLProcess(
+                connectionDetails, "mysql", "source", "target", "mysql"));
+        verify(watermarkStore, never()).remove(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPerformETLProcess_CheckpointsEachBatchAndRemovesCheckpointOnSuccess() {
+        List<DataModel<Object>> firstBatch = List.of(row(1), row(2));
+        List<DataModel<Object>> secondBatch = List.of(row(3));
+        WatermarkKey key = new WatermarkKey("etl", "url", "source>target");
+        when(dataModelService.findKeyColumn(connectionDetails, "mysql", "source")).thenReturn("id");
+        when(watermarkStore.get(key)).thenReturn(Optional.empty());
+        when(dataModelService.streamDataFromTable(eq(connectionDetails), eq("mysql"),
+                eq("source"), eq("id"), isNull(), any(), any(), any())).thenAnswer(invocation -> {
+                    DataModelBatchHandler<Object> handler = invocation.getArgument(5);
+                    BatchCheckpoint checkpoint = invocation.getArgument(6);
+                    handler.handle(firstBatch);
+                    checkpoint.commit(2, firstBatch.size());
+                    handler.handle(secondBatch);
+                    checkpoint.commit(3, secondBatch.size());
+                    return 3L;
+                });
+
+        etlService.performETLProcess(connectionDetails, "mysql", "source", "target", "mysql");
+
+        ArgumentCaptor<Watermark> saved = ArgumentCaptor.forClass(Watermark.class);
+        InOrder inOrder = inOrder(dataModelService, watermarkStore);
+        inOrder.verify(dataModelService).loadDataToSQL(connectionDetails, firstBatch, "target", "mysql", "id");
+        inOrder.verify(watermarkStore).put(eq(key), saved.capture());
+        inOrder.verify(dataModelService).loadDataToSQL(connectionDetails, secondBatch, "target", "mysql", "id");
+        inOrder.verify(watermarkStore).put(eq(key), saved.capture());
+        inOrder.verify(watermarkStore).remove(key);
+        assertEquals(2, saved.getAllValues().get(0).getPosition(Watermark.LAST_KEY));
+        assertEquals("2", saved.getAllValues().get(0).get("rowsLoaded"));
+        assertEquals(3, saved.getAllValues().get(1).getPosition(Watermark.LAST_KEY));
+        assertEquals("3", saved.getAllValues().get(1).get("rowsLoaded"));
+        assertEquals("target", saved.getAllValues().get(1).get("targetTable"));
+    }
+
+    @Test
+    public void testPerformETLProcess_ResumesAfterCheckpoint() {
+        WatermarkKey key = new WatermarkKey("etl", "url", "source>target");
+        Watermark checkpoint = Watermark.empty()
+                .with("keyColumn", "id")
+                .withPosition(Watermark.LAST_KEY, 500L)
+                .with("rowsLoaded", "500");
+        when(dataModelService.findKeyColumn(connectionDetails, "mysql", "source")).thenReturn("id");
+        when(watermarkStore.get(key)).thenReturn(Optional.of(checkpoint));
+        when(dataModelService.streamDataFromTable(eq(connectionDetails), eq("mysql"),
+                eq("source"), eq("id"), eq(500L), any(), any(), any())).thenAnswer(invocation -> {
+                    BatchCheckpoint commit = invocation.getArgument(6);
+                    commit.commit(600L, 100);
+                    return 100L;
+                });
+
+        etlService.performETLProcess(connectionDetails, "mysql", "source", "target", "mysql");
+
+        ArgumentCaptor<Watermark> saved = ArgumentCaptor.forClass(Watermark.class);
+        verify(watermarkStore).put(eq(key), saved.capture());
+        assertEquals(600L, saved.getValue().getPosition(Watermark.LAST_KEY));
+        assertEquals("600", saved.getValue().get("rowsLoaded"));
+        verify(watermarkStore).remove(key);
+    }
+
+    @Test
+    public void testPerformETLProcess_IgnoresCheckpointOfAnotherKeyColumn() {
+        WatermarkKey key = new WatermarkKey("etl", "url", "source>target");
+        when(dataModelService.findKeyColumn(connectionDetails, "mysql", "source")).thenReturn("id");
+        when(watermarkStore.get(key)).thenReturn(Optional.of(Watermark.empty()
+                .with("keyColumn", "code").withPosition(Watermark.LAST_KEY, "X9")));
+        when(dataModelService.streamDataFromTable(eq(connectionDetails), eq("mysql"),
+                eq("source"), eq("id"), isNull(), any(), any(), any())).thenReturn(0L);
+
+        etlService.performETLProcess(connectionDetails, "mysql", "source", "target", "mysql");
+
+        verify(watermarkStore).remove(key);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPerformIncrementalETLProcess_UpsertsUpdatedRowOnKey() {
+        DataModel<Object> inserted = row(1);
+        DataModel<Object> updated = new DataModel<>();
+        updated.setAttributesMap(Map.of(
+                "id", new DataAttributes<>("id", 1, "java.lang.Integer", Object.class),
+                "name", new DataAttributes<>("name", "renamed", "java.lang.String", Object.class)));
+        when(dataModelService.findKeyColumn(connectionDetails, "mysql", "source")).thenReturn("id");
+        // The first run reads the new row, the second its update.
+        when(dataModelService.streamChangedRowsFromTable(eq(connectionDetails), eq("mysql"),
+                eq("source"), eq("updated_at"), any(), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<DataModelBatchHandler<Object>>getArgument(4).handle(List.of(inserted));
+                    return 1L;
+                })
+                .thenAnswer(invocation -> {
+                    invocation.<DataModelBatchHandler<Object>>getArgument(4).handle(List.of(updated));
+                    return 1L;
+                });
+
+        etlService.performETLProcess(connectionDetails, "mysql", "source", "target", "mysql",
+                "updated_at");
+        etlService.performETLProcess(connectionDetails, "mysql", "source", "target", "mysql",
+                "updated_at");
+
+        InOrder loads = inOrder(dataModelService);
+        loads.verify(dataModelService).loadDataToSQL(connectionDetails, List.of(inserted), "target", "mysql", "id");
+        loads.verify(dataModelService).loadDataToSQL(connectionDetails, List.of(updated), "target", "mysql", "id");
+        verify(dataModelService, never()).loadDataToSQL(any(ConnectionDetails.class), anyList(), anyString(), anyString());
+    }
+
+    private DataModel<Object> row(int id) {
+        DataModel<Object> dataModel = new DataModel<>();
+        dataModel.setAttributesMap(Map.of("id",
+                new DataAttributes<>("id", id, "java.lang.Integer", Object.class)));
+        return dataModel;
+    }
+}
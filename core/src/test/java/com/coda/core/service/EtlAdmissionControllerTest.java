@@ -0,0 +1,150 @@
+package com.coda.core.service;
+
+import com.coda.core.config.AsyncEtlProperties;
+import com.coda.core.dtos.EtlAdmissionMetrics;
+import com.coda.core.exceptions.EtlJobException;
+import com.coda.core.util.types.ErrorType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EtlAdmissionControllerTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    private EtlAdmissionController admissionController;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    public void setUp() {
+        AsyncEtlProperties properties = new AsyncEtlProperties();
+        properties.setMaxConcurrentJobs(2);
+        properties.setMaxJobsPerSource(1);
+        properties.setQueueCapacity(2);
+        properties.setRetryAfterSeconds(15);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(2);
+        executor.initialize();
+        admissionController = new EtlAdmissionController(executor, properties);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testAdmit_QueuesJobOfBusySourceWithoutHoldingUpOtherSources()
+            throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        admissionController.admit("db1", blockingJob(started));
+        admissionController.admit("db1", blockingJob(started));
+        admissionController.admit("db2", blockingJob(started));
+
+        // The second job of db1 waits, the job of db2 runs beside the first.
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        EtlAdmissionMetrics metrics = admissionController.metrics();
+        assertEquals(2, metrics.runningJobs());
+        assertEquals(1, metrics.queuedJobs());
+        assertEquals(Map.of("db1", 1, "db2", 1), metrics.runningBySource());
+        assertEquals(Map.of("db1", 1), metrics.queuedBySource());
+    }
+
+    @Test
+    public void testAdmit_StartsQueuedJobOnceSourceIsFree() throws Exception {
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        admissionController.admit("db1", blockingJob(first));
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+        admissionController.admit("db1", second::countDown);
+        assertEquals(1, admissionController.metrics().queuedJobs());
+
+        release.countDown();
+
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        awaitMetrics(() -> admissionController.metrics().runningJobs() == 0);
+        EtlAdmissionMetrics metrics = admissionController.metrics();
+        assertEquals(0, metrics.queuedJobs());
+        assertEquals(2, metrics.admittedJobs());
+    }
+
+    @Test
+    public void testAdmit_RejectsOnceQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        admissionController.admit("db1", blockingJob(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        admissionController.admit("db1", () -> { });
+        admissionController.admit("db1", () -> { });
+
+        EtlJobException exception = assertThrows(EtlJobException.class,
+                () -> admissionController.admit("db1", () -> { }));
+
+        assertEquals(ErrorType.ETL_JOB_REJECTED, exception.getErrorType());
+        // No job has finished yet, so the configured delay is given.
+        assertEquals(15L, exception.getRetryAfterSeconds());
+        assertEquals(1, admissionController.metrics().rejectedJobs());
+        assertEquals(3, admissionController.metrics().admittedJobs());
+    }
+
+    @Test
+    public void testWithdraw_RemovesWaitingJobOnly() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        EtlAdmissionController.Admission running
+                = admissionController.admit("db1", blockingJob(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        EtlAdmissionController.Admission waiting
+                = admissionController.admit("db1", () -> { });
+
+        assertFalse(admissionController.withdraw(running));
+        assertTrue(admissionController.withdraw(waiting));
+        assertEquals(0, admissionController.metrics().queuedJobs());
+    }
+
+    @Test
+    public void testMetrics_ReportsMeanJobDurationOnceJobsFinish() throws Exception {
+        assertNull(admissionController.metrics().meanJobMillis());
+        CountDownLatch done = new CountDownLatch(1);
+
+        admissionController.admit("db1", done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        awaitMetrics(() -> admissionController.metrics().meanJobMillis() != null);
+        assertEquals(0, admissionController.metrics().runningJobs());
+    }
+
+    private Runnable blockingJob(final CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private void awaitMetrics(final Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.get());
+    }
+}
@@ -0,0 +1,249 @@
+package com.coda.core.service;
+
+import com.coda.core.batch.processor.DataModelItemProcessor;
+import com.coda.core.batch.processor.DataModelProcessor;
+import com.coda.core.config.EtlJobConfig;
+import com.coda.core.config.EtlJobProperties;
+import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import com.coda.core.repository.DataModelRepository;
+import com.coda.core.util.db.DataSourceRegistry;
+import com.coda.core.util.db.DatabaseExtractor;
+import com.coda.core.util.db.DatabaseExtractorFactory;
+import com.coda.core.util.db.KeyRange;
+import com.coda.core.util.db.KeysetQuery;
+import com.coda.core.util.transform.DataTransformation;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the table ETL job on a job repository in H2, over a source
+ * table and a keyed target held in memory.
+ */
+public class EtlJobServiceTest {
+
+    private static final int ROWS = 10;
+
+    private final NavigableMap<Integer, Double> source = new ConcurrentSkipListMap<>();
+
+    private final Map<Integer, Integer> writes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean failOnRowSeven = new AtomicBoolean(true);
+
+    private ConnectionDetails connectionDetails;
+
+    private AnnotationConfigApplicationContext context;
+
+    private EtlJobService etlJobService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connectionDetails = new ConnectionDetails("jdbc:h2:mem:source", "sa", "");
+        for (int id = 1; id <= ROWS; id++) {
+            source.put(id, id * 1.5);
+        }
+        DatabaseExtractor extractor = mock(DatabaseExtractor.class);
+        when(extractor.findKeyColumn("source")).thenReturn("id");
+        when(extractor.findKeyRange("source", "id")).thenReturn(new KeyRange(1, ROWS));
+        when(extractor.readData(any(KeysetQuery.class))).thenAnswer(invocation ->
+                readPage(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            List<DataModel<Object>> rows = invocation.getArgument(0);
+            for (DataModel<Object> row : rows) {
+                int id = idOf(row);
+                if (id == 7 && failOnRowSeven.get()) {
+                    throw new IllegalStateException("Target unavailable");
+                }
+                writes.merge(id, 1, Integer::sum);
+            }
+            return null;
+        }).when(extractor).loadData(anyList(), eq("target"), eq("id"));
+
+        DatabaseExtractorFactory factory = mock(DatabaseExtractorFactory.class);
+        when(factory.getExtractor("mysql", connectionDetails)).thenReturn(extractor);
+        when(factory.getExtractor("mysql", "jdbc:h2:mem:source", "sa")).thenReturn(extractor);
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean("databaseExtractorFactory", DatabaseExtractorFactory.class,
+                () -> factory);
+        context.register(TestConfig.class);
+        context.refresh();
+        etlJobService = context.getBean(EtlJobService.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void testRunTableJob_CopiesEveryRange() throws Exception {
+        failOnRowSeven.set(false);
+
+        JobExecution execution = etlJobService.runTableJob(connectionDetails, "mysql",
+                "source", "target");
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        assertEquals(ROWS, writes.size());
+        assertTrue(writes.values().stream().allMatch(count -> count == 1));
+        assertTrue(workerSteps(execution).size() > 1);
+    }
+
+    @Test
+    public void testRestart_ResumesTheFailedRange() throws Exception {
+        JobExecution failed = etlJobService.runTableJob(connectionDetails, "mysql",
+                "source", "target");
+        assertEquals(BatchStatus.FAILED, failed.getStatus());
+        assertTrue(writes.size() < ROWS);
+
+        failOnRowSeven.set(false);
+        JobExecution restarted = etlJobService.restart(failed.getId(), connectionDetails);
+
+        assertEquals(BatchStatus.COMPLETED, restarted.getStatus());
+        assertEquals(failed.getJobInstance().getId(), restarted.getJobInstance().getId());
+        assertEquals(ROWS, writes.size());
+        // Only the rows left uncommitted are read again: each row is
+        // committed by one of the two executions. How far the other
+        // ranges got before they stopped depends on timing.
+        assertEquals(ROWS, committedRows(failed) + committedRows(restarted));
+    }
+
+    @Test
+    public void testRestart_RejectsOtherSource() throws Exception {
+        JobExecution failed = etlJobService.runTableJob(connectionDetails, "mysql",
+                "source", "target");
+
+        assertThrows(IllegalArgumentException.class, () -> etlJobService.restart(
+                failed.getId(), new ConnectionDetails("jdbc:h2:mem:other", "sa", "")));
+    }
+
+    private List<DataModel<Object>> readPage(final KeysetQuery query) {
+        Number after = (Number) query.getLastKey();
+        NavigableMap<Integer, Double> rows = after == null ? source
+                : source.tailMap(after.intValue(), false);
+        if (query.getUpperKey() != null) {
+            rows = rows.headMap(((Number) query.getUpperKey()).intValue(), true);
+        }
+        return rows.entrySet().stream()
+                .limit(query.getBatchSize())
+                .map(entry -> row(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static DataModel<Object> row(final int id, final double amount) {
+        Map<String, DataAttributes<Object>> attributes = new HashMap<>();
+        attributes.put("id", new DataAttributes<>("id", id, "java.lang.Integer", Object.class));
+        attributes.put("amount", new DataAttributes<>("amount", amount,
+                "java.lang.Double", Object.class));
+        DataModel<Object> dataModel = new DataModel<>();
+        dataModel.setAttributesMap(attributes);
+        return dataModel;
+    }
+
+    private static int idOf(final DataModel<Object> row) {
+        return ((Number) row.getAttributesMap().get("id").getValue()).intValue();
+    }
+
+    private static long committedRows(final JobExecution execution) {
+        return workerSteps(execution).stream()
+                .mapToLong(StepExecution::getWriteCount).sum();
+    }
+
+    private static List<StepExecution> workerSteps(final JobExecution execution) {
+        return execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().startsWith("tableEtlWorkerStep:"))
+                .toList();
+    }
+
+    @Configuration
+    @EnableBatchProcessing(transactionManagerRef = "mysqlTransactionManager")
+    @Import(EtlJobConfig.class)
+    static class TestConfig {
+
+        @Bean
+        DataSource dataSource() {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:batch_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+            new ResourceDatabasePopulator(new ClassPathResource(
+                    "org/springframework/batch/core/schema-h2.sql")).execute(dataSource);
+            return dataSource;
+        }
+
+        @Bean
+        DataSourceTransactionManager mysqlTransactionManager(final DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        EtlJobProperties etlJobProperties() {
+            EtlJobProperties properties = new EtlJobProperties();
+            properties.setChunkSize(2);
+            properties.setGridSize(2);
+            return properties;
+        }
+
+        @Bean
+        DataModelProcessor dataModelProcessor() {
+            return new DataModelProcessor(new DataTransformation());
+        }
+
+        @Bean
+        DataModelItemProcessor dataModelItemProcessor(final DataModelProcessor processor) {
+            return new DataModelItemProcessor(processor);
+        }
+
+        @Bean
+        DataModelRepository dataModelRepository() {
+            return mock(DataModelRepository.class);
+        }
+
+        @Bean
+        DataSourceRegistry dataSourceRegistry() {
+            return mock(DataSourceRegistry.class);
+        }
+
+        @Bean
+        EtlJobService etlJobService(final JobLauncher launcher, final JobExplorer explorer,
+                                    final Job tableEtlJob,
+                                    final DatabaseExtractorFactory factory,
+                                    final DataSourceRegistry registry) {
+            return new EtlJobService(launcher, explorer, tableEtlJob, factory, registry);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.coda.core.util.db;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkLoaderTest {
+
+    private static final String URL = "jdbc:h2:mem:bulk;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final List<String> COLUMNS = List.of("id", "name", "price");
+
+    private ConnectionFactory connectionFactory;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> DriverManager.getConnection(URL));
+        connectionFactory = () -> dataSource;
+        execute("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(255), price DOUBLE)");
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        execute("DROP TABLE products");
+    }
+
+    @Test
+    public void testLoad_multiRowSplitsOnPacketSize() throws SQLException {
+        BulkLoader loader = new BulkLoader(BulkLoadStrategy.MULTI_ROW, 4096);
+
+        LoadStatistics statistics = loader.load(connectionFactory, "products", COLUMNS, rows(250, "item"));
+
+        assertEquals(BulkLoadStrategy.MULTI_ROW, statistics.getStrategy());
+        assertEquals(250, statistics.getRows());
+        assertTrue(statistics.getStatements() > 1);
+        assertTrue(statistics.getRowsPerSecond() > 0);
+        assertEquals(250, count());
+    }
+
+    @Test
+    public void testLoad_multiRowUpsertsByKey() throws SQLException {
+        BulkLoader loader = new BulkLoader(BulkLoadStrategy.MULTI_ROW, 0);
+
+        loader.load(connectionFactory, "products", COLUMNS, rows(10, "old"));
+        LoadStatistics statistics = loader.load(connectionFactory, "products", COLUMNS, rows(10, "new"));
+
+        assertEquals(1, statistics.getStatements());
+        assertEquals(10, count());
+        assertEquals("new3", nameOf(3));
+    }
+
+    @Test
+    public void testLoad_loadDataFallsBackWithoutMySQLDriver() throws SQLException {
+        BulkLoader loader = new BulkLoader(BulkLoadStrategy.LOAD_DATA_INFILE, 0);
+
+        LoadStatistics statistics = loader.load(connectionFactory, "products", COLUMNS, rows(5, "item"));
+
+        assertEquals(BulkLoadStrategy.MULTI_ROW, statistics.getStrategy());
+        assertEquals(5, count());
+    }
+
+    @Test
+    public void testLoad_loadDataFallbackWarnsOncePerTable() {
+        BulkLoader loader = new BulkLoader(BulkLoadStrategy.LOAD_DATA_INFILE, 0);
+        Logger logger = (Logger) LoggerFactory.getLogger(BulkLoader.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            loader.load(connectionFactory, "products", COLUMNS, rows(5, "item"));
+            loader.load(connectionFactory, "products", COLUMNS, rows(5, "item"));
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertEquals(1, appender.list.stream()
+                .filter(event -> event.getLevel() == Level.WARN)
+                .count());
+    }
+
+    @Test
+    public void testLoad_batched() throws SQLException {
+        BulkLoader loader = new BulkLoader(BulkLoadStrategy.BATCHED, 0);
+
+        LoadStatistics statistics = loader.load(connectionFactory, "products", COLUMNS, rows(20, "item"));
+
+        assertEquals(BulkLoadStrategy.BATCHED, statistics.getStrategy());
+        assertEquals(20, count());
+    }
+
+    @Test
+    public void testCsvRowStream_escapesValues() throws IOException {
+        BulkLoader.Rows rows = rows(List.of(
+                new Object[]{1, "say \"hi\"\nback\\slash", null},
+                new Object[]{2, "plain", true}));
+
+        try (CsvRowStream stream = new CsvRowStream(rows, 3)) {
+            String csv = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertEquals("1,\"say \\\"hi\\\"\\nback\\\\slash\",\\N\n2,\"plain\",1\n", csv);
+        }
+    }
+
+    @Test
+    public void testLoadDataSql() {
+        assertEquals("LOAD DATA LOCAL INFILE 'stream' REPLACE INTO TABLE `products`"
+                        + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"'"
+                        + " ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (`id`, `name`, `price`)",
+                BulkLoader.loadDataSql("products", COLUMNS));
+    }
+
+    private BulkLoader.Rows rows(final int count, final String prefix) {
+        Object[][] values = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            values[i] = new Object[]{i, prefix + i, i * 1.5};
+        }
+        return rows(Arrays.asList(values));
+    }
+
+    private BulkLoader.Rows rows(final List<Object[]> values) {
+        return new BulkLoader.Rows() {
+            @Override
+            public int size() {
+                return values.size();
+            }
+
+            @Override
+            public Object value(final int row, final int column) {
+                return values.get(row)[column];
+            }
+        };
+    }
+
+    private int count() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM products")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private String nameOf(final int id) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM products WHERE id = " + id)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL);
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
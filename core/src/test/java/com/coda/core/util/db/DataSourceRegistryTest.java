@@ -0,0 +1,170 @@
+package com.coda.core.util.db;
+
+import com.coda.core.config.AsyncEtlProperties;
+import com.coda.core.config.EtlJobProperties;
+import com.coda.core.config.LoadProperties;
+import com.coda.core.config.MySQLProperties;
+import com.coda.core.dtos.ConnectionDetails;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSourceRegistryTest {
+
+    private static final String URL = "jdbc:h2:mem:registry;DB_CLOSE_DELAY=-1";
+
+    private MySQLProperties properties;
+
+    private DataSourceRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new MySQLProperties();
+        properties.setMaximumPoolSize(2);
+        properties.setMinimumIdle(0);
+        properties.setPoolIdleTimeout(1000);
+        registry = new DataSourceRegistry(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void testGetOrCreate_reusesPoolForSameDatabase() {
+        HikariDataSource first = registry.getOrCreate(new ConnectionDetails(URL, "sa", ""));
+        HikariDataSource second = registry.getOrCreate(new ConnectionDetails(URL, "sa", ""));
+        HikariDataSource other = registry.getOrCreate(new ConnectionDetails(
+                "jdbc:h2:mem:registry_other;DB_CLOSE_DELAY=-1", "sa", ""));
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals(2, registry.size());
+        assertEquals(2, first.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testGetOrCreate_sizesPoolForConcurrentJobs() {
+        AsyncEtlProperties asyncEtlProperties = new AsyncEtlProperties();
+        asyncEtlProperties.setMaxJobsPerSource(2);
+        EtlJobProperties etlJobProperties = new EtlJobProperties();
+        etlJobProperties.setGridSize(3);
+
+        try (DataSourceRegistry sized = new DataSourceRegistry(properties,
+                asyncEtlProperties, etlJobProperties, new LoadProperties())) {
+            // Two jobs of three partitions, each with a reader and a writer.
+            assertEquals(12, sized.getOrCreate(new ConnectionDetails(URL, "sa", ""))
+                    .getMaximumPoolSize());
+        }
+    }
+
+    @Test
+    public void testPoolConfig_allowsLocalInfileForLoadDataStrategy() {
+        LoadProperties loadProperties = new LoadProperties();
+        loadProperties.setStrategy(BulkLoadStrategy.LOAD_DATA_INFILE);
+        ConnectionDetails mysql = new ConnectionDetails("jdbc:mysql://localhost/db", "user", "pass");
+
+        try (DataSourceRegistry infile = new DataSourceRegistry(properties,
+                new AsyncEtlProperties(), new EtlJobProperties(), loadProperties)) {
+            assertEquals(true, infile.poolConfig(mysql).getDataSourceProperties()
+                    .get("allowLoadLocalInfile"));
+        }
+        assertNull(registry.poolConfig(mysql).getDataSourceProperties()
+                .get("allowLoadLocalInfile"));
+    }
+
+    @Test
+    public void testGetOrCreate_replacesPoolWhenPasswordChanges() {
+        // Without DB_CLOSE_DELAY the database goes away with the first pool.
+        String url = "jdbc:h2:mem:registry_password";
+        HikariDataSource first = registry.getOrCreate(new ConnectionDetails(url, "sa", ""));
+        HikariDataSource second = registry.getOrCreate(new ConnectionDetails(url, "sa", "changed"));
+
+        assertNotSame(first, second);
+        assertSame(second, registry.get(url, "sa"));
+        assertEquals(1, registry.size());
+        // The replaced pool is closed by the evictor once idle, not at once.
+        assertFalse(first.isClosed());
+        registry.evictIdle(System.currentTimeMillis() + 2000);
+        assertTrue(first.isClosed());
+    }
+
+    @Test
+    public void testEvictIdle_keepsReplacedPoolInUse() throws SQLException {
+        String url = "jdbc:h2:mem:registry_rotated";
+        HikariDataSource first = registry.getOrCreate(new ConnectionDetails(url, "sa", ""));
+
+        try (Connection connection = first.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER USER SA SET PASSWORD 'changed'");
+            registry.getOrCreate(new ConnectionDetails(url, "sa", "changed"));
+            registry.evictIdle(System.currentTimeMillis() + 2000);
+            assertFalse(first.isClosed());
+        }
+        registry.evictIdle(System.currentTimeMillis() + 2000);
+        assertTrue(first.isClosed());
+    }
+
+    @Test
+    public void testEvictIdle_closesUnusedPools() {
+        HikariDataSource pool = registry.getOrCreate(new ConnectionDetails(URL, "sa", ""));
+
+        assertEquals(0, registry.evictIdle(System.currentTimeMillis()));
+        assertEquals(1, registry.evictIdle(System.currentTimeMillis() + 2000));
+
+        assertTrue(pool.isClosed());
+        assertEquals(0, registry.size());
+        assertNotSame(pool, registry.getOrCreate(new ConnectionDetails(URL, "sa", "")));
+    }
+
+    @Test
+    public void testEvictIdle_keepsPoolsInUse() throws SQLException {
+        HikariDataSource pool = registry.getOrCreate(new ConnectionDetails(URL, "sa", ""));
+
+        try (Connection ignored = pool.getConnection()) {
+            assertEquals(0, registry.evictIdle(System.currentTimeMillis() + 2000));
+            assertFalse(pool.isClosed());
+        }
+    }
+
+    @Test
+    public void testConnectionFactory_sharesRegistryPool() {
+        SqlDbConnectionFactory first = new SqlDbConnectionFactory(registry,
+                new ConnectionDetails(URL, "sa", ""));
+        SqlDbConnectionFactory second = new SqlDbConnectionFactory(registry,
+                new ConnectionDetails(URL, "sa", ""));
+
+        assertSame(first.dataSource(), second.dataSource());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testConnectionFactory_keepsItsDatabaseWhileOthersAreUsed() {
+        SqlDbConnectionFactory first = new SqlDbConnectionFactory(registry,
+                new ConnectionDetails(URL, "sa", ""));
+        SqlDbConnectionFactory other = new SqlDbConnectionFactory(registry,
+                new ConnectionDetails("jdbc:h2:mem:registry_other;DB_CLOSE_DELAY=-1", "sa", ""));
+
+        HikariDataSource before = (HikariDataSource) first.dataSource();
+        other.dataSource();
+
+        assertSame(before, first.dataSource());
+        assertEquals(URL, before.getJdbcUrl());
+    }
+
+    @Test
+    public void testGet_returnsOpenPoolByUrlAndUser() {
+        HikariDataSource pool = registry.getOrCreate(new ConnectionDetails(URL, "sa", ""));
+
+        assertSame(pool, registry.get(URL, "sa"));
+        assertThrows(IllegalStateException.class, () -> registry.get(URL, "other"));
+    }
+}
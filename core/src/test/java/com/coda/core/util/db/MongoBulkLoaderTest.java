@@ -0,0 +1,127 @@
+package com.coda.core.util.db;
+
+import com.coda.core.exceptions.DataLoadingException;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class MongoBulkLoaderTest {
+
+    private MongoCollection<Document> collection;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        collection = mock(MongoCollection.class);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("testDb.testTable"));
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            List<WriteModel<Document>> writes = invocation.getArgument(0);
+            return BulkWriteResult.acknowledged(0, writes.size(), 0, 1, List.of(), List.of());
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoad_writesUnorderedChunksOfUpserts() {
+        MongoBulkLoader loader = new MongoBulkLoader(2, 1, List.of());
+
+        MongoLoadStatistics statistics = loader.load(collection, documents(5).iterator());
+
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection, times(3)).bulkWrite(writes.capture(), options.capture());
+        assertEquals(List.of(2, 2, 1), writes.getAllValues().stream().map(List::size).toList());
+        assertFalse(options.getValue().isOrdered());
+
+        ReplaceOneModel<Document> first = (ReplaceOneModel<Document>) writes.getAllValues().get(0).get(0);
+        assertEquals(Filters.eq("_id", 0), first.getFilter());
+        assertTrue(first.getReplaceOptions().isUpsert());
+
+        assertEquals(5, statistics.getDocuments());
+        assertEquals(5, statistics.getMatched());
+        assertEquals(3, statistics.getModified());
+        assertEquals(List.of(0, 1, 2), statistics.getChunks().stream()
+                .map(MongoLoadStatistics.Chunk::getIndex).toList());
+    }
+
+    @Test
+    public void testToWriteModel_naturalKey() {
+        MongoBulkLoader loader = new MongoBulkLoader(10, 1, List.of("sku", "store"));
+
+        WriteModel<Document> keyed = loader.toWriteModel(
+                new Document("sku", "A1").append("store", 3).append("price", 9.5));
+        WriteModel<Document> unkeyed = loader.toWriteModel(new Document("sku", "A1"));
+
+        assertEquals(Filters.and(List.of(Filters.eq("sku", "A1"), Filters.eq("store", 3))),
+                ((ReplaceOneModel<Document>) keyed).getFilter());
+        assertInstanceOf(InsertOneModel.class, unkeyed);
+    }
+
+    @Test
+    public void testLoad_boundsChunksInFlight() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        reset(collection);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("testDb.testTable"));
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of());
+        });
+        MongoBulkLoader loader = new MongoBulkLoader(1, 2, List.of());
+
+        MongoLoadStatistics statistics = loader.load(collection, documents(8).iterator());
+
+        assertEquals(8, statistics.getChunks().size());
+        assertEquals(8, statistics.getDocuments());
+        assertTrue(maxRunning.get() <= 2, "at most two chunks in flight");
+    }
+
+    @Test
+    public void testLoad_failedChunk() {
+        reset(collection);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("testDb.testTable"));
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenThrow(
+                new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                        List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0)),
+                        null, new ServerAddress(), Set.of()));
+        MongoBulkLoader loader = new MongoBulkLoader(2, 2, List.of("sku"));
+
+        DataLoadingException exception = assertThrows(DataLoadingException.class,
+                () -> loader.load(collection, documents(4).iterator()));
+
+        assertTrue(exception.getMessage().contains("duplicate key"));
+    }
+
+    private static List<Document> documents(final int count) {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            documents.add(new Document("_id", i).append("sku", "A" + i));
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,113 @@
+package com.coda.core.util.db;
+
+import com.coda.core.entities.DataModel;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class MongoChangeStreamReaderTest {
+
+    private MongoCollection<Document> collection;
+
+    private ChangeStreamIterable<Document> changes;
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        collection = mock(MongoCollection.class);
+        changes = mock(ChangeStreamIterable.class);
+        cursor = mock(MongoChangeStreamCursor.class);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("testDb.testTable"));
+        when(collection.watch(anyList())).thenReturn(changes);
+        when(changes.fullDocument(any(FullDocument.class))).thenReturn(changes);
+        when(changes.batchSize(anyInt())).thenReturn(changes);
+        when(changes.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(changes);
+        when(changes.resumeAfter(any(BsonDocument.class))).thenReturn(changes);
+        when(changes.cursor()).thenReturn(cursor);
+    }
+
+    @Test
+    public void testRead_batchesChangedDocumentsAndCheckpoints() throws Exception {
+        when(cursor.tryNext()).thenReturn(
+                change("insert", new Document("_id", 1).append("name", "a"), 1),
+                change("update", new Document("_id", 1).append("name", "b"), 2),
+                change("insert", new Document("_id", 2).append("name", "c"), 3),
+                change("update", null, 4),
+                change("insert", new Document("_id", 3).append("name", "d"), 5),
+                null);
+        when(cursor.getResumeToken()).thenReturn(token(3), token(5));
+        List<List<DataModel<Object>>> batches = new ArrayList<>();
+        List<BsonDocument> checkpoints = new ArrayList<>();
+
+        long count = new MongoChangeStreamReader(collection, 2, 100)
+                .read(token(0), batches::add, checkpoints::add);
+
+        assertEquals(3, count);
+        assertEquals(2, batches.size());
+        assertEquals("b", batches.get(0).get(0).getAttributesMap().get("name").getValue());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(List.of(token(3), token(5)), checkpoints);
+        verify(changes).resumeAfter(token(0));
+        verify(changes).fullDocument(FullDocument.UPDATE_LOOKUP);
+        verify(cursor).close();
+    }
+
+    @Test
+    public void testRead_invalidatedStreamForgetsToken() throws Exception {
+        when(cursor.tryNext()).thenReturn(
+                change("insert", new Document("_id", 1), 1),
+                change("invalidate", null, 2));
+        List<BsonDocument> checkpoints = new ArrayList<>();
+        List<DataModel<Object>> read = new ArrayList<>();
+
+        long count = new MongoChangeStreamReader(collection, 10, 100)
+                .read(null, read::addAll, checkpoints::add);
+
+        assertEquals(1, count);
+        assertEquals(1, read.size());
+        assertEquals(1, checkpoints.size());
+        assertNull(checkpoints.get(0));
+        verify(changes, never()).resumeAfter(any());
+    }
+
+    @Test
+    public void testCurrentToken() {
+        when(cursor.getResumeToken()).thenReturn(token(7));
+
+        assertEquals(token(7), new MongoChangeStreamReader(collection, 10, 100).currentToken());
+        verify(cursor, never()).tryNext();
+        verify(cursor).close();
+    }
+
+    private static BsonDocument token(final int position) {
+        return new BsonDocument("_data", new BsonInt32(position));
+    }
+
+    private static ChangeStreamDocument<Document> change(final String operation,
+                                                         final Document document,
+                                                         final int position) {
+        return new ChangeStreamDocument<>(operation, token(position), null, null, document,
+                null, null, null, null, null, null, null, null, null);
+    }
+}
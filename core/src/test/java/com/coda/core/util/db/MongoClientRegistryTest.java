@@ -0,0 +1,62 @@
+package com.coda.core.util.db;
+
+import com.coda.core.config.MongoDBProperties;
+import com.mongodb.client.MongoClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoClientRegistryTest {
+
+    private static final String URL = "mongodb://localhost:27017/admin";
+
+    private MongoClientRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        MongoDBProperties properties = new MongoDBProperties();
+        properties.setUrl(URL);
+        properties.setUsername("admin");
+        properties.setPassword("secret");
+        properties.setMaxPoolSize(5);
+        registry = new MongoClientRegistry(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void testGetOrCreate_reusesClientForSameUrl() {
+        MongoClient first = registry.getOrCreate(URL);
+        MongoClient second = registry.getOrCreate(URL);
+        MongoClient other = registry.getOrCreate("mongodb://localhost:27018/admin");
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertSame(first, registry.getDefault());
+        assertSame(first, registry.getOrCreate(""));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void testClose_closesClients() {
+        registry.getDefault();
+
+        registry.close();
+
+        assertEquals(0, registry.size());
+        assertNotSame(registry.getDefault(), registry.getOrCreate("mongodb://localhost:27018/admin"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void testGetOrCreate_withoutUrl() {
+        MongoClientRegistry unconfigured = new MongoClientRegistry(new MongoDBProperties());
+
+        assertThrows(IllegalArgumentException.class, () -> unconfigured.getOrCreate(null));
+    }
+}
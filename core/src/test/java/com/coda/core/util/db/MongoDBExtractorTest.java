@@ -1,25 +1,37 @@
 package com.coda.core.util.db;
 
-import com.coda.core.config.MongoDBConfig;
+import com.coda.core.config.MongoDBProperties;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
 import com.coda.core.util.timestamps.FileTimestampStorage;
+import com.coda.core.util.timestamps.Watermark;
+import com.coda.core.util.timestamps.WatermarkKey;
+import com.coda.core.util.timestamps.WatermarkStore;
 import com.mongodb.client.*;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class MongoDBExtractorTest {
@@ -28,18 +40,17 @@ public class MongoDBExtractorTest {
     private MongoDBConnectionFactory mongoDBConnectionFactory;
 
     @Mock
-    private MongoDBConfig mongoDBConfig;
+    private MongoClientRegistry mongoClientRegistry;
 
     @Mock
     private FileTimestampStorage fileTimestampStorage;
 
-    @InjectMocks
     private MongoDBExtractor mongoDBExtractor;
 
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
-        mongoDBExtractor = new MongoDBExtractor(mongoDBConnectionFactory, mongoDBConfig, fileTimestampStorage);
+        mongoDBExtractor = new MongoDBExtractor(mongoDBConnectionFactory, mongoClientRegistry, fileTimestampStorage);
     }
 
     @Test
@@ -52,7 +63,7 @@ public class MongoDBExtractorTest {
         MongoCursor<Document> mockCursor = mock(MongoCursor.class);
         Document mockDocument = mock(Document.class);
 
-        when(mongoDBConfig.mongoClient()).thenReturn(mockClient);
+        when(mongoClientRegistry.getOrCreate("testUrl")).thenReturn(mockClient);
         when(mongoDBConnectionFactory.getConnection(mockClient, "testDb")).thenReturn(mockDatabase);
         when(mockDatabase.getCollection("testTable")).thenReturn(mockCollection);
         when(mockCollection.find(any(Bson.class))).thenReturn(mockFindIterable);
@@ -85,7 +96,7 @@ public class MongoDBExtractorTest {
     Document valueDocument = new Document("key1", "value1");
     Document mockDocument = new Document("_id", "1").append("updatedAt", Instant.now()).append("key1", valueDocument);
 
-    when(mongoDBConfig.mongoClient()).thenReturn(mockClient);
+    when(mongoClientRegistry.getOrCreate("testUrl")).thenReturn(mockClient);
     when(mongoDBConnectionFactory.getConnection(mockClient, "testDb")).thenReturn(mockDatabase);
     when(mockDatabase.getCollection("testTable")).thenReturn(mockCollection);
     when(mockCollection.find(any(Bson.class))).thenReturn(mockFindIterable);
@@ -112,6 +123,127 @@ public class MongoDBExtractorTest {
 }
 
 
+    @Test
+    public void testStreamData() throws Exception {
+        MongoClient mockClient = mock(MongoClient.class);
+        MongoDatabase mockDatabase = mock(MongoDatabase.class);
+        MongoCollection<Document> mockCollection = mock(MongoCollection.class);
+        FindIterable<Document> mockFindIterable = mock(FindIterable.class);
+        MongoCursor<Document> mockCursor = mock(MongoCursor.class);
+        Instant startedAt = Instant.now();
+
+        when(mongoClientRegistry.getOrCreate("testUrl")).thenReturn(mockClient);
+        when(mongoDBConnectionFactory.getConnection(mockClient, "testDb")).thenReturn(mockDatabase);
+        when(mockDatabase.getCollection("testTable")).thenReturn(mockCollection);
+        when(mockCollection.find(any(Bson.class))).thenReturn(mockFindIterable);
+        when(mockFindIterable.batchSize(anyInt())).thenReturn(mockFindIterable);
+        when(mockFindIterable.iterator()).thenReturn(mockCursor);
+        when(mockCursor.hasNext()).thenReturn(true, false);
+        when(mockCursor.next()).thenReturn(new Document("_id", "1").append("name", "ipad"));
+        WatermarkStore watermarkStore = mock(WatermarkStore.class);
+        WatermarkKey key = new WatermarkKey("mongodb", "testUrl", "testDb.testTable");
+        when(watermarkStore.get(key)).thenReturn(Optional.empty());
+        List<DataModel<Object>> streamed = new ArrayList<>();
+
+        MongoDBProperties properties = new MongoDBProperties();
+        properties.setScanParallelism(1);
+        long count = new MongoDBExtractor(mongoDBConnectionFactory, mongoClientRegistry,
+                fileTimestampStorage, properties, watermarkStore)
+                .streamData("testDb", "testTable", "testUrl", List.of(), streamed::addAll);
+
+        assertEquals(1, count);
+        assertEquals("ipad", streamed.get(0).getAttributesMap().get("name").getValue());
+        // Without a watermark of its own the whole collection is read.
+        verify(mockCollection).find(Filters.gt("updatedAt", Instant.EPOCH));
+        verify(mockFindIterable).batchSize(1000);
+        ArgumentCaptor<Watermark> watermark = ArgumentCaptor.forClass(Watermark.class);
+        verify(watermarkStore).put(eq(key), watermark.capture());
+        assertTrue(watermark.getValue().getTimestamp().isAfter(startedAt.minusMillis(1)));
+        verifyNoInteractions(fileTimestampStorage);
+        verify(mockClient, never()).close();
+    }
+
+    @Test
+    public void testStreamData_resumesFromTableWatermark() throws Exception {
+        MongoClient mockClient = mock(MongoClient.class);
+        MongoDatabase mockDatabase = mock(MongoDatabase.class);
+        MongoCollection<Document> mockCollection = mock(MongoCollection.class);
+        FindIterable<Document> mockFindIterable = mock(FindIterable.class);
+        MongoCursor<Document> mockCursor = mock(MongoCursor.class);
+        WatermarkStore watermarkStore = mock(WatermarkStore.class);
+        Instant tableTimestamp = Instant.parse("2024-05-01T10:15:30Z");
+
+        when(mongoClientRegistry.getOrCreate("testUrl")).thenReturn(mockClient);
+        when(mongoDBConnectionFactory.getConnection(mockClient, "testDb")).thenReturn(mockDatabase);
+        when(mockDatabase.getCollection("testTable")).thenReturn(mockCollection);
+        when(mockCollection.find(any(Bson.class))).thenReturn(mockFindIterable);
+        when(mockFindIterable.batchSize(anyInt())).thenReturn(mockFindIterable);
+        when(mockFindIterable.iterator()).thenReturn(mockCursor);
+        when(mockCursor.hasNext()).thenReturn(false);
+        when(watermarkStore.get(new WatermarkKey("mongodb", "testUrl", "testDb.testTable")))
+                .thenReturn(Optional.of(Watermark.empty().withTimestamp(tableTimestamp)));
+
+        MongoDBProperties properties = new MongoDBProperties();
+        properties.setScanParallelism(1);
+        new MongoDBExtractor(mongoDBConnectionFactory, mongoClientRegistry,
+                fileTimestampStorage, properties, watermarkStore)
+                .streamData("testDb", "testTable", "testUrl", List.of(), batch -> { });
+
+        verify(mockCollection).find(Filters.gt("updatedAt", tableTimestamp));
+        verifyNoInteractions(fileTimestampStorage);
+    }
+
+    @Test
+    public void testStreamChanges_firstRunReadsCollectionThenResumes() throws Exception {
+        MongoClient mockClient = mock(MongoClient.class);
+        MongoDatabase mockDatabase = mock(MongoDatabase.class);
+        MongoCollection<Document> mockCollection = mock(MongoCollection.class);
+        FindIterable<Document> mockFindIterable = mock(FindIterable.class);
+        MongoCursor<Document> mockCursor = mock(MongoCursor.class);
+        ChangeStreamIterable<Document> mockChanges = mock(ChangeStreamIterable.class);
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> mockChangeCursor
+                = mock(MongoChangeStreamCursor.class);
+        WatermarkStore watermarkStore = mock(WatermarkStore.class);
+        WatermarkKey key = new WatermarkKey("mongodb", "testUrl", "testDb.testTable");
+        BsonDocument startToken = new BsonDocument("_data", new BsonString("01"));
+        BsonDocument nextToken = new BsonDocument("_data", new BsonString("02"));
+
+        when(mongoClientRegistry.getOrCreate("testUrl")).thenReturn(mockClient);
+        when(mongoDBConnectionFactory.getConnection(mockClient, "testDb")).thenReturn(mockDatabase);
+        when(mockDatabase.getCollection("testTable")).thenReturn(mockCollection);
+        when(mockCollection.find(any(Bson.class))).thenReturn(mockFindIterable);
+        when(mockFindIterable.batchSize(anyInt())).thenReturn(mockFindIterable);
+        when(mockFindIterable.iterator()).thenReturn(mockCursor);
+        when(mockCursor.hasNext()).thenReturn(true, false);
+        when(mockCursor.next()).thenReturn(new Document("_id", "1").append("name", "ipad"));
+        when(mockCollection.watch(anyList())).thenReturn(mockChanges);
+        when(mockChanges.fullDocument(any(FullDocument.class))).thenReturn(mockChanges);
+        when(mockChanges.batchSize(anyInt())).thenReturn(mockChanges);
+        when(mockChanges.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(mockChanges);
+        when(mockChanges.resumeAfter(any(BsonDocument.class))).thenReturn(mockChanges);
+        when(mockChanges.cursor()).thenReturn(mockChangeCursor);
+        when(mockChangeCursor.getResumeToken()).thenReturn(startToken, nextToken);
+        when(watermarkStore.get(key)).thenReturn(Optional.empty());
+        when(mockChangeCursor.tryNext()).thenReturn(new ChangeStreamDocument<>("update", nextToken,
+                null, null, new Document("_id", "1").append("name", "iphone"),
+                null, null, null, null, null, null, null, null, null)).thenReturn(null);
+        List<DataModel<Object>> streamed = new ArrayList<>();
+
+        MongoDBProperties properties = new MongoDBProperties();
+        properties.setScanParallelism(1);
+        long count = new MongoDBExtractor(mongoDBConnectionFactory, mongoClientRegistry,
+                fileTimestampStorage, properties, watermarkStore)
+                .streamChanges("testDb", "testTable", "testUrl", streamed::addAll);
+
+        assertEquals(2, count);
+        assertEquals("ipad", streamed.get(0).getAttributesMap().get("name").getValue());
+        assertEquals("iphone", streamed.get(1).getAttributesMap().get("name").getValue());
+        verify(watermarkStore).put(key, Watermark.empty().withResumeToken(startToken));
+        verify(mockChanges).resumeAfter(startToken);
+        verify(watermarkStore).put(key, Watermark.empty().withResumeToken(nextToken));
+        verifyNoInteractions(fileTimestampStorage);
+    }
+
     @Test
     public void testLoadData() throws Exception {
         // Mocking
@@ -119,9 +251,11 @@ public class MongoDBExtractorTest {
         MongoDatabase mockDatabase = mock(MongoDatabase.class);
         MongoCollection<Document> mockCollection = mock(MongoCollection.class);
 
-        when(mongoDBConfig.mongoClient()).thenReturn(mockClient);
+        when(mongoClientRegistry.getOrCreate("testUrl")).thenReturn(mockClient);
         when(mongoDBConnectionFactory.getConnection(mockClient, "testDb")).thenReturn(mockDatabase);
         when(mockDatabase.getCollection("testTable")).thenReturn(mockCollection);
+        when(mockCollection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()));
 
         // Create a sample DataModel
         Map<String, DataModel<Document>> dataModels = new HashMap<>();
@@ -137,14 +271,21 @@ public class MongoDBExtractorTest {
         mongoDBExtractor.loadData(dataModels, "testDb", "testTable", "testUrl");
 
         // Verify interactions
-        ArgumentCaptor<List<Document>> argumentCaptor = ArgumentCaptor.forClass(List.class);
-        verify(mockCollection, times(1)).insertMany(argumentCaptor.capture());
-        List<Document> capturedDocuments = argumentCaptor.getValue();
+        ArgumentCaptor<List<WriteModel<Document>>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockCollection, times(1)).bulkWrite(argumentCaptor.capture(), any(BulkWriteOptions.class));
+        List<WriteModel<Document>> capturedWrites = argumentCaptor.getValue();
 
-        assertNotNull(capturedDocuments);
-        assertEquals(1, capturedDocuments.size());
-        assertEquals("value1", capturedDocuments.get(0).get("key1", Document.class).getString("key1"));
+        assertNotNull(capturedWrites);
+        assertEquals(1, capturedWrites.size());
+        Document capturedDocument = ((InsertOneModel<Document>) capturedWrites.get(0)).getDocument();
+        assertEquals("value1", capturedDocument.get("key1", Document.class).getString("key1"));
 
-        verify(fileTimestampStorage, times(1)).updateLastExtractedTimestamp(any(Instant.class));
+        verify(fileTimestampStorage, never()).updateLastExtractedTimestamp(any(Instant.class));
+        verify(mockClient, never()).close();
+    }
+
+    @Test
+    public void testFindKeyRange_isEmpty() {
+        assertTrue(mongoDBExtractor.findKeyRange("collection", "_id").isEmpty());
     }
 }
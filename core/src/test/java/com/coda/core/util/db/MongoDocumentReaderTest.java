@@ -0,0 +1,140 @@
+package com.coda.core.util.db;
+
+import com.coda.core.entities.DataModel;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class MongoDocumentReaderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRead_streamsCursorInBatches() throws Exception {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> documents = findIterable(List.of(
+                new Document("_id", 1).append("name", "a"),
+                new Document("_id", 2).append("name", "b"),
+                new Document("_id", 3).append("name", "c")));
+        when(collection.find(any(Bson.class))).thenReturn(documents);
+        List<Integer> batchSizes = new ArrayList<>();
+
+        long count = new MongoDocumentReader(collection, 2, 1)
+                .read(Filters.empty(), List.of("name"), batch -> batchSizes.add(batch.size()));
+
+        assertEquals(3, count);
+        assertEquals(List.of(2, 1), batchSizes);
+        verify(documents).batchSize(2);
+        verify(documents).projection(Projections.include(List.of("name")));
+        verify(collection, never()).aggregate(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRead_scansRangesInParallel() throws Exception {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        List<Document> sampledIds = new ArrayList<>();
+        for (int id = 1; id <= 8; id++) {
+            sampledIds.add(new Document("_id", id));
+        }
+        AggregateIterable<Document> sample = mock(AggregateIterable.class);
+        MongoCursor<Document> sampleCursor = cursor(sampledIds);
+        when(sample.iterator()).thenReturn(sampleCursor);
+        when(collection.aggregate(anyList())).thenReturn(sample);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("db.items"));
+        when(collection.find(any(Bson.class))).thenAnswer(invocation ->
+                findIterable(List.of(new Document("_id", 1), new Document("_id", 2))));
+        AtomicInteger handled = new AtomicInteger();
+
+        long count = new MongoDocumentReader(collection, 10, 4)
+                .read(Filters.empty(), List.of(), batch -> handled.addAndGet(batch.size()));
+
+        // Four id ranges and the range of ids of other types.
+        verify(collection, times(5)).find(any(Bson.class));
+        assertEquals(10, count);
+        assertEquals(10, handled.get());
+    }
+
+    @Test
+    public void testRanges_splitsSampledIds() {
+        List<Object> ids = List.of(1, 2, 3, 4, 5, 6, 7, 8);
+
+        List<Bson> ranges = MongoDocumentReader.ranges(ids, 4);
+
+        assertEquals(5, ranges.size());
+        assertEquals(Filters.lt("_id", 3), ranges.get(0));
+        assertEquals(Filters.and(Filters.gte("_id", 3), Filters.lt("_id", 5)), ranges.get(1));
+        assertEquals(Filters.gte("_id", 7), ranges.get(3));
+        assertEquals(Filters.not(Filters.type("_id", "number")), ranges.get(4));
+    }
+
+    @Test
+    public void testRanges_mixedIdTypesAreNotSplit() {
+        assertTrue(MongoDocumentReader.ranges(List.of(1, "a", 3, 4), 2).isEmpty());
+        assertTrue(MongoDocumentReader.ranges(List.of(1), 2).isEmpty());
+    }
+
+    @Test
+    public void testToDataModel_convertsBsonValues() {
+        ObjectId id = new ObjectId();
+        Document document = new Document("_id", id)
+                .append("createdAt", new Date(0))
+                .append("price", new Decimal128(new BigDecimal("9.99")))
+                .append("address", new Document("city", "Lagos"))
+                .append("tags", List.of("a", "b"));
+
+        DataModel<Object> dataModel = MongoDocumentReader.toDataModel(document);
+
+        assertEquals(id, dataModel.getId());
+        assertEquals(id.toHexString(), dataModel.getAttributesMap().get("_id").getValue());
+        assertEquals(LocalDateTime.of(1970, 1, 1, 0, 0),
+                dataModel.getAttributesMap().get("createdAt").getValue());
+        assertEquals("java.time.LocalDateTime",
+                dataModel.getAttributesMap().get("createdAt").getType());
+        assertEquals(new BigDecimal("9.99"), dataModel.getAttributesMap().get("price").getValue());
+        assertEquals("{\"city\": \"Lagos\"}", dataModel.getAttributesMap().get("address").getValue());
+        assertEquals("[\"a\", \"b\"]", dataModel.getAttributesMap().get("tags").getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private FindIterable<Document> findIterable(final List<Document> documents) {
+        FindIterable<Document> iterable = mock(FindIterable.class);
+        when(iterable.batchSize(anyInt())).thenReturn(iterable);
+        when(iterable.projection(any())).thenReturn(iterable);
+        MongoCursor<Document> cursor = cursor(documents);
+        when(iterable.iterator()).thenReturn(cursor);
+        return iterable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private MongoCursor<Document> cursor(final List<Document> documents) {
+        Iterator<Document> iterator = Collections.unmodifiableList(documents).iterator();
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
@@ -5,6 +5,7 @@ import com.coda.core.entities.DataModel;
 import com.coda.core.exceptions.DataLoadingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -17,7 +18,11 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 public class MySQLExtractorTest {
@@ -122,23 +127,281 @@ public class MySQLExtractorTest {
         verify(mockPreparedStatement).setInt(2, 0);
     }
 
+    @Test
+    public void testReadData_keysetFirstPage() throws Exception {
+        ResultSetMetaData metaData = mockMetaData("id");
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getObject(1)).thenReturn(1);
+
+        List<DataModel<Object>> page = extractor.readData(
+                new KeysetQuery("test_table", "id", null, 10));
+
+        assertEquals(1, page.size());
+        verify(connection).prepareStatement("SELECT * FROM `test_table` ORDER BY `id` LIMIT ?");
+        verify(preparedStatement).setInt(1, 10);
+        verify(preparedStatement, never()).setObject(anyInt(), any());
+    }
+
+    @Test
+    public void testReadData_keysetNextPage() throws Exception {
+        ResultSetMetaData metaData = mockMetaData("id");
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getObject(1)).thenReturn(43);
+
+        extractor.readData(new KeysetQuery("test_table", "id", 42, 10));
+
+        verify(connection).prepareStatement(
+                "SELECT * FROM `test_table` WHERE `id` > ? ORDER BY `id` LIMIT ?");
+        verify(preparedStatement).setObject(1, 42);
+        verify(preparedStatement).setInt(2, 10);
+    }
+
+    @Test
+    public void testReadData_keysetNextPageWithTieBreaker() throws Exception {
+        ResultSetMetaData metaData = mockMetaData("id");
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getObject(1)).thenReturn(43);
+
+        extractor.readData(new KeysetQuery("test_table", "updated_at", "2024-01-01",
+                "id", 42, 10));
+
+        verify(connection).prepareStatement("SELECT * FROM `test_table` WHERE `updated_at` > ?"
+                + " OR (`updated_at` = ? AND `id` > ?) ORDER BY `updated_at`, `id` LIMIT ?");
+        verify(preparedStatement).setObject(1, "2024-01-01");
+        verify(preparedStatement).setObject(2, "2024-01-01");
+        verify(preparedStatement).setObject(3, 42);
+        verify(preparedStatement).setInt(4, 10);
+    }
+
+    @Test
+    public void testReadData_keyRangeNextPage() throws Exception {
+        ResultSetMetaData metaData = mockMetaData("id");
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getObject(1)).thenReturn(43);
+
+        extractor.readData(new KeysetQuery("test_table", "id", 42, 100L, 10));
+
+        verify(connection).prepareStatement(
+                "SELECT * FROM `test_table` WHERE `id` > ? AND `id` <= ? ORDER BY `id` LIMIT ?");
+        verify(preparedStatement).setObject(1, 42);
+        verify(preparedStatement).setObject(2, 100L);
+        verify(preparedStatement).setInt(3, 10);
+    }
+
+    @Test
+    public void testFindKeyRange() throws SQLException {
+        when(resultSet.getObject(1)).thenReturn(1);
+        when(resultSet.getObject(2)).thenReturn(500);
+
+        KeyRange range = extractor.findKeyRange("test_table", "id");
+
+        verify(connection).prepareStatement("SELECT MIN(`id`), MAX(`id`) FROM `test_table`");
+        assertEquals(1, range.getMin());
+        assertEquals(500, range.getMax());
+        assertFalse(range.isEmpty());
+    }
+
+    @Test
+    public void testWithConnectionFactory_keepsEachExtractorOnItsDatabase() throws SQLException {
+        ConnectionFactory otherFactory = mock(ConnectionFactory.class);
+        DataSource otherDataSource = mock(DataSource.class);
+        when(otherFactory.dataSource()).thenReturn(otherDataSource);
+        when(otherDataSource.getConnection()).thenReturn(connection);
+
+        MySQLExtractor other = extractor.withConnectionFactory(otherFactory);
+        other.findKeyRange("test_table", "id");
+        extractor.findKeyRange("test_table", "id");
+
+        verify(otherDataSource, times(1)).getConnection();
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void testReadData_keysetRejectsInvalidKeyColumn() {
+        assertThrows(IllegalArgumentException.class,
+                () -> extractor.readData(new KeysetQuery("test_table", "id; DROP", null, 10)));
+    }
+
+    @Test
+    public void testFindKeyColumn() throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet keys = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getPrimaryKeys(any(), any(), eq("test_table"))).thenReturn(keys);
+        when(keys.next()).thenReturn(true, false);
+        when(keys.getString("COLUMN_NAME")).thenReturn("id");
+
+        assertEquals("id", extractor.findKeyColumn("test_table"));
+    }
+
+    @Test
+    public void testFindKeyColumn_compositeKey() throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet keys = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getPrimaryKeys(any(), any(), eq("test_table"))).thenReturn(keys);
+        when(keys.next()).thenReturn(true, true, false);
+        when(keys.getString("COLUMN_NAME")).thenReturn("order_id", "line_id");
+
+        assertNull(extractor.findKeyColumn("test_table"));
+    }
+
+    private ResultSetMetaData mockMetaData(String columnName) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnName(1)).thenReturn(columnName);
+        return metaData;
+    }
+
     @Test
     public void testLoadData_success() throws SQLException {
         String tableName = "products_new";
-        ResultSet mockResultSet = mock(ResultSet.class);
-
-        when(connection.createStatement()).thenReturn(statement);
-        when(statement.executeQuery(anyString())).thenReturn(mockResultSet);
-        when(mockResultSet.next()).thenReturn(true, false);
+        mockTableSchema();
 
         assertDoesNotThrow(() -> extractor.loadData(dataModels, tableName));
 
-        verify(connectionFactory.dataSource(), times(25)).getConnection();
-        verify(connection, times(14)).prepareStatement(anyString());
+        // One schema query, then the insert.
+        verify(connectionFactory.dataSource(), times(2)).getConnection();
+        verify(connection, times(1)).prepareStatement(TableSchemaCache.SCHEMA_QUERY);
+        verify(connection, times(2)).prepareStatement(anyString());
+        verify(statement, never()).executeUpdate(anyString());
         verify(preparedStatement, times(2)).addBatch();
         verify(preparedStatement, times(1)).executeBatch();
-        verify(connection, times(25)).close();
-        verify(preparedStatement, times(14)).close();
+        verify(connection, times(2)).close();
+        verify(preparedStatement, times(2)).close();
+    }
+
+    @Test
+    public void testLoadData_readsSchemaOncePerTable() throws SQLException {
+        String tableName = "products_new";
+        mockTableSchema();
+
+        extractor.loadData(dataModels, tableName);
+        extractor.loadData(dataModels, tableName);
+
+        verify(connection, times(1)).prepareStatement(TableSchemaCache.SCHEMA_QUERY);
+        verify(preparedStatement, times(2)).executeBatch();
+    }
+
+    @Test
+    public void testLoadData_rereadsSchemaAfterNewColumn() throws SQLException {
+        String tableName = "products_new";
+        mockTableSchema();
+        // The second read sees the added column.
+        when(resultSet.next()).thenReturn(true, true, false, true, true, true, false);
+        when(resultSet.getString("COLUMN_NAME")).thenReturn("id", "name", "id", "name", "price");
+        when(resultSet.getString("COLUMN_TYPE")).thenReturn("int", "text", "int", "text", "decimal(10,2)");
+        dataModels.get(0).getAttributesMap().put("price",
+                new DataAttributes<>("price", 9.99, "java.lang.Double", Object.class));
+
+        extractor.loadData(dataModels, tableName);
+
+        verify(statement).executeUpdate("ALTER TABLE `products_new` ADD COLUMN `price` DECIMAL(10,2);");
+        verify(connection, times(2)).prepareStatement(TableSchemaCache.SCHEMA_QUERY);
+    }
+
+    @Test
+    public void testLoadDataWithKey_addsUniqueKeyWhenMissing() throws SQLException {
+        String tableName = "products_new";
+        mockTableSchema();
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet indexes = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getIndexInfo(any(), any(), eq(tableName), eq(true), eq(false)))
+                .thenReturn(indexes);
+        when(indexes.next()).thenReturn(false);
+
+        extractor.loadData(dataModels, tableName, "id");
+
+        verify(statement).executeUpdate(
+                "ALTER TABLE `products_new` ADD UNIQUE KEY `uk_id` (`id`)");
+        verify(preparedStatement, times(1)).executeBatch();
+    }
+
+    @Test
+    public void testLoadDataWithKey_keepsExistingUniqueKey() throws SQLException {
+        String tableName = "products_new";
+        mockTableSchema();
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet indexes = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getIndexInfo(any(), any(), eq(tableName), eq(true), eq(false)))
+                .thenReturn(indexes);
+        when(indexes.next()).thenReturn(true, false);
+        when(indexes.getString("INDEX_NAME")).thenReturn("PRIMARY");
+        when(indexes.getString("COLUMN_NAME")).thenReturn("id");
+
+        extractor.loadData(dataModels, tableName, "id");
+
+        verify(statement, never()).executeUpdate(anyString());
+        verify(preparedStatement, times(1)).executeBatch();
+    }
+
+    @Test
+    public void testLoadDataWithKey_looksUpUniqueKeyOncePerTable() throws SQLException {
+        String tableName = "products_new";
+        mockTableSchema();
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet indexes = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getIndexInfo(any(), any(), eq(tableName), eq(true), eq(false)))
+                .thenReturn(indexes);
+        when(indexes.next()).thenReturn(true, false);
+        when(indexes.getString("INDEX_NAME")).thenReturn("PRIMARY");
+        when(indexes.getString("COLUMN_NAME")).thenReturn("id");
+
+        extractor.loadData(dataModels, tableName, "id");
+        extractor.loadData(dataModels, tableName, "id");
+
+        verify(metaData, times(1)).getIndexInfo(any(), any(), eq(tableName), eq(true), eq(false));
+        verify(preparedStatement, times(2)).executeBatch();
+    }
+
+    @Test
+    public void testLoadDataWithKey_createsTableBeforeUniqueKey() throws SQLException {
+        String tableName = "products_new";
+        // The table is missing, then read back with its new columns.
+        when(resultSet.next()).thenReturn(false, true, true, false);
+        when(resultSet.getString("ROW_FORMAT")).thenReturn("Dynamic");
+        when(resultSet.getString("COLUMN_NAME")).thenReturn("id", "name");
+        when(resultSet.getString("COLUMN_TYPE")).thenReturn("int", "text");
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet indexes = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getIndexInfo(any(), any(), eq(tableName), eq(true), eq(false)))
+                .thenReturn(indexes);
+        when(indexes.next()).thenReturn(false);
+
+        extractor.loadData(dataModels, tableName, "id");
+
+        InOrder order = inOrder(statement);
+        order.verify(statement).executeUpdate(startsWith("CREATE TABLE IF NOT EXISTS `products_new`"));
+        order.verify(statement).executeUpdate(
+                "ALTER TABLE `products_new` ADD UNIQUE KEY `uk_id` (`id`)");
+        verify(preparedStatement, times(1)).executeBatch();
+    }
+
+    @Test
+    public void testLoadDataWithKey_skipsTextKeyColumn() throws SQLException {
+        String tableName = "products_new";
+        mockTableSchema();
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet indexes = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getIndexInfo(any(), any(), eq(tableName), eq(true), eq(false)))
+                .thenReturn(indexes);
+
+        extractor.loadData(dataModels, tableName, "name");
+
+        verify(statement, never()).executeUpdate(anyString());
+        verify(preparedStatement, times(1)).executeBatch();
+    }
+
+    private void mockTableSchema() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getString("ROW_FORMAT")).thenReturn("Dynamic");
+        when(resultSet.getString("COLUMN_NAME")).thenReturn("id", "name");
+        when(resultSet.getString("COLUMN_TYPE")).thenReturn("int", "text");
     }
 
     @Test
@@ -0,0 +1,80 @@
+package com.coda.core.util.file;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CsvBatchWriterTest {
+
+    @Test
+    public void testWrite_KeepsTheColumnOrderOfTheFirstRow() throws Exception {
+        DataModel<Object> first = row("id", 1, "name", "a");
+        DataModel<Object> reversed = row("name", "b", "id", 2);
+        DataModel<Object> partial = row("id", 3, "extra", "dropped");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = new CsvBatchWriter(StandardCharsets.UTF_8, false)
+                .write(output, List.of(List.of(first, reversed), List.of(partial)).iterator());
+
+        assertEquals(3, rows);
+        assertEquals("id,name\r\n1,a\r\n2,b\r\n3,\r\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWrite_UsesGivenHeaderAndQuotesValues() throws Exception {
+        DataModel<Object> model = row("name", "a,b", "comment", "say \"hi\"");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new CsvBatchWriter(StandardCharsets.UTF_8, false, List.of("comment", "name"))
+                .write(output, List.of(List.of(model)).iterator());
+
+        assertEquals("comment,name\r\n\"say \"\"hi\"\"\",\"a,b\"\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWrite_CompressesEveryBatchOfAStream() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = new CsvBatchWriter(StandardCharsets.UTF_8, true)
+                .write(output, IntStream.range(0, 100)
+                        .mapToObj(batch -> IntStream.range(0, 10)
+                                .mapToObj(i -> row("value", batch * 10 + i))
+                                .toList())
+                        .iterator());
+
+        String csv;
+        try (InputStream input = new GZIPInputStream(
+                new ByteArrayInputStream(output.toByteArray()))) {
+            csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = csv.split("\r\n");
+        assertEquals(1000, rows);
+        assertEquals(1001, lines.length);
+        assertEquals("value", lines[0]);
+        assertEquals("999", lines[1000]);
+    }
+
+    private static DataModel<Object> row(final Object... namesAndValues) {
+        Map<String, DataAttributes<Object>> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            String name = (String) namesAndValues[i];
+            attributes.put(name, new DataAttributes<>(name, namesAndValues[i + 1],
+                    "Object", Object.class));
+        }
+        DataModel<Object> dataModel = new DataModel<>();
+        dataModel.setAttributesMap(attributes);
+        return dataModel;
+    }
+}
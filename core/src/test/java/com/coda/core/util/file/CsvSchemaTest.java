@@ -0,0 +1,85 @@
+package com.coda.core.util.file;
+
+import com.coda.core.entities.DataModel;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CsvSchemaTest {
+
+    @Test
+    public void testInfer_NumbersBooleansAndText() throws Exception {
+        CsvSchema schema = infer("small,large,huge,ratio,precise,flag,zip,empty\n"
+                + "1,3000000000,12345678901234567890,1.5,3.14159265358979323,true,007,\n"
+                + "-2,4,5,2,1,False,123,\n");
+
+        assertEquals(CsvColumnType.INTEGER, schema.getType(0));
+        assertEquals(CsvColumnType.LONG, schema.getType(1));
+        assertEquals(CsvColumnType.DECIMAL, schema.getType(2));
+        assertEquals(CsvColumnType.DOUBLE, schema.getType(3));
+        assertEquals(CsvColumnType.DECIMAL, schema.getType(4));
+        assertEquals(CsvColumnType.BOOLEAN, schema.getType(5));
+        assertEquals(CsvColumnType.STRING, schema.getType(6));
+        assertEquals(CsvColumnType.STRING, schema.getType(7));
+    }
+
+    @Test
+    public void testInfer_DateFormats() throws Exception {
+        CsvSchema schema = infer("iso,spaced,dayFirst,monthFirst,mixed\n"
+                + "2024-01-31T10:15:30,2024-01-31 10:15:30,31/01/2024,01/31/2024,2024-01-31\n"
+                + "2024-02-01T00:00:00,2024-02-01 00:00:00,01/02/2024,02/01/2024,31/01/2024\n");
+
+        assertEquals("uuuu-MM-dd'T'HH:mm:ss", schema.getFormat(0));
+        assertEquals("uuuu-MM-dd HH:mm:ss", schema.getFormat(1));
+        assertEquals("dd/MM/uuuu", schema.getFormat(2));
+        assertEquals("MM/dd/uuuu", schema.getFormat(3));
+        assertEquals(CsvColumnType.STRING, schema.getType(4));
+        assertNull(schema.getFormat(4));
+        assertEquals(LocalDateTime.of(2024, 1, 31, 0, 0), schema.parse(3, "01/31/2024"));
+    }
+
+    @Test
+    public void testToDataModel_FallsBackToTextForRejectedValues() throws Exception {
+        CsvSchema schema = infer("count,price\n1,9.99\n");
+        CSVRecord record = records("count,price\nmany,\n").get(0);
+
+        DataModel<Object> dataModel = schema.toDataModel(record);
+
+        assertEquals("many", dataModel.getAttributesMap().get("count").getValue());
+        assertEquals("java.lang.String", dataModel.getAttributesMap().get("count").getType());
+        assertEquals("", dataModel.getAttributesMap().get("price").getValue());
+        assertEquals("java.lang.Double", dataModel.getAttributesMap().get("price").getType());
+        assertEquals(new BigDecimal("1.10"), infer("amount\n12345678901234567.10\n")
+                .parse(0, "1.10"));
+    }
+
+    @Test
+    public void testUntyped_KeepsRawText() {
+        CsvSchema schema = CsvSchema.untyped(List.of("count"));
+
+        assertEquals("1", schema.parse(0, "1"));
+        assertEquals("Object", schema.attribute(0, "1").getType());
+    }
+
+    private static CsvSchema infer(final String csv) throws Exception {
+        List<CSVRecord> records = records(csv);
+        return CsvSchema.infer(List.of(csv.substring(0, csv.indexOf('\n')).split(",")),
+                records);
+    }
+
+    private static List<CSVRecord> records(final String csv) throws Exception {
+        try (CSVParser parser = new CSVParser(new StringReader(csv),
+                CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            return parser.getRecords();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.coda.core.util.file;
 
+import com.coda.core.config.FileProperties;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
 import org.bson.types.ObjectId;
@@ -8,17 +9,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +32,9 @@ public class FileExtractorImplTest {
     @Mock
     private FileExtractor extractor;
 
+    @Spy
+    private FileProperties fileProperties = new FileProperties();
+
     @InjectMocks
     private FileExtractorImpl fileService;
 
@@ -72,6 +80,25 @@ public class FileExtractorImplTest {
         assertEquals("value1", dataModels.get(0).getAttributesMap().get("column1").getValue());
     }
 
+    @Test
+    public void testReadDataInBatches_StreamReader() throws Exception {
+        FileProperties properties = new FileProperties();
+        properties.setReader(FileProperties.Reader.STREAM);
+        properties.setBatchSize(2);
+        Path path = Paths.get("test_batches.csv");
+        Files.write(path, "column1,column2\na,1\nb,2\nc,3\n".getBytes());
+
+        List<List<DataModel<Object>>> batches = new ArrayList<>();
+        long rows = new FileExtractorImpl(properties).readDataInBatches("test_batches.csv",
+                batches::add);
+
+        assertEquals(3, rows);
+        assertEquals(2, batches.size());
+        assertEquals("c", batches.get(1).get(0).getAttributesMap().get("column1").getValue());
+
+        Files.delete(path);
+    }
+
     @Test
     public void testWriteDataWithApacheCSV() throws Exception {
         // Create a test DataModel
@@ -95,6 +122,25 @@ public class FileExtractorImplTest {
         Files.delete(path);
     }
 
+    @Test
+    public void testWriteDataInBatches_CompressesGzipFileName() throws Exception {
+        Map<String, DataAttributes<Object>> attributes = new HashMap<>();
+        attributes.put("column1", new DataAttributes<>("column1", "value1", "VARCHAR", Object.class));
+        DataModel<Object> dataModel = new DataModel<>(new ObjectId("60c72b2f5f1b2c6f1f4b25a4"), attributes);
+        Path path = Paths.get("test_output.csv.gz");
+
+        long rows = fileService.writeDataInBatches(
+                List.of(List.of(dataModel), List.of(dataModel)).iterator(), "test_output.csv.gz");
+
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(path))) {
+            assertEquals("column1\r\nvalue1\r\nvalue1\r\n",
+                    new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(2, rows);
+
+        Files.delete(path);
+    }
+
     @Test
     public void testExists() {
         // Mock the file path
@@ -0,0 +1,152 @@
+package com.coda.core.util.file;
+
+import com.coda.core.entities.DataAttributes;
+import com.coda.core.entities.DataModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MappedCsvTokenizerTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testParse_SplitsAtRecordBoundariesAroundQuotedNewlines() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name,comment\r\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String comment = switch (i % 4) {
+                case 0 -> "plain";
+                case 1 -> "line one\r\nline two";
+                case 2 -> "say \"\"hi\"\",\nthen leave";
+                default -> "";
+            };
+            csv.append(i).append(",name ").append(i).append(",\"")
+                    .append(comment).append("\"\r\n");
+            expected.add(i + "|name " + i + "|" + comment.replace("\"\"", "\""));
+        }
+        Path file = write(csv.toString());
+
+        List<DataModel<Object>> rows = read(file, 37, List.of());
+
+        assertEquals(expected, rows.stream()
+                .map(row -> value(row, "id") + "|" + value(row, "name") + "|"
+                        + value(row, "comment"))
+                .toList());
+    }
+
+    @Test
+    public void testParse_ParsesEachColumnWithItsInferredType() throws Exception {
+        Path file = write("count,big,ratio,flag,day,code\n"
+                + "1,12345678901,0.5,true,2024-01-31,007\n"
+                + "-2,-3,1e3,FALSE,2024-02-29,042\n");
+
+        List<DataModel<Object>> rows = read(file, 1024, List.of());
+        Map<String, DataAttributes<Object>> first = rows.get(0).getAttributesMap();
+
+        assertEquals(List.of(1, 12345678901L, 0.5, true, LocalDateTime.of(2024, 1, 31, 0, 0),
+                "007"), valuesOf(rows.get(0)));
+        assertEquals(List.of(-2, -3L, 1000.0, false, LocalDateTime.of(2024, 2, 29, 0, 0),
+                "042"), valuesOf(rows.get(1)));
+        assertEquals("java.lang.Integer", first.get("count").getType());
+        assertEquals("java.time.LocalDateTime", first.get("day").getType());
+        assertEquals("uuuu-MM-dd", first.get("day").getFormat());
+        assertEquals("java.lang.String", first.get("code").getType());
+    }
+
+    @Test
+    public void testParse_KeepsTextOfValuesTheSampleMissed() throws Exception {
+        Path file = write("count,label\n1,a\n2,b\nn/a,c\n");
+
+        List<DataModel<Object>> rows = new ArrayList<>();
+        new ParallelCsvReader(2, 1024, 10, StandardCharsets.UTF_8, 1,
+                new MappedCsvTokenizer(StandardCharsets.UTF_8, List.of()))
+                .read(file, true, rows::addAll);
+
+        DataAttributes<Object> missed = rows.get(2).getAttributesMap().get("count");
+        assertEquals(2, value(rows.get(1), "count"));
+        assertEquals("n/a", missed.getValue());
+        assertEquals("java.lang.String", missed.getType());
+    }
+
+    @Test
+    public void testParse_KeepsRawTextWithoutSample() throws Exception {
+        Path file = write("count\n1\n");
+
+        List<DataModel<Object>> rows = new ArrayList<>();
+        new ParallelCsvReader(2, 1024, 10, StandardCharsets.UTF_8, 0,
+                new MappedCsvTokenizer(StandardCharsets.UTF_8, List.of()))
+                .read(file, true, rows::addAll);
+
+        assertEquals("1", value(rows.get(0), "count"));
+        assertEquals("Object", rows.get(0).getAttributesMap().get("count").getType());
+    }
+
+    @Test
+    public void testParse_MaterializesOnlySelectedColumns() throws Exception {
+        Path file = write("id,name,comment\n1,a,\"x,y\"\n2,b,z\n");
+
+        List<DataModel<Object>> rows = read(file, 1024, List.of("id", "comment"));
+
+        assertEquals(Set.of("id", "comment"), rows.get(0).getAttributesMap().keySet());
+        assertEquals("x,y", value(rows.get(0), "comment"));
+        assertEquals(2, value(rows.get(1), "id"));
+    }
+
+    @Test
+    public void testParse_InternsRepeatedStringsOfAColumn() throws Exception {
+        Path file = write("country\nGhana\nKenya\nGhana\n\n\"Ghana\"\n");
+
+        List<DataModel<Object>> rows = read(file, 1024, List.of());
+
+        assertEquals(4, rows.size());
+        assertSame(value(rows.get(0), "country"), value(rows.get(2), "country"));
+        assertSame(value(rows.get(0), "country"), value(rows.get(3), "country"));
+    }
+
+    @Test
+    public void testParse_RejectsUnterminatedQuote() throws Exception {
+        Path file = write("id,comment\n1,\"never closed\n");
+
+        assertThrows(IOException.class, () -> read(file, 1024, List.of()));
+    }
+
+    private List<DataModel<Object>> read(final Path file, final long chunkSize,
+                                         final List<String> columns) throws Exception {
+        List<DataModel<Object>> rows = new ArrayList<>();
+        new ParallelCsvReader(3, chunkSize, 10, StandardCharsets.UTF_8, 1000,
+                new MappedCsvTokenizer(StandardCharsets.UTF_8, columns))
+                .read(file, true, rows::addAll);
+        return rows;
+    }
+
+    private Path write(final String content) throws Exception {
+        Path file = directory.resolve("data.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<Object> valuesOf(final DataModel<Object> row) {
+        return List.of("count", "big", "ratio", "flag", "day", "code").stream()
+                .map(column -> value(row, column))
+                .toList();
+    }
+
+    private static Object value(final DataModel<Object> row, final String column) {
+        return row.getAttributesMap().get(column).getValue();
+    }
+}
@@ -0,0 +1,66 @@
+package com.coda.core.util.file;
+
+import com.coda.core.config.FileProperties;
+import com.coda.core.entities.DataModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class MappedFileExtractorTest {
+
+    @Mock
+    private FileExtractorImpl fileExtractor;
+
+    @TempDir
+    private Path directory;
+
+    private MappedFileExtractor mappedFileExtractor;
+
+    @BeforeEach
+    public void setUp() {
+        FileProperties properties = new FileProperties();
+        properties.setReader(FileProperties.Reader.MAPPED);
+        properties.setParallelism(2);
+        properties.setChunkSize(16);
+        properties.setBatchSize(2);
+        mappedFileExtractor = new MappedFileExtractor(properties, fileExtractor);
+    }
+
+    @Test
+    public void testReadDataInBatches_ReadsMappedChunks() throws Exception {
+        Path file = directory.resolve("data.csv");
+        Files.writeString(file, "name,amount\na,1\nb,2.5\nc,3\n", StandardCharsets.UTF_8);
+
+        List<List<DataModel<Object>>> batches = new ArrayList<>();
+        long rows = mappedFileExtractor.readDataInBatches(file.toString(), batches::add);
+
+        List<Object> amounts = batches.stream()
+                .flatMap(List::stream)
+                .map(row -> row.getAttributesMap().get("amount").getValue())
+                .toList();
+        assertEquals(3, rows);
+        assertEquals(List.of(1.0, 2.5, 3.0), amounts);
+    }
+
+    @Test
+    public void testWriteDataWithApacheCSV_Delegates() throws Exception {
+        List<DataModel<Object>> dataModels = List.of(new DataModel<>());
+
+        mappedFileExtractor.writeDataWithApacheCSV(dataModels, "out.csv");
+
+        verify(fileExtractor).writeDataWithApacheCSV(dataModels, "out.csv");
+    }
+}
@@ -0,0 +1,137 @@
+package com.coda.core.util.file;
+
+import com.coda.core.entities.DataModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelCsvReaderTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testRead_SplitsAtRecordBoundariesAroundQuotedNewlines() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name,comment\r\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String comment = switch (i % 4) {
+                case 0 -> "plain";
+                case 1 -> "line one\nline two";
+                case 2 -> "say \"\"hi\"\",\nthen leave";
+                default -> "";
+            };
+            csv.append(i).append(",name ").append(i).append(",\"")
+                    .append(comment).append("\"\r\n");
+            expected.add(i + "|name " + i + "|" + comment.replace("\"\"", "\""));
+        }
+        Path file = write(csv.toString());
+
+        // Tiny chunks so nearly every boundary falls inside a record.
+        List<List<DataModel<Object>>> batches = new ArrayList<>();
+        long rows = new ParallelCsvReader(4, 37, 7, StandardCharsets.UTF_8)
+                .read(file, true, batches::add);
+
+        assertEquals(500, rows);
+        assertEquals(expected, rowsOf(batches));
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 7));
+    }
+
+    @Test
+    public void testRead_UnorderedReturnsEveryRow() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name,comment\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            csv.append(i).append(",\"a,b\",\"x\ny\"\n");
+            expected.add(i + "|a,b|x\ny");
+        }
+        Path file = write(csv.toString());
+
+        List<List<DataModel<Object>>> batches = new ArrayList<>();
+        long rows = new ParallelCsvReader(3, 64, 10, StandardCharsets.UTF_8)
+                .read(file, false, batches::add);
+
+        List<String> actual = rowsOf(batches);
+        actual.sort(Comparator.comparingInt(row -> Integer.parseInt(row.split("\\|")[0])));
+        assertEquals(300, rows);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testRead_SkipsByteOrderMarkAndReadsLastRowWithoutNewline() throws Exception {
+        Path file = directory.resolve("bom.csv");
+        byte[] content = "id,name,comment\n1,a,b\n2,c,d".getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = new byte[content.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(content, 0, withBom, 3, content.length);
+        Files.write(file, withBom);
+
+        List<List<DataModel<Object>>> batches = new ArrayList<>();
+        new ParallelCsvReader(2, 8, 100, StandardCharsets.UTF_8).read(file, true, batches::add);
+
+        assertEquals(List.of("1|a|b", "2|c|d"), rowsOf(batches));
+    }
+
+    @Test
+    public void testRead_HeaderOnlyFileHasNoRows() throws Exception {
+        Path file = write("id,name,comment\n");
+
+        List<List<DataModel<Object>>> batches = new ArrayList<>();
+        long rows = new ParallelCsvReader(2, 8, 100, StandardCharsets.UTF_8)
+                .read(file, true, batches::add);
+
+        assertEquals(0, rows);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void testRead_HandlerFailureStopsReading() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name,comment\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append(i).append(",a,b\n");
+        }
+        Path file = write(csv.toString());
+
+        assertThrows(IllegalStateException.class, () ->
+                new ParallelCsvReader(2, 32, 5, StandardCharsets.UTF_8).read(file, true,
+                        batch -> {
+                            throw new IllegalStateException("Load failed");
+                        }));
+    }
+
+    @Test
+    public void testConstructor_RejectsMultiByteNewlineCharset() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelCsvReader(2, 8, 100, StandardCharsets.UTF_16));
+    }
+
+    private Path write(final String content) throws Exception {
+        Path file = directory.resolve("data.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<String> rowsOf(final List<List<DataModel<Object>>> batches) {
+        List<String> rows = new ArrayList<>();
+        for (List<DataModel<Object>> batch : batches) {
+            for (DataModel<Object> model : batch) {
+                rows.add(model.getAttributesMap().get("id").getValue() + "|"
+                        + model.getAttributesMap().get("name").getValue() + "|"
+                        + model.getAttributesMap().get("comment").getValue());
+            }
+        }
+        return rows;
+    }
+}
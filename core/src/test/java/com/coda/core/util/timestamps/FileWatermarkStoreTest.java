@@ -0,0 +1,91 @@
+package com.coda.core.util.timestamps;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileWatermarkStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testPutAndGet_perSourceTable() {
+        FileWatermarkStore store = new FileWatermarkStore(directory.resolve("watermarks"));
+        WatermarkKey orders = new WatermarkKey("mongodb", "shop", "orders");
+        WatermarkKey users = new WatermarkKey("mysql", "shop", "users");
+        Watermark ordersWatermark = Watermark.empty()
+                .withTimestamp(Instant.parse("2024-05-01T10:15:30Z"))
+                .withResumeToken(new BsonDocument("_data", new BsonString("8263A1")));
+        Watermark usersWatermark = Watermark.empty().withLastKey("42");
+
+        assertEquals(Optional.empty(), store.get(orders));
+        store.put(orders, ordersWatermark);
+        store.put(users, usersWatermark);
+
+        FileWatermarkStore reopened = new FileWatermarkStore(directory.resolve("watermarks"));
+        assertEquals(ordersWatermark, reopened.get(orders).orElseThrow());
+        assertEquals(Instant.parse("2024-05-01T10:15:30Z"), reopened.get(orders).orElseThrow().getTimestamp());
+        assertEquals(new BsonDocument("_data", new BsonString("8263A1")),
+                reopened.get(orders).orElseThrow().getResumeToken());
+        assertEquals("42", reopened.get(users).orElseThrow().getLastKey());
+    }
+
+    @Test
+    public void testPut_concurrentTablesDoNotClobber() throws Exception {
+        FileWatermarkStore store = new FileWatermarkStore(directory);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int table = 0; table < 8; table++) {
+                WatermarkKey key = new WatermarkKey("mysql", "shop", "table" + table);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i <= 50; i++) {
+                        store.put(key, Watermark.empty().withLastKey(String.valueOf(i)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int table = 0; table < 8; table++) {
+            assertEquals("50", store.get(new WatermarkKey("mysql", "shop", "table" + table))
+                    .orElseThrow().getLastKey());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(8, files.count(), "no temporary files are left behind");
+        }
+    }
+
+    @Test
+    public void testRemoveAndUnreadable() throws IOException {
+        FileWatermarkStore store = new FileWatermarkStore(directory);
+        WatermarkKey key = new WatermarkKey("mongodb", "shop", "orders");
+        store.put(key, Watermark.empty().withLastKey("1"));
+
+        store.remove(key);
+        Files.writeString(directory.resolve("mongodb__shop__users.json"), "{not json");
+
+        assertEquals(Optional.empty(), store.get(key));
+        assertEquals(Optional.empty(), store.get(new WatermarkKey("mongodb", "shop", "users")));
+    }
+}
@@ -0,0 +1,47 @@
+package com.coda.core.util.timestamps;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdbcWatermarkStoreTest {
+
+    private JdbcWatermarkStore store;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:watermarks_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        store = new JdbcWatermarkStore(() -> dataSource, "etl_watermark");
+    }
+
+    @Test
+    public void testPutGetAndRemove() {
+        WatermarkKey key = new WatermarkKey("mysql", "shop", "orders");
+        Watermark first = Watermark.empty().withTimestamp(Instant.parse("2024-05-01T10:15:30Z"));
+        Watermark second = first.withLastKey("1000");
+
+        assertEquals(Optional.empty(), store.get(key));
+        store.put(key, first);
+        store.put(key, second);
+        store.put(new WatermarkKey("mysql", "shop", "users"), Watermark.empty().withLastKey("7"));
+
+        assertEquals(second, store.get(key).orElseThrow());
+        assertEquals("7", store.get(new WatermarkKey("mysql", "shop", "users")).orElseThrow().getLastKey());
+
+        store.remove(key);
+        assertEquals(Optional.empty(), store.get(key));
+    }
+
+    @Test
+    public void testInvalidTableName() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JdbcWatermarkStore(() -> null, "watermarks; DROP TABLE x"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.coda.core.util.timestamps;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class MongoWatermarkStoreTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPutAndGet() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> found = mock(FindIterable.class);
+        MongoWatermarkStore store = new MongoWatermarkStore(collection);
+        WatermarkKey key = new WatermarkKey("mongodb", "shop", "orders");
+        Bson byKey = Filters.eq("_id", new Document("sourceType", "mongodb")
+                .append("database", "shop").append("table", "orders"));
+
+        store.put(key, Watermark.empty().withLastKey("42"));
+
+        ArgumentCaptor<Document> saved = ArgumentCaptor.forClass(Document.class);
+        ArgumentCaptor<ReplaceOptions> options = ArgumentCaptor.forClass(ReplaceOptions.class);
+        verify(collection).replaceOne(eq(byKey), saved.capture(), options.capture());
+        assertTrue(options.getValue().isUpsert());
+        assertEquals("42", saved.getValue().get("state", Document.class).getString("lastKey"));
+
+        when(collection.find(any(Bson.class))).thenReturn(found);
+        when(found.first()).thenReturn(saved.getValue());
+        assertEquals("42", store.get(key).orElseThrow().getLastKey());
+    }
+}
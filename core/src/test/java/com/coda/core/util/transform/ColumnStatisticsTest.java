@@ -0,0 +1,83 @@
+package com.coda.core.util.transform;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnStatisticsTest {
+
+    @Test
+    public void testMeanAndVariance() {
+        ColumnStatistics statistics = new ColumnStatistics();
+        for (double value : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+            statistics.add(value);
+        }
+        statistics.addNull();
+
+        assertEquals(8, statistics.getCount());
+        assertEquals(1, statistics.getNullCount());
+        assertEquals(5.0, statistics.getMean(), 1e-9);
+        assertEquals(4.0, statistics.getVariance(), 1e-9);
+        assertEquals(2.0, statistics.getStdDev(), 1e-9);
+        assertEquals(2.0, statistics.getMin());
+        assertEquals(9.0, statistics.getMax());
+    }
+
+    @Test
+    public void testQuantiles() {
+        ColumnStatistics statistics = new ColumnStatistics();
+        for (int i = 100; i >= 0; i--) {
+            statistics.add(i);
+        }
+
+        assertEquals(25.0, statistics.quantile(0.25), 1e-9);
+        assertEquals(50.0, statistics.quantile(0.5), 1e-9);
+        assertEquals(100.0, statistics.quantile(1.0), 1e-9);
+    }
+
+    @Test
+    public void testQuantiles_SampledColumn() {
+        ColumnStatistics statistics = new ColumnStatistics();
+        for (int i = 0; i < 100_000; i++) {
+            statistics.add(i % 1000);
+        }
+
+        assertEquals(500.0, statistics.quantile(0.5), 50.0);
+        assertEquals(100_000, statistics.getCount());
+    }
+
+    @Test
+    public void testMerge_MatchesSinglePass() {
+        ColumnStatistics whole = new ColumnStatistics();
+        ColumnStatistics left = new ColumnStatistics();
+        ColumnStatistics right = new ColumnStatistics();
+        for (int i = 0; i < 10_000; i++) {
+            double value = Math.sin(i) * 100 + i % 7;
+            whole.add(value);
+            (i < 3000 ? left : right).add(value);
+        }
+
+        left.merge(right);
+
+        assertEquals(whole.getCount(), left.getCount());
+        assertEquals(whole.getMean(), left.getMean(), 1e-9);
+        assertEquals(whole.getVariance(), left.getVariance(), 1e-6);
+        assertEquals(whole.quantile(0.5), left.quantile(0.5), 5.0);
+    }
+
+    @Test
+    public void testMode() {
+        ColumnStatistics statistics = new ColumnStatistics();
+        statistics.addCategory("HR");
+        statistics.addCategory("Sales");
+        statistics.addCategory("HR");
+
+        ColumnStatistics other = new ColumnStatistics();
+        other.addCategory("Sales");
+        other.addCategory("Sales");
+
+        assertEquals("HR", statistics.getMode());
+        assertEquals("Sales", statistics.merge(other).getMode());
+        assertTrue(Double.isNaN(statistics.getVariance()));
+    }
+}
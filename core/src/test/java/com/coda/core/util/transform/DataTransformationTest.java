@@ -1,5 +1,9 @@
 package com.coda.core.util.transform;
 
+import com.coda.core.batch.columnar.ColumnarBatch;
+import com.coda.core.batch.columnar.DoubleColumnVector;
+import com.coda.core.batch.columnar.IntColumnVector;
+import com.coda.core.batch.columnar.StringColumnVector;
 import com.coda.core.entities.DataAttributes;
 import com.coda.core.entities.DataModel;
 import com.coda.core.exceptions.TransformationException;
@@ -7,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,6 +49,39 @@ public class DataTransformationTest {
         assertEquals(123, transformedValue);
     }
 
+    @Test
+    public void testCompilePlan_ReusedForSameTypeAndFormat() {
+        TransformPlan plan = dataTransformation.compilePlan("java.lang.Integer", "");
+
+        assertSame(plan, dataTransformation.compilePlan("java.lang.Integer", ""));
+        assertNotSame(plan, dataTransformation.compilePlan("java.lang.Long", ""));
+        assertTrue(plan.matches("java.lang.Integer", ""));
+        assertEquals(Integer.class, plan.getTargetClass());
+    }
+
+    @Test
+    public void testCompilePlan_ParsesDatesWithFormat() {
+        TransformPlan plan = dataTransformation.compilePlan("java.time.LocalDateTime",
+                "yyyy-MM-dd HH:mm");
+
+        LocalDateTime value = plan.apply("2024-03-01 10:15", "createdAt");
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 15), value);
+    }
+
+    @Test
+    public void testCompilePlan_KeepsValuesAlreadyOfTargetClass() {
+        TransformPlan plan = dataTransformation.compilePlan("java.lang.Long", "");
+        Long value = 5L;
+
+        assertSame(value, plan.apply(value, "count"));
+    }
+
+    @Test
+    public void testCompilePlan_UnknownType() {
+        assertThrows(TransformationException.class,
+                () -> dataTransformation.compilePlan("UnknownType", ""));
+    }
+
     @Test
     public void testCleanCategoricalValues_NonStringType() throws ClassNotFoundException {
         Object value = dataTransformation.cleanCategoricalValues("java.lang.Integer",
@@ -335,8 +373,47 @@ public void testReplaceMissingNumericalValues_NumberType_NoMissingValues()
         }
     }
 
+    @Test
+    public void testNormalize_ColumnarBatch() {
+        List<DataModel<Object>> dataModels = new ArrayList<>();
+        dataModels.add(columnarRow(1, 175.0, "HR"));
+        dataModels.add(columnarRow(2, 183.0, "HR"));
+        ColumnarBatch batch = ColumnarBatch.fromDataModels(dataModels);
+
+        dataTransformation.normalize(batch);
+
+        DoubleColumnVector heights = (DoubleColumnVector) batch.column("Height");
+        assertEquals(-1.0, heights.getDouble(0), 0.0001);
+        assertEquals(1.0, heights.getDouble(1), 0.0001);
+        IntColumnVector ids = (IntColumnVector) batch.column("id");
+        assertEquals(2, ids.getInt(1));
+    }
 
+    @Test
+    public void testReplaceMissingValues_ColumnarBatch() {
+        List<DataModel<Object>> dataModels = new ArrayList<>();
+        dataModels.add(columnarRow(1, 170.0, "HR"));
+        dataModels.add(columnarRow(2, null, "HR"));
+        dataModels.add(columnarRow(3, 180.0, null));
+        dataModels.add(columnarRow(4, 160.0, "Sales"));
+        ColumnarBatch batch = ColumnarBatch.fromDataModels(dataModels);
+
+        dataTransformation.replaceMissingValues(batch);
+
+        DoubleColumnVector heights = (DoubleColumnVector) batch.column("Height");
+        assertEquals(170.0, heights.getDouble(1), 0.0001);
+        StringColumnVector departments = (StringColumnVector) batch.column("Department");
+        assertEquals("HR", departments.getString(2));
+        assertEquals(0, departments.nullCount());
+    }
 
-
-
+    private DataModel<Object> columnarRow(final Integer id, final Double height,
+                                          final String department) {
+        Map<String, DataAttributes<Object>> attributes = new HashMap<>();
+        attributes.put("id", new DataAttributes<>("id", id, "java.lang.Integer", Object.class));
+        attributes.put("Height", new DataAttributes<>("Height", height, "java.lang.Double", Object.class));
+        attributes.put("Department", new DataAttributes<>("Department", department,
+                "java.lang.String", Object.class));
+        return new DataModel<>(null, attributes);
+    }
 }
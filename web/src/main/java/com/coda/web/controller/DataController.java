@@ -1,16 +1,26 @@
 package com.coda.web.controller;
 
 import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.dtos.EtlAdmissionMetrics;
+import com.coda.core.dtos.EtlJobStatus;
+import com.coda.core.service.AsyncEtlService;
 import com.coda.core.service.DataModelService;
-import com.coda.core.service.ETLService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
 
 import static com.coda.web.util.ApiMapping.BASE_URL_ETL;
+import static com.coda.web.util.ApiMapping.ETL_ADMISSION;
+import static com.coda.web.util.ApiMapping.ETL_JOB;
+import static com.coda.web.util.ApiMapping.ETL_JOBS;
+import static com.coda.web.util.ApiMapping.ETL_JOB_CANCEL;
 import static com.coda.web.util.ApiMapping.MYSQL_ETL;
 
 @Slf4j
@@ -23,17 +33,21 @@ public class DataController {
      */
     private final DataModelService dataModelService;
 
-    private final ETLService etlService;
+    /**
+     * AsyncEtlService instance.
+     */
+    private final AsyncEtlService asyncEtlService;
 
     /**
      * Constructor to inject dependencies.
      * @param dataModelService the data model service
+     * @param asyncEtlService the service running the Etl jobs
      */
 
     public DataController(final DataModelService dataModelService,
-                          final ETLService etlService) {
+                          final AsyncEtlService asyncEtlService) {
         this.dataModelService = dataModelService;
-        this.etlService = etlService;
+        this.asyncEtlService = asyncEtlService;
     }
 //
 //    @Operation(summary = "Extract data from MySQL and process",
@@ -53,21 +67,67 @@ public class DataController {
 //        return ResponseEntity.ok(data);
 //    }
 
-    @Operation(summary = "Perform Etl process for MYSQL")
+    @Operation(summary = "Perform Etl process for MYSQL",
+            description = "Submits the Etl process and returns its job id straight away")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Etl process completed successfully"),
+            @ApiResponse(responseCode = "202", description = "Etl job submitted"),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
-            @ApiResponse(responseCode = "401", description = "Unauthorized")
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "429", description = "Too many Etl jobs queued, "
+                    + "retry after the Retry-After header")
     })
     @PostMapping(MYSQL_ETL)
-    public ResponseEntity<Void> performEtlProcessForMySQL(
+    public ResponseEntity<EtlJobStatus> performEtlProcessForMySQL(
             @RequestBody ConnectionDetails connectionDetails,
             @RequestParam String sourceTableName,
-            @RequestParam String targetTableName) {
-        etlService.performETLProcess(connectionDetails,
+            @RequestParam String targetTableName,
+            @RequestParam(required = false) String watermarkColumn) {
+        // With a watermark column only rows changed since the last run are loaded
+        EtlJobStatus status = asyncEtlService.submit(connectionDetails,
                 "mysql",
                 sourceTableName, targetTableName,
-                "mysql");
-        return ResponseEntity.ok().build();
+                "mysql", watermarkColumn);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/" + BASE_URL_ETL + ETL_JOB)
+                .buildAndExpand(status.jobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @Operation(summary = "List Etl jobs",
+            description = "Returns the running, queued and recently finished Etl jobs")
+    @GetMapping(ETL_JOBS)
+    public ResponseEntity<List<EtlJobStatus>> listEtlJobs() {
+        return ResponseEntity.ok(asyncEtlService.listJobs());
+    }
+
+    @Operation(summary = "Get Etl admission metrics",
+            description = "Returns the running and queued Etl jobs, in total and by source, "
+                    + "against their limits")
+    @GetMapping(ETL_ADMISSION)
+    public ResponseEntity<EtlAdmissionMetrics> getEtlAdmissionMetrics() {
+        return ResponseEntity.ok(asyncEtlService.getAdmissionMetrics());
+    }
+
+    @Operation(summary = "Get Etl job status",
+            description = "Returns the progress, throughput and estimated time left of an Etl job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Etl job found"),
+            @ApiResponse(responseCode = "404", description = "No Etl job with this id")
+    })
+    @GetMapping(ETL_JOB)
+    public ResponseEntity<EtlJobStatus> getEtlJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(asyncEtlService.getStatus(jobId));
+    }
+
+    @Operation(summary = "Cancel Etl job",
+            description = "Stops an Etl job once the batches it has read are loaded")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Etl job cancellation requested"),
+            @ApiResponse(responseCode = "404", description = "No Etl job with this id")
+    })
+    @PostMapping(ETL_JOB_CANCEL)
+    public ResponseEntity<EtlJobStatus> cancelEtlJob(@PathVariable String jobId) {
+        return ResponseEntity.accepted().body(asyncEtlService.cancel(jobId));
     }
 }
@@ -1,6 +1,8 @@
 package com.coda.web.exceptions;
 
+import com.coda.core.exceptions.EtlJobException;
 import com.coda.core.exceptions.ReadFromDbExceptions;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -24,4 +26,21 @@ public class GlobalExceptionHandler {
         ErrorResponse errorResponse = new ErrorResponse(status, ex.getMessage());
         return new ResponseEntity<>(errorResponse, status);
     }
+
+    @ExceptionHandler(EtlJobException.class)
+    public ResponseEntity<ErrorResponse> handleEtlJobException(final EtlJobException ex,
+                                                               final WebRequest request) {
+        HttpStatus status = switch (ex.getErrorType()) {
+            case ETL_JOB_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case ETL_JOB_REJECTED -> HttpStatus.TOO_MANY_REQUESTS;
+            default -> HttpStatus.BAD_REQUEST;
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ex.getRetryAfterSeconds() != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        }
+        ErrorResponse errorResponse = new ErrorResponse(status, ex.getMessage());
+        return new ResponseEntity<>(errorResponse, headers, status);
+    }
 }
@@ -9,4 +9,8 @@ public class ApiMapping {
     // ETL API Mappings
     public static final String BASE_URL_ETL = "api/v1/data/etl";
     public static final String MYSQL_ETL = "/mysql";
+    public static final String ETL_JOBS = "/jobs";
+    public static final String ETL_JOB = "/jobs/{jobId}";
+    public static final String ETL_JOB_CANCEL = "/jobs/{jobId}/cancel";
+    public static final String ETL_ADMISSION = "/admission";
 }
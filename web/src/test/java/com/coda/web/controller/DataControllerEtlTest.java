@@ -0,0 +1,107 @@
+package com.coda.web.controller;
+
+import com.coda.core.dtos.ConnectionDetails;
+import com.coda.core.dtos.EtlJobStatus;
+import com.coda.core.exceptions.EtlJobException;
+import com.coda.core.service.AsyncEtlService;
+import com.coda.core.service.DataModelService;
+import com.coda.core.util.types.ErrorType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DataController.class)
+public class DataControllerEtlTest {
+
+    private static final String ETL_URL = "/api/v1/data/etl";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private DataModelService dataModelService;
+
+    @MockBean
+    private AsyncEtlService asyncEtlService;
+
+    @Test
+    public void testPerformEtlProcessForMySQL_AcceptsWithJobLocation() throws Exception {
+        when(asyncEtlService.submit(any(ConnectionDetails.class), eq("mysql"),
+                eq("source"), eq("target"), eq("mysql"), isNull()))
+                .thenReturn(jobStatus("job-1", EtlJobStatus.State.QUEUED));
+
+        mockMvc.perform(post(ETL_URL + "/mysql")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ConnectionDetails("jdbc:mysql://localhost/db", "user", "pass")))
+                        .param("sourceTableName", "source")
+                        .param("targetTableName", "target"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION,
+                        "http://localhost" + ETL_URL + "/jobs/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"));
+    }
+
+    @Test
+    public void testPerformEtlProcessForMySQL_TooManyRequestsWithRetryAfter() throws Exception {
+        when(asyncEtlService.submit(any(ConnectionDetails.class), eq("mysql"),
+                eq("source"), eq("target"), eq("mysql"), isNull()))
+                .thenThrow(new EtlJobException("Too many Etl jobs queued",
+                        ErrorType.ETL_JOB_REJECTED, 42L));
+
+        mockMvc.perform(post(ETL_URL + "/mysql")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ConnectionDetails("jdbc:mysql://localhost/db", "user", "pass")))
+                        .param("sourceTableName", "source")
+                        .param("targetTableName", "target"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "42"));
+    }
+
+    @Test
+    public void testGetEtlJob_NotFound() throws Exception {
+        when(asyncEtlService.getStatus("missing"))
+                .thenThrow(new EtlJobException("No ETL job with id missing",
+                        ErrorType.ETL_JOB_NOT_FOUND));
+
+        mockMvc.perform(get(ETL_URL + "/jobs/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void testCancelEtlJob_AcceptsWithStatus() throws Exception {
+        when(asyncEtlService.cancel("job-1"))
+                .thenReturn(jobStatus("job-1", EtlJobStatus.State.CANCELLING));
+
+        mockMvc.perform(post(ETL_URL + "/jobs/job-1/cancel"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("CANCELLING"));
+    }
+
+    private static EtlJobStatus jobStatus(final String jobId, final EtlJobStatus.State state) {
+        return new EtlJobStatus(jobId, state, "source", "target", Instant.now(),
+                null, null, 0, 0, 0, null, 0, null, null, null);
+    }
+}